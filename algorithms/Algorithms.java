@@ -1,213 +1,524 @@
-
-package algorithms;
-
-import java.util.ArrayList;
-import java.util.Collections;
-import utils.InputHandler;
-import model.BlackAnt;
-import model.RedAnt;
-import model.Edge;
-import utils.Visualize;
-/**
- *
- * @author Giorgos Christakis
- * @email giorgos_chri@hotmail.com
- */
-public class Algorithms {
-
-    /**
-     * @param args the command line arguments
-     */
-    public static void main(String[] args) {
-        checkParameters(args);
-        
-        //create Lists of Red and Black Ants
-        ArrayList<RedAnt> redAnts = new ArrayList<>();
-        ArrayList<BlackAnt> blackAnts = new ArrayList<>();
-        
-        int flag = Integer.parseInt(args[1]);
-        //If there is not an input file, create one
-        if (flag == 0) {
-            InputHandler.createRandomInput(args[0], Integer.parseInt(args[2]));
-        }
-        //Read the data from the input file
-        InputHandler.readInput(args[0], redAnts, blackAnts);
-        
-        //Set true to the algorithms we want to be executed
-        boolean visualizeMST = true;
-        boolean visualizeSM = true;
-        boolean printCC = true;
-        
-        
-        if(visualizeMST){
-            int[][] mst = findMST(redAnts, blackAnts);
-            if (mst != null) {
-                Visualize sd = new Visualize(redAnts, blackAnts, mst, null, "Minimum Spanning Tree");
-                sd.drawInitialPoints();
-            }
-        }
-
-        if(visualizeSM){
-            int[][] matchings = findStableMarriage(redAnts, blackAnts);
-            if (matchings != null) {
-                Visualize sd = new Visualize(redAnts, blackAnts, null, matchings, "Stable Marriage");
-                sd.drawInitialPoints();
-            }
-        }
-
-        if(printCC){
-            int[] coinChange = coinChange(redAnts.get(0), blackAnts.get(0)); 
-            System.out.println("Capacity: " + redAnts.get(0).getCapacity());
-            for(int i = 0; i < blackAnts.get(0).getObjects().length; i++){
-                System.out.println(blackAnts.get(0).getObjects()[i] + ": " + coinChange[i]);
-            }
-        }
-        
-        
-        
-    }
-    
-    /**
-     * Kruskal algorithm implementation, using my own union-find implementation.
-     * @param redAnts The red ants population
-     * @param blackAnts The black ants population
-     * @return A 2d array int[red_population+black_population-1][4]. In each row there 
-     * is the ant ID and an identifier whether it is from red (0) or black population (1) 
-     * I.e., ant id - identifier - ant id -identifier E.g. [21,0,4,1] -> means that the red ant 
-     * with ID 21 is connected with the black ant with ID 4.
-     */
-    public static int[][] findMST(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts) {
-        ArrayList<Edge> allTheEdges;
-        allTheEdges = findAllTheEdges(redAnts, blackAnts);
-        //Sorts all the edges in the allTheEdges ArrayList in ascending order.
-    	Collections.sort(allTheEdges,new Edge()); 
-    	FindMST mst = new FindMST(allTheEdges, 2*redAnts.size());
-        return mst.calculateMST();
-    }
-    
-    /**
-     * Stable Matching algorithm implementation, considering that the red ants (0) do the proposals.
-     * @param redAnts The red ants population
-     * @param blackAnts The black ants population
-     * @return A 2d array int[red_population][2]. The 2nd dimension is of size of 2 as 
-     * it expects values in the form [ant_id_1,ant_id_2] where ant_id is the id of the ant. 
-     * This means that ant_id_1 is matched with ant_id_2. ant_id_1 should be a red ant!
-     */
-    public static int[][] findStableMarriage(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts) {
-        ArrayList<Edge> redBlackEdges;
-        redBlackEdges = findRedBlackEdges(redAnts,blackAnts);
-        //Sorts the redBlackEdges ArrayList in ascending order.
-    	Collections.sort(redBlackEdges,new Edge());  
-        FindSM fsm = new FindSM(redBlackEdges, redAnts.size());
-        return fsm.calculateStableMarriage();    	
-    }
-    
-    /**
-     * Coin Change algorithm implementation. It is developed like the change return dynamic programming problem.
-     * @param redAnt A red ant
-     * @param blackAnt A black ant
-     * @return An array of size n int[n] (as n the kinds of defferent seeds every black ant holds) with the counts of every item.
-     */
-    public static int[] coinChange(RedAnt redAnt, BlackAnt blackAnt) {
-        FindCoinChange fcc = new FindCoinChange(redAnt, blackAnt);
-        return fcc.calculateCoinChange();
-    }
-    
-    /**
-     * Calculates the distances between all the ants (red with blacks, red with reds and black with blacks).
-     * <p>
-     * To store the distances and the ants id we create a class Edge() object for each two ants connecnted
-     * and we keep all of the edges in an ArraList called allTheEdges.</p>
-     * <p>
-     * Because red and black ants share the same id (i.e. if we have 5 red ants and 5 black the id's of the red
-     * will be 0,1,2,3,4 and so the blacks). But we want to separate them, we store the red ants
-     * with their regular id's and the blacks with a new id equal to their id's + the number of blackAnts (the number of black ants
-     * is the same with the number of red ants).</p>
-     * <p>
-     * I.e. If we have 5 red ants and 5 black the id's of the red ants
-     * will be 0,1,2,3,4 and the id's of black ants will be 5,6,7,8,9.
-     * </p>
-     * @param redAnts an ArrayList that contains all the red ants.
-     * @param blackAnts an ArrayList that contains all the black ants.
-     * @return an ArrayList that contains all the edges between all the ants.
-     * @see Edge
-     */    
-    public static ArrayList<Edge> findAllTheEdges(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts){
-        ArrayList<Edge> allTheEdges = new ArrayList<>();
-        //Iterate all the red ants first time
-	for(RedAnt r1 : redAnts){
-            //Iterate all the red ants second time so that the distances between the red ants can be computed
-            for(RedAnt r2 : redAnts){
-                if(r1.getID() < r2.getID()){
-                    Edge newEdge = new Edge(r1.getID(),r2.getID(),r1.getDistanceFrom(r2));
-                    allTheEdges.add(newEdge);
-                }
-            }
-            //Iterate all the black ants so that the distances between the red ants and the black ants can be computed
-            for(BlackAnt b : blackAnts){
-        	Edge newEdge = new Edge(r1.getID(),b.getID()+blackAnts.size(),r1.getDistanceFrom(b));
-        	allTheEdges.add(newEdge);
-            }
-        }     
-        //Iterate all the black ants first time        
-        for(BlackAnt b1 : blackAnts){
-                //Iterate all the black ants second time so that the distances between the black ants can be computed
-        	for(BlackAnt b2 : blackAnts){
-        		if(b1.getID() < b2.getID()){
-        			Edge newEdge = new Edge(b1.getID()+blackAnts.size(),b2.getID()+blackAnts.size(),b1.getDistanceFrom(b2));
-        			allTheEdges.add(newEdge);
-        		}
-        	}
-        }
-        return allTheEdges;
-    }
-    
-    /**
-     * Calculates all the distances between the red and the black ants.
-     * <p>
-     * To store the distances and the ants id we create a class Edge() object for each two ants connecnted 
-     * and we keep all of the edges in an ArraList called redBlackEdges.</p>
-     * <p>
-     * Because red and black ants share the same id and we want to separate them, 
-     * we store the red ants always first
-     * and the black ants always second in the Edge object inserted in the ArrayList.
-     * </p>
-     * @param redAnts an ArrayList that contains all the red ants.
-     * @param blackAnts an ArrayList that contains all the black ants.
-     * @return an ArrayList that contains all the edges between the red and the black ants.
-     * @see Edge
-     */
-    
-    public static ArrayList<Edge> findRedBlackEdges(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts){
-        ArrayList<Edge> redBlackEdges = new ArrayList<>();
-        for(RedAnt r1 : redAnts){
-            for(BlackAnt b : blackAnts){
-                Edge redBlackEdge = new Edge(r1.getID(),b.getID(),r1.getDistanceFrom(b));
-        	redBlackEdges.add(redBlackEdge);
-            }            
-        }   
-        return redBlackEdges;
-    }  
-    
-    
-    /**
-     * Checks if the parameters given by the user for the creation of the ants are correct.
-     * @param args Must give 3 parameters.<br> First Argument:  Name of the file the ants will be saved (i.e. input.txt).<br>
-     * Second Argument:  0 to create a new random file or 1 if the input file exists allready.<br>
-     * Third Argument:  The number of ants we want to create. I.e. if we give as argument 5 we will create 5 red and 5 black ants.
-     * (This argument is optional if 1 is given to the 2nd argument)
-     */
-    private static void checkParameters(String[] args) {
-        if (args.length == 0 || args.length < 2 || (args[1].equals("0") && args.length < 3)) {
-            if (args.length > 0 && args[1].equals("0") && args.length < 3) {
-                System.out.println("3rd argument is mandatory. Represents the population of the Ants");
-            }
-            System.out.println("Usage:");
-            System.out.println("1st argument: name of filename");
-            System.out.println("2nd argument: 0 create random file, 1 input file is given as input");
-            System.out.println("3rd argument: number of ants to create (optional if 1 is given in the 2nd argument)");
-            System.exit(-1);
-        }
-    }
-    
-}
+
+package algorithms;
+
+import java.awt.GraphicsEnvironment;
+import java.io.IOException;
+import java.util.ArrayList;
+import utils.ImageRenderer;
+import utils.InputHandler;
+import model.BlackAnt;
+import model.RedAnt;
+import model.EdgeList;
+import utils.PreferenceFile;
+import utils.ResultCache;
+import utils.Visualize;
+/**
+ *
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class Algorithms {
+    
+    /**
+     * The cache of the coin change tables used by {@link #coinChange(RedAnt, BlackAnt)}.
+     */
+    private static final CoinChangeTableCache COIN_CHANGE_CACHE = new CoinChangeTableCache();
+
+    /**
+     * The cache of the engines used by {@link #coinChange(RedAnt, BlackAnt)} for the capacities bigger than
+     * {@link FindResidueCoinChange#MAX_DP_CAPACITY}.
+     */
+    private static final ResidueCoinChangeCache RESIDUE_COIN_CHANGE_CACHE = new ResidueCoinChangeCache();
+
+    /**
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        checkParameters(args);
+        
+        //create Lists of Red and Black Ants
+        ArrayList<RedAnt> redAnts = new ArrayList<>();
+        ArrayList<BlackAnt> blackAnts = new ArrayList<>();
+        
+        int flag = Integer.parseInt(args[1]);
+        //If there is not an input file, create one
+        if (flag == 0) {
+            InputHandler.createRandomInput(args[0], Integer.parseInt(args[2]));
+        }
+        //Read the data from the input file
+        InputHandler.readInput(args[0], redAnts, blackAnts);
+        
+        //Set true to the algorithms we want to be executed
+        boolean visualizeMST = true;
+        boolean visualizeSM = true;
+        boolean printCC = true;
+        
+        //With the property ants.cache the results are kept in that directory for the next runs.
+        ResultCache cache = createResultCache();
+        
+        if(visualizeMST){
+            int[][] mst = cache == null ? findMST(redAnts, blackAnts) : findMST(redAnts, blackAnts, MSTEngine.DELAUNAY, cache);
+            if (mst != null && GraphicsEnvironment.isHeadless()) {
+                writeImage(new ImageRenderer(redAnts, blackAnts, mst, null), args[0] + ".mst.png");
+            }
+            else if (mst != null) {
+                Visualize sd = new Visualize(redAnts, blackAnts, mst, null, "Minimum Spanning Tree");
+                sd.drawInitialPoints();
+            }
+        }
+
+        if(visualizeSM){
+            int[][] matchings = cache == null ? findStableMarriage(redAnts, blackAnts) : findStableMarriage(redAnts, blackAnts, SMEngine.GREEDY, cache);
+            if (matchings != null && GraphicsEnvironment.isHeadless()) {
+                writeImage(new ImageRenderer(redAnts, blackAnts, null, matchings), args[0] + ".sm.png");
+            }
+            else if (matchings != null) {
+                Visualize sd = new Visualize(redAnts, blackAnts, null, matchings, "Stable Marriage");
+                sd.drawInitialPoints();
+            }
+        }
+
+        if(printCC){
+            int[] coinChange = coinChange(redAnts.get(0), blackAnts.get(0)); 
+            System.out.println("Capacity: " + redAnts.get(0).getCapacity());
+            for(int i = 0; i < blackAnts.get(0).getObjects().length; i++){
+                System.out.println(blackAnts.get(0).getObjects()[i] + ": " + coinChange[i]);
+            }
+        }
+        
+        
+        
+    }
+    
+    /**
+     * Calculates the MST of all the ants with the default engine ({@link MSTEngine#DELAUNAY}).
+     * @param redAnts The red ants population
+     * @param blackAnts The black ants population
+     * @return A 2d array int[red_population+black_population-1][4]. In each row there 
+     * is the ant ID and an identifier whether it is from red (0) or black population (1) 
+     * I.e., ant id - identifier - ant id -identifier E.g. [21,0,4,1] -> means that the red ant 
+     * with ID 21 is connected with the black ant with ID 4.
+     */
+    public static int[][] findMST(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts) {
+        return findMST(redAnts, blackAnts, MSTEngine.DELAUNAY);
+    }
+    
+    /**
+     * Calculates the MST of all the ants with the engine given.
+     * <p>
+     * {@link MSTEngine#KRUSKAL} is the Kruskal algorithm implementation, using my own union-find implementation, 
+     * on the edges between all the ants. {@link MSTEngine#DELAUNAY} runs Kruskal only on the edges of the 
+     * Delaunay triangulation of the ants, which always contains the MST. {@link MSTEngine#PRIM} runs Prim's
+     * algorithm on the coordinates of the ants with O(n) memory. {@link MSTEngine#BORUVKA} runs Boruvka's algorithm
+     * in parallel on all the cores. {@link MSTEngine#FILTER_KRUSKAL} is like Kruskal but sorts only the edges it needs.
+     * </p>
+     * @param redAnts The red ants population
+     * @param blackAnts The black ants population
+     * @param engine The implementation that will calculate the MST
+     * @return A 2d array int[red_population+black_population-1][4]. In each row there 
+     * is the ant ID and an identifier whether it is from red (0) or black population (1) 
+     * I.e., ant id - identifier - ant id -identifier E.g. [21,0,4,1] -> means that the red ant 
+     * with ID 21 is connected with the black ant with ID 4.
+     */
+    public static int[][] findMST(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts, MSTEngine engine) {
+        Metrics.Phase phase;
+        int[][] result;
+        switch(engine){
+            case DELAUNAY:
+                phase = Metrics.start("mst.delaunay");
+                FindDelaunayMST delaunayMst = new FindDelaunayMST(redAnts, blackAnts);
+                result = delaunayMst.calculateMST();
+                phase.end();
+                return result;
+            case PRIM:
+                phase = Metrics.start("mst.prim");
+                FindPrimMST primMst = new FindPrimMST(redAnts, blackAnts);
+                result = primMst.calculateMST();
+                phase.end();
+                return result;
+            case BORUVKA:
+                phase = Metrics.start("mst.boruvka");
+                FindBoruvkaMST boruvkaMst = new FindBoruvkaMST(redAnts, blackAnts, true);
+                result = boruvkaMst.calculateMST();
+                phase.end();
+                return result;
+            case FILTER_KRUSKAL:
+                //The edges are not sorted here, Filter-Kruskal sorts only the parts it needs.
+                EdgeList edges = findAllTheEdges(redAnts, blackAnts, "mst.edges");
+                phase = Metrics.start("mst.filterKruskal");
+                FindFilterKruskalMST filterKruskalMst = new FindFilterKruskalMST(edges, 2*redAnts.size());
+                result = filterKruskalMst.calculateMST();
+                phase.end();
+                return result;
+            case KRUSKAL:
+            default:
+                EdgeList allTheEdges;
+                allTheEdges = findAllTheEdges(redAnts, blackAnts, "mst.edges");
+                //Sorts all the edges in the allTheEdges list in ascending order.
+                phase = Metrics.start("mst.sort");
+                allTheEdges.sort(); 
+                phase.count(Metrics.Counter.EDGES_SCANNED, allTheEdges.size());
+                phase.end();
+                FindMST mst = new FindMST(allTheEdges, 2*redAnts.size());
+                return mst.calculateMST();
+        }
+    }
+    
+    /**
+     * Calculates the MST like {@link #findMST(ArrayList, ArrayList, MSTEngine)} or loads it from a cache, if the
+     * same ants have already been calculated with the same engine.
+     * @param redAnts The red ants population
+     * @param blackAnts The black ants population
+     * @param engine The implementation that will calculate the MST
+     * @param cache The cache of the results, a new result is stored in it.
+     * @return The MST in the same form as {@link #findMST(ArrayList, ArrayList, MSTEngine)}.
+     */
+    public static int[][] findMST(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts, MSTEngine engine, ResultCache cache) {
+        byte[] key = ResultCache.key(redAnts, blackAnts, "MST " + engine, null);
+        int[][] result = cache.get(key);
+        if(result == null){
+            result = findMST(redAnts, blackAnts, engine);
+            storeResult(cache, key, result);
+        }
+        return result;
+    }
+    
+    /**
+     * Stable Matching algorithm implementation, considering that the red ants (0) do the proposals.
+     * It uses the default engine ({@link SMEngine#GREEDY}).
+     * @param redAnts The red ants population
+     * @param blackAnts The black ants population
+     * @return A 2d array int[red_population][2]. The 2nd dimension is of size of 2 as 
+     * it expects values in the form [ant_id_1,ant_id_2] where ant_id is the id of the ant. 
+     * This means that ant_id_1 is matched with ant_id_2. ant_id_1 should be a red ant!
+     */
+    public static int[][] findStableMarriage(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts) {
+        return findStableMarriage(redAnts, blackAnts, SMEngine.GREEDY);
+    }
+    
+    /**
+     * Stable Matching algorithm implementation with the engine given, considering that the red ants (0) do the proposals.
+     * <p>
+     * {@link SMEngine#TABLES} creates the preference tables from all the sorted red-black edges.
+     * {@link SMEngine#NEAREST_FIRST} gets the preferences of each red ant one by one from a kd-tree.
+     * {@link SMEngine#GREEDY} matches the closest pairs first, if the ants don't have symmetric distance
+     * preferences (see {@link FindGreedySM#hasSymmetricPreferences(ArrayList, ArrayList)}) TABLES is used instead.
+     * All of them return the same matching.
+     * </p>
+     * @param redAnts The red ants population
+     * @param blackAnts The black ants population
+     * @param engine The implementation that will calculate the matching
+     * @return A 2d array int[red_population][2]. The 2nd dimension is of size of 2 as 
+     * it expects values in the form [ant_id_1,ant_id_2] where ant_id is the id of the ant. 
+     * This means that ant_id_1 is matched with ant_id_2. ant_id_1 should be a red ant!
+     */
+    public static int[][] findStableMarriage(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts, SMEngine engine) {
+        Metrics.Phase phase;
+        int[][] result;
+        switch(engine){
+            case GREEDY:
+                if(FindGreedySM.hasSymmetricPreferences(redAnts, blackAnts)){
+                    phase = Metrics.start("sm.greedy");
+                    FindGreedySM greedySm = new FindGreedySM(redAnts, blackAnts);
+                    result = greedySm.calculateStableMarriage();
+                    phase.end();
+                    return result;
+                }
+                return findStableMarriage(redAnts, blackAnts, SMEngine.TABLES);
+            case NEAREST_FIRST:
+                phase = Metrics.start("sm.nearestFirst");
+                FindNearestFirstSM nearestFirstSm = new FindNearestFirstSM(redAnts, blackAnts);
+                result = nearestFirstSm.calculateStableMarriage();
+                phase.end();
+                return result;
+            case TABLES:
+            default:
+                EdgeList redBlackEdges;
+                phase = Metrics.start("sm.edges");
+                redBlackEdges = findRedBlackEdges(redAnts,blackAnts);
+                phase.count(Metrics.Counter.EDGES_SCANNED, redBlackEdges.size());
+                phase.end();
+                //Sorts the redBlackEdges list in ascending order.
+                phase = Metrics.start("sm.sort");
+                redBlackEdges.sort();  
+                phase.count(Metrics.Counter.EDGES_SCANNED, redBlackEdges.size());
+                phase.end();
+                FindSM fsm = new FindSM(redBlackEdges, redAnts.size());
+                return fsm.calculateStableMarriage();
+        }
+    }
+    
+    /**
+     * Calculates the stable marriage like {@link #findStableMarriage(ArrayList, ArrayList, SMEngine)} or loads it
+     * from a cache, if the same ants have already been calculated. All the engines return the same matching, so
+     * the engine is not part of the key.
+     * @param redAnts The red ants population
+     * @param blackAnts The black ants population
+     * @param engine The implementation that will calculate the matching if it is not in the cache
+     * @param cache The cache of the results, a new result is stored in it.
+     * @return The matching in the same form as {@link #findStableMarriage(ArrayList, ArrayList)}.
+     */
+    public static int[][] findStableMarriage(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts, SMEngine engine, ResultCache cache) {
+        byte[] key = ResultCache.key(redAnts, blackAnts, "SM", null);
+        int[][] result = cache.get(key);
+        if(result == null){
+            result = findStableMarriage(redAnts, blackAnts, engine);
+            storeResult(cache, key, result);
+        }
+        return result;
+    }
+    
+    /**
+     * Stable Matching algorithm implementation with the preference lists of a binary preference file
+     * (see {@link PreferenceFile}) instead of the distances of the ants. The red ants do the proposals.
+     * The file is memory mapped and the tables of the algorithm are kept out of the heap.
+     * @param preferenceFile The name of the preference file.
+     * @return A 2d array int[red_population][2] in the same form as {@link #findStableMarriage(ArrayList, ArrayList)}.
+     * @throws IOException If the file can not be read or it is not a valid preference file.
+     */
+    public static int[][] findStableMarriage(String preferenceFile) throws IOException {
+        FindPreferenceFileSM fsm = new FindPreferenceFileSM(PreferenceFile.open(preferenceFile));
+        return fsm.calculateStableMarriage();
+    }
+    
+    /**
+     * Coin Change algorithm implementation. It is developed like the change return dynamic programming problem.
+     * The tables of the dynamic programming are kept in a cache (see {@link #getCoinChangeCache()}), so black ants
+     * with the same seeds calculate them only once.
+     * Canonical seeds (see {@link FindCoinChange#isCanonical()}) are calculated with the greedy choice and the other
+     * capacities bigger than {@link FindResidueCoinChange#MAX_DP_CAPACITY} with {@link FindResidueCoinChange}, whose
+     * engines are also kept in a cache (see {@link #getResidueCoinChangeCache()}).
+     * @param redAnt A red ant
+     * @param blackAnt A black ant
+     * @return An array of size n int[n] (as n the kinds of defferent seeds every black ant holds) with the counts of every item.
+     */
+    public static int[] coinChange(RedAnt redAnt, BlackAnt blackAnt) {
+        FindCoinChange fcc = new FindCoinChange(redAnt, blackAnt, COIN_CHANGE_CACHE);
+        if(redAnt.getCapacity() > FindResidueCoinChange.MAX_DP_CAPACITY && !fcc.isCanonical()){
+            //Too big capacity for the tables of the dynamic programming.
+            FindResidueCoinChange rcc = RESIDUE_COIN_CHANGE_CACHE.get(blackAnt, redAnt.getCapacity());
+            return rcc.calculateCoinChange(redAnt.getCapacity());
+        }
+        return fcc.calculateCoinChange();
+    }
+    
+    /**
+     * @return The cache of the tables used by {@link #coinChange(RedAnt, BlackAnt)}, i.e. to read its counters.
+     */
+    public static CoinChangeTableCache getCoinChangeCache() {
+        return COIN_CHANGE_CACHE;
+    }
+    
+    /**
+     * @return The cache of the engines of the big capacities used by {@link #coinChange(RedAnt, BlackAnt)}.
+     */
+    public static ResidueCoinChangeCache getResidueCoinChangeCache() {
+        return RESIDUE_COIN_CHANGE_CACHE;
+    }
+    
+    /**
+     * Calculates in parallel the coin change of every red ant with every black ant.
+     * @param redAnts The red ants population
+     * @param blackAnts The black ants population
+     * @return The results of all the pairs, the pair of the red ant r and the black ant b is in the row
+     * r * black_population + b. Each row has the counts of the seeds in the order of the objects of the black ant.
+     */
+    public static CoinChangeMatrix coinChangeAllPairs(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts) {
+        FindAllPairsCoinChange fcc = new FindAllPairsCoinChange(redAnts, blackAnts);
+        return fcc.calculateAllPairs();
+    }
+    
+    /**
+     * Calculates in parallel the coin change of every couple of a stable marriage.
+     * @param redAnts The red ants population
+     * @param blackAnts The black ants population
+     * @param couples The table returned by {@link #findStableMarriage(ArrayList, ArrayList)}.
+     * @return The results of the couples, the couple in row i of couples is in row i of the matrix.
+     */
+    public static CoinChangeMatrix coinChangeCouples(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts, int[][] couples) {
+        FindAllPairsCoinChange fcc = new FindAllPairsCoinChange(redAnts, blackAnts);
+        return fcc.calculateCouples(couples);
+    }
+    
+    /**
+     * Calculates the coin change of every couple of a stable marriage like
+     * {@link #coinChangeCouples(ArrayList, ArrayList, int[][])} or loads them from a cache, if the same ants
+     * and couples have already been calculated.
+     * @param redAnts The red ants population
+     * @param blackAnts The black ants population
+     * @param couples The table returned by {@link #findStableMarriage(ArrayList, ArrayList)}.
+     * @param cache The cache of the results, a new result is stored in it.
+     * @return The results of the couples, the couple in row i of couples is in row i of the matrix.
+     */
+    public static CoinChangeMatrix coinChangeCouples(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts, int[][] couples, ResultCache cache) {
+        byte[] key = ResultCache.key(redAnts, blackAnts, "CC couples", couples);
+        int[][] rows = cache.get(key);
+        CoinChangeMatrix matrix;
+        if(rows != null){
+            matrix = new CoinChangeMatrix(rows.length, rows.length == 0 ? 0 : rows[0].length);
+            int[] counts = matrix.counts();
+            for(int row=0; row<rows.length; ++row){
+                System.arraycopy(rows[row], 0, counts, row * matrix.getWidth(), matrix.getWidth());
+            }
+            return matrix;
+        }
+        matrix = coinChangeCouples(redAnts, blackAnts, couples);
+        rows = new int[matrix.getRows()][];
+        for(int row=0; row<rows.length; ++row){
+            rows[row] = matrix.getRow(row, new int[matrix.getWidth()]);
+        }
+        storeResult(cache, key, rows);
+        return matrix;
+    }
+    
+    /**
+     * Stores a result in the cache. A cache that can not be written only costs the calculation of the next run.
+     */
+    private static void storeResult(ResultCache cache, byte[] key, int[][] result) {
+        try{
+            cache.put(key, result);
+        }
+        catch(Exception e){
+            System.err.println("Error: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * @return The cache of the results in the directory of the property ants.cache, with the max size of the
+     * property ants.cache.maxBytes (or {@link ResultCache#DEFAULT_MAX_BYTES}), or null if the property is not set.
+     */
+    private static ResultCache createResultCache() {
+        String directory = System.getProperty("ants.cache");
+        if(directory == null){
+            return null;
+        }
+        try{
+            return new ResultCache(directory, Long.getLong("ants.cache.maxBytes", ResultCache.DEFAULT_MAX_BYTES));
+        }
+        catch(Exception e){
+            System.err.println("Error: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Saves an image of the results when there is no display to open a window, see {@link ImageRenderer}.
+     */
+    private static void writeImage(ImageRenderer renderer, String filename) {
+        try{
+            renderer.writePng(filename, 2048, 2048);
+            System.out.println("Saved " + filename);
+        }
+        catch(IOException e){
+            System.err.println("Error: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Calculates the distances between all the ants (red with blacks, red with reds and black with blacks).
+     * <p>
+     * To store the distances and the ants id we add an edge for each two ants connecnted
+     * in an EdgeList called allTheEdges. The EdgeList keeps the edges in primitive arrays, so no object
+     * is created for each edge.</p>
+     * <p>
+     * Because red and black ants share the same id (i.e. if we have 5 red ants and 5 black the id's of the red
+     * will be 0,1,2,3,4 and so the blacks). But we want to separate them, we store the red ants
+     * with their regular id's and the blacks with a new id equal to their id's + the number of blackAnts (the number of black ants
+     * is the same with the number of red ants).</p>
+     * <p>
+     * I.e. If we have 5 red ants and 5 black the id's of the red ants
+     * will be 0,1,2,3,4 and the id's of black ants will be 5,6,7,8,9.
+     * </p>
+     * @param redAnts an ArrayList that contains all the red ants.
+     * @param blackAnts an ArrayList that contains all the black ants.
+     * @return an EdgeList that contains all the edges between all the ants.
+     * @see EdgeList
+     */    
+    public static EdgeList findAllTheEdges(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts){
+        return findAllTheEdges(redAnts, blackAnts, null);
+    }
+    
+    /**
+     * {@link #findAllTheEdges(ArrayList, ArrayList)} measured as a phase of {@link Metrics}.
+     * @param phaseName The name of the phase, or null if it is not measured.
+     */
+    static EdgeList findAllTheEdges(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts, String phaseName){
+        Metrics.Phase phase = phaseName == null ? Metrics.Phase.DISABLED : Metrics.start(phaseName);
+        long reds = redAnts.size();
+        long blacks = blackAnts.size();
+        EdgeList allTheEdges = new EdgeList(reds*(reds-1)/2 + reds*blacks + blacks*(blacks-1)/2);
+        //Iterate all the red ants first time
+	for(RedAnt r1 : redAnts){
+            //Iterate all the red ants second time so that the distances between the red ants can be computed
+            for(RedAnt r2 : redAnts){
+                if(r1.getID() < r2.getID()){
+                    allTheEdges.add(r1.getID(),r2.getID(),r1.getDistanceFrom(r2));
+                }
+            }
+            //Iterate all the black ants so that the distances between the red ants and the black ants can be computed
+            for(BlackAnt b : blackAnts){
+        	allTheEdges.add(r1.getID(),b.getID()+blackAnts.size(),r1.getDistanceFrom(b));
+            }
+        }     
+        //Iterate all the black ants first time        
+        for(BlackAnt b1 : blackAnts){
+                //Iterate all the black ants second time so that the distances between the black ants can be computed
+        	for(BlackAnt b2 : blackAnts){
+        		if(b1.getID() < b2.getID()){
+        			allTheEdges.add(b1.getID()+blackAnts.size(),b2.getID()+blackAnts.size(),b1.getDistanceFrom(b2));
+        		}
+        	}
+        }
+        phase.count(Metrics.Counter.EDGES_SCANNED, allTheEdges.size());
+        phase.end();
+        return allTheEdges;
+    }
+    
+    /**
+     * Calculates all the distances between the red and the black ants.
+     * <p>
+     * To store the distances and the ants id we add an edge for each two ants connecnted 
+     * in an EdgeList called redBlackEdges.</p>
+     * <p>
+     * Because red and black ants share the same id and we want to separate them, 
+     * we store the red ants always first (from)
+     * and the black ants always second (to) in the edges of the EdgeList.
+     * </p>
+     * @param redAnts an ArrayList that contains all the red ants.
+     * @param blackAnts an ArrayList that contains all the black ants.
+     * @return an EdgeList that contains all the edges between the red and the black ants.
+     * @see EdgeList
+     */
+    
+    public static EdgeList findRedBlackEdges(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts){
+        EdgeList redBlackEdges = new EdgeList((long)redAnts.size() * blackAnts.size());
+        for(RedAnt r1 : redAnts){
+            for(BlackAnt b : blackAnts){
+        	redBlackEdges.add(r1.getID(),b.getID(),r1.getDistanceFrom(b));
+            }            
+        }   
+        return redBlackEdges;
+    }  
+    
+    
+    /**
+     * Checks if the parameters given by the user for the creation of the ants are correct.
+     * @param args Must give 3 parameters.<br> First Argument:  Name of the file the ants will be saved (i.e. input.txt).<br>
+     * Second Argument:  0 to create a new random file or 1 if the input file exists allready.<br>
+     * Third Argument:  The number of ants we want to create. I.e. if we give as argument 5 we will create 5 red and 5 black ants.
+     * (This argument is optional if 1 is given to the 2nd argument)
+     */
+    private static void checkParameters(String[] args) {
+        if (args.length == 0 || args.length < 2 || (args[1].equals("0") && args.length < 3)) {
+            if (args.length > 0 && args[1].equals("0") && args.length < 3) {
+                System.out.println("3rd argument is mandatory. Represents the population of the Ants");
+            }
+            System.out.println("Usage:");
+            System.out.println("1st argument: name of filename");
+            System.out.println("2nd argument: 0 create random file, 1 input file is given as input");
+            System.out.println("3rd argument: number of ants to create (optional if 1 is given in the 2nd argument)");
+            System.exit(-1);
+        }
+    }
+    
+}
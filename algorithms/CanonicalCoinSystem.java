@@ -0,0 +1,120 @@
+package algorithms;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * Checks if the greedy choice (always the heaviest seed that fits) gives the min number of seeds of
+ * {@link FindCoinChange}, so that the coin change can be found without the tables of the dynamic programming.
+ * <p>
+ * The weight that is not covered by seeds counts as one seed for each unit, so FindCoinChange finds the min
+ * number of coins of the coin system made of the seeds and a coin of weight 1. A coin system where the greedy
+ * choice is always the best is called canonical, and Pearson's test finds if it is in O(k<sup>3</sup>):
+ * if it is not canonical, the smallest weight where greedy fails is the weight of one of k<sup>2</sup>
+ * candidates, built from the greedy representation of a coin - 1.
+ * </p>
+ * <p>
+ * In a canonical system the heaviest seed that fits is always one of the best first seeds, and
+ * FindCoinChange chooses the heaviest of the best first seeds, so the greedy result is the same as its result.
+ * The verdicts are kept in a small cache (least recently used) because many black ants have the same seeds.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+final class CanonicalCoinSystem {
+    /**The max number of verdicts kept.  */
+    private static final int MAX_CACHED_VERDICTS = 4096;
+
+    /**The verdicts by the sorted seeds, from the least to the most recently used.  */
+    private static final LinkedHashMap<SeedSet, Boolean> VERDICTS = new LinkedHashMap<>(16, 0.75f, true);
+
+    private CanonicalCoinSystem(){
+    }
+
+    /**
+     * @param sortedObjects The weights of the seeds in ascending order. The array is not kept.
+     * @return true if the greedy choice gives the same result as the dynamic programming for every capacity.
+     */
+    static boolean isCanonical(int[] sortedObjects){
+        synchronized(VERDICTS){
+            Boolean verdict = VERDICTS.get(new SeedSet(sortedObjects, false));
+            if(verdict != null){
+                return verdict;
+            }
+        }
+        boolean canonical = pearsonTest(sortedObjects);
+        synchronized(VERDICTS){
+            VERDICTS.put(new SeedSet(sortedObjects, true), canonical);
+            Iterator<SeedSet> it = VERDICTS.keySet().iterator();
+            while(VERDICTS.size() > MAX_CACHED_VERDICTS){
+                it.next();
+                it.remove();
+            }
+        }
+        return canonical;
+    }
+
+    /**
+     * Pearson's test on the coin system made of the seeds and a coin of weight 1.
+     * @param sortedObjects The weights of the seeds in ascending order.
+     * @return true if the system is canonical. Seeds that don't weight more than 0 are never canonical.
+     */
+    static boolean pearsonTest(int[] sortedObjects){
+        if(sortedObjects.length > 0 && sortedObjects[0] <= 0){
+            return false;
+        }
+        //The different coins from the heaviest to 1.
+        int[] coins = new int[sortedObjects.length + 1];
+        int n = 0;
+        for(int i=sortedObjects.length-1; i>=0; --i){
+            if(sortedObjects[i] > 1 && (n == 0 || coins[n-1] != sortedObjects[i])){
+                coins[n++] = sortedObjects[i];
+            }
+        }
+        coins[n++] = 1;
+
+        int[] greedy = new int[n];
+        for(int i=1; i<n; ++i){
+            //The greedy representation of the coin before i - 1.
+            greedyCounts(coins, n, coins[i-1] - 1L, greedy);
+            long prefixWeight = 0;
+            long prefixCount = 0;
+            for(int j=i; j<n; ++j){
+                //Candidate: the greedy counts of the coins before j, one more coin j, nothing after j.
+                long weight = prefixWeight + (greedy[j] + 1L) * coins[j];
+                long count = prefixCount + greedy[j] + 1L;
+                if(greedyCount(coins, n, weight) > count){
+                    return false;
+                }
+                prefixWeight += (long)greedy[j] * coins[j];
+                prefixCount += greedy[j];
+            }
+            //The coins before i are 0 in the greedy representation of coins[i-1] - 1.
+        }
+        return true;
+    }
+
+    /**
+     * Fills counts[] with the greedy representation of the weight.
+     */
+    private static void greedyCounts(int[] coins, int n, long weight, int[] counts){
+        for(int i=0; i<n; ++i){
+            counts[i] = (int)(weight / coins[i]);
+            weight -= (long)counts[i] * coins[i];
+        }
+    }
+
+    /**
+     * @return The number of coins of the greedy representation of the weight.
+     */
+    private static long greedyCount(int[] coins, int n, long weight){
+        long count = 0;
+        for(int i=0; i<n; ++i){
+            count += weight / coins[i];
+            weight %= coins[i];
+        }
+        return count;
+    }
+}
@@ -0,0 +1,70 @@
+package algorithms;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * The results of many coin changes in one primitive array.
+ * <p>
+ * Every row is the coin change of one red-black pair and has width values: the count of each seed in the
+ * order of the objects of the black ant (as returned by {@link Algorithms#coinChange(model.RedAnt, model.BlackAnt)}).
+ * Black ants with fewer seeds than width have 0 in the last columns. Which pair each row belongs to is described
+ * by the engine that created the matrix ({@link FindAllPairsCoinChange}).
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public final class CoinChangeMatrix {
+    /**The number of rows.  */
+    private final int rows;
+
+    /**The number of values of each row.  */
+    private final int width;
+
+    /**The counts of all the rows, row after row.  */
+    private final int[] counts;
+
+    /**
+     * Constructor. Creates a matrix with all the counts set to 0.
+     * @param rows The number of rows.
+     * @param width The number of values of each row.
+     */
+    CoinChangeMatrix(int rows, int width){
+        if(rows < 0 || width < 0 || (long)rows * width > Integer.MAX_VALUE - 8){
+            throw new IllegalArgumentException("Too many coin changes for one matrix: " + rows + " rows of " + width + " seeds");
+        }
+        this.rows = rows;
+        this.width = width;
+        counts = new int[rows * width];
+    }
+
+    public int getRows(){
+        return rows;
+    }
+
+    public int getWidth(){
+        return width;
+    }
+
+    /**
+     * @return The count of the seed in the given position of the row.
+     */
+    public int get(int row, int seed){
+        return counts[row * width + seed];
+    }
+
+    /**
+     * Copies a row in the given array.
+     * @return The array given.
+     */
+    public int[] getRow(int row, int[] into){
+        System.arraycopy(counts, row * width, into, 0, width);
+        return into;
+    }
+
+    /**
+     * @return The array with all the counts (row after row). It is not a copy.
+     */
+    int[] counts(){
+        return counts;
+    }
+}
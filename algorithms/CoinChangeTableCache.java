@@ -0,0 +1,161 @@
+package algorithms;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * Cache of the dynamic programming tables (fewestSeeds[] and bestFirstSeeds[]) of {@link FindCoinChange}.
+ * <p>
+ * The tables depend only on the seeds of the black ant and not on the red ant, so black ants with the same
+ * seeds (in any order) share the same tables. The key of the cache is the sorted seeds. The tables of a capacity
+ * are correct for all the smaller capacities, and when a bigger capacity is asked the tables are extended from
+ * the last weight calculated instead of calculated again.
+ * </p>
+ * <p>
+ * The total length of the cached tables is bounded: when it is more than maxWeights the least recently used
+ * tables are removed. The tables given by {@link #getTables(int[], int)} are never changed (an extension creates
+ * new arrays), so they can be used after they are removed from the cache or by many threads.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class CoinChangeTableCache {
+    /**The default max total length of the cached tables.  */
+    public static final int DEFAULT_MAX_WEIGHTS = 1 << 22;
+
+    /**The max total length of the cached tables.  */
+    private final long maxWeights;
+
+    /**The cached tables by their sorted seeds, from the least to the most recently used.  */
+    private final LinkedHashMap<SeedSet, Tables> tables;
+
+    /**The total length of the cached tables.  */
+    private long cachedWeights;
+
+    /**The number of requests found in the cache, found but extended, and not found.  */
+    private long hits;
+    private long extensions;
+    private long misses;
+
+    /**
+     * Constructor. Creates a cache with the default max size.
+     */
+    public CoinChangeTableCache(){
+        this(DEFAULT_MAX_WEIGHTS);
+    }
+
+    /**
+     * Constructor
+     * @param maxWeights The max total length of the cached tables (each weight takes two ints).
+     */
+    public CoinChangeTableCache(long maxWeights){
+        this.maxWeights = maxWeights;
+        tables = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the tables of the seeds calculated at least up to the capacity.
+     * @param sortedObjects The weights of the seeds in ascending order. The array is not kept.
+     * @param capacity The biggest weight needed.
+     * @return The tables, they must not be changed.
+     */
+    public synchronized Tables getTables(int[] sortedObjects, int capacity){
+        //The key used for the search is not a copy, so no array is created when the tables are found.
+        Tables cached = tables.get(new SeedSet(sortedObjects, false));
+        if(cached != null && cached.capacity() >= capacity){
+            ++hits;
+            return cached;
+        }
+        SeedSet key = new SeedSet(sortedObjects, true);
+        Tables result;
+        if(cached == null){
+            ++misses;
+            result = new Tables(capacity);
+            FindCoinChange.findCoinChange(key.seeds, capacity, result.fewestSeeds, result.bestFirstSeeds);
+        }
+        else{
+            ++extensions;
+            //Grow at least by half, so that many small extensions don't copy the tables many times.
+            int newCapacity = (int)Math.min(Integer.MAX_VALUE - 8, Math.max(capacity, cached.capacity() + (long)cached.capacity() / 2));
+            result = new Tables(newCapacity);
+            System.arraycopy(cached.fewestSeeds, 0, result.fewestSeeds, 0, cached.fewestSeeds.length);
+            System.arraycopy(cached.bestFirstSeeds, 0, result.bestFirstSeeds, 0, cached.bestFirstSeeds.length);
+            FindCoinChange.extendCoinChange(key.seeds, cached.capacity() + 1, newCapacity, result.fewestSeeds, result.bestFirstSeeds);
+            cachedWeights -= cached.fewestSeeds.length;
+        }
+        tables.put(key, result);
+        cachedWeights += result.fewestSeeds.length;
+        evict(key);
+        return result;
+    }
+
+    /**
+     * Removes the least recently used tables until the total length is not more than maxWeights.
+     * The tables of the key given (the last used) are never removed.
+     */
+    private void evict(SeedSet keep){
+        Iterator<Map.Entry<SeedSet, Tables>> it = tables.entrySet().iterator();
+        while(cachedWeights > maxWeights && it.hasNext()){
+            Map.Entry<SeedSet, Tables> eldest = it.next();
+            if(eldest.getKey().equals(keep)){
+                continue;
+            }
+            cachedWeights -= eldest.getValue().fewestSeeds.length;
+            it.remove();
+        }
+    }
+
+    /**
+     * Removes all the tables. The counters are not reset.
+     */
+    public synchronized void clear(){
+        tables.clear();
+        cachedWeights = 0;
+    }
+
+    /**@return The number of requests answered from the cache without any calculation.  */
+    public synchronized long getHits(){
+        return hits;
+    }
+
+    /**@return The number of requests found in the cache but with smaller tables, which were extended.  */
+    public synchronized long getExtensions(){
+        return extensions;
+    }
+
+    /**@return The number of requests not found in the cache.  */
+    public synchronized long getMisses(){
+        return misses;
+    }
+
+    /**@return The number of the cached tables.  */
+    public synchronized int size(){
+        return tables.size();
+    }
+
+    /**@return The total length of the cached tables.  */
+    public synchronized long getCachedWeights(){
+        return cachedWeights;
+    }
+
+    /**
+     * The dynamic programming tables of one set of seeds, see {@link FindCoinChange}.
+     */
+    public static final class Tables {
+        final int[] fewestSeeds;
+        final int[] bestFirstSeeds;
+
+        Tables(int capacity){
+            fewestSeeds = new int[capacity + 1];
+            bestFirstSeeds = new int[capacity + 1];
+        }
+
+        /**@return The biggest weight the tables are calculated for.  */
+        public int capacity(){
+            return fewestSeeds.length - 1;
+        }
+    }
+}
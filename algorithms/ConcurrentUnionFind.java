@@ -0,0 +1,77 @@
+package algorithms;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * Union-Find structure that can be used by many threads at the same time without locks.
+ * <p>
+ * Like {@link UnionFind} each node points to its parent and the roots are the leaders of the subtrees.
+ * The parents are changed only with compare-and-set, so a union links a leader only if it is still a
+ * leader. To avoid cycles a leader is always linked under the leader with the smaller id.
+ * find uses path halving, a failed compare-and-set there only means that another thread already
+ * shortened the path.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+final class ConcurrentUnionFind {
+    /**
+     * For each node keeps its parent in the tree it belongs. A node with parent[i] == i is a leader.
+     */
+    private final AtomicIntegerArray parent;
+
+    /**
+     * Constructor. In the beginning each node is a subtree with only one node - itself.
+     * @param totalNodes The number of the nodes.
+     */
+    ConcurrentUnionFind(int totalNodes){
+        parent = new AtomicIntegerArray(totalNodes);
+        for(int i=0; i<totalNodes; ++i){
+            parent.set(i, i);
+        }
+    }
+
+    /**
+     * Finds and returns the leader of the subtree the node belongs.
+     * @param id The id of the node which we want to find its leader.
+     * @return The leader of the node.
+     */
+    int find(int id){
+        while(true){
+            int p = parent.get(id);
+            if(p == id){
+                return id;
+            }
+            int grandParent = parent.get(p);
+            if(grandParent != p){
+                parent.compareAndSet(id, p, grandParent);
+            }
+            id = p;
+        }
+    }
+
+    /**
+     * Joins the subtrees of the two nodes.
+     * @param first The first node.
+     * @param second The second node.
+     * @return true if this call joined the two subtrees, false if they were already in the same subtree.
+     */
+    boolean union(int first, int second){
+        while(true){
+            int firstLeader = find(first);
+            int secondLeader = find(second);
+            if(firstLeader == secondLeader){
+                return false;
+            }
+            //The leader with the bigger id is linked under the other.
+            int child = Math.max(firstLeader, secondLeader);
+            int root = Math.min(firstLeader, secondLeader);
+            if(parent.compareAndSet(child, child, root)){
+                return true;
+            }
+            //Another thread changed the leader of child, search the leaders again.
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package algorithms;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * Delaunay triangulation of a set of points using the divide and conquer algorithm of
+ * Guibas and Stolfi in O(n log n) time.
+ * <p>
+ * The triangulation is kept in a quad-edge structure stored in primitive arrays. Every quad-edge
+ * has 4 directed edges with ids 4*q, 4*q+1, 4*q+2, 4*q+3. The edges 4*q and 4*q+2 are the two
+ * directions of the undirected edge between two points and the other two are the edges of the dual
+ * (they are needed only for the navigation in the structure).
+ * </p>
+ * <p>
+ * Points with the same coordinates are triangulated only once. Each duplicate point is reported
+ * with an edge of zero length to the point that represents its coordinates, so the edges returned
+ * always connect all the points.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+final class DelaunayTriangulation {
+    /**
+     * Relative error bounds of the floating point predicates (Shewchuk). When the result of
+     * a predicate is smaller than its bound the predicate is calculated again with exact arithmetic,
+     * so points on the same line or circle (i.e. ants on a grid) are always handled correctly.
+     */
+    private static final double EPSILON = Math.ulp(1.0) / 2;
+    private static final double CCW_ERROR_BOUND = (3.0 + 16.0 * EPSILON) * EPSILON;
+    private static final double IN_CIRCLE_ERROR_BOUND = (10.0 + 96.0 * EPSILON) * EPSILON;
+
+    /**The X coordinates of the points.  */
+    private final double[] xs;
+
+    /**The Y coordinates of the points.  */
+    private final double[] ys;
+
+    /**For each directed edge keeps the next edge counterclockwise with the same origin.  */
+    private int[] onext;
+
+    /**For each directed edge keeps the point it starts from (only for the primal edges 4*q and 4*q+2).  */
+    private int[] origin;
+
+    /**Marks the quad-edges deleted during the merge steps.  */
+    private boolean[] deleted;
+
+    /**The number of the quad-edges created.  */
+    private int quadEdges;
+
+    /**
+     * Constructor
+     * @param xs The X coordinates of the points.
+     * @param ys The Y coordinates of the points.
+     */
+    DelaunayTriangulation(double[] xs, double[] ys){
+        this.xs = xs;
+        this.ys = ys;
+        //A triangulation of n points has at most 3n edges, the extra room is for the edges deleted while merging.
+        int capacity = 4 * Math.max(xs.length, 4);
+        onext = new int[4 * capacity];
+        origin = new int[4 * capacity];
+        deleted = new boolean[capacity];
+        quadEdges = 0;
+    }
+
+    /**
+     * Triangulates the points and returns the edges of the triangulation.
+     * @return A 2d array int[2][m]. The edge i connects the point edges[0][i] with the point edges[1][i].
+     */
+    int[][] triangulate(){
+        int n = xs.length;
+        //Sort the points by X and then by Y, the divide and conquer needs them in this order.
+        Integer[] order = new Integer[n];
+        for(int i=0; i<n; ++i){
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int c = Double.compare(xs[a], xs[b]);
+            return c != 0 ? c : Double.compare(ys[a], ys[b]);
+        });
+
+        //Remove the points with the same coordinates and keep the duplicates aside.
+        int[] unique = new int[n];
+        int[] duplicateFrom = new int[n];
+        int[] duplicateTo = new int[n];
+        int uniqueCount = 0;
+        int duplicates = 0;
+        for(int i=0; i<n; ++i){
+            int point = order[i];
+            if(uniqueCount > 0 && xs[unique[uniqueCount-1]] == xs[point] && ys[unique[uniqueCount-1]] == ys[point]){
+                duplicateFrom[duplicates] = unique[uniqueCount-1];
+                duplicateTo[duplicates] = point;
+                ++duplicates;
+            }
+            else{
+                unique[uniqueCount++] = point;
+            }
+        }
+
+        if(uniqueCount >= 2){
+            divideAndConquer(unique, 0, uniqueCount);
+        }
+
+        //Collect the edges that were not deleted and the edges of the duplicate points.
+        int total = duplicates;
+        for(int q=0; q<quadEdges; ++q){
+            if(!deleted[q]){
+                ++total;
+            }
+        }
+        int[][] edges = new int[2][total];
+        int k = 0;
+        for(int q=0; q<quadEdges; ++q){
+            if(!deleted[q]){
+                edges[0][k] = origin[4*q];
+                edges[1][k] = origin[4*q+2];
+                ++k;
+            }
+        }
+        for(int i=0; i<duplicates; ++i){
+            edges[0][k] = duplicateFrom[i];
+            edges[1][k] = duplicateTo[i];
+            ++k;
+        }
+        return edges;
+    }
+
+    /**
+     * Triangulates the points points[lo..hi-1] (sorted by X and Y) and returns the
+     * counterclockwise convex hull edge out of the leftmost point and the clockwise convex hull
+     * edge out of the rightmost point.
+     * @param points The sorted points.
+     * @param lo The first point of the part.
+     * @param hi The position after the last point of the part.
+     * @return An array {le, re} with the two hull edges.
+     */
+    private int[] divideAndConquer(int[] points, int lo, int hi){
+        int n = hi - lo;
+        if(n == 2){
+            int a = makeEdge(points[lo], points[lo+1]);
+            return new int[]{a, sym(a)};
+        }
+        if(n == 3){
+            int p1 = points[lo];
+            int p2 = points[lo+1];
+            int p3 = points[lo+2];
+            int a = makeEdge(p1, p2);
+            int b = makeEdge(p2, p3);
+            splice(sym(a), b);
+            //Close the triangle if the points are not collinear.
+            if(ccw(p1, p2, p3)){
+                connect(b, a);
+                return new int[]{a, sym(b)};
+            }
+            else if(ccw(p1, p3, p2)){
+                int c = connect(b, a);
+                return new int[]{sym(c), c};
+            }
+            //The three points are collinear.
+            return new int[]{a, sym(b)};
+        }
+
+        int mid = lo + n/2;
+        int[] left = divideAndConquer(points, lo, mid);
+        int[] right = divideAndConquer(points, mid, hi);
+        int ldo = left[0];
+        int ldi = left[1];
+        int rdi = right[0];
+        int rdo = right[1];
+
+        //Find the lower common tangent of the two halves.
+        while(true){
+            if(leftOf(origin[rdi], ldi)){
+                ldi = lnext(ldi);
+            }
+            else if(rightOf(origin[ldi], rdi)){
+                rdi = rprev(rdi);
+            }
+            else{
+                break;
+            }
+        }
+
+        //basel is the first edge that joins the two halves.
+        int basel = connect(sym(rdi), ldi);
+        if(origin[ldi] == origin[ldo]){
+            ldo = sym(basel);
+        }
+        if(origin[rdi] == origin[rdo]){
+            rdo = basel;
+        }
+
+        //Merge the two halves from the bottom to the top.
+        while(true){
+            //Find the left candidate and delete the left edges that fail the circle test.
+            int lcand = onext[sym(basel)];
+            if(valid(lcand, basel)){
+                while(inCircle(dest(basel), origin[basel], dest(lcand), dest(onext[lcand]))){
+                    int next = onext[lcand];
+                    deleteEdge(lcand);
+                    lcand = next;
+                }
+            }
+            //Find the right candidate and delete the right edges that fail the circle test.
+            int rcand = oprev(basel);
+            if(valid(rcand, basel)){
+                while(inCircle(dest(basel), origin[basel], dest(rcand), dest(oprev(rcand)))){
+                    int next = oprev(rcand);
+                    deleteEdge(rcand);
+                    rcand = next;
+                }
+            }
+            boolean leftValid = valid(lcand, basel);
+            boolean rightValid = valid(rcand, basel);
+            //If both candidates are invalid basel is the upper common tangent.
+            if(!leftValid && !rightValid){
+                break;
+            }
+            if(!leftValid || (rightValid && inCircle(dest(lcand), origin[lcand], origin[rcand], dest(rcand)))){
+                basel = connect(rcand, sym(basel));
+            }
+            else{
+                basel = connect(sym(basel), sym(lcand));
+            }
+        }
+        return new int[]{ldo, rdo};
+    }
+
+    /**
+     * Creates a new quad-edge between two points.
+     * @param from The first point.
+     * @param to The second point.
+     * @return The directed edge from the first point to the second.
+     */
+    private int makeEdge(int from, int to){
+        if(quadEdges == deleted.length){
+            onext = Arrays.copyOf(onext, 2 * onext.length);
+            origin = Arrays.copyOf(origin, 2 * origin.length);
+            deleted = Arrays.copyOf(deleted, 2 * deleted.length);
+        }
+        int e = 4 * quadEdges;
+        ++quadEdges;
+        onext[e] = e;
+        onext[e+1] = e+3;
+        onext[e+2] = e+2;
+        onext[e+3] = e+1;
+        origin[e] = from;
+        origin[e+2] = to;
+        return e;
+    }
+
+    /**
+     * The splice operation of the quad-edge structure. Joins or separates the edge rings of a and b.
+     */
+    private void splice(int a, int b){
+        int alpha = rot(onext[a]);
+        int beta = rot(onext[b]);
+        int t1 = onext[b];
+        int t2 = onext[a];
+        int t3 = onext[beta];
+        int t4 = onext[alpha];
+        onext[a] = t1;
+        onext[b] = t2;
+        onext[alpha] = t3;
+        onext[beta] = t4;
+    }
+
+    /**
+     * Adds a new edge from the destination of a to the origin of b, so that a, the new edge and b have the same left face.
+     */
+    private int connect(int a, int b){
+        int e = makeEdge(dest(a), origin[b]);
+        splice(e, lnext(a));
+        splice(sym(e), b);
+        return e;
+    }
+
+    /**
+     * Removes an edge from the structure.
+     */
+    private void deleteEdge(int e){
+        splice(e, oprev(e));
+        splice(sym(e), oprev(sym(e)));
+        deleted[e >> 2] = true;
+    }
+
+    private static int rot(int e){
+        return (e & ~3) | ((e + 1) & 3);
+    }
+
+    private static int sym(int e){
+        return (e & ~3) | ((e + 2) & 3);
+    }
+
+    private static int invRot(int e){
+        return (e & ~3) | ((e + 3) & 3);
+    }
+
+    private int oprev(int e){
+        return rot(onext[rot(e)]);
+    }
+
+    private int lnext(int e){
+        return rot(onext[invRot(e)]);
+    }
+
+    private int rprev(int e){
+        return onext[sym(e)];
+    }
+
+    private int dest(int e){
+        return origin[sym(e)];
+    }
+
+    /**
+     * @return true if the points a, b, c are in counterclockwise order.
+     */
+    private boolean ccw(int a, int b, int c){
+        double left = (xs[b] - xs[a]) * (ys[c] - ys[a]);
+        double right = (ys[b] - ys[a]) * (xs[c] - xs[a]);
+        double det = left - right;
+        //If the result is bigger than the rounding error it has the correct sign.
+        double errorBound = CCW_ERROR_BOUND * (Math.abs(left) + Math.abs(right));
+        if(det > errorBound || -det > errorBound){
+            return det > 0;
+        }
+        //Else (points almost collinear) calculate it again with exact arithmetic.
+        BigDecimal ax = new BigDecimal(xs[a]);
+        BigDecimal ay = new BigDecimal(ys[a]);
+        BigDecimal exact = new BigDecimal(xs[b]).subtract(ax).multiply(new BigDecimal(ys[c]).subtract(ay))
+                .subtract(new BigDecimal(ys[b]).subtract(ay).multiply(new BigDecimal(xs[c]).subtract(ax)));
+        return exact.signum() > 0;
+    }
+
+    private boolean rightOf(int point, int e){
+        return ccw(point, dest(e), origin[e]);
+    }
+
+    private boolean leftOf(int point, int e){
+        return ccw(point, origin[e], dest(e));
+    }
+
+    /**
+     * An edge is a valid candidate of the merge step if its destination is above basel.
+     */
+    private boolean valid(int e, int basel){
+        return rightOf(dest(e), basel);
+    }
+
+    /**
+     * @return true if the point d is inside the circle that passes through the points a, b, c.
+     */
+    private boolean inCircle(int a, int b, int c, int d){
+        double adx = xs[a] - xs[d];
+        double ady = ys[a] - ys[d];
+        double bdx = xs[b] - xs[d];
+        double bdy = ys[b] - ys[d];
+        double cdx = xs[c] - xs[d];
+        double cdy = ys[c] - ys[d];
+        double ad = adx * adx + ady * ady;
+        double bd = bdx * bdx + bdy * bdy;
+        double cd = cdx * cdx + cdy * cdy;
+        double det = adx * (bdy * cd - bd * cdy)
+                   - ady * (bdx * cd - bd * cdx)
+                   + ad * (bdx * cdy - bdy * cdx);
+        //If the result is bigger than the rounding error it has the correct sign.
+        double permanent = (Math.abs(bdx * cdy) + Math.abs(cdx * bdy)) * ad
+                         + (Math.abs(cdx * ady) + Math.abs(adx * cdy)) * bd
+                         + (Math.abs(adx * bdy) + Math.abs(bdx * ady)) * cd;
+        double errorBound = IN_CIRCLE_ERROR_BOUND * permanent;
+        if(det > errorBound || -det > errorBound){
+            return det > 0;
+        }
+        //Else (points almost on the same circle) calculate it again with exact arithmetic.
+        BigDecimal dx = new BigDecimal(xs[d]);
+        BigDecimal dy = new BigDecimal(ys[d]);
+        BigDecimal eadx = new BigDecimal(xs[a]).subtract(dx);
+        BigDecimal eady = new BigDecimal(ys[a]).subtract(dy);
+        BigDecimal ebdx = new BigDecimal(xs[b]).subtract(dx);
+        BigDecimal ebdy = new BigDecimal(ys[b]).subtract(dy);
+        BigDecimal ecdx = new BigDecimal(xs[c]).subtract(dx);
+        BigDecimal ecdy = new BigDecimal(ys[c]).subtract(dy);
+        BigDecimal ead = eadx.multiply(eadx).add(eady.multiply(eady));
+        BigDecimal ebd = ebdx.multiply(ebdx).add(ebdy.multiply(ebdy));
+        BigDecimal ecd = ecdx.multiply(ecdx).add(ecdy.multiply(ecdy));
+        BigDecimal exact = eadx.multiply(ebdy.multiply(ecd).subtract(ebd.multiply(ecdy)))
+                .subtract(eady.multiply(ebdx.multiply(ecd).subtract(ebd.multiply(ecdx))))
+                .add(ead.multiply(ebdx.multiply(ecdy).subtract(ebdy.multiply(ecdx))));
+        return exact.signum() > 0;
+    }
+}
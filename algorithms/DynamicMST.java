@@ -0,0 +1,573 @@
+package algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import model.Ant;
+import model.BlackAnt;
+import model.EdgeList;
+import model.RedAnt;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * Keeps the MST of the ants while ants are added, removed and moved, without calculating it again from the start.
+ * <p>
+ * The tree starts from the table of {@link Algorithms#findMST(ArrayList, ArrayList)} and is kept in a
+ * {@link LinkCutTree}, where the edges are nodes with their length as weight. The positions of the ants are kept
+ * in a {@link KdForest}, a kd-tree that can change.
+ * </p>
+ * <p>
+ * <b>Adding an ant.</b> Around the new ant we take 8 cones of 45 degrees. If the ant has an MST edge to another ant,
+ * that ant is the nearest one of its cone: any nearer ant r of the same cone is nearer to both ends of the edge,
+ * so the edge would be the longest of a cycle. So only the 8 nearest ants of the cones can be new edges, and
+ * the new MST is the old one with these edges added one by one: an edge is added if the longest edge of the path
+ * between its ants is longer, which is then removed. It costs 8 cone searches and 8 path queries, O(log<sup>2</sup> n).
+ * </p>
+ * <p>
+ * <b>Removing an ant.</b> The MST edges of the other ants stay in the MST, so removing the edges of the ant leaves
+ * a few parts (at most 6 if no two distances are equal) that must be joined again. The sizes of the parts are
+ * found by walking all of them together one ant at a time, so only the smaller parts are walked completely. Then,
+ * like Boruvka's algorithm, the smallest part is joined with its nearest ant of any other part (the shortest edge
+ * that leaves a part is always in the MST), until one part is left. The work is one nearest neighbour search for
+ * each ant of the smaller parts: none for the leaves, a few ants for most of the removals and about &radic;n ants
+ * on average, much less than the O(n log n) of the MST from the start.
+ * </p>
+ * <p>
+ * Moving an ant removes it and adds it again. When no two distances are equal the MST is unique, so the table of
+ * {@link #getMstArray()} has the same edges as the MST calculated from the start.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class DynamicMST {
+    /**The colours of the nodes, as in the MST table: red ants (0), black ants (1), edges and free nodes.  */
+    private static final int RED = 0;
+    private static final int BLACK = 1;
+    private static final int EDGE = 2;
+    private static final int FREE = -1;
+
+    /**The MST, the nodes of the ants and the nodes of the edges share the same ids.  */
+    private final LinkCutTree tree;
+
+    /**The positions of the ants, by the id of their node.  */
+    private final KdForest index;
+
+    /**For each node its colour (RED, BLACK, EDGE or FREE).  */
+    private int[] colour;
+
+    /**For each node of an ant its id and its coordinates.  */
+    private int[] antId;
+    private double[] x;
+    private double[] y;
+
+    /**For each node of an edge the nodes of its two ants.  */
+    private int[] edgeFirst;
+    private int[] edgeSecond;
+
+    /**For each node of an ant the nodes of its edges.  */
+    private int[][] adjacency;
+    private int[] degree;
+
+    /**
+     * For each node of an ant the part of the tree it belongs while the tree is joined again after a removal
+     * (the position of the part + 1), 0 for the ants of the biggest part and at all other times.
+     */
+    private int[] labels;
+
+    /**The nodes that can be used again and the number of nodes ever used.  */
+    private int[] freeNodes;
+    private int freeCount;
+    private int nodeCount;
+
+    /**The node of each red and each black ant by the id of the ant, -1 if there is no such ant.  */
+    private int[] redNodes;
+    private int[] blackNodes;
+
+    /**The number of the ants, the number of the edges of the MST and their total length.  */
+    private int ants;
+    private int edges;
+    private double totalLength;
+
+    /**The nearest ant of each cone, used when an ant is added.  */
+    private final KdTree.Nearest[] cones;
+
+    /**
+     * Creates the structure with the MST of the ants calculated by {@link Algorithms#findMST(ArrayList, ArrayList)}.
+     * @param redAnts The red ants population
+     * @param blackAnts The black ants population
+     */
+    public DynamicMST(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts){
+        this(redAnts, blackAnts, Algorithms.findMST(redAnts, blackAnts));
+    }
+
+    /**
+     * Creates the structure from an MST that has already been calculated.
+     * @param redAnts The red ants population
+     * @param blackAnts The black ants population
+     * @param mstArray The MST of the ants in the table format of {@link Algorithms#findMST(ArrayList, ArrayList)}:
+     * in each row the ant ID and colour (0 red, 1 black) of the two ants of an edge.
+     * @throws IllegalArgumentException If an ant id is used twice or the table is not a spanning tree of the ants.
+     */
+    public DynamicMST(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts, int[][] mstArray){
+        int total = redAnts.size() + blackAnts.size();
+        int capacity = Math.max(16, 2 * total);
+        tree = new LinkCutTree(capacity);
+        index = new KdForest();
+        colour = new int[0];
+        antId = new int[0];
+        x = new double[0];
+        y = new double[0];
+        edgeFirst = new int[0];
+        edgeSecond = new int[0];
+        adjacency = new int[0][];
+        degree = new int[0];
+        labels = new int[0];
+        freeNodes = new int[0];
+        redNodes = new int[0];
+        blackNodes = new int[0];
+        ensureNodes(capacity);
+        cones = new KdTree.Nearest[KdTree.CONES];
+        for(int c=0; c<KdTree.CONES; ++c){
+            cones[c] = new KdTree.Nearest();
+        }
+
+        int[] ids = new int[total];
+        int count = 0;
+        for(RedAnt r : redAnts){
+            ids[count++] = createAnt(RED, r);
+        }
+        for(BlackAnt b : blackAnts){
+            ids[count++] = createAnt(BLACK, b);
+        }
+        double[] xs = new double[total];
+        double[] ys = new double[total];
+        for(int i=0; i<total; ++i){
+            xs[i] = x[ids[i]];
+            ys[i] = y[ids[i]];
+        }
+        index.insertAll(ids, xs, ys);
+
+        if(mstArray.length != Math.max(0, total - 1)){
+            throw new IllegalArgumentException("The MST of " + total + " ants must have " + (total - 1) + " edges, not " + mstArray.length);
+        }
+        UnionFind components = new UnionFind(total);
+        for(int[] row : mstArray){
+            int first = nodeOf(row[0], row[1]);
+            int second = nodeOf(row[2], row[3]);
+            if(!components.union(first, second)){
+                throw new IllegalArgumentException("The MST table has a cycle: " + Arrays.toString(row));
+            }
+            addEdge(first, second, Ant.distance(x[first], y[first], x[second], y[second]));
+        }
+    }
+
+    /**
+     * Adds a new ant and updates the MST.
+     * @param ant A red or a black ant, there must be no ant of the same colour with the same id.
+     * @throws IllegalArgumentException If there is already an ant of the same colour with the same id.
+     */
+    public void addAnt(Ant ant){
+        int node = createAnt(colourOf(ant), ant);
+        insert(node);
+    }
+
+    /**
+     * Removes an ant and updates the MST.
+     * @param ant The ant, only its colour and its id are used.
+     * @throws IllegalArgumentException If there is no ant of the same colour with the same id.
+     */
+    public void removeAnt(Ant ant){
+        int node = nodeOf(ant.getID(), colourOf(ant));
+        delete(node);
+        if(colour[node] == RED){
+            redNodes[antId[node]] = -1;
+        }
+        else{
+            blackNodes[antId[node]] = -1;
+        }
+        freeNode(node);
+        --ants;
+    }
+
+    /**
+     * Moves an ant to a new position and updates the MST.
+     * @param ant The ant with its new coordinates (the same colour and id as the ant that moves).
+     * @throws IllegalArgumentException If there is no ant of the same colour with the same id.
+     */
+    public void moveAnt(Ant ant){
+        int node = nodeOf(ant.getID(), colourOf(ant));
+        delete(node);
+        x[node] = ant.getX();
+        y[node] = ant.getY();
+        insert(node);
+    }
+
+    /**
+     * @return The number of the ants.
+     */
+    public int size(){
+        return ants;
+    }
+
+    /**
+     * @return The total length of the edges of the MST.
+     */
+    public double getTotalLength(){
+        return totalLength;
+    }
+
+    /**
+     * Creates the table of the current MST in the same format as {@link Algorithms#findMST(ArrayList, ArrayList)},
+     * with the edges in ascending order of length.
+     * @return A 2d array int[ants-1][4]. In each row there is the ant ID and an identifier whether it is from
+     * red (0) or black population (1) for the two ants of an edge.
+     */
+    public int[][] getMstArray(){
+        EdgeList mstEdges = new EdgeList(edges);
+        for(int node=0; node<nodeCount; ++node){
+            if(colour[node] == EDGE){
+                int first = edgeFirst[node];
+                int second = edgeSecond[node];
+                //As in findAllTheEdges the red ants are before the black ants and the smaller ids first.
+                if(colour[first] > colour[second] || (colour[first] == colour[second] && antId[first] > antId[second])){
+                    int temp = first;
+                    first = second;
+                    second = temp;
+                }
+                mstEdges.add(first, second, tree.getWeight(node));
+            }
+        }
+        mstEdges.sort();
+        int[][] mstArray = new int[mstEdges.size()][4];
+        for(int i=0; i<mstArray.length; ++i){
+            int first = mstEdges.getFrom(i);
+            int second = mstEdges.getTo(i);
+            mstArray[i][0] = antId[first];
+            mstArray[i][1] = colour[first];
+            mstArray[i][2] = antId[second];
+            mstArray[i][3] = colour[second];
+        }
+        return mstArray;
+    }
+
+    /**
+     * Adds an ant to the MST, the ant must have a node but no edges and must not be in the index.
+     */
+    private void insert(int node){
+        Metrics.Phase phase = Metrics.start("mst.dynamic.add");
+        if(index.size() == 0){
+            index.insert(node, x[node], y[node]);
+            phase.end();
+            return;
+        }
+        for(int c=0; c<KdTree.CONES; ++c){
+            cones[c].reset();
+        }
+        index.nearestInCones(x[node], y[node], cones);
+        //The nearest ants of the cones in ascending order of distance, the first one is the nearest of all.
+        int[] candidates = new int[KdTree.CONES];
+        double[] distances = new double[KdTree.CONES];
+        int count = 0;
+        for(int c=0; c<KdTree.CONES; ++c){
+            if(cones[c].id == -1){
+                continue;
+            }
+            int i = count++;
+            while(i > 0 && (cones[c].distance < distances[i-1] || (cones[c].distance == distances[i-1] && cones[c].id < candidates[i-1]))){
+                candidates[i] = candidates[i-1];
+                distances[i] = distances[i-1];
+                --i;
+            }
+            candidates[i] = cones[c].id;
+            distances[i] = cones[c].distance;
+        }
+        int added = 1;
+        addEdge(node, candidates[0], distances[0]);
+        for(int i=1; i<count; ++i){
+            //The new edge closes a cycle, it replaces the longest edge of the cycle if it is shorter.
+            int longest = tree.pathMax(node, candidates[i]);
+            if(tree.getWeight(longest) > distances[i]){
+                removeEdge(longest);
+                addEdge(node, candidates[i], distances[i]);
+                ++added;
+            }
+        }
+        index.insert(node, x[node], y[node]);
+        phase.count(Metrics.Counter.EDGES_SCANNED, count);
+        phase.count(Metrics.Counter.UNIONS, added);
+        phase.end();
+    }
+
+    /**
+     * Removes an ant and its edges from the MST and joins the parts of the tree left again.
+     * The node of the ant is not freed.
+     */
+    private void delete(int node){
+        Metrics.Phase phase = Metrics.start("mst.dynamic.remove");
+        index.remove(node);
+        int parts = degree[node];
+        int[] roots = new int[parts];
+        for(int i=0; i<parts; ++i){
+            int edge = adjacency[node][i];
+            roots[i] = edgeFirst[edge] == node ? edgeSecond[edge] : edgeFirst[edge];
+        }
+        while(degree[node] > 0){
+            removeEdge(adjacency[node][degree[node]-1]);
+        }
+        if(parts > 1){
+            phase.count(Metrics.Counter.EDGES_SCANNED, join(roots));
+            phase.count(Metrics.Counter.UNIONS, parts - 1);
+        }
+        phase.end();
+    }
+
+    /**
+     * Joins the parts of the tree left after a removal with the shortest edges between them.
+     * @param roots One ant of each part.
+     * @return The number of the nearest neighbour searches.
+     */
+    private int join(int[] roots){
+        int parts = roots.length;
+        int[][] members = new int[parts][];
+        int[] sizes = new int[parts];
+        int[] next = new int[parts];
+        boolean[] walked = new boolean[parts];
+        for(int k=0; k<parts; ++k){
+            members[k] = new int[]{roots[k], 0, 0, 0};
+            sizes[k] = 1;
+            labels[roots[k]] = k + 1;
+        }
+        //Walk all the parts together one ant at a time, until all of them but one have been walked completely.
+        int open = parts;
+        while(open > 1){
+            for(int k=0; k<parts && open>1; ++k){
+                if(walked[k]){
+                    continue;
+                }
+                if(next[k] == sizes[k]){
+                    walked[k] = true;
+                    --open;
+                    continue;
+                }
+                int ant = members[k][next[k]++];
+                for(int i=0; i<degree[ant]; ++i){
+                    int edge = adjacency[ant][i];
+                    int other = edgeFirst[edge] == ant ? edgeSecond[edge] : edgeFirst[edge];
+                    if(labels[other] == 0){
+                        labels[other] = k + 1;
+                        if(sizes[k] == members[k].length){
+                            members[k] = Arrays.copyOf(members[k], 2 * sizes[k]);
+                        }
+                        members[k][sizes[k]++] = other;
+                    }
+                }
+            }
+        }
+        //The part that was not walked completely is the biggest, its ants keep the label 0.
+        int active = 0;
+        for(int k=0; k<parts; ++k){
+            if(walked[k]){
+                ++active;
+                for(int i=0; i<sizes[k]; ++i){
+                    index.setLabel(members[k][i], k + 1);
+                }
+            }
+            else{
+                for(int i=0; i<sizes[k]; ++i){
+                    labels[members[k][i]] = 0;
+                }
+                sizes[k] = 0;
+            }
+        }
+        int searches = 0;
+        KdTree.Nearest best = new KdTree.Nearest();
+        while(active > 0){
+            //The smallest part left is joined with the nearest ant of any other part.
+            int small = -1;
+            for(int k=0; k<parts; ++k){
+                if(sizes[k] > 0 && (small == -1 || sizes[k] < sizes[small])){
+                    small = k;
+                }
+            }
+            best.reset();
+            int from = -1;
+            for(int i=0; i<sizes[small]; ++i){
+                int ant = members[small][i];
+                int bestId = best.id;
+                double bestDistance = best.distance;
+                index.nearest(x[ant], y[ant], small + 1, best);
+                ++searches;
+                if(best.id != bestId || best.distance != bestDistance){
+                    from = ant;
+                }
+            }
+            int target = labels[best.id];
+            addEdge(from, best.id, best.distance);
+            //The ants of the small part get the label of the part they joined.
+            for(int i=0; i<sizes[small]; ++i){
+                int ant = members[small][i];
+                labels[ant] = target;
+                index.setLabel(ant, target);
+            }
+            if(target != 0){
+                int k = target - 1;
+                if(sizes[k] + sizes[small] > members[k].length){
+                    members[k] = Arrays.copyOf(members[k], sizes[k] + sizes[small]);
+                }
+                System.arraycopy(members[small], 0, members[k], sizes[k], sizes[small]);
+                sizes[k] += sizes[small];
+            }
+            sizes[small] = 0;
+            --active;
+        }
+        return searches;
+    }
+
+    /**
+     * Adds an edge between two ants of different trees.
+     */
+    private void addEdge(int first, int second, double length){
+        int edge = allocateNode();
+        colour[edge] = EDGE;
+        edgeFirst[edge] = first;
+        edgeSecond[edge] = second;
+        tree.reset(edge, length);
+        tree.link(edge, first);
+        tree.link(second, edge);
+        attach(first, edge);
+        attach(second, edge);
+        totalLength += length;
+        ++edges;
+    }
+
+    /**
+     * Removes an edge of the MST.
+     */
+    private void removeEdge(int edge){
+        int first = edgeFirst[edge];
+        int second = edgeSecond[edge];
+        tree.cut(first, edge);
+        tree.cut(edge, second);
+        detach(first, edge);
+        detach(second, edge);
+        totalLength -= tree.getWeight(edge);
+        --edges;
+        freeNode(edge);
+    }
+
+    private void attach(int ant, int edge){
+        if(degree[ant] == adjacency[ant].length){
+            adjacency[ant] = Arrays.copyOf(adjacency[ant], Math.max(4, 2 * degree[ant]));
+        }
+        adjacency[ant][degree[ant]++] = edge;
+    }
+
+    private void detach(int ant, int edge){
+        int[] list = adjacency[ant];
+        for(int i=0; i<degree[ant]; ++i){
+            if(list[i] == edge){
+                list[i] = list[--degree[ant]];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Creates the node of a new ant, it is not added to the index or to the MST.
+     * @return The node of the ant.
+     */
+    private int createAnt(int antColour, Ant ant){
+        int id = ant.getID();
+        if(id < 0){
+            throw new IllegalArgumentException("Invalid ant id: " + id);
+        }
+        int[] nodes = antColour == RED ? redNodes : blackNodes;
+        if(id >= nodes.length){
+            int old = nodes.length;
+            nodes = Arrays.copyOf(nodes, Math.max(id + 1, 2 * old));
+            Arrays.fill(nodes, old, nodes.length, -1);
+            if(antColour == RED){
+                redNodes = nodes;
+            }
+            else{
+                blackNodes = nodes;
+            }
+        }
+        if(nodes[id] != -1){
+            throw new IllegalArgumentException("There is already a " + (antColour == RED ? "red" : "black") + " ant with id " + id);
+        }
+        int node = allocateNode();
+        nodes[id] = node;
+        colour[node] = antColour;
+        antId[node] = id;
+        x[node] = ant.getX();
+        y[node] = ant.getY();
+        degree[node] = 0;
+        tree.reset(node, Double.NEGATIVE_INFINITY);
+        ++ants;
+        return node;
+    }
+
+    /**
+     * @return The node of the ant with this id and colour (0 red, 1 black).
+     */
+    private int nodeOf(int id, int antColour){
+        int[] nodes = antColour == RED ? redNodes : (antColour == BLACK ? blackNodes : null);
+        if(nodes == null || id < 0 || id >= nodes.length || nodes[id] == -1){
+            throw new IllegalArgumentException("There is no ant with id " + id + " and colour " + antColour);
+        }
+        return nodes[id];
+    }
+
+    private static int colourOf(Ant ant){
+        if(ant instanceof RedAnt){
+            return RED;
+        }
+        if(ant instanceof BlackAnt){
+            return BLACK;
+        }
+        throw new IllegalArgumentException("Unknown kind of ant: " + ant.getClass().getName());
+    }
+
+    private int allocateNode(){
+        if(freeCount > 0){
+            return freeNodes[--freeCount];
+        }
+        ensureNodes(nodeCount + 1);
+        return nodeCount++;
+    }
+
+    private void freeNode(int node){
+        colour[node] = FREE;
+        degree[node] = 0;
+        if(freeCount == freeNodes.length){
+            freeNodes = Arrays.copyOf(freeNodes, Math.max(16, 2 * freeCount));
+        }
+        freeNodes[freeCount++] = node;
+    }
+
+    /**
+     * Grows the arrays of the nodes so that they can hold the nodes 0..capacity-1.
+     */
+    private void ensureNodes(int capacity){
+        int old = colour.length;
+        if(capacity <= old){
+            return;
+        }
+        capacity = Math.max(capacity, 2 * old);
+        colour = Arrays.copyOf(colour, capacity);
+        Arrays.fill(colour, old, capacity, FREE);
+        antId = Arrays.copyOf(antId, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        edgeFirst = Arrays.copyOf(edgeFirst, capacity);
+        edgeSecond = Arrays.copyOf(edgeSecond, capacity);
+        adjacency = Arrays.copyOf(adjacency, capacity);
+        for(int node=old; node<capacity; ++node){
+            adjacency[node] = new int[0];
+        }
+        degree = Arrays.copyOf(degree, capacity);
+        labels = Arrays.copyOf(labels, capacity);
+        tree.ensureCapacity(capacity);
+    }
+}
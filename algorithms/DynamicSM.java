@@ -0,0 +1,440 @@
+package algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import model.Ant;
+import model.BlackAnt;
+import model.RedAnt;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * Keeps the Stable Marriage of the ants while ants are added, removed and moved, repairing the matching
+ * instead of calculating it again from the start.
+ * <p>
+ * The ants rank each other by distance with the ties broken by the ids, as in {@link FindSM}, so the stable
+ * marriage is unique (see {@link FindGreedySM}): it is both the red optimal and the black optimal matching,
+ * and any way that removes all the blocking pairs finds the matching of the full calculation.
+ * At the end of Gale-Shapley every ant has been rejected by all the ants it prefers to its partner, so the
+ * proposal pointer of an ant (redCounter of FindSM) is always just after its partner and does not need to be
+ * stored. Instead every ant has a reach in the {@link KdForest} of its colour: the distance to its partner
+ * (infinity if it has none), and it accepts only the ants nearer than its reach.
+ * </p>
+ * <p>
+ * A change leaves some ants without a partner (the new or moved ant, the partner of a removed or moved ant).
+ * They are kept in a stack of pending ants and each one is matched with the nearest ant of the other colour
+ * that accepts it and that it prefers to its partner (it may have found one while it was waiting), a search
+ * that skips the parts of the kd-trees whose reaches are too short. The ants left by their partners become
+ * pending. Every new pair is shorter than the pairs it breaks, so the repair ends, and only the ants that can
+ * be in a blocking pair are searched, so a small change costs a few kd-tree searches instead of the
+ * n<sup>2</sup> edges and the tables of a full calculation.
+ * The populations can be different for a while, the ants left without a partner are matched with -1.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class DynamicSM {
+    /**The positions of the red and the black ants, by the id of the ant, with the distances to their partners as reaches.  */
+    private final KdForest redIndex;
+    private final KdForest blackIndex;
+
+    /**The coordinates of the red and the black ants (indexed by their id).  */
+    private double[] redXs;
+    private double[] redYs;
+    private double[] blackXs;
+    private double[] blackYs;
+
+    /**For each red ant the black ant it is matched with, -1 if it has none (or there is no such red ant).  */
+    private int[] redMatch;
+
+    /**For each black ant the red ant it is matched with, -1 if it has none (or there is no such black ant).  */
+    private int[] blackMatch;
+
+    /**The number of the red ants.  */
+    private int reds;
+
+    /**The ants that must search for a better partner, a red ant as its id and a black ant as -id-1.  */
+    private int[] pending = new int[16];
+    private int pendingCount;
+
+    /**The result of the searches for a partner.  */
+    private final KdTree.Nearest next = new KdTree.Nearest();
+
+    /**The proposals (new pairs) and the rejections (ants left by their partner) of the current change, given to {@link Metrics}.  */
+    private long proposals;
+    private long rejections;
+
+    /**
+     * Creates the structure with the stable marriage calculated by
+     * {@link Algorithms#findStableMarriage(ArrayList, ArrayList)}.
+     * @param redAnts The red ants population
+     * @param blackAnts The black ants population
+     */
+    public DynamicSM(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts){
+        this(redAnts, blackAnts, Algorithms.findStableMarriage(redAnts, blackAnts));
+    }
+
+    /**
+     * Creates the structure from a stable marriage that has already been calculated.
+     * @param redAnts The red ants population
+     * @param blackAnts The black ants population
+     * @param smTable The stable marriage of the ants in the table format of
+     * {@link Algorithms#findStableMarriage(ArrayList, ArrayList)}: in each row a red ant id and the id of its black ant.
+     * @throws IllegalArgumentException If an ant id is used twice or the table does not match the ants.
+     */
+    public DynamicSM(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts, int[][] smTable){
+        redIndex = new KdForest(true);
+        blackIndex = new KdForest(true);
+        redXs = new double[0];
+        redYs = new double[0];
+        redMatch = new int[0];
+        blackXs = new double[0];
+        blackYs = new double[0];
+        blackMatch = new int[0];
+        int[] ids = new int[redAnts.size()];
+        double[] xs = new double[ids.length];
+        double[] ys = new double[ids.length];
+        for(int i=0; i<ids.length; ++i){
+            RedAnt r = redAnts.get(i);
+            createRed(r);
+            ids[i] = r.getID();
+            xs[i] = r.getX();
+            ys[i] = r.getY();
+        }
+        checkDistinct(ids, "red");
+        redIndex.insertAll(ids, xs, ys);
+        ids = new int[blackAnts.size()];
+        xs = new double[ids.length];
+        ys = new double[ids.length];
+        for(int i=0; i<ids.length; ++i){
+            BlackAnt b = blackAnts.get(i);
+            createBlack(b);
+            ids[i] = b.getID();
+            xs[i] = b.getX();
+            ys[i] = b.getY();
+        }
+        checkDistinct(ids, "black");
+        blackIndex.insertAll(ids, xs, ys);
+        for(int[] row : smTable){
+            int red = row[0];
+            int black = row[1];
+            if(!redIndex.contains(red) || !blackIndex.contains(black) || redMatch[red] != -1 || blackMatch[black] != -1){
+                throw new IllegalArgumentException("Invalid row of the stable marriage table: " + Arrays.toString(row));
+            }
+            match(red, black);
+        }
+        //The ants without a partner (different populations) look for one.
+        for(int red=0; red<redMatch.length; ++red){
+            if(redIndex.contains(red) && redMatch[red] == -1){
+                pushPending(red);
+            }
+        }
+        for(int black=0; black<blackMatch.length; ++black){
+            if(blackIndex.contains(black) && blackMatch[black] == -1){
+                pushPending(-black - 1);
+            }
+        }
+        repair();
+        proposals = 0;
+        rejections = 0;
+    }
+
+    /**
+     * Adds a new ant and repairs the matching.
+     * @param ant A red or a black ant, there must be no ant of the same colour with the same id.
+     * @throws IllegalArgumentException If there is already an ant of the same colour with the same id.
+     */
+    public void addAnt(Ant ant){
+        Metrics.Phase phase = Metrics.start("sm.dynamic.add");
+        int id = ant.getID();
+        if(ant instanceof RedAnt){
+            createRed(ant);
+            redIndex.setReach(id, Double.POSITIVE_INFINITY, 0);
+            redIndex.insert(id, ant.getX(), ant.getY());
+            pushPending(id);
+        }
+        else if(ant instanceof BlackAnt){
+            createBlack(ant);
+            blackIndex.setReach(id, Double.POSITIVE_INFINITY, 0);
+            blackIndex.insert(id, ant.getX(), ant.getY());
+            pushPending(-id - 1);
+        }
+        else{
+            throw new IllegalArgumentException("Unknown kind of ant: " + ant.getClass().getName());
+        }
+        repair();
+        endPhase(phase);
+    }
+
+    /**
+     * Removes an ant and repairs the matching.
+     * @param ant The ant, only its colour and its id are used.
+     * @throws IllegalArgumentException If there is no ant of the same colour with the same id.
+     */
+    public void removeAnt(Ant ant){
+        Metrics.Phase phase = Metrics.start("sm.dynamic.remove");
+        int id = ant.getID();
+        if(ant instanceof RedAnt){
+            checkRed(id);
+            redIndex.remove(id);
+            --reds;
+            unmatchRed(id);
+        }
+        else if(ant instanceof BlackAnt){
+            checkBlack(id);
+            blackIndex.remove(id);
+            unmatchBlack(id);
+        }
+        else{
+            throw new IllegalArgumentException("Unknown kind of ant: " + ant.getClass().getName());
+        }
+        repair();
+        endPhase(phase);
+    }
+
+    /**
+     * Moves an ant to a new position and repairs the matching. The ant and its old partner look for a partner
+     * together, so the populations stay the same during the repair.
+     * @param ant The ant with its new coordinates (the same colour and id as the ant that moves).
+     * @throws IllegalArgumentException If there is no ant of the same colour with the same id.
+     */
+    public void moveAnt(Ant ant){
+        Metrics.Phase phase = Metrics.start("sm.dynamic.move");
+        int id = ant.getID();
+        if(ant instanceof RedAnt){
+            checkRed(id);
+            unmatchRed(id);
+            redIndex.remove(id);
+            redXs[id] = ant.getX();
+            redYs[id] = ant.getY();
+            redIndex.setReach(id, Double.POSITIVE_INFINITY, 0);
+            redIndex.insert(id, ant.getX(), ant.getY());
+            pushPending(id);
+        }
+        else if(ant instanceof BlackAnt){
+            checkBlack(id);
+            unmatchBlack(id);
+            blackIndex.remove(id);
+            blackXs[id] = ant.getX();
+            blackYs[id] = ant.getY();
+            blackIndex.setReach(id, Double.POSITIVE_INFINITY, 0);
+            blackIndex.insert(id, ant.getX(), ant.getY());
+            pushPending(-id - 1);
+        }
+        else{
+            throw new IllegalArgumentException("Unknown kind of ant: " + ant.getClass().getName());
+        }
+        repair();
+        endPhase(phase);
+    }
+
+    /**
+     * @return The black ant matched with the red ant, -1 if it has none.
+     * @throws IllegalArgumentException If there is no red ant with this id.
+     */
+    public int getBlackOf(int redID){
+        checkRed(redID);
+        return redMatch[redID];
+    }
+
+    /**
+     * Creates the table of the current matching in the same format as
+     * {@link Algorithms#findStableMarriage(ArrayList, ArrayList)}.
+     * @return A 2d array int[red_population][2], in each row a red ant id and the id of its black ant
+     * (-1 if it has none), in ascending order of the red ant ids.
+     */
+    public int[][] getMatching(){
+        int[][] finalSMTable = new int[reds][2];
+        int row = 0;
+        for(int red=0; red<redMatch.length; ++red){
+            if(redIndex.contains(red)){
+                finalSMTable[row][0] = red;
+                finalSMTable[row][1] = redMatch[red];
+                ++row;
+            }
+        }
+        return finalSMTable;
+    }
+
+    /**
+     * Searches for a better partner for the pending ants until there is no blocking pair. Each pending ant is
+     * matched with the nearest ant of the other colour that prefers it to its partner, if that ant is also
+     * nearer than its own partner, and the two ants left by their partners become pending.
+     */
+    private void repair(){
+        while(pendingCount > 0){
+            int ant = pending[--pendingCount];
+            if(ant >= 0){
+                int red = ant;
+                if(!redIndex.contains(red)){
+                    continue;
+                }
+                int partner = redMatch[red];
+                next.reset();
+                if(partner != -1){
+                    next.id = partner;
+                    next.distance = Ant.distance(redXs[red], redYs[red], blackXs[partner], blackYs[partner]);
+                }
+                blackIndex.nearestReaching(redXs[red], redYs[red], red, next);
+                if(next.id == partner){
+                    //No better black ant prefers it.
+                    continue;
+                }
+                int black = next.id;
+                if(partner != -1){
+                    unmatchRed(red);
+                }
+                if(blackMatch[black] != -1){
+                    unmatchBlack(black);
+                }
+                match(red, black);
+            }
+            else{
+                int black = -ant - 1;
+                if(!blackIndex.contains(black)){
+                    continue;
+                }
+                int partner = blackMatch[black];
+                next.reset();
+                if(partner != -1){
+                    next.id = partner;
+                    next.distance = Ant.distance(redXs[partner], redYs[partner], blackXs[black], blackYs[black]);
+                }
+                redIndex.nearestReaching(blackXs[black], blackYs[black], black, next);
+                if(next.id == partner){
+                    continue;
+                }
+                int red = next.id;
+                if(partner != -1){
+                    unmatchBlack(black);
+                }
+                if(redMatch[red] != -1){
+                    unmatchRed(red);
+                }
+                match(red, black);
+            }
+            ++proposals;
+        }
+    }
+
+    /**
+     * Matches two ants, their reaches become the distance between them.
+     */
+    private void match(int red, int black){
+        double d = Ant.distance(redXs[red], redYs[red], blackXs[black], blackYs[black]);
+        redMatch[red] = black;
+        blackMatch[black] = red;
+        redIndex.setReach(red, d, black);
+        blackIndex.setReach(black, d, red);
+    }
+
+    /**
+     * Leaves the red ant without a partner, its black ant becomes pending.
+     */
+    private void unmatchRed(int red){
+        int black = redMatch[red];
+        redMatch[red] = -1;
+        redIndex.setReach(red, Double.POSITIVE_INFINITY, 0);
+        if(black != -1){
+            blackMatch[black] = -1;
+            blackIndex.setReach(black, Double.POSITIVE_INFINITY, 0);
+            pushPending(-black - 1);
+            ++rejections;
+        }
+    }
+
+    /**
+     * Leaves the black ant without a partner, its red ant becomes pending.
+     */
+    private void unmatchBlack(int black){
+        int red = blackMatch[black];
+        blackMatch[black] = -1;
+        blackIndex.setReach(black, Double.POSITIVE_INFINITY, 0);
+        if(red != -1){
+            redMatch[red] = -1;
+            redIndex.setReach(red, Double.POSITIVE_INFINITY, 0);
+            pushPending(red);
+            ++rejections;
+        }
+    }
+
+    private void pushPending(int ant){
+        if(pendingCount == pending.length){
+            pending = Arrays.copyOf(pending, 2 * pending.length);
+        }
+        pending[pendingCount++] = ant;
+    }
+
+    private void endPhase(Metrics.Phase phase){
+        phase.count(Metrics.Counter.PROPOSALS, proposals);
+        phase.count(Metrics.Counter.REJECTIONS, rejections);
+        phase.end();
+        proposals = 0;
+        rejections = 0;
+    }
+
+    private void createRed(Ant ant){
+        int id = ant.getID();
+        if(id < 0){
+            throw new IllegalArgumentException("Invalid ant id: " + id);
+        }
+        if(id >= redMatch.length){
+            int capacity = Math.max(id + 1, 2 * redMatch.length);
+            int old = redMatch.length;
+            redXs = Arrays.copyOf(redXs, capacity);
+            redYs = Arrays.copyOf(redYs, capacity);
+            redMatch = Arrays.copyOf(redMatch, capacity);
+            Arrays.fill(redMatch, old, capacity, -1);
+        }
+        if(redIndex.contains(id)){
+            throw new IllegalArgumentException("There is already a red ant with id " + id);
+        }
+        redXs[id] = ant.getX();
+        redYs[id] = ant.getY();
+        redMatch[id] = -1;
+        ++reds;
+    }
+
+    private void createBlack(Ant ant){
+        int id = ant.getID();
+        if(id < 0){
+            throw new IllegalArgumentException("Invalid ant id: " + id);
+        }
+        if(id >= blackMatch.length){
+            int capacity = Math.max(id + 1, 2 * blackMatch.length);
+            int old = blackMatch.length;
+            blackXs = Arrays.copyOf(blackXs, capacity);
+            blackYs = Arrays.copyOf(blackYs, capacity);
+            blackMatch = Arrays.copyOf(blackMatch, capacity);
+            Arrays.fill(blackMatch, old, capacity, -1);
+        }
+        if(blackIndex.contains(id)){
+            throw new IllegalArgumentException("There is already a black ant with id " + id);
+        }
+        blackXs[id] = ant.getX();
+        blackYs[id] = ant.getY();
+        blackMatch[id] = -1;
+    }
+
+    private static void checkDistinct(int[] ids, String colour){
+        int[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        for(int i=1; i<sorted.length; ++i){
+            if(sorted[i] == sorted[i-1]){
+                throw new IllegalArgumentException("There is already a " + colour + " ant with id " + sorted[i]);
+            }
+        }
+    }
+
+    private void checkRed(int id){
+        if(!redIndex.contains(id)){
+            throw new IllegalArgumentException("There is no red ant with id " + id);
+        }
+    }
+
+    private void checkBlack(int id){
+        if(!blackIndex.contains(id)){
+            throw new IllegalArgumentException("There is no black ant with id " + id);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package algorithms;
+
+import model.BlackAnt;
+import model.RedAnt;
+import utils.ParallelLoop;
+import java.util.ArrayList;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * Calculates in parallel the coin change of many red-black pairs: of all the pairs or of the couples of a stable marriage.
+ * <p>
+ * Each result is the same as {@link FindCoinChange#calculateCoinChange()} of the pair and all of them are stored
+ * in one {@link CoinChangeMatrix}. The objects arrays of the black ants are not changed.
+ * </p>
+ * <p>
+ * The tables of the dynamic programming (fewestSeeds[] and bestFirstSeeds[]) are allocated once for each worker
+ * thread and reused for all its pairs. For all the pairs the tables of a black ant are calculated only once, up to
+ * the biggest capacity of the red ants (only with the seeds that can be used, see
+ * {@link FindCoinChange#effectiveSeeds(int[], int)}), because the tables of a capacity are correct for the smaller capacities too.
+ * Then the coin change of every red ant is read from them. Black ants with canonical seeds
+ * (see {@link CanonicalCoinSystem}) don't need the tables at all.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class FindAllPairsCoinChange {
+    /**Ranges with fewer black ants (or couples) than this are not split into more tasks.  */
+    private static final int SEQUENTIAL_THRESHOLD = 4;
+
+    /**The capacity of each red ant (indexed by its id).  */
+    private final int[] capacities;
+
+    /**The seeds of each black ant (indexed by its id).  */
+    private final int[][] objects;
+
+    /**The biggest capacity of the red ants.  */
+    private final int maxCapacity;
+
+    /**The biggest number of seeds of a black ant (the width of the result matrix).  */
+    private final int maxSeeds;
+
+    /**The tables of the dynamic programming of each worker thread.  */
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Constructor
+     * @param redAnts an ArrayList that contains all the red ants.
+     * @param blackAnts an ArrayList that contains all the black ants.
+     */
+    public FindAllPairsCoinChange(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts){
+        capacities = new int[redAnts.size()];
+        int max = 0;
+        for(RedAnt r : redAnts){
+            capacities[r.getID()] = Math.max(r.getCapacity(), 0);
+            max = Math.max(max, capacities[r.getID()]);
+        }
+        maxCapacity = max;
+        objects = new int[blackAnts.size()][];
+        int seeds = 0;
+        for(BlackAnt b : blackAnts){
+            objects[b.getID()] = b.getObjects();
+            seeds = Math.max(seeds, b.getObjects().length);
+        }
+        maxSeeds = seeds;
+    }
+
+    /**
+     * Calculates the coin change of every red ant with every black ant.
+     * @return The matrix with the results. The pair of the red ant r and the black ant b is in the row
+     * r * (number of black ants) + b.
+     * @throws IllegalArgumentException If the pairs are too many for one matrix.
+     */
+    public CoinChangeMatrix calculateAllPairs(){
+        int blacks = objects.length;
+        long pairs = (long)capacities.length * blacks;
+        if(pairs > Integer.MAX_VALUE){
+            throw new IllegalArgumentException("Too many coin changes for one matrix: " + capacities.length
+                    + " red ants with " + blacks + " black ants");
+        }
+        CoinChangeMatrix matrix = new CoinChangeMatrix((int)pairs, maxSeeds);
+        int[] counts = matrix.counts();
+        ParallelLoop.run(0, blacks, SEQUENTIAL_THRESHOLD, blackID -> {
+            int[][] seeds = FindCoinChange.effectiveSeeds(objects[blackID], maxCapacity);
+            int[] sortedObjects = seeds[0];
+            int[] sortedPositions = seeds[1];
+            if(CanonicalCoinSystem.isCanonical(sortedObjects)){
+                //The greedy choice gives the same results without the tables.
+                for(int redID=0; redID<capacities.length; ++redID){
+                    int row = redID * blacks + blackID;
+                    FindCoinChange.greedyCoinChange(sortedObjects, sortedPositions, capacities[redID], counts, row * maxSeeds);
+                }
+                return;
+            }
+            Scratch tables = scratch.get();
+            tables.ensureCapacity(maxCapacity);
+            FindCoinChange.findCoinChange(sortedObjects, maxCapacity, tables.fewestSeeds, tables.bestFirstSeeds);
+            for(int redID=0; redID<capacities.length; ++redID){
+                int row = redID * blacks + blackID;
+                FindCoinChange.finalCoinChangeArray(sortedObjects, sortedPositions, capacities[redID],
+                        tables.bestFirstSeeds, counts, row * maxSeeds);
+            }
+        });
+        return matrix;
+    }
+
+    /**
+     * Calculates the coin change of the couples of a stable marriage.
+     * @param couples The table returned by {@link Algorithms#findStableMarriage(ArrayList, ArrayList)},
+     * each row has the id of a red ant and the id of its black ant (or -1).
+     * @return The matrix with the results. The couple in row i of couples is in row i of the matrix,
+     * the rows of the red ants without match have only 0.
+     */
+    public CoinChangeMatrix calculateCouples(int[][] couples){
+        CoinChangeMatrix matrix = new CoinChangeMatrix(couples.length, maxSeeds);
+        int[] counts = matrix.counts();
+        ParallelLoop.run(0, couples.length, SEQUENTIAL_THRESHOLD, row -> {
+            int redID = couples[row][0];
+            int blackID = couples[row][1];
+            if(blackID == -1){
+                return;
+            }
+            int[][] seeds = FindCoinChange.effectiveSeeds(objects[blackID], capacities[redID]);
+            int[] sortedObjects = seeds[0];
+            int[] sortedPositions = seeds[1];
+            if(CanonicalCoinSystem.isCanonical(sortedObjects)){
+                FindCoinChange.greedyCoinChange(sortedObjects, sortedPositions, capacities[redID], counts, row * maxSeeds);
+                return;
+            }
+            Scratch tables = scratch.get();
+            tables.ensureCapacity(capacities[redID]);
+            FindCoinChange.findCoinChange(sortedObjects, capacities[redID], tables.fewestSeeds, tables.bestFirstSeeds);
+            FindCoinChange.finalCoinChangeArray(sortedObjects, sortedPositions, capacities[redID],
+                    tables.bestFirstSeeds, counts, row * maxSeeds);
+        });
+        return matrix;
+    }
+
+    /**
+     * The tables of the dynamic programming of one worker thread. They only grow, so after the first few
+     * pairs no new arrays are allocated.
+     */
+    private static final class Scratch {
+        int[] fewestSeeds = new int[0];
+        int[] bestFirstSeeds = new int[0];
+
+        void ensureCapacity(int capacity){
+            if(fewestSeeds.length < capacity + 1){
+                fewestSeeds = new int[capacity + 1];
+                bestFirstSeeds = new int[capacity + 1];
+            }
+        }
+    }
+}
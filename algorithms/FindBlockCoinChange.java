@@ -0,0 +1,210 @@
+package algorithms;
+
+import model.BlackAnt;
+import model.RedAnt;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * Calculates the coin change of {@link FindCoinChange} for one big capacity with a faster dynamic programming.
+ * <p>
+ * fewestSeeds[w] depends only on the weights w - s, which are at least minSeed (the lightest seed) below w.
+ * So the weights are calculated in blocks of minSeed weights: all the weights of a block depend only on the
+ * blocks before it. Inside a block the seeds are taken one by one and each seed updates all the weights of the
+ * block in a simple loop without dependencies, which the JIT compiler can run with SIMD instructions. When the
+ * blocks are big (heavy seeds) each block is also split between the threads of the fork/join pool.
+ * </p>
+ * <p>
+ * fewestSeeds[] is stored as short[] when the counts fit (a weight never needs more than
+ * capacity / minSeed + minSeed seeds), else as int[]. bestFirstSeeds[] is not stored at all: the best first
+ * seed is found again only for the weights of the reconstruction, as the heaviest seed s with
+ * fewestSeeds[w - s] + 1 == fewestSeeds[w], which is the seed FindCoinChange chooses. So the result is the
+ * same as {@link FindCoinChange#calculateCoinChange()} with less than half of its memory.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class FindBlockCoinChange {
+    /**Blocks with at least this many weights are split between the threads.  */
+    private static final int PARALLEL_BLOCK = 1 << 14;
+
+    /**The part of a block each thread calculates.  */
+    private static final int PARALLEL_CHUNK = 1 << 12;
+
+    /**The weights of the seeds in ascending order (a copy, the objects of the black ant are not changed).  */
+    private final int[] objects;
+
+    /**For each seed of objects[] its position in the objects array of the black ant.  */
+    private final int[] originalPositions;
+
+    /**The number of seeds of the black ant (the length of the coin change array).  */
+    private final int coinChangeLength;
+
+    /**The biggest weight calculated.  */
+    private final int capacity;
+
+    /**The min number of seeds for each weight, only one of them is used.  */
+    private short[] shortFewestSeeds;
+    private int[] intFewestSeeds;
+
+    /**
+     * Constructor
+     * @param redAnt the red ant chosen to carry seeds.
+     * @param blackAnt the black ant that will give seeds.
+     */
+    public FindBlockCoinChange(RedAnt redAnt, BlackAnt blackAnt){
+        this(blackAnt.getObjects(), redAnt.getCapacity());
+    }
+
+    /**
+     * Constructor
+     * @param seeds The weights of the seeds (in any order). Only the seeds that can be used are kept,
+     * see {@link FindCoinChange#effectiveSeeds(int[], int)}.
+     * @param capacity The biggest weight that will be calculated.
+     */
+    FindBlockCoinChange(int[] seeds, int capacity){
+        this.capacity = Math.max(capacity, 0);
+        int[][] effective = FindCoinChange.effectiveSeeds(seeds, this.capacity);
+        objects = effective[0];
+        originalPositions = effective[1];
+        coinChangeLength = seeds.length;
+    }
+
+    /**
+     * Calculates the table of the min number of seeds and the coin change of the capacity.
+     * @return an array with how many seeds are needed of each seed, in the order of the objects of the black ant.
+     */
+    public int[] calculateCoinChange(){
+        findCoinChange();
+        int[] coinChange = new int[coinChangeLength];
+        finalCoinChangeArray(capacity, coinChange, 0);
+        return coinChange;
+    }
+
+    /**
+     * Calculates fewestSeeds[] for all the weights up to the capacity, block after block.
+     */
+    void findCoinChange(){
+        int minSeed = objects.length == 0 ? Integer.MAX_VALUE : objects[0];
+        long maxCount = objects.length == 0 ? capacity : (long)capacity / minSeed + minSeed;
+        if(maxCount <= Short.MAX_VALUE){
+            shortFewestSeeds = new short[capacity + 1];
+        }
+        else{
+            intFewestSeeds = new int[capacity + 1];
+        }
+        int blockSize = (int)Math.min(minSeed, capacity + 1L);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        for(int lo=0; lo<=capacity; lo+=blockSize){
+            int hi = (int)Math.min(lo + (long)blockSize, capacity + 1L);
+            if(hi - lo >= PARALLEL_BLOCK){
+                pool.invoke(new BlockTask(lo, hi));
+            }
+            else{
+                computeBlock(lo, hi);
+            }
+            if(hi > capacity){
+                break;
+            }
+        }
+    }
+
+    /**
+     * Calculates the weights [lo, hi), which depend only on the weights before lo.
+     */
+    private void computeBlock(int lo, int hi){
+        if(shortFewestSeeds != null){
+            short[] fewest = shortFewestSeeds;
+            //Without seeds every unit of weight counts as one seed. Above Short.MAX_VALUE a seed always
+            //fits and gives less seeds, so the start value can be smaller than w.
+            for(int w=lo; w<hi; ++w){
+                fewest[w] = (short)Math.min(w, Short.MAX_VALUE);
+            }
+            for(int seed : objects){
+                if(seed >= hi){
+                    break;
+                }
+                for(int w=Math.max(lo, seed); w<hi; ++w){
+                    int withSeed = fewest[w - seed] + 1;
+                    if(withSeed < fewest[w]){
+                        fewest[w] = (short)withSeed;
+                    }
+                }
+            }
+        }
+        else{
+            int[] fewest = intFewestSeeds;
+            for(int w=lo; w<hi; ++w){
+                fewest[w] = w;
+            }
+            for(int seed : objects){
+                if(seed >= hi){
+                    break;
+                }
+                for(int w=Math.max(lo, seed); w<hi; ++w){
+                    fewest[w] = Math.min(fewest[w], fewest[w - seed] + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The min number of seeds (with one for each unit of weight that is left) for the weight.
+     */
+    int fewestSeeds(int weight){
+        return shortFewestSeeds != null ? shortFewestSeeds[weight] : intFewestSeeds[weight];
+    }
+
+    /**
+     * Creates the final coin change array, finding the best first seed only for the weights of the path.
+     * @param weight The weight the red ant can carry (not more than the capacity).
+     * @param coinChange The array where the counts are stored, the counts of this black ant must be 0.
+     * @param offset The position of coinChange[] where the counts of this black ant start.
+     */
+    void finalCoinChangeArray(int weight, int[] coinChange, int offset){
+        while(weight > 0){
+            int fewest = fewestSeeds(weight);
+            int best = -1;
+            //The heaviest seed that gives the min number of seeds.
+            for(int i=objects.length-1; i>=0; --i){
+                if(objects[i] <= weight && fewestSeeds(weight - objects[i]) + 1 == fewest){
+                    best = i;
+                    break;
+                }
+            }
+            if(best == -1){
+                //The rest of the weight is left.
+                return;
+            }
+            coinChange[offset + originalPositions[best]] += 1;
+            weight -= objects[best];
+        }
+    }
+
+    /**
+     * Fork/join task that calculates a big block, splitting it in halves that run in parallel.
+     */
+    private class BlockTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int lo;
+        private final int hi;
+
+        BlockTask(int lo, int hi){
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute(){
+            if(hi - lo <= PARALLEL_CHUNK){
+                computeBlock(lo, hi);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new BlockTask(lo, mid), new BlockTask(mid, hi));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package algorithms;
+
+import model.Ant;
+import model.BlackAnt;
+import model.RedAnt;
+import utils.ParallelLoop;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * Calculates the MST of the ants with Boruvka's algorithm directly from their coordinates, using all the cores.
+ * <p>
+ * In every round each subtree (component) of the ants finds its cheapest edge to an ant of another
+ * component and all these edges are added to the MST. Every round at least halves the number of the
+ * components, so there are at most log(n) rounds. The search of the cheapest edges and the union of the
+ * components run in parallel over a fork/join pool, the components are joined through a
+ * {@link ConcurrentUnionFind}.
+ * </p>
+ * <p>
+ * To find the nearest ant of another component we can use a {@link KdTree} over all the ants, where the nodes
+ * that contain only ants of the same component are skipped. Without the tree all the ants are checked.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class FindBoruvkaMST {
+    /**
+     * Parts of the ants smaller than this are not split further between the threads.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 1024;
+
+    /**The coordinates of all the ants (with the same ids as in findAllTheEdges).  */
+    private final double[] xs;
+    private final double[] ys;
+
+    /**The total number of all the ants (Both red and black).  */
+    private final int totalAnts;
+
+    /**True if the nearest ants of the other components are found with a kd-tree.  */
+    private final boolean useSpatialIndex;
+
+    /**For each ant the leader of its component in the current round.  */
+    private final int[] component;
+
+    /**For each ant the nearest ant of another component found in the current round and its distance.  */
+    private final int[] nearestAnt;
+    private final double[] nearestDistance;
+
+    /**
+     * For each leader of a component the ant of the component that has the cheapest edge to another
+     * component (-1 if not found yet).
+     */
+    private final AtomicIntegerArray cheapestOfComponent;
+
+    /**
+     * The final 2D array that contains all the edges that constitute the MST.
+     * It has the same form as the table returned by {@link FindMST#calculateMST()}.
+     */
+    private final int[][] mstArray;
+
+    /**
+     * Constructor
+     * @param redAnts an ArrayList that contains all the red ants.
+     * @param blackAnts an ArrayList that contains all the black ants.
+     * @param useSpatialIndex true to find the nearest ants with a kd-tree, false to check all the ants.
+     */
+    public FindBoruvkaMST(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts, boolean useSpatialIndex){
+        double[][] coordinates = FindMST.antCoordinates(redAnts, blackAnts);
+        xs = coordinates[0];
+        ys = coordinates[1];
+        totalAnts = xs.length;
+        this.useSpatialIndex = useSpatialIndex;
+        component = new int[totalAnts];
+        nearestAnt = new int[totalAnts];
+        nearestDistance = new double[totalAnts];
+        cheapestOfComponent = new AtomicIntegerArray(totalAnts);
+        mstArray = new int[Math.max(totalAnts-1, 0)][4];
+    }
+
+    /**
+     * Calculates the MST between all the ants.
+     * <p>
+     * Each round has three parallel steps: every ant finds its nearest ant of another component, every
+     * component keeps the cheapest of the edges of its ants and finally the cheapest edges are joined
+     * with the union find. The edges are compared by (distance, smaller id, bigger id) so that all the
+     * components agree on the order and no circle is created.
+     * </p>
+     * @return A 2d array int[red_population+black_population-1][4]. In each row there is the ant
+     * ID and an identifier whether it is from red (0) or black population (1)
+     * I.e., ant id - identifier - ant id -identifier E.g. [21,0,4,1] -> means that the red ant with ID 21
+     * is connected with the black ant with ID 4.
+     */
+    public int[][] calculateMST(){
+        if(totalAnts < 2){
+            return mstArray;
+        }
+        ConcurrentUnionFind unionFind = new ConcurrentUnionFind(totalAnts);
+        KdTree tree = useSpatialIndex ? KdTree.ofAllPoints(xs, ys) : null;
+        AtomicInteger numOfEdgesInMST = new AtomicInteger(0);
+        for(int i=0; i<totalAnts; ++i){
+            component[i] = i;
+        }
+
+        while(numOfEdgesInMST.get() < totalAnts-1){
+            if(tree != null){
+                tree.updateLabels(component);
+            }
+            //Step 1: the nearest ant of another component for every ant.
+            ParallelLoop.run(0, totalAnts, SEQUENTIAL_THRESHOLD, ant -> {
+                cheapestOfComponent.set(ant, -1);
+                findNearestForeignAnt(ant, tree);
+            });
+            //Step 2: the cheapest edge of every component.
+            ParallelLoop.run(0, totalAnts, SEQUENTIAL_THRESHOLD, this::offerToComponent);
+            //Step 3: join the components with their cheapest edges.
+            ParallelLoop.run(0, totalAnts, SEQUENTIAL_THRESHOLD, leader -> {
+                int ant = cheapestOfComponent.get(leader);
+                if(ant != -1 && unionFind.union(ant, nearestAnt[ant])){
+                    int first = Math.min(ant, nearestAnt[ant]);
+                    int second = Math.max(ant, nearestAnt[ant]);
+                    FindMST.setMstRow(mstArray[numOfEdgesInMST.getAndIncrement()], first, second, totalAnts);
+                }
+            });
+            //The components for the next round.
+            ParallelLoop.run(0, totalAnts, SEQUENTIAL_THRESHOLD, ant -> component[ant] = unionFind.find(ant));
+        }
+        return mstArray;
+    }
+
+    /**
+     * Finds the nearest ant that is not in the same component with the given ant.
+     */
+    private void findNearestForeignAnt(int ant, KdTree tree){
+        KdTree.Nearest nearest = new KdTree.Nearest();
+        if(tree != null){
+            tree.nearest(xs[ant], ys[ant], component, component[ant], nearest);
+        }
+        else{
+            for(int other=0; other<totalAnts; ++other){
+                if(component[other] != component[ant]){
+                    nearest.offer(other, Ant.distance(xs[ant], ys[ant], xs[other], ys[other]));
+                }
+            }
+        }
+        nearestAnt[ant] = nearest.id;
+        nearestDistance[ant] = nearest.distance;
+    }
+
+    /**
+     * Offers the edge of the ant to its component. The component keeps it if it is cheaper than its current edge.
+     */
+    private void offerToComponent(int ant){
+        if(nearestAnt[ant] == -1){
+            return;
+        }
+        int leader = component[ant];
+        while(true){
+            int current = cheapestOfComponent.get(leader);
+            if(current != -1 && !isCheaper(ant, current)){
+                return;
+            }
+            if(cheapestOfComponent.compareAndSet(leader, current, ant)){
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return true if the edge of the ant i to its nearest ant is cheaper than the edge of the ant j.
+     * The edges are compared by distance, then by their smaller id and then by their bigger id.
+     */
+    private boolean isCheaper(int i, int j){
+        if(nearestDistance[i] != nearestDistance[j]){
+            return nearestDistance[i] < nearestDistance[j];
+        }
+        int iFirst = Math.min(i, nearestAnt[i]);
+        int jFirst = Math.min(j, nearestAnt[j]);
+        if(iFirst != jFirst){
+            return iFirst < jFirst;
+        }
+        return Math.max(i, nearestAnt[i]) < Math.max(j, nearestAnt[j]);
+    }
+}
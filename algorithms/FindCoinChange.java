@@ -1,193 +1,357 @@
-package algorithms;
-
-import model.BlackAnt;
-import model.RedAnt;
-import java.util.Arrays;
-
-//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
-
-/**
- * @author Giorgos Christakis
- * @email giorgos_chri@hotmail.com
- */
-public class FindCoinChange {
-    /**
-     * Is the total weight of seeds the red ant can carry.
-     */
-    private int capacity;
-    
-    /**
-    * Contains the weight of each seed that the black ant holds in ascending order.
-    */
-    private final int[] objects;
-    
-    /**
-    * Contains the min number of individual objects needed for a specific value.
-    * E.g. If fewestSeeds[10] = 3 means that for weight 10 the min number of seeds needed are 3.
-    */
-    private final int[] fewestSeeds;
-    
-    /**
-     * Contains the seed that must be taken next so that we will have the min number of seeds in the end.
-     * E.g. If bestFirstSeeds[20] = 8 means that for weight 20 the next seed that must be
-     * chosen must be the one with weight 8.
-     */
-    private final int[] bestFirstSeeds;
-    
-    /**
-     * The final table with the quantity of each object chosen.
-     * <p>
-     * E.g. If the coin change array have values: 0  2  3  1<br>
-     * and the objects the black ant have are:   4 12 15 20<br>
-     * Means that the red ant will carry 0 seeds that weight 4, 2 seeds that weight 12
-     * and so on..</p>
-     */
-    private final int[] coinChange;
-    
-    /**
-     * The number of different seeds.
-     */
-    private final int differentSeeds;
-    
-    /**
-     * Constructor
-     * @param redAnt the red ant chosen to carry seeds.
-     * @param blackAnt the black ant that will give seeds.
-     */
-    
-    public FindCoinChange(RedAnt redAnt, BlackAnt blackAnt){
-        capacity = redAnt.getCapacity();
-        //objects = new int[] {4,6,8,9,15};
-        objects = blackAnt.getObjects();
-        //The size of fewestSeeds[] and bestFirstSeeds[] is set to capacity + 1
-        //because we assume that there is a seed with weight 0.
-        fewestSeeds = new int[capacity+1];
-        bestFirstSeeds = new int[capacity+1];
-        coinChange = new int[objects.length];
-        differentSeeds = objects.length;
-    }
-    
-    
-    /**
-     * Contains all the methods needed to calculate the min num of seeds the red ant
-     * can carry using the Coin Change problem with Dynamic Programming.
-     * @return the final an array containing how many seeds are needed of each separate seed, 
-     * to get the min number of seeds the red ant can carry.
-     * @see ants.FindCoinChange#findCoinChange() 
-     * @see ants.FindCoinChange#finalCoinChangeArray() 
-     */
-    public int[] calculateCoinChange(){
-        //Order the objects[] in ascending order
-        Arrays.sort(objects);
-        
-        findCoinChange();       
-        
-        finalCoinChangeArray();
-        
-        return coinChange;
-    }
-    
-    
-    /**
-     * Calculates the min seeds the red ant can carry using the seeds of the black ant,
-     * using the coin change algorithm with dynamic programming.
-     * <p>
-     * To calculate the min number of seeds with dynamic programming for a specific weight
-     * the red ant can carry, we must have calculated before the min number of seeds for all 
-     * the previous weights. Meaning that if the red ant can carry 60 weight we must have 
-     * calculated the min seeds form 1...59.<br>
-     * So we will first iterate from 1 until the weight the red ant can carry.<br>
-     * Then for each seed the black ant has, we will check if it gives us less number of seeds for
-     * the current weight. If yes we set the weight of the seed in the bestFirstSeeds[] array 
-     * in the specific position and set the total number of seeds needed for that weight to the
-     * fewestSeeds[] array in the specific position. We continue until the seeds black has are 
-     * over or until we find a seed weighting more than we can carry.<br>
-     * The seeds are sorted so when we find the first seed weighting more all the other seeds after
-     * that will also weight more.
-     * </p>
-     */
-    private void findCoinChange(){
-        
-        //Initialize the first cell of the 2 arrays in 0 meaning that for 0 weight we 
-        //will get 0 seeds.
-        fewestSeeds[0] = 0;
-        bestFirstSeeds[0] = 0; 
-        
-        
-        for(int currentWeight=1; currentWeight<=capacity; ++currentWeight){
-            
-            //minNumOfSeeds contains the min number of seeds needed for a weight using each seed.It is set to currentWeight so 
-            //that when the first time we check the fewestSeeds needed for a specific weight it will be less than currentWeight.
-            int minNumOfSeeds = currentWeight;
-            //maxSeed is set to 0 so if for example we have left with 3 weight but the lower seed weights 4 the positions from 0 to 3 
-            //in bestFirstSeed array will be set to 0.
-            int maxSeed = 0;
-            //Set the fewestSeeds equal to 0 so that if the smaller seed weights 5 then the values from 0 to 4 will be set to 0 (no seeds). 
-            fewestSeeds[currentWeight] = 0;
-            for(int seed=0; seed<differentSeeds; ++seed){
-                //If seed weight bigger than weight can carried break.
-                if(objects[seed] > currentWeight){
-                    break;
-                }
-                //Check if the array containing the min number of seeds (fewestSeeds[]) gives a smaller 
-                //number of seeds using the new seed with weight objects[seed], use the new seed.
-                //The number of seeds taken is incriment by one because we will use
-                //one more seed (the new seed object[seed]).
-                else if(fewestSeeds[currentWeight-objects[seed]] +1 <= minNumOfSeeds){
-                    //Set the new number of seeds.
-                    minNumOfSeeds = fewestSeeds[currentWeight-objects[seed]] + 1;
-                    //Set as maxSeed the new seed.
-                    maxSeed = objects[seed];
-                }
-            }
-            //After the seeds have been iterated or we have found a seed weighting more than
-            //we can update the arrays.
-            fewestSeeds[currentWeight] = minNumOfSeeds;
-            bestFirstSeeds[currentWeight] = maxSeed;
-        }
-    }
-    
-    
-    /**
-     * Creates the final coin change array using the bestFirstSeeds array.
-     * <p>
-     * For each seed found in the bestFirstSeeds we check if its value is equal to 0. If it is not means we have more seeds to add
-     * to the coinChange array, if it is the coinChange array has finished. In the coinChange array the values are 
-     * considered sorted in ascending order.
-     * </p>
-     */
-    private void finalCoinChangeArray(){
-        //Initialize the coinChange array to 0 because we don't have any seed inserted.
-        //Later for every seeds found we will incriment the value of that seed.
-        for(int i=0; i<differentSeeds; ++i){
-            coinChange[i] = 0;
-        }
-        
-        //Ends when the bestFirstSeeds array get a value equal to 0;
-        while(bestFirstSeeds[capacity] != 0){
-            //Get the next seed needed for the min number of seeds. 
-            int seed = bestFirstSeeds[capacity];
-            int start =0;
-            int finish = differentSeeds - 1;
-            //Binary search to the objects array so that the position of the searched seed is found. 
-            //We need the position beacuse in the same position of the coinChange array we will incriment
-            //the value meaning thath we found one more seed of this kind.
-            int i=(start+finish)/2;
-            while(start <= finish){
-                if(seed == objects[i]){
-                    coinChange[i] += 1;
-                    capacity -= seed;
-                    break;
-                }
-                else if(seed > objects[i]){
-                    start = i+1;
-                }
-                else{
-                    finish = i-1;
-                }
-                i = (start+finish)/2;
-            }
-            
-        }
-    }   
-}
+package algorithms;
+
+import model.BlackAnt;
+import model.RedAnt;
+import java.util.Arrays;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class FindCoinChange {
+    /**
+     * Is the total weight of seeds the red ant can carry.
+     */
+    private final int capacity;
+    
+    /**
+    * Contains the weight of each seed that the black ant holds in ascending order.
+    * It is a sorted copy with only the seeds that can be used (see {@link #effectiveSeeds(int[], int)}),
+    * the objects array of the black ant is not changed.
+    */
+    private final int[] objects;
+    
+    /**
+    * For each seed of objects[] its position in the objects array of the black ant.
+    */
+    private final int[] originalPositions;
+    
+    /**
+    * Contains the min number of individual objects needed for a specific value.
+    * E.g. If fewestSeeds[10] = 3 means that for weight 10 the min number of seeds needed are 3.
+    * When a cache is used it is the (shared) array of the cache and it can be longer than capacity+1.
+    */
+    private int[] fewestSeeds;
+    
+    /**
+     * Contains the seed that must be taken next so that we will have the min number of seeds in the end.
+     * E.g. If bestFirstSeeds[20] = 8 means that for weight 20 the next seed that must be
+     * chosen must be the one with weight 8.
+     */
+    private int[] bestFirstSeeds;
+    
+    /**
+     * The final table with the quantity of each object chosen, in the order of the objects of the black ant.
+     * <p>
+     * E.g. If the coin change array have values: 0  2  3  1<br>
+     * and the objects the black ant have are:   4 12 15 20<br>
+     * Means that the red ant will carry 0 seeds that weight 4, 2 seeds that weight 12
+     * and so on..</p>
+     */
+    private final int[] coinChange;
+    
+    /**
+     * The number of different seeds that can be used.
+     */
+    private final int differentSeeds;
+    
+    /**
+     * The cache where the tables of the dynamic programming are taken from, or null.
+     */
+    private final CoinChangeTableCache cache;
+    
+    /**
+     * Constructor
+     * @param redAnt the red ant chosen to carry seeds.
+     * @param blackAnt the black ant that will give seeds.
+     */
+    
+    public FindCoinChange(RedAnt redAnt, BlackAnt blackAnt){
+        this(redAnt, blackAnt, null);
+    }
+    
+    /**
+     * Constructor
+     * @param redAnt the red ant chosen to carry seeds.
+     * @param blackAnt the black ant that will give seeds.
+     * @param cache the cache of the dynamic programming tables (or null to calculate them every time).
+     */
+    public FindCoinChange(RedAnt redAnt, BlackAnt blackAnt, CoinChangeTableCache cache){
+        capacity = redAnt.getCapacity();
+        //objects = new int[] {4,6,8,9,15};
+        int[][] seeds = effectiveSeeds(blackAnt.getObjects(), capacity);
+        objects = seeds[0];
+        originalPositions = seeds[1];
+        coinChange = new int[blackAnt.getObjects().length];
+        differentSeeds = objects.length;
+        this.cache = cache;
+    }
+    
+    
+    /**
+     * Contains all the methods needed to calculate the min num of seeds the red ant
+     * can carry using the Coin Change problem with Dynamic Programming.
+     * @return the final an array containing how many seeds are needed of each separate seed, 
+     * to get the min number of seeds the red ant can carry.
+     * @see #findCoinChange(int[], int, int[], int[])
+     * @see #finalCoinChangeArray(int[], int[], int, int[], int[], int)
+     */
+    public int[] calculateCoinChange(){
+        Metrics.Phase phase;
+        if(isCanonical()){
+            //The greedy choice gives the same result, the tables are not needed.
+            phase = Metrics.start("cc.greedy");
+            greedyCoinChange(objects, originalPositions, capacity, coinChange, 0);
+            phase.end();
+            return coinChange;
+        }
+        phase = Metrics.start("cc.tables");
+        if(cache != null){
+            //The tables are taken from the cache, only the final array is calculated.
+            CoinChangeTableCache.Tables tables = cache.getTables(objects, capacity);
+            fewestSeeds = tables.fewestSeeds;
+            bestFirstSeeds = tables.bestFirstSeeds;
+        }
+        else{
+            //The size of fewestSeeds[] and bestFirstSeeds[] is set to capacity + 1
+            //because we assume that there is a seed with weight 0.
+            fewestSeeds = new int[capacity+1];
+            bestFirstSeeds = new int[capacity+1];
+            findCoinChange(objects, capacity, fewestSeeds, bestFirstSeeds);       
+            phase.count(Metrics.Counter.DP_CELLS, (long)capacity*objects.length);
+        }
+        phase.end();
+        
+        phase = Metrics.start("cc.final");
+        finalCoinChangeArray(objects, originalPositions, capacity, bestFirstSeeds, coinChange, 0);
+        phase.end();
+        
+        return coinChange;
+    }
+    
+    
+    /**
+     * @return true if the seeds of the black ant are a canonical coin system (see {@link CanonicalCoinSystem}),
+     * so the coin change is found with the greedy choice.
+     */
+    public boolean isCanonical(){
+        return CanonicalCoinSystem.isCanonical(objects);
+    }
+    
+    
+    /**
+     * Creates the final coin change array choosing every time the heaviest seed that fits, in O(k).
+     * It gives the same result as the dynamic programming only for the canonical seeds.
+     * @param objects The weights of the seeds in ascending order.
+     * @param originalPositions For each seed of objects[] its position in the objects array of the black ant.
+     * @param capacity The weight the red ant can carry.
+     * @param coinChange The array where the counts are stored, the counts of this black ant must be 0.
+     * @param offset The position of coinChange[] where the counts of this black ant start.
+     */
+    static void greedyCoinChange(int[] objects, int[] originalPositions, int capacity, int[] coinChange, int offset){
+        for(int i=objects.length-1; i>=0 && capacity>0; --i){
+            int count = capacity / objects[i];
+            coinChange[offset + originalPositions[i]] = count;
+            capacity -= count * objects[i];
+        }
+    }
+    
+    
+    /**
+     * Finds the seeds that can be used for the capacity, so that the dynamic programming runs only with them.
+     * <p>
+     * The seeds that weight 0 or less and the seeds heavier than the capacity can never be used, and the seeds
+     * with the same weight are the same seed. When the seeds are the only choice for their weight every seed
+     * that fits is the only best choice for the weight equal to its own, so no other seed can be removed
+     * without changing the results of the smaller weights.
+     * </p>
+     * <p>
+     * The count of seeds with the same weight goes to the same position the dynamic programming with all
+     * the seeds would give it (the position found by the binary search).
+     * </p>
+     * @param seeds The weights of the seeds of the black ant (in any order). The array is not changed.
+     * @param capacity The weight the red ant can carry.
+     * @return A 2d array with two rows: the different weights that can be used in ascending order and for
+     * each of them the position of its seed in seeds[].
+     */
+    static int[][] effectiveSeeds(int[] seeds, int capacity){
+        int[] positions = sortedPositions(seeds);
+        int[] allSorted = new int[seeds.length];
+        for(int i=0; i<seeds.length; ++i){
+            allSorted[i] = seeds[positions[i]];
+        }
+        int[] objects = new int[seeds.length];
+        int[] originalPositions = new int[seeds.length];
+        int k = 0;
+        for(int i=0; i<allSorted.length; ++i){
+            int seed = allSorted[i];
+            if(seed <= 0 || seed > capacity || (k > 0 && objects[k-1] == seed)){
+                continue;
+            }
+            objects[k] = seed;
+            originalPositions[k] = positions[seedPosition(allSorted, seed)];
+            ++k;
+        }
+        return new int[][]{Arrays.copyOf(objects, k), Arrays.copyOf(originalPositions, k)};
+    }
+    
+    
+    /**
+     * Sorts the positions of the seeds by their weight (the seeds with the same weight keep their order),
+     * without changing the objects array.
+     * @param objects The weights of the seeds.
+     * @return The positions of the seeds in objects[] from the lightest to the heaviest.
+     */
+    static int[] sortedPositions(int[] objects){
+        //Each seed is packed in a long with its weight in the high bits and its position in the low bits.
+        long[] keys = new long[objects.length];
+        for(int i=0; i<objects.length; ++i){
+            keys[i] = ((long)objects[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] positions = new int[objects.length];
+        for(int i=0; i<objects.length; ++i){
+            positions[i] = (int)keys[i];
+        }
+        return positions;
+    }
+    
+    
+    /**
+     * Calculates the min seeds the red ant can carry using the seeds of the black ant,
+     * using the coin change algorithm with dynamic programming.
+     * <p>
+     * To calculate the min number of seeds with dynamic programming for a specific weight
+     * the red ant can carry, we must have calculated before the min number of seeds for all 
+     * the previous weights. Meaning that if the red ant can carry 60 weight we must have 
+     * calculated the min seeds form 1...59.<br>
+     * So we will first iterate from 1 until the weight the red ant can carry.<br>
+     * Then for each seed the black ant has, we will check if it gives us less number of seeds for
+     * the current weight. If yes we set the weight of the seed in the bestFirstSeeds[] array 
+     * in the specific position and set the total number of seeds needed for that weight to the
+     * fewestSeeds[] array in the specific position. We continue until the seeds black has are 
+     * over or until we find a seed weighting more than we can carry.<br>
+     * The seeds are sorted so when we find the first seed weighting more all the other seeds after
+     * that will also weight more.
+     * </p>
+     * <p>
+     * It only uses the arrays given, so the engines that calculate many coin changes can use it with the same arrays.
+     * fewestSeeds[w] depends only on the smaller weights, so the arrays calculated for a capacity are correct
+     * for all the smaller capacities too.
+     * </p>
+     * @param objects The weights of the seeds in ascending order.
+     * @param capacity The biggest weight that will be calculated.
+     * @param fewestSeeds Array of at least capacity+1 values where the min number of seeds for each weight is set.
+     * @param bestFirstSeeds Array of at least capacity+1 values where the first seed for each weight is set.
+     */
+    static void findCoinChange(int[] objects, int capacity, int[] fewestSeeds, int[] bestFirstSeeds){
+        //Initialize the first cell of the 2 arrays in 0 meaning that for 0 weight we 
+        //will get 0 seeds.
+        fewestSeeds[0] = 0;
+        bestFirstSeeds[0] = 0; 
+        
+        extendCoinChange(objects, 1, capacity, fewestSeeds, bestFirstSeeds);
+    }
+    
+    
+    /**
+     * Continues the calculation of {@link #findCoinChange(int[], int, int[], int[])} for the weights from
+     * firstWeight up to capacity, when the tables are already calculated for all the smaller weights.
+     * @param objects The weights of the seeds in ascending order.
+     * @param firstWeight The first weight that is not calculated yet.
+     * @param capacity The biggest weight that will be calculated.
+     * @param fewestSeeds Array of at least capacity+1 values, calculated up to firstWeight-1.
+     * @param bestFirstSeeds Array of at least capacity+1 values, calculated up to firstWeight-1.
+     */
+    static void extendCoinChange(int[] objects, int firstWeight, int capacity, int[] fewestSeeds, int[] bestFirstSeeds){
+        int differentSeeds = objects.length;
+        
+        for(int currentWeight=firstWeight; currentWeight<=capacity; ++currentWeight){
+            
+            //minNumOfSeeds contains the min number of seeds needed for a weight using each seed.It is set to currentWeight so 
+            //that when the first time we check the fewestSeeds needed for a specific weight it will be less than currentWeight.
+            int minNumOfSeeds = currentWeight;
+            //maxSeed is set to 0 so if for example we have left with 3 weight but the lower seed weights 4 the positions from 0 to 3 
+            //in bestFirstSeed array will be set to 0.
+            int maxSeed = 0;
+            //Set the fewestSeeds equal to 0 so that if the smaller seed weights 5 then the values from 0 to 4 will be set to 0 (no seeds). 
+            fewestSeeds[currentWeight] = 0;
+            for(int seed=0; seed<differentSeeds; ++seed){
+                //If seed weight bigger than weight can carried break.
+                if(objects[seed] > currentWeight){
+                    break;
+                }
+                //Check if the array containing the min number of seeds (fewestSeeds[]) gives a smaller 
+                //number of seeds using the new seed with weight objects[seed], use the new seed.
+                //The number of seeds taken is incriment by one because we will use
+                //one more seed (the new seed object[seed]).
+                else if(fewestSeeds[currentWeight-objects[seed]] +1 <= minNumOfSeeds){
+                    //Set the new number of seeds.
+                    minNumOfSeeds = fewestSeeds[currentWeight-objects[seed]] + 1;
+                    //Set as maxSeed the new seed.
+                    maxSeed = objects[seed];
+                }
+            }
+            //After the seeds have been iterated or we have found a seed weighting more than
+            //we can update the arrays.
+            fewestSeeds[currentWeight] = minNumOfSeeds;
+            bestFirstSeeds[currentWeight] = maxSeed;
+        }
+    }
+    
+    
+    /**
+     * Creates the final coin change array using the bestFirstSeeds array.
+     * <p>
+     * For each seed found in the bestFirstSeeds we check if its value is equal to 0. If it is not means we have more seeds to add
+     * to the coinChange array, if it is the coinChange array has finished. In the coinChange array the values are 
+     * considered sorted in ascending order and each count is stored in the original position of its seed.
+     * </p>
+     * @param objects The weights of the seeds in ascending order.
+     * @param originalPositions For each seed of objects[] its position in the objects array of the black ant.
+     * @param capacity The weight the red ant can carry.
+     * @param bestFirstSeeds The array calculated by {@link #findCoinChange(int[], int, int[], int[])} for at least this capacity.
+     * @param coinChange The array where the counts are stored, the counts of this black ant must be 0
+     * because for every seed found we will incriment the value of that seed.
+     * @param offset The position of coinChange[] where the counts of this black ant start.
+     */
+    static void finalCoinChangeArray(int[] objects, int[] originalPositions, int capacity, int[] bestFirstSeeds, int[] coinChange, int offset){
+        //Ends when the bestFirstSeeds array get a value equal to 0;
+        while(bestFirstSeeds[capacity] != 0){
+            //Get the next seed needed for the min number of seeds. 
+            int seed = bestFirstSeeds[capacity];
+            //We need the position beacuse in the same position of the coinChange array we will incriment
+            //the value meaning thath we found one more seed of this kind.
+            coinChange[offset + originalPositions[seedPosition(objects, seed)]] += 1;
+            capacity -= seed;
+        }
+    }
+    
+    
+    /**
+     * Binary search to the objects array so that the position of the searched seed is found.
+     * @param objects The weights of the seeds in ascending order.
+     * @param seed The weight of the seed, it must be one of the objects.
+     * @return The position of the seed in objects[].
+     */
+    static int seedPosition(int[] objects, int seed){
+        int start =0;
+        int finish = objects.length - 1;
+        int i=(start+finish)/2;
+        while(start <= finish){
+            if(seed == objects[i]){
+                return i;
+            }
+            else if(seed > objects[i]){
+                start = i+1;
+            }
+            else{
+                finish = i-1;
+            }
+            i = (start+finish)/2;
+        }
+        throw new IllegalArgumentException("There is no seed with weight " + seed);
+    }   
+}
@@ -0,0 +1,95 @@
+package algorithms;
+
+import model.Ant;
+import model.BlackAnt;
+import model.EdgeList;
+import model.RedAnt;
+import java.util.ArrayList;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * Calculates the Euclidean MST of the ants using only the edges of their Delaunay triangulation.
+ * <p>
+ * The Euclidean MST is always a subgraph of the Delaunay triangulation, so instead of creating
+ * the edges between all the ants (about 2n<sup>2</sup> edges) we triangulate the ants in O(n log n)
+ * time and run Kruskal's algorithm only on the O(n) edges of the triangulation.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class FindDelaunayMST {
+    /**
+     * The coordinates of all the ants. The red ants keep their ids and the black ants are stored after them
+     * with id equal to their id + the number of the red ants (the same ids as in findAllTheEdges).
+     */
+    private final double[] xs;
+    private final double[] ys;
+
+    /**The total number of all the ants (Both red and black).  */
+    private final int totalAnts;
+
+    /**
+     * The final 2D array that contains all the edges that constitute the MST.
+     * It has the same form as the table returned by {@link FindMST#calculateMST()}.
+     */
+    private final int[][] mstArray;
+
+    /**
+     * Constructor
+     * @param redAnts an ArrayList that contains all the red ants.
+     * @param blackAnts an ArrayList that contains all the black ants.
+     */
+    public FindDelaunayMST(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts){
+        double[][] coordinates = FindMST.antCoordinates(redAnts, blackAnts);
+        xs = coordinates[0];
+        ys = coordinates[1];
+        totalAnts = xs.length;
+        mstArray = new int[Math.max(totalAnts-1, 0)][4];
+    }
+
+    /**
+     * Calculates the MST between all the ants.
+     * <p>
+     * First the Delaunay triangulation of the ants is created. Then its edges are sorted in ascending
+     * order of their cost (the euclidean distance between the ants) and Kruskal's algorithm with
+     * union find adds them to the MST until it has N-1 edges.
+     * </p>
+     * @return A 2d array int[red_population+black_population-1][4]. In each row there is the ant
+     * ID and an identifier whether it is from red (0) or black population (1)
+     * I.e., ant id - identifier - ant id -identifier E.g. [21,0,4,1] -> means that the red ant with ID 21
+     * is connected with the black ant with ID 4.
+     */
+    public int[][] calculateMST(){
+        if(totalAnts < 2){
+            return mstArray;
+        }
+        int[][] triangulation = new DelaunayTriangulation(xs, ys).triangulate();
+
+        //Create the edges of the triangulation, always with the smaller id first.
+        int edges = triangulation[0].length;
+        EdgeList delaunayEdges = new EdgeList(edges);
+        for(int i=0; i<edges; ++i){
+            int first = Math.min(triangulation[0][i], triangulation[1][i]);
+            int second = Math.max(triangulation[0][i], triangulation[1][i]);
+            delaunayEdges.add(first, second, Ant.distance(xs[first], ys[first], xs[second], ys[second]));
+        }
+        delaunayEdges.sort();
+
+        UnionFind unionFind = new UnionFind(totalAnts);
+        int numOfEdgesInMST = 0;
+        for(int edge=0; edge<delaunayEdges.size(); ++edge){
+            //If the number of edges the MST must contain is reached stop the iteration.
+            if(numOfEdgesInMST == totalAnts-1){
+                break;
+            }
+            int first = delaunayEdges.getFrom(edge);
+            int second = delaunayEdges.getTo(edge);
+            if(unionFind.union(first, second)){
+                FindMST.setMstRow(mstArray[numOfEdgesInMST], first, second, totalAnts);
+                ++numOfEdgesInMST;
+            }
+        }
+        return mstArray;
+    }
+}
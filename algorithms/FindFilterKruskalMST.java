@@ -0,0 +1,189 @@
+package algorithms;
+
+import model.EdgeList;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * Calculates the MST of the ants with the Filter-Kruskal algorithm.
+ * <p>
+ * Kruskal's algorithm needs all the edges sorted, but it stops after N-1 edges are accepted and most
+ * of the heavy edges are never used. Filter-Kruskal sorts the edges lazily: it partitions the edges around
+ * a pivot (like quickselect), runs on the light half first and then removes from the heavy half every
+ * edge whose ants are already connected, before it continues with what is left. Only small parts of the
+ * edges are really sorted.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class FindFilterKruskalMST {
+    /**
+     * Parts of the edges smaller than this are sorted and given to Kruskal's algorithm directly.
+     */
+    private static final int SORT_THRESHOLD = 1 << 15;
+
+    /**The number of edges checked to choose the pivot.  */
+    private static final int PIVOT_SAMPLE = 15;
+
+    /**
+     * EdgeList that contains all the edges between all the ants (not sorted).
+     * The edges are rearranged while the MST is calculated.
+     */
+    private final EdgeList allTheEdges;
+
+    /**The total number of all the ants (Both red and black).  */
+    private final int totalAnts;
+
+    /**Union-Find structure with the subtrees of the ants.  */
+    private final UnionFind disjointSet;
+
+    /**
+     * The final 2D array that contains all the edges that constitute the MST.
+     * It has the same form as the table returned by {@link FindMST#calculateMST()}.
+     */
+    private final int[][] mstArray;
+
+    /**The total number of edges inserted in the MST.  */
+    private int numOfEdgesInMST;
+
+    /**
+     * Constructor
+     * @param allTheEdges EdgeList that contains all the connections between the ants, it doesn't need to be sorted
+     * @param totalAnts The number of all the ants
+     */
+    public FindFilterKruskalMST(EdgeList allTheEdges, int totalAnts){
+        this.allTheEdges = allTheEdges;
+        this.totalAnts = totalAnts;
+        disjointSet = new UnionFind(totalAnts);
+        mstArray = new int[Math.max(totalAnts-1, 0)][4];
+        numOfEdgesInMST = 0;
+    }
+
+    /**
+     * Calculates the MST between all the ants.
+     * <p>
+     * The edges are accepted in the same order as in {@link FindMST#calculateMST()} (ascending
+     * by weight, from and to), so the result is the same as Kruskal's on the fully sorted edges.
+     * </p>
+     * @return A 2d array int[red_population+black_population-1][4]. In each row there is the ant
+     * ID and an identifier whether it is from red (0) or black population (1)
+     * I.e., ant id - identifier - ant id -identifier E.g. [21,0,4,1] -> means that the red ant with ID 21
+     * is connected with the black ant with ID 4.
+     */
+    public int[][] calculateMST(){
+        filterKruskal(0, allTheEdges.size());
+        return mstArray;
+    }
+
+    /**
+     * Runs Filter-Kruskal on the edges in positions [lo, hi).
+     */
+    private void filterKruskal(int lo, int hi){
+        while(hi - lo > SORT_THRESHOLD){
+            if(numOfEdgesInMST == totalAnts-1){
+                return;
+            }
+            int mid = partition(lo, hi);
+            if(mid == lo || mid == hi){
+                //All the edges are equal, there is nothing to split.
+                break;
+            }
+            //First the light edges.
+            filterKruskal(lo, mid);
+            if(numOfEdgesInMST == totalAnts-1){
+                return;
+            }
+            //Remove the heavy edges that would create a circle and continue with the rest.
+            lo = mid;
+            hi = filter(lo, hi);
+        }
+        kruskal(lo, hi);
+    }
+
+    /**
+     * Sorts the edges in positions [lo, hi) and adds them to the MST with Kruskal's algorithm.
+     */
+    private void kruskal(int lo, int hi){
+        allTheEdges.sort(lo, hi);
+        for(int edge=lo; edge<hi; ++edge){
+            //If the number of edges the MST must contain is reached stop the iteration.
+            if(numOfEdgesInMST == totalAnts-1){
+                return;
+            }
+            int firstAnt = allTheEdges.getFrom(edge);
+            int secondAnt = allTheEdges.getTo(edge);
+            if(disjointSet.union(firstAnt, secondAnt)){
+                FindMST.setMstRow(mstArray[numOfEdgesInMST], firstAnt, secondAnt, totalAnts);
+                ++numOfEdgesInMST;
+            }
+        }
+    }
+
+    /**
+     * Moves the edges of [lo, hi) that are before the pivot to the beginning of the range.
+     * <p>
+     * The pivot is the median of a sample of the edges. If no edge is before it (the pivot is the
+     * smallest edge) the edges that are not after it are moved instead, so that the pivot itself goes
+     * to the light part.
+     * </p>
+     * @return The position where the heavy part starts.
+     */
+    private int partition(int lo, int hi){
+        int pivot = choosePivot(lo, hi);
+        //Keep the pivot at the end of the range so it is not moved while partitioning.
+        allTheEdges.swap(pivot, hi-1);
+        pivot = hi-1;
+        int mid = lo;
+        for(int edge=lo; edge<hi-1; ++edge){
+            if(allTheEdges.compare(edge, pivot) < 0){
+                allTheEdges.swap(edge, mid++);
+            }
+        }
+        if(mid == lo){
+            for(int edge=lo; edge<hi; ++edge){
+                if(allTheEdges.compare(edge, pivot) <= 0){
+                    allTheEdges.swap(edge, mid++);
+                }
+            }
+        }
+        return mid;
+    }
+
+    /**
+     * Chooses as pivot the median of PIVOT_SAMPLE edges spread over the range.
+     * @return The position of the pivot.
+     */
+    private int choosePivot(int lo, int hi){
+        int[] sample = new int[PIVOT_SAMPLE];
+        long step = (hi - lo) / PIVOT_SAMPLE;
+        for(int i=0; i<PIVOT_SAMPLE; ++i){
+            sample[i] = (int)(lo + i * step + step / 2);
+        }
+        //Insertion sort of the sample.
+        for(int i=1; i<PIVOT_SAMPLE; ++i){
+            int edge = sample[i];
+            int j = i - 1;
+            while(j >= 0 && allTheEdges.compare(sample[j], edge) > 0){
+                sample[j+1] = sample[j];
+                --j;
+            }
+            sample[j+1] = edge;
+        }
+        return sample[PIVOT_SAMPLE / 2];
+    }
+
+    /**
+     * Removes from the range [lo, hi) the edges that connect ants of the same subtree, they can never
+     * be added to the MST. The edges left are moved to the beginning of the range.
+     * @return The end of the edges left.
+     */
+    private int filter(int lo, int hi){
+        int end = lo;
+        for(int edge=lo; edge<hi; ++edge){
+            if(!disjointSet.connected(allTheEdges.getFrom(edge), allTheEdges.getTo(edge))){
+                allTheEdges.swap(edge, end++);
+            }
+        }
+        return end;
+    }
+}
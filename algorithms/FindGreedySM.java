@@ -0,0 +1,215 @@
+package algorithms;
+
+import model.Ant;
+import model.BlackAnt;
+import model.RedAnt;
+import java.util.ArrayList;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * Calculates the Stable Marriage between the red and the black ants by matching greedily the closest pairs.
+ * <p>
+ * When both the red and the black ants rank each other by the same symmetric distance (ties broken by the ids
+ * as in the sorted redBlackEdges of {@link FindSM}) the stable marriage is unique: the closest red-black pair
+ * of all must be matched (else they would both prefer each other), and then the same holds for the ants that
+ * are left. So we repeatedly match the closest pair of the unmatched ants, which is the matching returned by
+ * {@link FindSM#calculateStableMarriage()} and {@link FindNearestFirstSM#calculateStableMarriage()}.
+ * </p>
+ * <p>
+ * The black ants are kept in a {@link KdTree} and every matched black ant is removed from it. Every red ant
+ * knows its nearest black ant and the red ants are kept in a heap by that distance. The red ant at the top of
+ * the heap is matched if its black ant is still free, else its nearest black ant is searched again and it goes
+ * back to the heap. O(n) memory and about O(n log n) time.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class FindGreedySM {
+    /**The number of red-black pairs whose distances are compared by {@link #hasSymmetricPreferences(ArrayList, ArrayList)}.  */
+    private static final int SYMMETRY_SAMPLES = 1024;
+
+    /**The coordinates of the red ants (indexed by their id).  */
+    private final double[] redXs;
+    private final double[] redYs;
+
+    /**The coordinates of the black ants (indexed by their id).  */
+    private final double[] blackXs;
+    private final double[] blackYs;
+
+    /**For each red ant the nearest black ant found for it and its distance.  */
+    private final int[] candidate;
+    private final double[] candidateDistance;
+
+    /**Binary heap of the red ants that are not matched yet, by (candidateDistance, id).  */
+    private final int[] heap;
+    private int heapSize;
+
+    /**
+     * The final table with the matches between the ants consisting the stable marriage.
+     * It has the same form as the table of {@link FindSM}.
+     */
+    private final int[][] finalSMTable;
+
+    /**
+     * Constructor. The ants must pass {@link #hasSymmetricPreferences(ArrayList, ArrayList)}.
+     * @param redAnts an ArrayList that contains all the red ants.
+     * @param blackAnts an ArrayList that contains all the black ants.
+     */
+    public FindGreedySM(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts){
+        redXs = new double[redAnts.size()];
+        redYs = new double[redAnts.size()];
+        for(RedAnt r : redAnts){
+            redXs[r.getID()] = r.getX();
+            redYs[r.getID()] = r.getY();
+        }
+        blackXs = new double[blackAnts.size()];
+        blackYs = new double[blackAnts.size()];
+        for(BlackAnt b : blackAnts){
+            blackXs[b.getID()] = b.getX();
+            blackYs[b.getID()] = b.getY();
+        }
+        candidate = new int[redAnts.size()];
+        candidateDistance = new double[redAnts.size()];
+        heap = new int[redAnts.size()];
+        heapSize = 0;
+        finalSMTable = new int[redAnts.size()][2];
+    }
+
+    /**
+     * Checks if the preferences of the ants are the symmetric distances this class depends on.
+     * <p>
+     * The red ants rank the black ants by {@link model.Ant#getDistanceFrom(model.Ant)} (the weights of the
+     * redBlackEdges of {@link FindSM}), the black ants rank the red ants by their own getDistanceFrom, and this
+     * class compares {@link model.Ant#distance(double, double, double, double)} of the coordinates. For
+     * SYMMETRY_SAMPLES pairs spread over all the ants the three distances must be equal, so a subclass of the
+     * ants with another distance (or one that depends on the direction) is detected. All the coordinates must be
+     * finite numbers (a NaN distance can not be ordered) and every ant must have a different id from 0 to its
+     * population - 1.
+     * </p>
+     * @param redAnts an ArrayList that contains all the red ants.
+     * @param blackAnts an ArrayList that contains all the black ants.
+     * @return true if the greedy matching is the stable marriage of the ants.
+     */
+    public static boolean hasSymmetricPreferences(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts){
+        boolean[] seen = new boolean[redAnts.size()];
+        for(RedAnt r : redAnts){
+            int id = r.getID();
+            if(id < 0 || id >= seen.length || seen[id] || !Double.isFinite(r.getX()) || !Double.isFinite(r.getY())){
+                return false;
+            }
+            seen[id] = true;
+        }
+        seen = new boolean[blackAnts.size()];
+        for(BlackAnt b : blackAnts){
+            int id = b.getID();
+            if(id < 0 || id >= seen.length || seen[id] || !Double.isFinite(b.getX()) || !Double.isFinite(b.getY())){
+                return false;
+            }
+            seen[id] = true;
+        }
+        int reds = redAnts.size();
+        int blacks = blackAnts.size();
+        if(reds == 0 || blacks == 0){
+            return true;
+        }
+        //Every sampled red ant is paired with a black ant from another part of the list.
+        int samples = (int)Math.min(SYMMETRY_SAMPLES, (long)reds * blacks);
+        for(int k=0; k<samples; ++k){
+            RedAnt r = redAnts.get((int)((long)k * reds / samples));
+            BlackAnt b = blackAnts.get((int)(((long)k * blacks / samples + (long)k * 7919) % blacks));
+            double redSide = r.getDistanceFrom(b);
+            double blackSide = b.getDistanceFrom(r);
+            double engine = Ant.distance(r.getX(), r.getY(), b.getX(), b.getY());
+            if(Double.compare(redSide, blackSide) != 0 || Double.compare(redSide, engine) != 0){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calculates the stable marriage by matching the closest pairs first.
+     * @return the final table with the matches between the ants. If there are more red ants than black,
+     * the red ants that are not matched have -1 as their match.
+     */
+    public int[][] calculateStableMarriage(){
+        int reds = redXs.length;
+        KdTree blackTree = KdTree.ofAllPoints(blackXs, blackYs);
+        KdTree.Nearest nearest = new KdTree.Nearest();
+        boolean[] blackMatched = new boolean[blackXs.length];
+
+        for(int i=0; i<reds; ++i){
+            finalSMTable[i][0] = i;
+            finalSMTable[i][1] = -1;
+            if(findCandidate(i, blackTree, nearest)){
+                heap[heapSize++] = i;
+            }
+        }
+        //Heapify.
+        for(int i=heapSize/2-1; i>=0; --i){
+            siftDown(i);
+        }
+
+        while(heapSize > 0){
+            int redID = heap[0];
+            int blackID = candidate[redID];
+            if(!blackMatched[blackID]){
+                //The closest pair of all the ants that are left, match them.
+                finalSMTable[redID][1] = blackID;
+                blackMatched[blackID] = true;
+                blackTree.remove(blackID);
+                heap[0] = heap[--heapSize];
+            }
+            else if(!findCandidate(redID, blackTree, nearest)){
+                //There are no free black ants, the red ant stays without match.
+                heap[0] = heap[--heapSize];
+            }
+            //Else the red ant has a new (farther) candidate and goes down the heap.
+            siftDown(0);
+        }
+        return finalSMTable;
+    }
+
+    /**
+     * Finds the nearest free black ant of the red ant.
+     * @return false if there are no free black ants.
+     */
+    private boolean findCandidate(int redID, KdTree blackTree, KdTree.Nearest nearest){
+        nearest.reset();
+        blackTree.nearest(redXs[redID], redYs[redID], null, 0, nearest);
+        candidate[redID] = nearest.id;
+        candidateDistance[redID] = nearest.distance;
+        return nearest.id != -1;
+    }
+
+    /**
+     * @return true if the red ant first is before the red ant second in the heap.
+     */
+    private boolean before(int first, int second){
+        return candidateDistance[first] < candidateDistance[second]
+                || (candidateDistance[first] == candidateDistance[second] && first < second);
+    }
+
+    private void siftDown(int i){
+        if(heapSize == 0){
+            return;
+        }
+        int red = heap[i];
+        while(true){
+            int child = 2 * i + 1;
+            if(child >= heapSize){
+                break;
+            }
+            if(child + 1 < heapSize && before(heap[child+1], heap[child])){
+                ++child;
+            }
+            if(!before(heap[child], red)){
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = red;
+    }
+}
@@ -0,0 +1,191 @@
+package algorithms;
+
+import model.Ant;
+import model.BlackAnt;
+import model.RedAnt;
+import java.util.ArrayList;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * Calculates a Stable Marriage between the red and the black ants, where the red ants make the proposals,
+ * without creating the preference tables of {@link FindSM}.
+ * <p>
+ * The preferences of the ants are given by their distance, so the preference list of a red ant is
+ * just its black ants from the nearest to the farthest. Instead of storing the lists (n<sup>2</sup> values
+ * for each colour) every red ant asks a {@link KdTree} of the black ants for its next nearest black ant
+ * only when it has to make a new proposal. The tree returns the next PROPOSAL_BATCH black ants at once,
+ * so for each red ant we keep only these few black ants. A black ant compares two red ants directly by
+ * their distance from it.
+ * </p>
+ * <p>
+ * The ants are ordered by (distance, id) as in the sorted redBlackEdges of FindSM, so the result is the same
+ * red optimal matching that {@link FindSM#calculateStableMarriage()} returns, using O(n) memory.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class FindNearestFirstSM {
+    /**The number of the next preferred black ants each red ant gets from the kd-tree in one search.  */
+    private static final int PROPOSAL_BATCH = 8;
+
+    /**The coordinates of the red ants (indexed by their id).  */
+    private final double[] redXs;
+    private final double[] redYs;
+
+    /**The coordinates of the black ants (indexed by their id).  */
+    private final double[] blackXs;
+    private final double[] blackYs;
+
+    /**For each red ant the black ant it is matched with (-1 means no match).  */
+    private final int[] redMatch;
+
+    /**For each black ant the red ant it is matched with (-1 means no match).  */
+    private final int[] blackMatch;
+
+    /**
+     * For each red ant the next black ants it will propose to and their distances, in
+     * positions [redID*PROPOSAL_BATCH, (redID+1)*PROPOSAL_BATCH).
+     */
+    private final int[] nextProposals;
+    private final double[] nextProposalDistances;
+
+    /**For each red ant the position of its next proposal in nextProposals and the number of proposals there.  */
+    private final int[] nextProposalPosition;
+    private final int[] nextProposalCount;
+
+    /**
+     * The final table with the matches between the ants consisting the stable marriage.
+     * It has the same form as the table of {@link FindSM}.
+     */
+    private final int[][] finalSMTable;
+
+    /**
+     * Constructor.
+     * @param redAnts an ArrayList that contains all the red ants.
+     * @param blackAnts an ArrayList that contains all the black ants.
+     */
+    public FindNearestFirstSM(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts){
+        redXs = new double[redAnts.size()];
+        redYs = new double[redAnts.size()];
+        for(RedAnt r : redAnts){
+            redXs[r.getID()] = r.getX();
+            redYs[r.getID()] = r.getY();
+        }
+        blackXs = new double[blackAnts.size()];
+        blackYs = new double[blackAnts.size()];
+        for(BlackAnt b : blackAnts){
+            blackXs[b.getID()] = b.getX();
+            blackYs[b.getID()] = b.getY();
+        }
+        redMatch = new int[redAnts.size()];
+        blackMatch = new int[blackAnts.size()];
+        nextProposals = new int[redAnts.size() * PROPOSAL_BATCH];
+        nextProposalDistances = new double[redAnts.size() * PROPOSAL_BATCH];
+        nextProposalPosition = new int[redAnts.size()];
+        nextProposalCount = new int[redAnts.size()];
+        finalSMTable = new int[redAnts.size()][2];
+    }
+
+    /**
+     * Calculates the stable marriage with the red ants making the proposals.
+     * <p>
+     * The red ants that are not matched are kept in a stack. Each of them proposes to its next nearest black
+     * ant. If the black ant is free or prefers it (it is closer, or at the same distance with a smaller id)
+     * to its current red ant they are matched and the old red ant goes back to the stack. Else the red ant
+     * stays in the stack and proposes to its next black ant.
+     * </p>
+     * @return the final table with the matches between the ants. If there are more red ants than black,
+     * the red ants that are not matched have -1 as their match.
+     */
+    public int[][] calculateStableMarriage(){
+        int reds = redMatch.length;
+        KdTree blackTree = KdTree.ofAllPoints(blackXs, blackYs);
+        KdTree.KNearest next = new KdTree.KNearest(PROPOSAL_BATCH);
+
+        int[] freeReds = new int[reds];
+        int freeCount = 0;
+        for(int i=reds-1; i>=0; --i){
+            redMatch[i] = -1;
+            nextProposalPosition[i] = 0;
+            nextProposalCount[i] = 0;
+            freeReds[freeCount++] = i;
+        }
+        for(int i=0; i<blackMatch.length; ++i){
+            blackMatch[i] = -1;
+        }
+
+        while(freeCount > 0){
+            int redID = freeReds[freeCount-1];
+            //Gets the next preferred black ant of the red ant.
+            int blackID = nextProposal(redID, blackTree, next);
+            if(blackID == -1){
+                //The red ant has proposed to all the black ants, it stays without match.
+                --freeCount;
+                continue;
+            }
+
+            int oldRed = blackMatch[blackID];
+            if(oldRed == -1){
+                //The black ant has no match, make them couple.
+                --freeCount;
+                redMatch[redID] = blackID;
+                blackMatch[blackID] = redID;
+            }
+            else if(prefers(blackID, redID, oldRed)){
+                //The black ant prefers the new red ant, the old red ant takes its place in the stack.
+                freeReds[freeCount-1] = oldRed;
+                redMatch[oldRed] = -1;
+                redMatch[redID] = blackID;
+                blackMatch[blackID] = redID;
+            }
+            //Else the black ant rejects the red ant, which stays in the stack for its next choice.
+        }
+
+        for(int i=0; i<reds; ++i){
+            finalSMTable[i][0] = i;
+            finalSMTable[i][1] = redMatch[i];
+        }
+        return finalSMTable;
+    }
+
+    /**
+     * Returns the next black ant the red ant will propose to. When the red ant has used all the black ants
+     * of its batch, the next PROPOSAL_BATCH black ants after the last one are taken from the kd-tree.
+     * @return The id of the black ant or -1 if the red ant has proposed to all the black ants.
+     */
+    private int nextProposal(int redID, KdTree blackTree, KdTree.KNearest next){
+        int first = redID * PROPOSAL_BATCH;
+        if(nextProposalPosition[redID] == nextProposalCount[redID]){
+            int count = nextProposalCount[redID];
+            next.reset();
+            if(count == 0){
+                //The first search.
+                blackTree.nearestAfter(redXs[redID], redYs[redID], -1, -1, next);
+            }
+            else if(count == PROPOSAL_BATCH){
+                //Continue after the last black ant of the previous batch.
+                blackTree.nearestAfter(redXs[redID], redYs[redID], nextProposalDistances[first+count-1],
+                        nextProposals[first+count-1], next);
+            }
+            //Else the previous batch was not full, there are no other black ants.
+            if(next.count == 0){
+                return -1;
+            }
+            System.arraycopy(next.ids, 0, nextProposals, first, next.count);
+            System.arraycopy(next.distances, 0, nextProposalDistances, first, next.count);
+            nextProposalPosition[redID] = 0;
+            nextProposalCount[redID] = next.count;
+        }
+        return nextProposals[first + nextProposalPosition[redID]++];
+    }
+
+    /**
+     * @return true if the black ant prefers the red ant newRed to the red ant oldRed.
+     */
+    private boolean prefers(int blackID, int newRed, int oldRed){
+        double newDistance = Ant.distance(redXs[newRed], redYs[newRed], blackXs[blackID], blackYs[blackID]);
+        double oldDistance = Ant.distance(redXs[oldRed], redYs[oldRed], blackXs[blackID], blackYs[blackID]);
+        return newDistance < oldDistance || (newDistance == oldDistance && newRed < oldRed);
+    }
+}
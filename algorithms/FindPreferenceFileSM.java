@@ -0,0 +1,172 @@
+package algorithms;
+
+import utils.MappedTable;
+import utils.PreferenceFile;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * Calculates a Stable Marriage between the red and the black ants, where the red ants make the proposals,
+ * with the preference lists of a {@link PreferenceFile} instead of the distances of the ants.
+ * <p>
+ * It is the algorithm of {@link FindSM}, but the tables are not kept in the heap. The preference lists of the
+ * red ants (redTable of FindSM) are read directly from the mapped file. The ranks of the red ants for each
+ * black ant (blackTable of FindSM) are written in a temporary mapped file, which is deleted when the
+ * calculation ends (or, where a mapped file can not be deleted, when its mapping is released). In the heap there are only a few arrays of size n.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class FindPreferenceFileSM {
+    /**The preference lists of the ants.  */
+    private final PreferenceFile preferences;
+
+    /**The number of the ants of each color.  */
+    private final int numOfAntsPerColour;
+
+    /**For each red ant the position in its preference list of the next black ant it will propose to.  */
+    private final int[] redCounter;
+
+    /**For each black ant the red ant it is matched with (-1 means no match).  */
+    private final int[] blackMatch;
+
+    /**
+     * The final table with the matches between the ants consisting the stable marriage.
+     * It has the same form as the table of {@link FindSM}.
+     */
+    private final int[][] finalSMTable;
+
+    /**
+     * Constructor.
+     * @param preferences The preference lists of the red and the black ants.
+     */
+    public FindPreferenceFileSM(PreferenceFile preferences){
+        this.preferences = preferences;
+        this.numOfAntsPerColour = preferences.getNumOfAntsPerColour();
+        redCounter = new int[numOfAntsPerColour];
+        blackMatch = new int[numOfAntsPerColour];
+        finalSMTable = new int[numOfAntsPerColour][2];
+    }
+
+    /**
+     * Calculates the stable marriage with the red ants making the proposals.
+     * @return the final table with the matches between the ants.
+     * @throws IOException If the temporary rank file can not be created or a preference list is not a
+     * permutation of the ants of the other colour.
+     */
+    public int[][] calculateStableMarriage() throws IOException{
+        checkRedPreferences();
+        Path rankFile = Files.createTempFile("ant-ranks", ".bin");
+        //DELETE_ON_CLOSE: where a mapped file can not be deleted (Windows) it is removed when the mapping is released.
+        try(FileChannel channel = FileChannel.open(rankFile, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE)){
+            findSM(createRanks(channel));
+        }
+        finally{
+            try{
+                Files.deleteIfExists(rankFile);
+            }
+            catch(IOException e){
+                //Still mapped, it is deleted on close. The matching or the error of the calculation matters more.
+            }
+        }
+        for(int i=0; i<numOfAntsPerColour; ++i){
+            finalSMTable[i][0] = i;
+            finalSMTable[i][1] = -1;
+        }
+        for(int blackID=0; blackID<numOfAntsPerColour; ++blackID){
+            if(blackMatch[blackID] != -1){
+                finalSMTable[blackMatch[blackID]][1] = blackID;
+            }
+        }
+        return finalSMTable;
+    }
+
+    /**
+     * Creates the table with the rank of every red ant for every black ant (like the blackTable of FindSM).
+     * <p>
+     * ranks[black][red] keeps the position of the red ant in the preference list of the black ant + 1,
+     * so that the 0 of the new file means that the red ant has not been found yet in the list.
+     * </p>
+     */
+    private MappedTable createRanks(FileChannel channel) throws IOException{
+        int n = numOfAntsPerColour;
+        //Mapping READ_WRITE past the end of the new file makes it long enough, filled with zeros.
+        MappedTable ranks = new MappedTable(channel, FileChannel.MapMode.READ_WRITE, 0, n, n, MappedTable.idWidthFor(n));
+        for(int blackID=0; blackID<n; ++blackID){
+            for(int position=0; position<n; ++position){
+                int redID = preferences.getBlackPreference(blackID, position);
+                if(redID < 0 || redID >= n){
+                    throw new IOException("The black ant " + blackID + " has the wrong red ant id " + redID + " in its preferences");
+                }
+                if(ranks.get(blackID, redID) != 0){
+                    throw new IOException("The black ant " + blackID + " has the red ant " + redID + " twice in its preferences");
+                }
+                ranks.set(blackID, redID, position + 1);
+            }
+        }
+        return ranks;
+    }
+
+    /**
+     * Checks that the preference list of every red ant is a permutation of the black ants, as
+     * {@link #createRanks(FileChannel)} does for the black ants.
+     * @throws IOException If a list has a wrong id or the same black ant twice.
+     */
+    private void checkRedPreferences() throws IOException{
+        int n = numOfAntsPerColour;
+        //seenBy[black] == red + 1 if the black ant is already in the list of the red ant.
+        int[] seenBy = new int[n];
+        for(int redID=0; redID<n; ++redID){
+            for(int position=0; position<n; ++position){
+                int blackID = preferences.getRedPreference(redID, position);
+                if(blackID < 0 || blackID >= n){
+                    throw new IOException("The red ant " + redID + " has the wrong black ant id " + blackID + " in its preferences");
+                }
+                if(seenBy[blackID] == redID + 1){
+                    throw new IOException("The red ant " + redID + " has the black ant " + blackID + " twice in its preferences");
+                }
+                seenBy[blackID] = redID + 1;
+            }
+        }
+    }
+
+    /**
+     * The Gale-Shapley algorithm. The red ants that are not matched are kept in a stack and propose to
+     * the next black ant of their list. A black ant accepts a proposal if it has no match or if it ranks the new
+     * red ant before its current one, in which case its old red ant goes back to the stack.
+     */
+    private void findSM(MappedTable ranks){
+        int n = numOfAntsPerColour;
+        int[] freeReds = new int[n];
+        int freeCount = 0;
+        for(int i=n-1; i>=0; --i){
+            redCounter[i] = 0;
+            blackMatch[i] = -1;
+            freeReds[freeCount++] = i;
+        }
+        while(freeCount > 0){
+            int redID = freeReds[freeCount-1];
+            if(redCounter[redID] == n){
+                //The red ant has proposed to all the black ants, it stays without match.
+                --freeCount;
+                continue;
+            }
+            int blackID = preferences.getRedPreference(redID, redCounter[redID]++);
+            int oldRed = blackMatch[blackID];
+            if(oldRed == -1){
+                blackMatch[blackID] = redID;
+                --freeCount;
+            }
+            else if(ranks.get(blackID, redID) < ranks.get(blackID, oldRed)){
+                //The black ant prefers the new red ant, the old red ant takes its place in the stack.
+                blackMatch[blackID] = redID;
+                freeReds[freeCount-1] = oldRed;
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package algorithms;
+
+import model.Ant;
+import model.BlackAnt;
+import model.RedAnt;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * Calculates the MST of the ants with Prim's algorithm directly from their coordinates.
+ * <p>
+ * The graph between the ants is complete, so instead of storing its edges (about 2n<sup>2</sup>)
+ * we compute the distances when they are needed. For each ant that is not yet in the tree we keep
+ * only its distance from the tree and the ant of the tree that gives this distance. So the memory
+ * needed is O(n) and the time O(n<sup>2</sup>).
+ * </p>
+ * <p>
+ * In every step the ants that are not in the tree are relaxed with the ant added last and the closest
+ * of them is found. This loop is split in parts that run in parallel with fork/join.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class FindPrimMST {
+    /**
+     * Parts of the relax loop smaller than this are not split further.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 8192;
+
+    /**The total number of all the ants (Both red and black).  */
+    private final int totalAnts;
+
+    /**
+     * The coordinates, the id, the distance from the tree and the closest ant of the tree for the
+     * ants that are not in the tree yet. Only the first remaining positions are used, when an ant is
+     * added to the tree the last ant is moved to its position.
+     */
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] ids;
+    private final double[] distanceFromTree;
+    private final int[] closestInTree;
+
+    /**The number of the ants that are not in the tree.  */
+    private int remaining;
+
+    /**
+     * The final 2D array that contains all the edges that constitute the MST.
+     * It has the same form as the table returned by {@link FindMST#calculateMST()}.
+     */
+    private final int[][] mstArray;
+
+    /**
+     * Constructor
+     * @param redAnts an ArrayList that contains all the red ants.
+     * @param blackAnts an ArrayList that contains all the black ants.
+     */
+    public FindPrimMST(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts){
+        double[][] coordinates = FindMST.antCoordinates(redAnts, blackAnts);
+        totalAnts = coordinates[0].length;
+        xs = coordinates[0];
+        ys = coordinates[1];
+        ids = new int[totalAnts];
+        distanceFromTree = new double[totalAnts];
+        closestInTree = new int[totalAnts];
+        mstArray = new int[Math.max(totalAnts-1, 0)][4];
+    }
+
+    /**
+     * Calculates the MST between all the ants.
+     * <p>
+     * We start the tree from the red ant with id 0. Then N-1 times we relax all the ants that are not in
+     * the tree with the ant added last, we add to the tree the ant closest to it and we store the edge
+     * that connected it.
+     * </p>
+     * @return A 2d array int[red_population+black_population-1][4]. In each row there is the ant
+     * ID and an identifier whether it is from red (0) or black population (1)
+     * I.e., ant id - identifier - ant id -identifier E.g. [21,0,4,1] -> means that the red ant with ID 21
+     * is connected with the black ant with ID 4.
+     */
+    public int[][] calculateMST(){
+        if(totalAnts < 2){
+            return mstArray;
+        }
+        for(int i=0; i<totalAnts; ++i){
+            ids[i] = i;
+            distanceFromTree[i] = Double.POSITIVE_INFINITY;
+            closestInTree[i] = -1;
+        }
+        remaining = totalAnts;
+
+        //Add the first ant to the tree.
+        double lastX = xs[0];
+        double lastY = ys[0];
+        int lastId = ids[0];
+        removeRemaining(0);
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        for(int numOfEdgesInMST=0; numOfEdgesInMST<totalAnts-1; ++numOfEdgesInMST){
+            int closest;
+            if(remaining <= SEQUENTIAL_THRESHOLD){
+                closest = relax(0, remaining, lastX, lastY, lastId);
+            }
+            else{
+                RelaxTask task = new RelaxTask(0, remaining, lastX, lastY, lastId);
+                pool.invoke(task);
+                closest = task.closest;
+            }
+            int first = Math.min(ids[closest], closestInTree[closest]);
+            int second = Math.max(ids[closest], closestInTree[closest]);
+            FindMST.setMstRow(mstArray[numOfEdgesInMST], first, second, totalAnts);
+
+            lastX = xs[closest];
+            lastY = ys[closest];
+            lastId = ids[closest];
+            removeRemaining(closest);
+        }
+        return mstArray;
+    }
+
+    /**
+     * Updates the distance from the tree of the ants in positions [lo, hi) with the ant added last
+     * and returns the position of the closest of them.
+     * <p>
+     * Ants with the same distance are ordered by their id, so the result does not depend on how
+     * the loop is split.
+     * </p>
+     */
+    private int relax(int lo, int hi, double lastX, double lastY, int lastId){
+        int closest = -1;
+        for(int i=lo; i<hi; ++i){
+            double distance = Ant.distance(lastX, lastY, xs[i], ys[i]);
+            if(distance < distanceFromTree[i]){
+                distanceFromTree[i] = distance;
+                closestInTree[i] = lastId;
+            }
+            if(closest == -1 || isCloser(i, closest)){
+                closest = i;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * @return true if the ant in position i is closer to the tree than the ant in position j.
+     */
+    private boolean isCloser(int i, int j){
+        return distanceFromTree[i] < distanceFromTree[j]
+                || (distanceFromTree[i] == distanceFromTree[j] && ids[i] < ids[j]);
+    }
+
+    /**
+     * Removes the ant in the given position from the remaining ants by moving the last remaining ant in its place.
+     */
+    private void removeRemaining(int position){
+        --remaining;
+        xs[position] = xs[remaining];
+        ys[position] = ys[remaining];
+        ids[position] = ids[remaining];
+        distanceFromTree[position] = distanceFromTree[remaining];
+        closestInTree[position] = closestInTree[remaining];
+    }
+
+    /**
+     * Fork/join task that relaxes a part of the remaining ants. Big parts are split in two halves
+     * that run in parallel and the closest ants of the two halves are compared.
+     */
+    private class RelaxTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int lo;
+        private final int hi;
+        private final double lastX;
+        private final double lastY;
+        private final int lastId;
+        /**The position of the closest ant of this part.  */
+        private int closest;
+
+        RelaxTask(int lo, int hi, double lastX, double lastY, int lastId){
+            this.lo = lo;
+            this.hi = hi;
+            this.lastX = lastX;
+            this.lastY = lastY;
+            this.lastId = lastId;
+        }
+
+        @Override
+        protected void compute(){
+            if(hi - lo <= SEQUENTIAL_THRESHOLD){
+                closest = relax(lo, hi, lastX, lastY, lastId);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            RelaxTask left = new RelaxTask(lo, mid, lastX, lastY, lastId);
+            RelaxTask right = new RelaxTask(mid, hi, lastX, lastY, lastId);
+            invokeAll(left, right);
+            closest = isCloser(right.closest, left.closest) ? right.closest : left.closest;
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package algorithms;
+
+import model.BlackAnt;
+import java.util.Arrays;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * Calculates the coin change of {@link FindCoinChange} for very big capacities, without a table of
+ * capacity+1 weights.
+ * <p>
+ * The dynamic programming of FindCoinChange gives for a weight w the min number of seeds + the weight that
+ * is left (the weight that is not covered by seeds counts as one seed for each unit). For a set of seeds with
+ * M the heaviest seed, if c<sub>i</sub> seeds of weight s<sub>i</sub> and r units are used besides the
+ * seeds of weight M, the number of seeds is (w + P) / M where P = &Sigma; c<sub>i</sub>(M - s<sub>i</sub>) + r(M - 1).
+ * So we search for the smallest P for each residue of w modulo M, which is a shortest path problem over the
+ * M residues: from each residue we can go with a seed s to the residue (+s mod M) with cost M - s, or with one
+ * unit to the residue (+1 mod M) with cost M - 1. The seeds of weight M go back to the same residue with cost 0.
+ * It is solved once with Dijkstra's algorithm, with O(M) memory.
+ * </p>
+ * <p>
+ * The best P of a residue can be used only if the weight of its seeds fits in w, so we also keep for each residue
+ * the lightest weight with the best P. Above the heaviest of these weights (threshold) the formula above is
+ * always correct, and the dynamic programming (which prefers the heaviest seed when two seeds give the same
+ * number) always chooses a seed of weight M first. So for a capacity above the threshold we only count the
+ * seeds of weight M until the capacity is between threshold and threshold + M, and the rest is given by the
+ * table of {@link FindBlockCoinChange} up to threshold + M. The result is exactly the one of
+ * {@link FindCoinChange#calculateCoinChange()}.
+ * </p>
+ * <p>
+ * If the threshold is too big for these tables (i.e. very heavy seeds), the seeds of the shortest path of the
+ * residue of the capacity are used instead. It is also a min number of seeds, but when there are many solutions
+ * it can be a different one from FindCoinChange.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class FindResidueCoinChange {
+    /**The max length of the table that is calculated for the weights below the threshold.  */
+    static final int MAX_TABLE_WEIGHTS = 1 << 22;
+
+    /**
+     * The capacities up to this value are calculated by Algorithms.coinChange with the tables of FindCoinChange,
+     * the bigger ones with this class.
+     */
+    public static final int MAX_DP_CAPACITY = 1 << 20;
+
+    /**The weights of the seeds in ascending order (a copy, the objects of the black ant are not changed).  */
+    private final int[] objects;
+
+    /**For each seed of objects[] its position in the objects array of the black ant.  */
+    private final int[] originalPositions;
+
+    /**The weight of the heaviest seed (the number of the residues) and its position in objects[].  */
+    private final int heaviestSeed;
+    private final int heaviestPosition;
+
+    /**For each residue the smallest P and the lightest weight of the seeds (and units) that give it.  */
+    private final long[] penalty;
+    private final long[] lightestWeight;
+
+    /**For each residue the position in objects[] of the last seed of its shortest path (-1 for a unit, -2 for residue 0).  */
+    private final int[] lastSeed;
+
+    /**The heaviest of the lightestWeight[] values, above it the formula is always correct.  */
+    private final long threshold;
+
+    /**The weights of the seeds as given by the black ant, with 0 for the seeds heavier than maxCapacity.  */
+    private final int[] seeds;
+
+    /**The biggest capacity that can be calculated: the lightest seed that is not used - 1.  */
+    private final int maxCapacity;
+
+    /**The table of the min number of seeds up to threshold + heaviestSeed - 1, or null if it is too big.  */
+    private final FindBlockCoinChange table;
+
+    /**
+     * Constructor for every capacity. All the seeds are kept, so the residues are as many as the heaviest seed.
+     * @param blackAnt the black ant that will give seeds.
+     */
+    public FindResidueCoinChange(BlackAnt blackAnt){
+        this(blackAnt.getObjects(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructor. Calculates the shortest paths of the residues and (if they are not too big)
+     * the tables for the weights below the threshold.
+     * @param blackAnt the black ant that will give seeds. Only the seeds that can be used up to the capacity
+     * are kept, see {@link FindCoinChange#effectiveSeeds(int[], int)}.
+     * @param capacity a capacity that will be calculated. The seeds heavier than it are not used, so they don't
+     * make the arrays of the residues bigger, and the capacities from their lightest weight on can't be calculated.
+     */
+    public FindResidueCoinChange(BlackAnt blackAnt, int capacity){
+        this(blackAnt.getObjects(), capacity);
+    }
+
+    /**
+     * Constructor
+     * @param blackObjects the objects of the black ant, they are copied.
+     * @param capacity a capacity that will be calculated.
+     */
+    private FindResidueCoinChange(int[] blackObjects, int capacity){
+        seeds = usableSeeds(blackObjects, capacity);
+        int limit = Integer.MAX_VALUE;
+        for(int seed : blackObjects){
+            if(seed > capacity){
+                limit = Math.min(limit, seed - 1);
+            }
+        }
+        maxCapacity = limit;
+        int[][] effective = FindCoinChange.effectiveSeeds(seeds, capacity);
+        objects = effective[0];
+        originalPositions = effective[1];
+        if(objects.length == 0){
+            heaviestSeed = 1;
+            heaviestPosition = -1;
+        }
+        else{
+            heaviestSeed = objects[objects.length - 1];
+            heaviestPosition = objects.length - 1;
+        }
+        penalty = new long[heaviestSeed];
+        lightestWeight = new long[heaviestSeed];
+        lastSeed = new int[heaviestSeed];
+        findShortestPaths();
+
+        long max = 0;
+        for(long w : lightestWeight){
+            max = Math.max(max, w);
+        }
+        threshold = max;
+        if(threshold + heaviestSeed <= MAX_TABLE_WEIGHTS){
+            table = new FindBlockCoinChange(seeds, (int)threshold + heaviestSeed - 1);
+            table.findCoinChange();
+        }
+        else{
+            table = null;
+        }
+    }
+
+    /**
+     * @param objects The objects of a black ant.
+     * @param capacity The biggest capacity that will be calculated.
+     * @return A copy of the objects with 0 for the seeds heavier than the capacity (they can't be used), in the
+     * same positions.
+     */
+    static int[] usableSeeds(int[] objects, int capacity){
+        int[] usable = objects.clone();
+        for(int i=0; i<usable.length; ++i){
+            if(usable[i] > capacity){
+                usable[i] = 0;
+            }
+        }
+        return usable;
+    }
+
+    /**
+     * Dijkstra's algorithm over the residues modulo heaviestSeed, by (penalty, lightestWeight).
+     */
+    private void findShortestPaths(){
+        int m = heaviestSeed;
+        Arrays.fill(penalty, Long.MAX_VALUE);
+        Arrays.fill(lightestWeight, Long.MAX_VALUE);
+        penalty[0] = 0;
+        lightestWeight[0] = 0;
+        lastSeed[0] = -2;
+
+        //The seeds lighter than the heaviest (objects[] has no duplicates), the heaviest seed only goes back
+        //to the same residue.
+        int stepCount = objects.length - 1;
+
+        //Binary heap of residues with the position of each residue in it (-1 if it is not in the heap).
+        int[] heap = new int[m];
+        int[] heapPosition = new int[m];
+        Arrays.fill(heapPosition, -1);
+        int heapSize = 0;
+        heap[heapSize] = 0;
+        heapPosition[0] = heapSize++;
+
+        while(heapSize > 0){
+            int residue = heap[0];
+            heapPosition[residue] = -1;
+            --heapSize;
+            if(heapSize > 0){
+                heap[0] = heap[heapSize];
+                heapPosition[heap[0]] = 0;
+                siftDown(heap, heapPosition, heapSize, 0);
+            }
+            //The seeds, from the heaviest to the lightest, and last one unit. The first of equal paths is kept.
+            for(int i=stepCount; i>=0; --i){
+                int step = i > 0 ? objects[i-1] : 1;
+                int seedPosition = i > 0 ? i - 1 : -1;
+                int next = (int)((residue + (long)step) % m);
+                long nextPenalty = penalty[residue] + (m - step);
+                long nextWeight = lightestWeight[residue] + step;
+                if(nextPenalty < penalty[next] || (nextPenalty == penalty[next] && nextWeight < lightestWeight[next])){
+                    penalty[next] = nextPenalty;
+                    lightestWeight[next] = nextWeight;
+                    lastSeed[next] = seedPosition;
+                    if(heapPosition[next] == -1){
+                        heap[heapSize] = next;
+                        heapPosition[next] = heapSize++;
+                    }
+                    siftUp(heap, heapPosition, heapPosition[next]);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if the residue a is before the residue b in the heap.
+     */
+    private boolean before(int a, int b){
+        return penalty[a] < penalty[b] || (penalty[a] == penalty[b] && lightestWeight[a] < lightestWeight[b]);
+    }
+
+    private void siftUp(int[] heap, int[] heapPosition, int i){
+        int residue = heap[i];
+        while(i > 0){
+            int parent = (i - 1) / 2;
+            if(!before(residue, heap[parent])){
+                break;
+            }
+            heap[i] = heap[parent];
+            heapPosition[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = residue;
+        heapPosition[residue] = i;
+    }
+
+    private void siftDown(int[] heap, int[] heapPosition, int heapSize, int i){
+        int residue = heap[i];
+        while(true){
+            int child = 2 * i + 1;
+            if(child >= heapSize){
+                break;
+            }
+            if(child + 1 < heapSize && before(heap[child+1], heap[child])){
+                ++child;
+            }
+            if(!before(heap[child], residue)){
+                break;
+            }
+            heap[i] = heap[child];
+            heapPosition[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = residue;
+        heapPosition[residue] = i;
+    }
+
+    /**
+     * @return The size of the arrays of this engine: the residues and the table below the threshold (if any),
+     * used by {@link ResidueCoinChangeCache} to bound its memory.
+     */
+    long weights(){
+        return heaviestSeed + (table == null ? 0 : threshold + heaviestSeed);
+    }
+
+    /**
+     * Calculates the min num of seeds for the capacity.
+     * @param capacity the total weight of seeds the red ant can carry.
+     * @return an array with how many seeds are needed of each seed, in the order of the objects of the black ant
+     * (the same form as {@link FindCoinChange#calculateCoinChange()}).
+     * @throws IllegalArgumentException if the capacity can use a seed that was left out by the constructor.
+     */
+    public int[] calculateCoinChange(int capacity){
+        if(capacity > maxCapacity){
+            throw new IllegalArgumentException("Capacity " + capacity + " needs seeds heavier than " + maxCapacity + " that are not kept");
+        }
+        int[] coinChange = new int[seeds.length];
+        if(objects.length == 0 || capacity <= 0){
+            return coinChange;
+        }
+        if(table != null){
+            //Count the heaviest seeds until the capacity is below threshold + heaviestSeed, the rest is in the table.
+            int heaviestCount = capacity > threshold ? (int)((capacity - threshold) / heaviestSeed) : 0;
+            int rest = capacity - heaviestCount * heaviestSeed;
+            table.finalCoinChangeArray(rest, coinChange, 0);
+            coinChange[originalPositions[heaviestPosition]] += heaviestCount;
+            return coinChange;
+        }
+        int residue = capacity % heaviestSeed;
+        if(capacity < lightestWeight[residue]){
+            //The best seeds of the residue don't fit, the whole table is needed.
+            FindBlockCoinChange fullTable = new FindBlockCoinChange(seeds, capacity);
+            fullTable.findCoinChange();
+            fullTable.finalCoinChangeArray(capacity, coinChange, 0);
+            return coinChange;
+        }
+        //The seeds of the shortest path of the residue and the heaviest seeds for the rest of the weight.
+        coinChange[originalPositions[heaviestPosition]] = (int)((capacity - lightestWeight[residue]) / heaviestSeed);
+        while(lastSeed[residue] != -2){
+            int step;
+            if(lastSeed[residue] == -1){
+                step = 1;
+            }
+            else{
+                step = objects[lastSeed[residue]];
+                coinChange[originalPositions[lastSeed[residue]]] += 1;
+            }
+            residue = (int)(((long)residue - step + heaviestSeed) % heaviestSeed);
+        }
+        return coinChange;
+    }
+}
@@ -0,0 +1,359 @@
+package algorithms;
+
+import java.util.Arrays;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * A set of points that can change, made of {@link KdTree}s that never change (the logarithmic method).
+ * <p>
+ * Level i has either no tree or a tree with at most 2<sup>i</sup> points. A new point is added together with
+ * the points of the full levels 0, 1, ... in a new tree on the first empty level, like adding 1 to a binary
+ * number, so every point is moved to a new tree at most log n times and an insertion costs O(log<sup>2</sup> n)
+ * amortized time. A removed point is only marked in its tree; when the removed points are more than the points
+ * left all the points left are put in one new tree. The searches are done on each of the O(log n) trees.
+ * </p>
+ * <p>
+ * Every tree has its own arrays with the coordinates of its points, the points are given to it with local
+ * ids (their position in the level), so a small tree never allocates arrays for all the points.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+final class KdForest {
+    /**The tree of each level, or null if the level is empty.  */
+    private KdTree[] trees = new KdTree[0];
+
+    /**For each level the global ids and the coordinates of its points, by their local id.  */
+    private int[][] levelIds = new int[0][];
+    private double[][] levelX = new double[0][];
+    private double[][] levelY = new double[0][];
+
+    /**For each level the labels of its points by their local id, used by {@link #nearest(double, double, int, KdTree.Nearest)}.  */
+    private int[][] levelLabels = new int[0][];
+
+    /**For each level the number of its points that are not removed.  */
+    private int[] levelAlive = new int[0];
+
+    /**For each point (by its global id) its level, or -1 if it is not in the forest, and its local id.  */
+    private int[] levelOf = new int[0];
+    private int[] localOf = new int[0];
+
+    /**
+     * For each point (by its global id) its reach and reach key (see {@link KdTree#setReaches(double[], int[])}),
+     * null if the forest does not keep reaches.
+     */
+    private double[] reachOf;
+    private int[] reachKeyOf;
+
+    /**The number of the points and of the removed points that are still in the trees.  */
+    private int alive;
+    private int removed;
+
+    /**The results of the searches on one tree.  */
+    private final KdTree.Nearest local = new KdTree.Nearest();
+    private final KdTree.Nearest[] localCones = new KdTree.Nearest[KdTree.CONES];
+
+    KdForest(){
+        this(false);
+    }
+
+    /**
+     * Constructor
+     * @param withReaches true if the points have reaches, for {@link #nearestReaching(double, double, int, KdTree.Nearest)}.
+     */
+    KdForest(boolean withReaches){
+        for(int c=0; c<KdTree.CONES; ++c){
+            localCones[c] = new KdTree.Nearest();
+        }
+        if(withReaches){
+            reachOf = new double[0];
+            reachKeyOf = new int[0];
+        }
+    }
+
+    /**
+     * @return The number of the points.
+     */
+    int size(){
+        return alive;
+    }
+
+    /**
+     * @return true if the point is in the forest.
+     */
+    boolean contains(int id){
+        return id < levelOf.length && levelOf[id] != -1;
+    }
+
+    /**
+     * Adds a point.
+     * @param id The global id of the point (it must not be in the forest).
+     * @param x The X coordinate of the point.
+     * @param y The Y coordinate of the point.
+     */
+    void insert(int id, double x, double y){
+        ensureIds(id + 1);
+        //Find the first empty level, the points of the levels before it go to its new tree.
+        int level = 0;
+        int count = 1;
+        while(level < trees.length && trees[level] != null){
+            count += levelAlive[level];
+            ++level;
+        }
+        int[] ids = new int[count];
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        int n = 0;
+        for(int l=0; l<level; ++l){
+            n = collect(l, ids, xs, ys, n);
+        }
+        ids[n] = id;
+        xs[n] = x;
+        ys[n] = y;
+        build(level, ids, xs, ys);
+        ++alive;
+    }
+
+    /**
+     * Adds many points at once in one tree, the forest must be empty.
+     * @param ids The global ids of the points.
+     * @param xs The X coordinates of the points (by their position in ids).
+     * @param ys The Y coordinates of the points (by their position in ids).
+     */
+    void insertAll(int[] ids, double[] xs, double[] ys){
+        if(ids.length == 0){
+            return;
+        }
+        int maxId = 0;
+        for(int id : ids){
+            maxId = Math.max(maxId, id);
+        }
+        ensureIds(maxId + 1);
+        int level = 0;
+        while((1L << level) < ids.length){
+            ++level;
+        }
+        build(level, ids.clone(), xs.clone(), ys.clone());
+        alive = ids.length;
+    }
+
+    /**
+     * Removes a point.
+     * @param id The global id of the point (it must be in the forest).
+     */
+    void remove(int id){
+        int level = levelOf[id];
+        trees[level].remove(localOf[id]);
+        levelOf[id] = -1;
+        --levelAlive[level];
+        --alive;
+        ++removed;
+        if(levelAlive[level] == 0){
+            removed -= levelIds[level].length;
+            clear(level);
+        }
+        else if(removed > alive){
+            rebuild();
+        }
+    }
+
+    /**
+     * Changes the reach of a point (infinity when it is added), see {@link KdTree#setReaches(double[], int[])}.
+     * It can be set before the point is inserted.
+     */
+    void setReach(int id, double r, int key){
+        ensureIds(id + 1);
+        reachOf[id] = r;
+        reachKeyOf[id] = key;
+        if(contains(id)){
+            trees[levelOf[id]].setReach(localOf[id], r, key);
+        }
+    }
+
+    /**
+     * Finds the nearest point to (qx, qy) that accepts the query, see {@link KdTree#nearestReaching(double, double, int, KdTree.Nearest)}.
+     * @param result Keeps the best point found with its global id, it must be reset before the search.
+     */
+    void nearestReaching(double qx, double qy, int qKey, KdTree.Nearest result){
+        for(int level=0; level<trees.length; ++level){
+            if(trees[level] == null){
+                continue;
+            }
+            local.id = -1;
+            local.distance = result.distance;
+            trees[level].nearestReaching(qx, qy, qKey, local);
+            if(local.id != -1){
+                result.offer(levelIds[level][local.id], local.distance);
+            }
+        }
+    }
+
+    /**
+     * Sets the label of a point, the searches of {@link #nearest(double, double, int, KdTree.Nearest)} skip the points
+     * with the excluded label. All the points have label 0 when they are added.
+     */
+    void setLabel(int id, int label){
+        levelLabels[levelOf[id]][localOf[id]] = label;
+    }
+
+    /**
+     * Finds the nearest point to (qx, qy) that does not have the excluded label.
+     * @param excludedLabel The label of the points that are not accepted, 0 if all the points are accepted
+     * (there is always a point with label 0 left).
+     * @param result Keeps the best point found with its global id. If it already has a point only closer points
+     * are accepted.
+     */
+    void nearest(double qx, double qy, int excludedLabel, KdTree.Nearest result){
+        for(int level=0; level<trees.length; ++level){
+            if(trees[level] == null){
+                continue;
+            }
+            local.id = -1;
+            local.distance = result.distance;
+            trees[level].nearest(qx, qy, excludedLabel == 0 ? null : levelLabels[level], excludedLabel, local);
+            if(local.id != -1){
+                result.offer(levelIds[level][local.id], local.distance);
+            }
+        }
+    }
+
+    /**
+     * Finds the nearest point to (qx, qy) in each of the cones of {@link KdTree#nearestInCones(double, double, KdTree.Nearest[])}.
+     * @param result The best point of each cone with its global id.
+     */
+    void nearestInCones(double qx, double qy, KdTree.Nearest[] result){
+        for(int level=0; level<trees.length; ++level){
+            if(trees[level] == null){
+                continue;
+            }
+            for(int c=0; c<KdTree.CONES; ++c){
+                localCones[c].id = -1;
+                localCones[c].distance = result[c].distance;
+            }
+            trees[level].nearestInCones(qx, qy, localCones);
+            for(int c=0; c<KdTree.CONES; ++c){
+                if(localCones[c].id != -1){
+                    result[c].offer(levelIds[level][localCones[c].id], localCones[c].distance);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the points of a level that are not removed to the arrays and empties the level.
+     * @return The position after the last point copied.
+     */
+    private int collect(int level, int[] ids, double[] xs, double[] ys, int n){
+        int[] globalIds = levelIds[level];
+        for(int i=0; i<globalIds.length; ++i){
+            int id = globalIds[i];
+            if(levelOf[id] == level && localOf[id] == i){
+                ids[n] = id;
+                xs[n] = levelX[level][i];
+                ys[n] = levelY[level][i];
+                ++n;
+            }
+        }
+        removed -= globalIds.length - levelAlive[level];
+        clear(level);
+        return n;
+    }
+
+    /**
+     * Puts all the points left in one tree.
+     */
+    private void rebuild(){
+        int[] ids = new int[alive];
+        double[] xs = new double[alive];
+        double[] ys = new double[alive];
+        int n = 0;
+        for(int level=0; level<trees.length; ++level){
+            if(trees[level] != null){
+                n = collect(level, ids, xs, ys, n);
+            }
+        }
+        int level = 0;
+        while((1L << level) < n){
+            ++level;
+        }
+        build(level, ids, xs, ys);
+    }
+
+    /**
+     * Creates the tree of a level with the points given.
+     * <p>
+     * The points are put in the order of their global ids, so the local ids are in the same order and the
+     * searches of the trees break the ties of the distances by the global ids.
+     * </p>
+     */
+    private void build(int level, int[] unsortedIds, double[] unsortedXs, double[] unsortedYs){
+        int n = unsortedIds.length;
+        long[] order = new long[n];
+        for(int i=0; i<n; ++i){
+            order[i] = ((long)unsortedIds[i] << 32) | i;
+        }
+        Arrays.sort(order);
+        int[] ids = new int[n];
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for(int i=0; i<n; ++i){
+            int position = (int)order[i];
+            ids[i] = unsortedIds[position];
+            xs[i] = unsortedXs[position];
+            ys[i] = unsortedYs[position];
+        }
+        if(level >= trees.length){
+            int levels = level + 1;
+            trees = Arrays.copyOf(trees, levels);
+            levelIds = Arrays.copyOf(levelIds, levels);
+            levelX = Arrays.copyOf(levelX, levels);
+            levelY = Arrays.copyOf(levelY, levels);
+            levelLabels = Arrays.copyOf(levelLabels, levels);
+            levelAlive = Arrays.copyOf(levelAlive, levels);
+        }
+        for(int i=0; i<ids.length; ++i){
+            levelOf[ids[i]] = level;
+            localOf[ids[i]] = i;
+        }
+        trees[level] = KdTree.ofAllPoints(xs, ys);
+        if(reachOf != null){
+            double[] reaches = new double[n];
+            int[] keys = new int[n];
+            for(int i=0; i<n; ++i){
+                reaches[i] = reachOf[ids[i]];
+                keys[i] = reachKeyOf[ids[i]];
+            }
+            trees[level].setReaches(reaches, keys);
+        }
+        levelIds[level] = ids;
+        levelX[level] = xs;
+        levelY[level] = ys;
+        levelLabels[level] = new int[ids.length];
+        levelAlive[level] = ids.length;
+    }
+
+    private void clear(int level){
+        trees[level] = null;
+        levelIds[level] = null;
+        levelX[level] = null;
+        levelY[level] = null;
+        levelLabels[level] = null;
+        levelAlive[level] = 0;
+    }
+
+    private void ensureIds(int n){
+        if(n > levelOf.length){
+            int capacity = Math.max(n, 2 * levelOf.length);
+            int old = levelOf.length;
+            levelOf = Arrays.copyOf(levelOf, capacity);
+            localOf = Arrays.copyOf(localOf, capacity);
+            Arrays.fill(levelOf, old, capacity, -1);
+            if(reachOf != null){
+                reachOf = Arrays.copyOf(reachOf, capacity);
+                reachKeyOf = Arrays.copyOf(reachKeyOf, capacity);
+                Arrays.fill(reachOf, old, capacity, Double.POSITIVE_INFINITY);
+            }
+        }
+    }
+}
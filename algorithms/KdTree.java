@@ -0,0 +1,642 @@
+package algorithms;
+
+import model.Ant;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * A 2D tree (kd-tree) over a set of points used to find nearest neighbours without checking all the points.
+ * <p>
+ * The points are kept in the array points[] and every node of the tree covers the points of a range
+ * points[lo..hi-1] and keeps their bounding box. A node is split at the median of its widest
+ * dimension, until it has at most LEAF_SIZE points. The nodes are stored in preorder, so the left
+ * child of a node is always the next node.
+ * </p>
+ * <p>
+ * The distances are calculated with {@link Ant#distance(double, double, double, double)} and points with
+ * the same distance are ordered by their id, so the results are the same as if all the points were checked.
+ * </p>
+ * <p>
+ * Points can be removed from the tree with {@link #remove(int)}. The nodes keep the number of their points
+ * that are not removed, so the searches skip the nodes that have no points left.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+final class KdTree {
+    /**The max number of points in a leaf.  */
+    private static final int LEAF_SIZE = 8;
+
+    /**The coordinates of the points (indexed by the id of the point).  */
+    private final double[] xs;
+    private final double[] ys;
+
+    /**The ids of the points of the tree, each node covers a range of this array.  */
+    private final int[] points;
+
+    /**For each node the range of points[] it covers and its right child (-1 for the leaves).  */
+    private final int[] nodeLo;
+    private final int[] nodeHi;
+    private final int[] rightChild;
+
+    /**The bounding box of the points of each node.  */
+    private final double[] minX;
+    private final double[] maxX;
+    private final double[] minY;
+    private final double[] maxY;
+
+    /**
+     * For each node the label that all its points share, or -1 if they have different labels.
+     * It is used to skip whole nodes when we search for a point with a different label.
+     */
+    private final int[] nodeLabel;
+
+    /**For each node its parent (-1 for the root) and the number of its points that are not removed.  */
+    private final int[] nodeParent;
+    private final int[] nodeAlive;
+
+    /**For each point (indexed by its id) the leaf it belongs and whether it has been removed.  */
+    private final int[] leafOfPoint;
+    private final boolean[] removed;
+
+    /**The number of the nodes.  */
+    private int nodeCount;
+
+    /**
+     * For each point (indexed by its id) its reach and the key that breaks the ties of the reach, used by
+     * {@link #nearestReaching(double, double, int, Nearest)}. They are null until {@link #setReaches(double[], int[])}.
+     */
+    private double[] reach;
+    private int[] reachKey;
+
+    /**For each node the biggest reach of its points.  */
+    private double[] nodeReach;
+
+    /**
+     * Constructor. Builds the tree over the given points.
+     * @param xs The X coordinates of all the points (indexed by the id of the point).
+     * @param ys The Y coordinates of all the points (indexed by the id of the point).
+     * @param pointIds The ids of the points that will be added to the tree.
+     */
+    KdTree(double[] xs, double[] ys, int[] pointIds){
+        this.xs = xs;
+        this.ys = ys;
+        this.points = pointIds.clone();
+        int maxNodes = 4 * (points.length / LEAF_SIZE + 1);
+        nodeLo = new int[maxNodes];
+        nodeHi = new int[maxNodes];
+        rightChild = new int[maxNodes];
+        minX = new double[maxNodes];
+        maxX = new double[maxNodes];
+        minY = new double[maxNodes];
+        maxY = new double[maxNodes];
+        nodeLabel = new int[maxNodes];
+        nodeParent = new int[maxNodes];
+        nodeAlive = new int[maxNodes];
+        leafOfPoint = new int[xs.length];
+        removed = new boolean[xs.length];
+        nodeCount = 0;
+        if(points.length > 0){
+            build(0, points.length, -1);
+        }
+    }
+
+    /**
+     * Creates a tree over the points with ids 0..n-1.
+     */
+    static KdTree ofAllPoints(double[] xs, double[] ys){
+        int[] ids = new int[xs.length];
+        for(int i=0; i<ids.length; ++i){
+            ids[i] = i;
+        }
+        return new KdTree(xs, ys, ids);
+    }
+
+    /**
+     * Creates the node for the points[lo..hi-1] and its subtree.
+     * @return The index of the node.
+     */
+    private int build(int lo, int hi, int parent){
+        int node = nodeCount++;
+        nodeLo[node] = lo;
+        nodeHi[node] = hi;
+        nodeParent[node] = parent;
+        nodeAlive[node] = hi - lo;
+        double x0 = Double.POSITIVE_INFINITY;
+        double x1 = Double.NEGATIVE_INFINITY;
+        double y0 = Double.POSITIVE_INFINITY;
+        double y1 = Double.NEGATIVE_INFINITY;
+        for(int i=lo; i<hi; ++i){
+            int p = points[i];
+            x0 = Math.min(x0, xs[p]);
+            x1 = Math.max(x1, xs[p]);
+            y0 = Math.min(y0, ys[p]);
+            y1 = Math.max(y1, ys[p]);
+        }
+        minX[node] = x0;
+        maxX[node] = x1;
+        minY[node] = y0;
+        maxY[node] = y1;
+        nodeLabel[node] = 0;
+        if(hi - lo <= LEAF_SIZE){
+            rightChild[node] = -1;
+            for(int i=lo; i<hi; ++i){
+                leafOfPoint[points[i]] = node;
+            }
+            return node;
+        }
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, x1 - x0 >= y1 - y0);
+        build(lo, mid, node);
+        rightChild[node] = build(mid, hi, node);
+        return node;
+    }
+
+    /**
+     * Quickselect: rearranges points[lo..hi] so that the point in position k is the one that would be
+     * there if they were sorted by the X (or the Y) coordinate, the points before it are not bigger
+     * and the points after it are not smaller.
+     */
+    private void select(int lo, int hi, int k, boolean byX){
+        double[] c = byX ? xs : ys;
+        while(hi > lo){
+            double pivot = c[points[(lo + hi) >>> 1]];
+            int i = lo;
+            int j = hi;
+            while(i <= j){
+                while(c[points[i]] < pivot){
+                    ++i;
+                }
+                while(c[points[j]] > pivot){
+                    --j;
+                }
+                if(i <= j){
+                    int temp = points[i];
+                    points[i] = points[j];
+                    points[j] = temp;
+                    ++i;
+                    --j;
+                }
+            }
+            if(k <= j){
+                hi = j;
+            }
+            else if(k >= i){
+                lo = i;
+            }
+            else{
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes a point from the tree, the searches will not return it any more.
+     * The bounding boxes are not changed, they are still valid for the points left.
+     * @param p The id of the point (it must be a point of the tree).
+     */
+    void remove(int p){
+        if(removed[p]){
+            return;
+        }
+        removed[p] = true;
+        for(int node=leafOfPoint[p]; node!=-1; node=nodeParent[node]){
+            --nodeAlive[node];
+        }
+    }
+
+    /**
+     * Sets the reach of every point: a point accepts a query at distance d with key k only if (d, k) is before
+     * (reach, reach key) of the point, e.g. a black ant accepts a red ant that is nearer than its partner.
+     * @param reaches The reach of each point (indexed by the id of the point), infinity if it accepts any query.
+     * @param keys The reach key of each point (indexed by the id of the point).
+     */
+    void setReaches(double[] reaches, int[] keys){
+        reach = reaches.clone();
+        reachKey = keys.clone();
+        nodeReach = new double[nodeCount];
+        //The children of a node are always after it, so we can go from the last node to the first.
+        for(int node=nodeCount-1; node>=0; --node){
+            nodeReach[node] = rightChild[node] == -1 ? leafReach(node) : Math.max(nodeReach[node+1], nodeReach[rightChild[node]]);
+        }
+    }
+
+    /**
+     * Changes the reach of a point, see {@link #setReaches(double[], int[])}.
+     */
+    void setReach(int p, double r, int key){
+        reach[p] = r;
+        reachKey[p] = key;
+        int node = leafOfPoint[p];
+        nodeReach[node] = leafReach(node);
+        for(node=nodeParent[node]; node!=-1; node=nodeParent[node]){
+            double max = Math.max(nodeReach[node+1], nodeReach[rightChild[node]]);
+            if(max == nodeReach[node]){
+                break;
+            }
+            nodeReach[node] = max;
+        }
+    }
+
+    private double leafReach(int node){
+        double max = Double.NEGATIVE_INFINITY;
+        for(int i=nodeLo[node]; i<nodeHi[node]; ++i){
+            if(!removed[points[i]]){
+                max = Math.max(max, reach[points[i]]);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Finds the nearest point to (qx, qy) that is not removed and accepts the query (see
+     * {@link #setReaches(double[], int[])}). The nodes whose points can not reach the query are skipped.
+     * @param qKey The key of the query, compared with the reach key of a point when the distance equals its reach.
+     * @param result Keeps the best point found. If it already has a point only closer points are accepted.
+     */
+    void nearestReaching(double qx, double qy, int qKey, Nearest result){
+        if(nodeCount > 0){
+            nearestReaching(0, qx, qy, qKey, result);
+        }
+    }
+
+    private void nearestReaching(int node, double qx, double qy, int qKey, Nearest result){
+        double bound = lowerBound(node, qx, qy);
+        if(nodeAlive[node] == 0 || bound > nodeReach[node] || bound > result.distance){
+            return;
+        }
+        if(rightChild[node] == -1){
+            for(int i=nodeLo[node]; i<nodeHi[node]; ++i){
+                int p = points[i];
+                if(removed[p]){
+                    continue;
+                }
+                double d = Ant.distance(qx, qy, xs[p], ys[p]);
+                if(d < reach[p] || (d == reach[p] && qKey < reachKey[p])){
+                    result.offer(p, d);
+                }
+            }
+            return;
+        }
+        int left = node + 1;
+        int right = rightChild[node];
+        if(lowerBound(left, qx, qy) <= lowerBound(right, qx, qy)){
+            nearestReaching(left, qx, qy, qKey, result);
+            nearestReaching(right, qx, qy, qKey, result);
+        }
+        else{
+            nearestReaching(right, qx, qy, qKey, result);
+            nearestReaching(left, qx, qy, qKey, result);
+        }
+    }
+
+    /**
+     * Calculates for every node the label that all its points share (or -1), so that the searches
+     * with {@link #nearest(double, double, int[], int, Nearest)} can skip the nodes that have only
+     * points with the excluded label.
+     * @param labels The label of each point (indexed by the id of the point).
+     */
+    void updateLabels(int[] labels){
+        //The children of a node are always after it, so we can go from the last node to the first.
+        for(int node=nodeCount-1; node>=0; --node){
+            if(rightChild[node] == -1){
+                int label = labels[points[nodeLo[node]]];
+                for(int i=nodeLo[node]+1; i<nodeHi[node]; ++i){
+                    if(labels[points[i]] != label){
+                        label = -1;
+                        break;
+                    }
+                }
+                nodeLabel[node] = label;
+            }
+            else{
+                int left = nodeLabel[node+1];
+                nodeLabel[node] = left == nodeLabel[rightChild[node]] ? left : -1;
+            }
+        }
+    }
+
+    /**
+     * Finds the nearest point to (qx, qy) that is not removed and does not have the excluded label.
+     * @param qx The X coordinate of the query.
+     * @param qy The Y coordinate of the query.
+     * @param labels The label of each point or null if all the points are accepted.
+     * @param excludedLabel The label of the points that are not accepted.
+     * @param result Keeps the best point found. If it already has a point (i.e. from a previous search)
+     * only closer points are accepted.
+     */
+    void nearest(double qx, double qy, int[] labels, int excludedLabel, Nearest result){
+        if(nodeCount > 0){
+            nearest(0, qx, qy, labels, excludedLabel, result);
+        }
+    }
+
+    private void nearest(int node, double qx, double qy, int[] labels, int excludedLabel, Nearest result){
+        if(nodeAlive[node] == 0 || (labels != null && nodeLabel[node] == excludedLabel)){
+            return;
+        }
+        if(rightChild[node] == -1){
+            for(int i=nodeLo[node]; i<nodeHi[node]; ++i){
+                int p = points[i];
+                if(removed[p] || (labels != null && labels[p] == excludedLabel)){
+                    continue;
+                }
+                result.offer(p, Ant.distance(qx, qy, xs[p], ys[p]));
+            }
+            return;
+        }
+        int left = node + 1;
+        int right = rightChild[node];
+        double leftBound = lowerBound(left, qx, qy);
+        double rightBound = lowerBound(right, qx, qy);
+        //Visit first the closest child, the other one is visited only if it can have a closer point.
+        if(leftBound <= rightBound){
+            if(leftBound <= result.distance){
+                nearest(left, qx, qy, labels, excludedLabel, result);
+            }
+            if(rightBound <= result.distance){
+                nearest(right, qx, qy, labels, excludedLabel, result);
+            }
+        }
+        else{
+            if(rightBound <= result.distance){
+                nearest(right, qx, qy, labels, excludedLabel, result);
+            }
+            if(leftBound <= result.distance){
+                nearest(left, qx, qy, labels, excludedLabel, result);
+            }
+        }
+    }
+
+    /**
+     * Finds the k nearest points to (qx, qy) that come after a given point in the order (distance, id).
+     * <p>
+     * Calling it again with the last point found each time returns all the points group by group from the
+     * nearest to the farthest, without keeping any list of them. Nodes that are completely closer than the
+     * given distance are skipped.
+     * </p>
+     * @param qx The X coordinate of the query.
+     * @param qy The Y coordinate of the query.
+     * @param afterDistance The distance of the last point returned (or a negative number for the first search).
+     * @param afterId The id of the last point returned (or -1 for the first search).
+     * @param result Keeps the best points found, it must be reset before the search.
+     */
+    void nearestAfter(double qx, double qy, double afterDistance, int afterId, KNearest result){
+        if(nodeCount > 0){
+            nearestAfter(0, qx, qy, afterDistance, afterId, result);
+        }
+    }
+
+    private void nearestAfter(int node, double qx, double qy, double afterDistance, int afterId, KNearest result){
+        if(nodeAlive[node] == 0 || upperBound(node, qx, qy) < afterDistance){
+            return;
+        }
+        if(rightChild[node] == -1){
+            for(int i=nodeLo[node]; i<nodeHi[node]; ++i){
+                int p = points[i];
+                if(removed[p]){
+                    continue;
+                }
+                double d = Ant.distance(qx, qy, xs[p], ys[p]);
+                if(d > afterDistance || (d == afterDistance && p > afterId)){
+                    result.offer(p, d);
+                }
+            }
+            return;
+        }
+        int left = node + 1;
+        int right = rightChild[node];
+        double leftBound = lowerBound(left, qx, qy);
+        double rightBound = lowerBound(right, qx, qy);
+        if(leftBound <= rightBound){
+            if(leftBound <= result.worstDistance()){
+                nearestAfter(left, qx, qy, afterDistance, afterId, result);
+            }
+            if(rightBound <= result.worstDistance()){
+                nearestAfter(right, qx, qy, afterDistance, afterId, result);
+            }
+        }
+        else{
+            if(rightBound <= result.worstDistance()){
+                nearestAfter(right, qx, qy, afterDistance, afterId, result);
+            }
+            if(leftBound <= result.worstDistance()){
+                nearestAfter(left, qx, qy, afterDistance, afterId, result);
+            }
+        }
+    }
+
+    /**
+     * The directions of the borders of the cones of {@link #cone(double, double)}, cone c is between the
+     * directions c and c+1 (counterclockwise).
+     */
+    private static final int[] CONE_DX = {1, 1, 0, -1, -1, -1, 0, 1};
+    private static final int[] CONE_DY = {0, 1, 1, 1, 0, -1, -1, -1};
+
+    /**The number of cones around a point.  */
+    static final int CONES = 8;
+
+    /**
+     * Finds the cone of 45 degrees around a point that contains the direction (dx, dy). Cone c contains
+     * the angles from c*45 to (c+1)*45 degrees, the borders belong to one of the two cones.
+     * @return The cone, from 0 to 7.
+     */
+    static int cone(double dx, double dy){
+        if(dy >= 0){
+            if(dx > 0){
+                return dy < dx ? 0 : 1;
+            }
+            return -dx < dy ? 2 : 3;
+        }
+        if(dx < 0){
+            return -dy < -dx ? 4 : 5;
+        }
+        return dx < -dy ? 6 : 7;
+    }
+
+    /**
+     * Finds in each of the 8 cones of 45 degrees around (qx, qy) (see {@link #cone(double, double)}) the nearest
+     * point that is not removed. Two points in the same cone are never more than 45 degrees apart as seen from
+     * (qx, qy), so an edge of the Euclidean MST always goes to the nearest point of its cone.
+     * @param qx The X coordinate of the query.
+     * @param qy The Y coordinate of the query.
+     * @param result The best point of each cone. If they already have a point only closer points are accepted.
+     */
+    void nearestInCones(double qx, double qy, Nearest[] result){
+        if(nodeCount > 0){
+            nearestInCones(0, qx, qy, result);
+        }
+    }
+
+    private void nearestInCones(int node, double qx, double qy, Nearest[] result){
+        if(nodeAlive[node] == 0 || !needed(node, qx, qy, result)){
+            return;
+        }
+        if(rightChild[node] == -1){
+            for(int i=nodeLo[node]; i<nodeHi[node]; ++i){
+                int p = points[i];
+                if(!removed[p]){
+                    result[cone(xs[p] - qx, ys[p] - qy)].offer(p, Ant.distance(qx, qy, xs[p], ys[p]));
+                }
+            }
+            return;
+        }
+        //Visit first the closest child, it will make the results of the cones better sooner.
+        int left = node + 1;
+        int right = rightChild[node];
+        if(lowerBound(left, qx, qy) <= lowerBound(right, qx, qy)){
+            nearestInCones(left, qx, qy, result);
+            nearestInCones(right, qx, qy, result);
+        }
+        else{
+            nearestInCones(right, qx, qy, result);
+            nearestInCones(left, qx, qy, result);
+        }
+    }
+
+    /**
+     * @return true if the bounding box of the node touches a cone where it can have a point closer than the
+     * best point found for this cone.
+     */
+    private boolean needed(int node, double qx, double qy, Nearest[] result){
+        double bound = lowerBound(node, qx, qy);
+        double x0 = minX[node] - qx;
+        double x1 = maxX[node] - qx;
+        double y0 = minY[node] - qy;
+        double y1 = maxY[node] - qy;
+        for(int c=0; c<CONES; ++c){
+            if(bound <= result[c].distance && boxInCone(c, x0, x1, y0, y1)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the box [x0,x1]x[y0,y1] (relative to the apex of the cone) can have a point of the cone.
+     * The box and the cone are both convex, so they do not meet only if one of the borders of the cone
+     * or of the box separates them. The borders of the cones are horizontal, vertical or diagonal, so the
+     * tests only add and compare coordinates and never reject a box that has a point of the cone.
+     */
+    private static boolean boxInCone(int c, double x0, double x1, double y0, double y1){
+        //Every cone is inside a quadrant.
+        if((c < 2 || c > 5) ? x1 < 0 : x0 > 0){
+            return false;
+        }
+        if(c < 4 ? y1 < 0 : y0 > 0){
+            return false;
+        }
+        //The points of the cone are on the left of its first border and on the right of its second one.
+        int a = c;
+        int b = (c + 1) & 7;
+        double maxFirst = Math.max(Math.max(cross(a, x0, y0), cross(a, x0, y1)), Math.max(cross(a, x1, y0), cross(a, x1, y1)));
+        if(maxFirst < 0){
+            return false;
+        }
+        double minSecond = Math.min(Math.min(cross(b, x0, y0), cross(b, x0, y1)), Math.min(cross(b, x1, y0), cross(b, x1, y1)));
+        return minSecond <= 0;
+    }
+
+    /**
+     * @return The cross product of the border direction d and (x, y), positive if (x, y) is on its left.
+     */
+    private static double cross(int d, double x, double y){
+        return CONE_DX[d] * y - CONE_DY[d] * x;
+    }
+
+    /**
+     * @return The biggest distance a point of the node can have from (qx, qy). It is never smaller than the
+     * distance calculated for any point of the node.
+     */
+    private double upperBound(int node, double qx, double qy){
+        double fx = qx - minX[node] > maxX[node] - qx ? minX[node] : maxX[node];
+        double fy = qy - minY[node] > maxY[node] - qy ? minY[node] : maxY[node];
+        return Ant.distance(qx, qy, fx, fy);
+    }
+
+    /**
+     * @return The smallest distance a point of the node can have from (qx, qy). It is never bigger than the
+     * distance calculated for any point of the node.
+     */
+    private double lowerBound(int node, double qx, double qy){
+        double nx = qx < minX[node] ? minX[node] : (qx > maxX[node] ? maxX[node] : qx);
+        double ny = qy < minY[node] ? minY[node] : (qy > maxY[node] ? maxY[node] : qy);
+        return Ant.distance(qx, qy, nx, ny);
+    }
+
+    /**
+     * The result of a nearest neighbour search: the id of the best point and its distance.
+     * The points are compared first by distance and then by id.
+     */
+    static final class Nearest {
+        int id = -1;
+        double distance = Double.POSITIVE_INFINITY;
+
+        void reset(){
+            id = -1;
+            distance = Double.POSITIVE_INFINITY;
+        }
+
+        /**
+         * Keeps the point if it is better than the current best.
+         */
+        void offer(int p, double d){
+            if(d < distance || (d == distance && (id == -1 || p < id))){
+                id = p;
+                distance = d;
+            }
+        }
+    }
+
+    /**
+     * The result of a k nearest neighbours search: the ids of the k best points and their distances,
+     * sorted from the best to the worst. The points are compared first by distance and then by id.
+     */
+    static final class KNearest {
+        final int[] ids;
+        final double[] distances;
+        int count;
+
+        KNearest(int k){
+            ids = new int[k];
+            distances = new double[k];
+            count = 0;
+        }
+
+        void reset(){
+            count = 0;
+        }
+
+        /**
+         * @return The distance a point must not exceed to be kept (infinity while there are less than k points).
+         */
+        double worstDistance(){
+            return count < ids.length ? Double.POSITIVE_INFINITY : distances[count-1];
+        }
+
+        /**
+         * Keeps the point if it is better than the worst of the k points kept.
+         */
+        void offer(int p, double d){
+            int i = count;
+            if(i == ids.length){
+                if(d > distances[i-1] || (d == distances[i-1] && p > ids[i-1])){
+                    return;
+                }
+                //The worst point is dropped.
+                --i;
+            }
+            else{
+                ++count;
+            }
+            //Insertion sort step.
+            while(i > 0 && (d < distances[i-1] || (d == distances[i-1] && p < ids[i-1]))){
+                ids[i] = ids[i-1];
+                distances[i] = distances[i-1];
+                --i;
+            }
+            ids[i] = p;
+            distances[i] = d;
+        }
+    }
+}
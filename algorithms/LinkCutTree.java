@@ -0,0 +1,265 @@
+package algorithms;
+
+import java.util.Arrays;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * Link-cut tree (Sleator and Tarjan) over a forest whose nodes have weights, used by {@link DynamicMST}.
+ * <p>
+ * The forest is split in paths and each path is kept in a splay tree ordered by depth, the root of every splay
+ * tree points to the parent of its path ("path parent"). Linking two trees, cutting an edge and finding the node
+ * with the biggest weight on the path between two nodes all cost O(log n) amortized time. The edges of the MST
+ * are nodes of the forest too (with the weight of the edge), so the biggest edge of a path is a node.
+ * </p>
+ * <p>
+ * The nodes are kept in arrays (indexed by the id of the node) and not in objects, like {@link UnionFind}.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+final class LinkCutTree {
+    /**For each node its children in its splay tree and its parent (or its path parent), -1 if there is none.  */
+    private int[] left;
+    private int[] right;
+    private int[] parent;
+
+    /**For each node true if its subtree in the splay tree must be reversed (the path was turned around).  */
+    private boolean[] reversed;
+
+    /**The weight of each node.  */
+    private double[] weight;
+
+    /**For each node the node with the biggest weight of its subtree in the splay tree.  */
+    private int[] maxNode;
+
+    /**The ancestors of a node in its splay tree, from the root down, used by pushDownFrom.  */
+    private int[] path = new int[64];
+
+    /**
+     * Constructor
+     * @param capacity The number of nodes the arrays hold before they grow.
+     */
+    LinkCutTree(int capacity){
+        left = new int[0];
+        right = new int[0];
+        parent = new int[0];
+        reversed = new boolean[0];
+        weight = new double[0];
+        maxNode = new int[0];
+        ensureCapacity(capacity);
+    }
+
+    /**
+     * Grows the arrays so that they can hold the nodes 0..capacity-1.
+     */
+    void ensureCapacity(int capacity){
+        int old = left.length;
+        if(capacity <= old){
+            return;
+        }
+        capacity = Math.max(capacity, 2 * old);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        reversed = Arrays.copyOf(reversed, capacity);
+        weight = Arrays.copyOf(weight, capacity);
+        maxNode = Arrays.copyOf(maxNode, capacity);
+        for(int node=old; node<capacity; ++node){
+            reset(node, Double.NEGATIVE_INFINITY);
+        }
+    }
+
+    /**
+     * Makes the node a tree with only itself.
+     * @param node The node, it must not be linked to any other node.
+     * @param w The weight of the node.
+     */
+    void reset(int node, double w){
+        left[node] = -1;
+        right[node] = -1;
+        parent[node] = -1;
+        reversed[node] = false;
+        weight[node] = w;
+        maxNode[node] = node;
+    }
+
+    double getWeight(int node){
+        return weight[node];
+    }
+
+    /**
+     * Joins two trees with the edge (child, parent).
+     * @param child A node, it becomes the root of its tree and gets the other node as its parent.
+     * @param parentNode A node of another tree.
+     */
+    void link(int child, int parentNode){
+        makeRoot(child);
+        parent[child] = parentNode;
+    }
+
+    /**
+     * Removes the edge between two nodes.
+     * @param first A node.
+     * @param second A node connected directly with the first one.
+     */
+    void cut(int first, int second){
+        makeRoot(first);
+        access(second);
+        //The path is first-second, so first is the left child of second and has no right child.
+        left[second] = -1;
+        parent[first] = -1;
+        update(second);
+    }
+
+    /**
+     * @return The node with the biggest weight on the path between two nodes of the same tree.
+     */
+    int pathMax(int first, int second){
+        makeRoot(first);
+        access(second);
+        return maxNode[second];
+    }
+
+    /**
+     * Makes the node the root of its tree, by turning around the path from the root to it.
+     */
+    private void makeRoot(int node){
+        access(node);
+        reversed[node] = !reversed[node];
+    }
+
+    /**
+     * Makes the path from the root of the tree to the node one splay tree, with the node at its root and
+     * without a right child (no deeper nodes on the path).
+     */
+    private void access(int node){
+        int last = -1;
+        for(int x=node; x!=-1; x=parent[x]){
+            splay(x);
+            right[x] = last;
+            update(x);
+            last = x;
+        }
+        splay(node);
+    }
+
+    /**
+     * @return true if the node is the root of its splay tree (its parent is a path parent or none).
+     */
+    private boolean isSplayRoot(int node){
+        int p = parent[node];
+        return p == -1 || (left[p] != node && right[p] != node);
+    }
+
+    /**
+     * Moves the node to the root of its splay tree.
+     */
+    private void splay(int node){
+        pushDownFrom(node);
+        while(!isSplayRoot(node)){
+            int p = parent[node];
+            if(!isSplayRoot(p)){
+                int g = parent[p];
+                //Zig-zig rotates the parent first, zig-zag rotates the node twice.
+                if((left[g] == p) == (left[p] == node)){
+                    rotate(p);
+                }
+                else{
+                    rotate(node);
+                }
+            }
+            rotate(node);
+        }
+    }
+
+    /**
+     * Applies the reversals of all the ancestors of the node in its splay tree, from the root down.
+     */
+    private void pushDownFrom(int node){
+        int depth = 0;
+        for(int x=node; ; x=parent[x]){
+            ++depth;
+            if(isSplayRoot(x)){
+                break;
+            }
+        }
+        if(depth > path.length){
+            path = new int[Math.max(depth, 2 * path.length)];
+        }
+        int x = node;
+        for(int i=depth-1; i>=0; --i){
+            path[i] = x;
+            x = parent[x];
+        }
+        for(int i=0; i<depth; ++i){
+            pushDown(path[i]);
+        }
+    }
+
+    private void pushDown(int node){
+        if(reversed[node]){
+            int temp = left[node];
+            left[node] = right[node];
+            right[node] = temp;
+            if(left[node] != -1){
+                reversed[left[node]] = !reversed[left[node]];
+            }
+            if(right[node] != -1){
+                reversed[right[node]] = !reversed[right[node]];
+            }
+            reversed[node] = false;
+        }
+    }
+
+    /**
+     * Rotates the node over its parent in the splay tree.
+     */
+    private void rotate(int node){
+        int p = parent[node];
+        int g = parent[p];
+        boolean pWasRoot = isSplayRoot(p);
+        if(left[p] == node){
+            left[p] = right[node];
+            if(right[node] != -1){
+                parent[right[node]] = p;
+            }
+            right[node] = p;
+        }
+        else{
+            right[p] = left[node];
+            if(left[node] != -1){
+                parent[left[node]] = p;
+            }
+            left[node] = p;
+        }
+        parent[p] = node;
+        parent[node] = g;
+        if(!pWasRoot){
+            if(left[g] == p){
+                left[g] = node;
+            }
+            else{
+                right[g] = node;
+            }
+        }
+        update(p);
+        update(node);
+    }
+
+    /**
+     * Calculates the node with the biggest weight of the subtree from its children.
+     */
+    private void update(int node){
+        int best = node;
+        int l = left[node];
+        int r = right[node];
+        if(l != -1 && weight[maxNode[l]] > weight[best]){
+            best = maxNode[l];
+        }
+        if(r != -1 && weight[maxNode[r]] > weight[best]){
+            best = maxNode[r];
+        }
+        maxNode[node] = best;
+    }
+}
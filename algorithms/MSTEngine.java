@@ -0,0 +1,41 @@
+package algorithms;
+
+/**
+ * The implementations that can be used by {@link Algorithms#findMST(java.util.ArrayList, java.util.ArrayList, MSTEngine)}
+ * to calculate the MST of the ants. All of them return the same table.
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public enum MSTEngine {
+    /**
+     * Kruskal's algorithm on the edges between all the ants (about 2n<sup>2</sup> edges).
+     * @see FindMST
+     */
+    KRUSKAL,
+
+    /**
+     * Kruskal's algorithm only on the O(n) edges of the Delaunay triangulation of the ants.
+     * @see FindDelaunayMST
+     */
+    DELAUNAY,
+
+    /**
+     * Prim's algorithm directly on the coordinates of the ants, O(n<sup>2</sup>) time and O(n) memory
+     * without storing any edge.
+     * @see FindPrimMST
+     */
+    PRIM,
+
+    /**
+     * Parallel Boruvka's algorithm on the coordinates of the ants, the nearest ants of the other
+     * components are found with a kd-tree.
+     * @see FindBoruvkaMST
+     */
+    BORUVKA,
+
+    /**
+     * Filter-Kruskal on the edges between all the ants, sorts only the parts of the edges that are needed.
+     * @see FindFilterKruskalMST
+     */
+    FILTER_KRUSKAL
+}
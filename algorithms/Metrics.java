@@ -0,0 +1,232 @@
+package algorithms;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * Measures the phases of the algorithms (edges, sort, union-find, tables, Gale-Shapley, dynamic programming):
+ * wall time, bytes allocated and counters of the work done.
+ * <p>
+ * The measurements are enabled with the system property ants.metrics=true (-Dants.metrics=true). ENABLED is a
+ * static final flag, so when it is false {@link #start(String)} always returns the same empty phase and the JIT
+ * compiler removes the calls: the algorithms run as without measurements. The counters are counted in local
+ * variables of the algorithms and given once at the end of each phase.
+ * </p>
+ * <p>
+ * Every phase is added to the totals of its name, which are read with {@link #snapshot()}, and is also
+ * emitted as a JFR event (antcolony.Phase) when a flight recording is running. The bytes allocated are the
+ * bytes of the thread that runs the phase, so the allocations of the other threads of the parallel phases
+ * are not counted.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public final class Metrics {
+    /**True if the phases are measured.  */
+    public static final boolean ENABLED = Boolean.getBoolean("ants.metrics");
+
+    /**
+     * The counters of the work done in a phase.
+     */
+    public enum Counter {
+        /**Edges created or read.  */
+        EDGES_SCANNED,
+        /**Unions of the union-find that joined two trees.  */
+        UNIONS,
+        /**Proposals of the red ants in Gale-Shapley.  */
+        PROPOSALS,
+        /**Proposals rejected and red ants left by their black ant in Gale-Shapley.  */
+        REJECTIONS,
+        /**Cells of the tables of the coin change dynamic programming calculated.  */
+        DP_CELLS,
+        /**Cells of the preference tables of the stable marriage initialized.  */
+        TABLE_CELLS
+    }
+
+    /**The totals of each phase by its name.  */
+    private static final ConcurrentHashMap<String, PhaseStats> TOTALS = new ConcurrentHashMap<>();
+
+    /**The bean that gives the bytes allocated by a thread, or null if the JVM does not give them.  */
+    private static final com.sun.management.ThreadMXBean THREADS = allocationBean();
+
+    private Metrics(){
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean(){
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if(bean instanceof com.sun.management.ThreadMXBean){
+            com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean)bean;
+            if(allocation.isThreadAllocatedMemorySupported() && allocation.isThreadAllocatedMemoryEnabled()){
+                return allocation;
+            }
+        }
+        return null;
+    }
+
+    private static long allocatedBytes(){
+        return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Starts measuring a phase.
+     * @param name The name of the phase, e.g. "mst.sort".
+     * @return The phase, {@link Phase#end()} must be called when it ends.
+     */
+    public static Phase start(String name){
+        return ENABLED ? new Phase(name) : Phase.DISABLED;
+    }
+
+    /**
+     * @return A copy of the totals of every phase measured, by the name of the phase.
+     */
+    public static Map<String, PhaseStats> snapshot(){
+        TreeMap<String, PhaseStats> copy = new TreeMap<>();
+        for(Map.Entry<String, PhaseStats> e : TOTALS.entrySet()){
+            copy.put(e.getKey(), e.getValue().copy());
+        }
+        return copy;
+    }
+
+    /**
+     * Removes the totals of all the phases.
+     */
+    public static void reset(){
+        TOTALS.clear();
+    }
+
+    /**
+     * One running phase.
+     */
+    public static final class Phase {
+        /**The phase returned when the measurements are disabled, all its methods do nothing.  */
+        static final Phase DISABLED = new Phase(null);
+
+        private final String name;
+        private final long startNanos;
+        private final long startBytes;
+        private final long[] counters;
+        private final PhaseEvent event;
+
+        private Phase(String name){
+            this.name = name;
+            if(name == null){
+                startNanos = 0;
+                startBytes = 0;
+                counters = null;
+                event = null;
+                return;
+            }
+            counters = new long[Counter.values().length];
+            event = new PhaseEvent();
+            event.begin();
+            startBytes = allocatedBytes();
+            startNanos = System.nanoTime();
+        }
+
+        /**
+         * Adds to a counter of the phase.
+         */
+        public void count(Counter counter, long amount){
+            if(counters != null){
+                counters[counter.ordinal()] += amount;
+            }
+        }
+
+        /**
+         * Ends the phase and adds it to the totals of its name.
+         */
+        public void end(){
+            if(name == null){
+                return;
+            }
+            long nanos = System.nanoTime() - startNanos;
+            long bytes = allocatedBytes() - startBytes;
+            TOTALS.computeIfAbsent(name, PhaseStats::new).add(nanos, bytes, counters);
+            event.end();
+            if(event.shouldCommit()){
+                event.phase = name;
+                event.allocatedBytes = bytes;
+                event.edgesScanned = counters[Counter.EDGES_SCANNED.ordinal()];
+                event.unions = counters[Counter.UNIONS.ordinal()];
+                event.proposals = counters[Counter.PROPOSALS.ordinal()];
+                event.rejections = counters[Counter.REJECTIONS.ordinal()];
+                event.dpCells = counters[Counter.DP_CELLS.ordinal()];
+                event.tableCells = counters[Counter.TABLE_CELLS.ordinal()];
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * The totals of all the runs of a phase.
+     */
+    public static final class PhaseStats {
+        private final String name;
+        private long calls;
+        private long nanos;
+        private long allocatedBytes;
+        private final long[] counters = new long[Counter.values().length];
+
+        PhaseStats(String name){
+            this.name = name;
+        }
+
+        synchronized void add(long nanos, long bytes, long[] phaseCounters){
+            ++calls;
+            this.nanos += nanos;
+            allocatedBytes += bytes;
+            for(int i=0; i<counters.length; ++i){
+                counters[i] += phaseCounters[i];
+            }
+        }
+
+        synchronized PhaseStats copy(){
+            PhaseStats copy = new PhaseStats(name);
+            copy.add(nanos, allocatedBytes, counters);
+            copy.calls = calls;
+            return copy;
+        }
+
+        public String getName(){
+            return name;
+        }
+
+        /**@return The number of times the phase ran.  */
+        public synchronized long getCalls(){
+            return calls;
+        }
+
+        /**@return The total wall time of the phase in nanoseconds.  */
+        public synchronized long getNanos(){
+            return nanos;
+        }
+
+        /**@return The total bytes allocated by the thread of the phase.  */
+        public synchronized long getAllocatedBytes(){
+            return allocatedBytes;
+        }
+
+        /**@return The total of a counter.  */
+        public synchronized long getCounter(Counter counter){
+            return counters[counter.ordinal()];
+        }
+
+        @Override
+        public synchronized String toString(){
+            StringBuilder text = new StringBuilder();
+            text.append(name).append(": ").append(calls).append(" calls, ").append(nanos / 1000000.0).append(" ms, ")
+                .append(allocatedBytes).append(" bytes");
+            for(Counter c : Counter.values()){
+                if(counters[c.ordinal()] != 0){
+                    text.append(", ").append(c).append(' ').append(counters[c.ordinal()]);
+                }
+            }
+            return text.toString();
+        }
+    }
+}
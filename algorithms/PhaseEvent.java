@@ -0,0 +1,46 @@
+package algorithms;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * The JFR event of a phase measured by {@link Metrics}. The duration of the event is the wall time of the phase.
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+@Name("antcolony.Phase")
+@Label("Algorithm Phase")
+@Category("Ant Colony")
+@Description("A phase of the MST, stable marriage or coin change algorithms")
+class PhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+
+    @Label("Edges Scanned")
+    long edgesScanned;
+
+    @Label("Unions")
+    long unions;
+
+    @Label("Proposals")
+    long proposals;
+
+    @Label("Rejections")
+    long rejections;
+
+    @Label("DP Cells")
+    long dpCells;
+
+    @Label("Table Cells")
+    long tableCells;
+}
@@ -0,0 +1,125 @@
+package algorithms;
+
+import model.BlackAnt;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * Cache of the {@link FindResidueCoinChange} of the seeds of the black ants, so that the shortest paths of the
+ * residues and the tables below the threshold are calculated once for many capacities.
+ * <p>
+ * A FindResidueCoinChange gives the counts in the order of the objects of its black ant and it doesn't use the
+ * seeds heavier than its max capacity, so the key is the objects in that order with 0 for these seeds (see
+ * {@link FindResidueCoinChange#usableSeeds(int[], int)}, as a {@link SeedSet}): black ants with the same usable
+ * seeds in the same order share it.
+ * It never changes after its constructor, so it can be used by many threads and after it is removed.
+ * </p>
+ * <p>
+ * The total size of the cached engines (see {@link FindResidueCoinChange#weights()}) is bounded: when it is more
+ * than maxWeights the least recently used engines are removed, like in {@link CoinChangeTableCache}.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class ResidueCoinChangeCache {
+    /**The default max total size of the cached engines.  */
+    public static final int DEFAULT_MAX_WEIGHTS = 1 << 22;
+
+    /**The max total size of the cached engines.  */
+    private final long maxWeights;
+
+    /**The cached engines by the objects of their black ant, from the least to the most recently used.  */
+    private final LinkedHashMap<SeedSet, FindResidueCoinChange> engines;
+
+    /**The total size of the cached engines.  */
+    private long cachedWeights;
+
+    /**The number of requests found and not found in the cache.  */
+    private long hits;
+    private long misses;
+
+    /**
+     * Constructor. Creates a cache with the default max size.
+     */
+    public ResidueCoinChangeCache(){
+        this(DEFAULT_MAX_WEIGHTS);
+    }
+
+    /**
+     * Constructor
+     * @param maxWeights The max total size of the cached engines.
+     */
+    public ResidueCoinChangeCache(long maxWeights){
+        this.maxWeights = maxWeights;
+        engines = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the engine of the seeds of the black ant that can be used for the capacity, calculated now if it
+     * is not in the cache.
+     * @param blackAnt The black ant that will give seeds. Its objects are not kept.
+     * @param capacity The capacity that will be calculated. The engine is built without the seeds heavier than it.
+     * @return The engine, shared with the other black ants with the same usable objects.
+     */
+    public synchronized FindResidueCoinChange get(BlackAnt blackAnt, int capacity){
+        SeedSet key = new SeedSet(FindResidueCoinChange.usableSeeds(blackAnt.getObjects(), capacity), false);
+        FindResidueCoinChange cached = engines.get(key);
+        if(cached != null){
+            ++hits;
+            return cached;
+        }
+        ++misses;
+        FindResidueCoinChange result = new FindResidueCoinChange(blackAnt, capacity);
+        engines.put(key, result);
+        cachedWeights += result.weights();
+        evict(key);
+        return result;
+    }
+
+    /**
+     * Removes the least recently used engines until the total size is not more than maxWeights.
+     * The engine of the key given (the last used) is never removed.
+     */
+    private void evict(SeedSet keep){
+        Iterator<Map.Entry<SeedSet, FindResidueCoinChange>> it = engines.entrySet().iterator();
+        while(cachedWeights > maxWeights && it.hasNext()){
+            Map.Entry<SeedSet, FindResidueCoinChange> eldest = it.next();
+            if(eldest.getKey().equals(keep)){
+                continue;
+            }
+            cachedWeights -= eldest.getValue().weights();
+            it.remove();
+        }
+    }
+
+    /**
+     * Removes all the engines. The counters are not reset.
+     */
+    public synchronized void clear(){
+        engines.clear();
+        cachedWeights = 0;
+    }
+
+    /**@return The number of requests answered from the cache.  */
+    public synchronized long getHits(){
+        return hits;
+    }
+
+    /**@return The number of requests not found in the cache.  */
+    public synchronized long getMisses(){
+        return misses;
+    }
+
+    /**@return The number of the cached engines.  */
+    public synchronized int size(){
+        return engines.size();
+    }
+
+    /**@return The total size of the cached engines.  */
+    public synchronized long getCachedWeights(){
+        return cachedWeights;
+    }
+}
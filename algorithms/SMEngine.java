@@ -0,0 +1,30 @@
+package algorithms;
+
+/**
+ * The implementations that can be used by {@link Algorithms#findStableMarriage(java.util.ArrayList, java.util.ArrayList, SMEngine)}
+ * to calculate the stable marriage of the ants. All of them return the same red optimal matching.
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public enum SMEngine {
+    /**
+     * Gale-Shapley on the preference tables created from the sorted edges between all the red and
+     * black ants (n<sup>2</sup> edges and two n*(n+1) tables).
+     * @see FindSM
+     */
+    TABLES,
+
+    /**
+     * Gale-Shapley where every red ant gets its next nearest black ant from a kd-tree only when it
+     * needs it, O(n) memory.
+     * @see FindNearestFirstSM
+     */
+    NEAREST_FIRST,
+
+    /**
+     * Matches greedily the closest red-black pair of the ants that are left, using a kd-tree of the black ants
+     * with deletions. It is used only when the preferences are symmetric distances, else TABLES is used.
+     * @see FindGreedySM
+     */
+    GREEDY
+}
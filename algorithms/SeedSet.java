@@ -0,0 +1,36 @@
+package algorithms;
+
+import java.util.Arrays;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * The sorted seeds of a black ant, used as a key by the caches of the coin change
+ * ({@link CoinChangeTableCache} and {@link CanonicalCoinSystem}), or its seeds in their own order
+ * ({@link ResidueCoinChangeCache}).
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+final class SeedSet {
+    final int[] seeds;
+    private final int hash;
+
+    /**
+     * @param sortedObjects The weights of the seeds in ascending order.
+     * @param copy true for the keys stored in a cache, false for the keys used only for a search.
+     */
+    SeedSet(int[] sortedObjects, boolean copy){
+        seeds = copy ? sortedObjects.clone() : sortedObjects;
+        hash = Arrays.hashCode(seeds);
+    }
+
+    @Override
+    public boolean equals(Object o){
+        return o instanceof SeedSet && Arrays.equals(seeds, ((SeedSet)o).seeds);
+    }
+
+    @Override
+    public int hashCode(){
+        return hash;
+    }
+}
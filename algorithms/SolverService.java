@@ -0,0 +1,502 @@
+package algorithms;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import model.BlackAnt;
+import model.RedAnt;
+import utils.PointDistribution;
+import utils.WorkloadGenerator;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * Long-running mode of the algorithms: the ants are sent as requests and the MST, the stable marriage and the
+ * coin changes are sent back, so the JVM starts, loads the classes and compiles the algorithms only once.
+ * <p>
+ * Without arguments the requests are read from the standard input and the results are written to the standard
+ * output. With a port number the service listens on that port of localhost and every connection is served the same way.
+ * A request has the ants in the format of the input files ({@link utils.InputHandler#readInput}) between a header
+ * and a line "END":
+ * </p>
+ * <pre>
+ * SOLVE name tasks        tasks: MST, SM, CC or ALL, or a list like MST,CC
+ * 0 0.313 0.322 1432
+ * 1 0.865 0.765 12 14 78 1 78
+ * END
+ * </pre>
+ * <p>
+ * The ant ids are given by the order of the lines, as in the input files. The result has the same name:
+ * </p>
+ * <pre>
+ * RESULT name microseconds
+ * MST rows                each row "id identifier id identifier", see {@link Algorithms#findMST(ArrayList, ArrayList)}
+ * SM rows                 each row "red_id black_id"
+ * CC rows                 each row "red_id black_id count1 count2 ...", the coin change of each couple of the stable marriage
+ * END
+ * </pre>
+ * <p>
+ * A request that can not be read or solved, or that does not have as many red ants as black ants (whatever its
+ * tasks), gets "ERROR name message". "STATS" returns the number of the requests
+ * and batches and the percentiles of the latency (from the end of the request to the start of its result), and
+ * "QUIT" closes the connection. The replies of a connection are in the order of its commands.
+ * </p>
+ * <p>
+ * One solver thread takes the requests of all the connections from a queue. All the requests that are waiting
+ * when it is free are solved as one batch (smart batching: a batch never waits for more requests, so it grows
+ * only when the requests come faster than they are solved). The coin changes of all the requests of a batch are
+ * calculated with one {@link FindAllPairsCoinChange}, so its parallel loop and its tables are shared by the small
+ * requests, and the lists of the batch and the text of the results are reused from batch to batch.
+ * Before it accepts requests the service solves a few generated workloads so that the JIT compiles the algorithms.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class SolverService {
+    /**The most requests solved in one batch.  */
+    private static final int MAX_BATCH = 64;
+
+    /**The number of the most recent latencies kept for the percentiles.  */
+    private static final int LATENCY_SAMPLES = 1 << 16;
+
+    /**The population and the number of the workloads solved before the service starts.  */
+    private static final int WARMUP_POPULATION = 300;
+    private static final int WARMUP_ROUNDS = 20;
+
+    /**The requests waiting for the solver thread.  */
+    private final LinkedBlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+
+    /**The latencies of the requests in nanoseconds, a ring of the most recent ones.  */
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private long requests;
+    private long batches;
+
+    /**The ants of the coin changes of a batch (with new ids) and the text of the results, reused by the solver thread.  */
+    private final ArrayList<RedAnt> batchReds = new ArrayList<>();
+    private final ArrayList<BlackAnt> batchBlacks = new ArrayList<>();
+    private final StringBuilder text = new StringBuilder();
+
+    /**
+     * @param args Nothing to read the requests from the standard input, or the port to listen on localhost.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        SolverService service = new SolverService();
+        service.warmUp();
+        Thread solver = new Thread(service::solveRequests, "solver");
+        solver.setDaemon(true);
+        solver.start();
+        if(args.length == 0){
+            Connection connection = new Connection(System.out, null);
+            service.serve(System.in, connection);
+            connection.closed.await();
+            System.err.println(service.stats());
+            return;
+        }
+        int port = Integer.parseInt(args[0]);
+        try(ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())){
+            System.err.println("Listening on " + server.getLocalSocketAddress());
+            while(true){
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                Thread reader = new Thread(() -> {
+                    try{
+                        service.serve(socket.getInputStream(), new Connection(socket.getOutputStream(), socket));
+                    }
+                    catch(IOException e){
+                        System.err.println("Error: " + e.getMessage());
+                    }
+                }, "connection " + socket.getPort());
+                reader.setDaemon(true);
+                reader.start();
+            }
+        }
+    }
+
+    /**
+     * Reads the commands of a connection and gives them to the solver thread, until "QUIT" or the end of the input.
+     */
+    private void serve(InputStream input, Connection connection) throws IOException{
+        BufferedReader in = new BufferedReader(new InputStreamReader(input, StandardCharsets.US_ASCII), 1 << 16);
+        try{
+            String line;
+            while((line = in.readLine()) != null){
+                String[] words = line.trim().split("\\s+");
+                if(words[0].equals("SOLVE")){
+                    queue.add(readRequest(words, in, connection));
+                }
+                else if(words[0].equals("STATS")){
+                    queue.add(new Request(Request.STATS, null, connection));
+                }
+                else if(words[0].equals("QUIT")){
+                    break;
+                }
+                else if(!words[0].isEmpty()){
+                    Request error = new Request(Request.SOLVE, "-", connection);
+                    error.error = "Unknown command " + words[0];
+                    queue.add(error);
+                }
+            }
+        }
+        finally{
+            queue.add(new Request(Request.CLOSE, null, connection));
+        }
+    }
+
+    /**
+     * Reads the ants of a request up to the line "END". A request with a wrong line is read to the end too and
+     * gets an error message.
+     */
+    private static Request readRequest(String[] header, BufferedReader in, Connection connection) throws IOException{
+        Request request = new Request(Request.SOLVE, header.length > 1 ? header[1] : "-", connection);
+        try{
+            if(header.length != 3){
+                throw new IllegalArgumentException("The header must be \"SOLVE name tasks\"");
+            }
+            for(String task : header[2].split(",")){
+                switch(task){
+                    case "MST": request.mst = true; break;
+                    case "SM": request.sm = true; break;
+                    case "CC": request.cc = true; break;
+                    case "ALL": request.mst = request.sm = request.cc = true; break;
+                    default: throw new IllegalArgumentException("Unknown task " + task);
+                }
+            }
+        }
+        catch(IllegalArgumentException e){
+            request.error = e.getMessage();
+        }
+        String line;
+        while((line = in.readLine()) != null && !line.trim().equals("END")){
+            if(request.error == null && !line.trim().isEmpty()){
+                try{
+                    readAnt(line.trim().split("\\s+"), request);
+                }
+                catch(IllegalArgumentException e){
+                    request.error = "Invalid ant \"" + line.trim() + "\": " + e.getMessage();
+                }
+            }
+        }
+        if(request.error == null && line == null){
+            request.error = "The request has no END";
+        }
+        if(request.error == null && request.reds.size() != request.blacks.size()){
+            request.error = "A request needs as many red ants as black ants";
+        }
+        if(request.error == null && request.reds.isEmpty() && request.blacks.isEmpty()){
+            request.error = "There are no ants";
+        }
+        request.start = System.nanoTime();
+        return request;
+    }
+
+    private static void readAnt(String[] words, Request request){
+        if(words[0].equals("0") && words.length == 4){
+            request.reds.add(new RedAnt(request.reds.size(), Double.parseDouble(words[1]), Double.parseDouble(words[2]),
+                    Integer.parseInt(words[3])));
+        }
+        else if(words[0].equals("1") && words.length > 3){
+            int[] objects = new int[words.length - 3];
+            for(int i=0; i<objects.length; ++i){
+                objects[i] = Integer.parseInt(words[i+3]);
+            }
+            request.blacks.add(new BlackAnt(request.blacks.size(), Double.parseDouble(words[1]), Double.parseDouble(words[2]), objects));
+        }
+        else{
+            throw new IllegalArgumentException("expected \"0 x y capacity\" or \"1 x y seed1 seed2 ...\"");
+        }
+    }
+
+    /**
+     * The loop of the solver thread: every request waiting in the queue is added to the batch.
+     */
+    private void solveRequests(){
+        ArrayList<Request> batch = new ArrayList<>(MAX_BATCH);
+        try{
+            while(true){
+                batch.add(queue.take());
+                queue.drainTo(batch, MAX_BATCH - 1);
+                solve(batch);
+                reply(batch);
+                batch.clear();
+            }
+        }
+        catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Solves the requests of a batch, the MST and the stable marriage of each one and the coin changes of all together.
+     */
+    private void solve(ArrayList<Request> batch){
+        Metrics.Phase phase = Metrics.start("service.batch");
+        for(Request request : batch){
+            if(request.kind != Request.SOLVE || request.error != null){
+                continue;
+            }
+            try{
+                if(request.mst){
+                    request.mstTable = Algorithms.findMST(request.reds, request.blacks);
+                }
+                if(request.sm || request.cc){
+                    request.smTable = Algorithms.findStableMarriage(request.reds, request.blacks);
+                }
+            }
+            catch(RuntimeException e){
+                request.error = e.toString();
+            }
+        }
+        coinChanges(batch);
+        phase.end();
+    }
+
+    /**
+     * Calculates the coin changes of the couples of all the requests of the batch with one {@link FindAllPairsCoinChange}:
+     * the ants of each request get ids after the ants of the requests before it.
+     */
+    private void coinChanges(ArrayList<Request> batch){
+        batchReds.clear();
+        batchBlacks.clear();
+        int rows = 0;
+        for(Request request : batch){
+            if(request.cc && request.error == null){
+                rows += request.smTable.length;
+            }
+        }
+        if(rows == 0){
+            return;
+        }
+        int[][] couples = new int[rows][2];
+        int row = 0;
+        for(Request request : batch){
+            if(!request.cc || request.error != null){
+                continue;
+            }
+            int redOffset = batchReds.size();
+            int blackOffset = batchBlacks.size();
+            for(RedAnt r : request.reds){
+                batchReds.add(new RedAnt(redOffset + r.getID(), r.getX(), r.getY(), r.getCapacity()));
+            }
+            for(BlackAnt b : request.blacks){
+                batchBlacks.add(new BlackAnt(blackOffset + b.getID(), b.getX(), b.getY(), b.getObjects()));
+            }
+            request.ccFirstRow = row;
+            for(int[] couple : request.smTable){
+                couples[row][0] = redOffset + couple[0];
+                couples[row][1] = couple[1] == -1 ? -1 : blackOffset + couple[1];
+                ++row;
+            }
+        }
+        CoinChangeMatrix matrix;
+        try{
+            matrix = new FindAllPairsCoinChange(batchReds, batchBlacks).calculateCouples(couples);
+        }
+        catch(RuntimeException e){
+            for(Request request : batch){
+                if(request.cc && request.error == null){
+                    request.error = e.toString();
+                }
+            }
+            return;
+        }
+        for(Request request : batch){
+            if(request.cc && request.error == null){
+                request.ccMatrix = matrix;
+            }
+        }
+    }
+
+    /**
+     * Sends the results of a batch in the order of the requests and keeps their latencies.
+     */
+    private void reply(ArrayList<Request> batch){
+        for(Request request : batch){
+            if(request.connection == null){
+                //A request of the warm-up.
+                continue;
+            }
+            if(request.kind == Request.CLOSE){
+                request.connection.close();
+                continue;
+            }
+            text.setLength(0);
+            if(request.kind == Request.STATS){
+                text.append(stats()).append('\n');
+            }
+            else if(request.error != null){
+                text.append("ERROR ").append(request.name).append(' ').append(request.error).append('\n');
+            }
+            else{
+                appendResult(request);
+            }
+            long latency = System.nanoTime() - request.start;
+            request.connection.send(text);
+            if(request.kind == Request.SOLVE){
+                synchronized(latencies){
+                    latencies[(int)(requests % LATENCY_SAMPLES)] = latency;
+                    ++requests;
+                }
+            }
+        }
+        synchronized(latencies){
+            ++batches;
+        }
+    }
+
+    private void appendResult(Request request){
+        text.append("RESULT ").append(request.name).append(' ').append((System.nanoTime() - request.start) / 1000).append('\n');
+        if(request.mst){
+            text.append("MST ").append(request.mstTable.length).append('\n');
+            for(int[] edge : request.mstTable){
+                text.append(edge[0]).append(' ').append(edge[1]).append(' ').append(edge[2]).append(' ').append(edge[3]).append('\n');
+            }
+        }
+        if(request.sm){
+            text.append("SM ").append(request.smTable.length).append('\n');
+            for(int[] couple : request.smTable){
+                text.append(couple[0]).append(' ').append(couple[1]).append('\n');
+            }
+        }
+        if(request.cc){
+            text.append("CC ").append(request.smTable.length).append('\n');
+            for(int i=0; i<request.smTable.length; ++i){
+                int[] couple = request.smTable[i];
+                text.append(couple[0]).append(' ').append(couple[1]);
+                if(couple[1] != -1){
+                    int seeds = request.blacks.get(couple[1]).getObjects().length;
+                    for(int seed=0; seed<seeds; ++seed){
+                        text.append(' ').append(request.ccMatrix.get(request.ccFirstRow + i, seed));
+                    }
+                }
+                text.append('\n');
+            }
+        }
+        text.append("END\n");
+    }
+
+    /**
+     * @return A line with the number of the requests and batches and the percentiles of the latency in microseconds.
+     */
+    String stats(){
+        long[] sorted;
+        long count;
+        long batchCount;
+        synchronized(latencies){
+            count = requests;
+            batchCount = batches;
+            sorted = Arrays.copyOf(latencies, (int)Math.min(requests, LATENCY_SAMPLES));
+        }
+        Arrays.sort(sorted);
+        return "STATS requests " + count + " batches " + batchCount + " p50 " + percentile(sorted, 0.5) + " p90 "
+                + percentile(sorted, 0.9) + " p99 " + percentile(sorted, 0.99) + " max " + percentile(sorted, 1) + " us";
+    }
+
+    private static long percentile(long[] sorted, double fraction){
+        if(sorted.length == 0){
+            return 0;
+        }
+        int index = (int)Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1000;
+    }
+
+    /**
+     * Solves some generated workloads, so that the first requests don't run in the interpreter.
+     */
+    private void warmUp(){
+        ArrayList<Request> batch = new ArrayList<>();
+        for(int round=0; round<WARMUP_ROUNDS; ++round){
+            Request request = new Request(Request.SOLVE, "warmup", null);
+            request.mst = request.sm = request.cc = true;
+            new WorkloadGenerator(round, PointDistribution.UNIFORM).generate(WARMUP_POPULATION, request.reds, request.blacks);
+            batch.add(request);
+            solve(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * A command of a connection with the ants and the results of a request.
+     */
+    private static final class Request {
+        static final int SOLVE = 0;
+        static final int STATS = 1;
+        static final int CLOSE = 2;
+
+        final int kind;
+        final String name;
+        final Connection connection;
+        final ArrayList<RedAnt> reds = new ArrayList<>();
+        final ArrayList<BlackAnt> blacks = new ArrayList<>();
+        boolean mst;
+        boolean sm;
+        boolean cc;
+
+        /**When the request was read, for its latency.  */
+        long start = System.nanoTime();
+
+        String error;
+        int[][] mstTable;
+        int[][] smTable;
+
+        /**The coin changes of the batch and the row of the first couple of this request.  */
+        CoinChangeMatrix ccMatrix;
+        int ccFirstRow;
+
+        Request(int kind, String name, Connection connection){
+            this.kind = kind;
+            this.name = name;
+            this.connection = connection;
+        }
+    }
+
+    /**
+     * The output of a connection, written by the solver thread.
+     */
+    private static final class Connection {
+        private final Writer out;
+        private final Closeable socket;
+        final CountDownLatch closed = new CountDownLatch(1);
+
+        Connection(OutputStream output, Closeable socket){
+            out = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.US_ASCII), 1 << 16);
+            this.socket = socket;
+        }
+
+        void send(CharSequence reply){
+            try{
+                out.append(reply);
+                out.flush();
+            }
+            catch(IOException e){
+                System.err.println("Error: " + e.getMessage());
+            }
+        }
+
+        void close(){
+            try{
+                out.flush();
+                if(socket != null){
+                    socket.close();
+                }
+            }
+            catch(IOException e){
+                System.err.println("Error: " + e.getMessage());
+            }
+            closed.countDown();
+        }
+    }
+}
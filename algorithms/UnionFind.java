@@ -0,0 +1,104 @@
+package algorithms;
+
+//To generate a more integrated JavaDoc HTML file we must Include Private and Private Package Members!!!
+
+/**
+ * Array based Union-Find (disjoint set) structure used by the MST engines.
+ * <p>
+ * Every ant (node) is represented by its position in the parent[] array. The roots
+ * of the trees are the "leaders" of the subtrees. Unions are done by size (the small tree
+ * is hung under the big one) and find uses path halving, so both operations run in
+ * almost constant amortized time without any boxed Integers or per-leader lists.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+final class UnionFind {
+    /**
+     * For each node keeps its parent in the tree it belongs. A node with parent[i] == i is a leader.
+     */
+    private final int[] parent;
+
+    /**
+     * For each leader keeps the number of nodes of its subtree. The values of the
+     * nodes that are not leaders are not used.
+     */
+    private final int[] size;
+
+    /**
+     * The number of different subtrees (components) left.
+     */
+    private int components;
+
+    /**
+     * Constructor. In the beginning each node is a subtree with only one node - itself.
+     * @param totalNodes The number of the nodes.
+     */
+    UnionFind(int totalNodes){
+        parent = new int[totalNodes];
+        size = new int[totalNodes];
+        for(int i=0; i<totalNodes; ++i){
+            parent[i] = i;
+            size[i] = 1;
+        }
+        components = totalNodes;
+    }
+
+    /**
+     * Finds and returns the leader of the subtree the node belongs.
+     * <p>
+     * While climbing to the leader every node visited is linked to its grandparent (path halving),
+     * so the next searches for the same nodes are shorter.
+     * </p>
+     * @param id The id of the node which we want to find its leader.
+     * @return The leader of the node.
+     */
+    int find(int id){
+        while(parent[id] != id){
+            parent[id] = parent[parent[id]];
+            id = parent[id];
+        }
+        return id;
+    }
+
+    /**
+     * Joins the subtrees of the two nodes. The smaller subtree is added to the bigger one.
+     * @param first The first node.
+     * @param second The second node.
+     * @return true if the nodes were in different subtrees and they were joined,
+     * false if they were already in the same subtree (the edge would create a circle).
+     */
+    boolean union(int first, int second){
+        int firstLeader = find(first);
+        int secondLeader = find(second);
+        if(firstLeader == secondLeader){
+            return false;
+        }
+        if(size[firstLeader] < size[secondLeader]){
+            int temp = firstLeader;
+            firstLeader = secondLeader;
+            secondLeader = temp;
+        }
+        parent[secondLeader] = firstLeader;
+        size[firstLeader] += size[secondLeader];
+        --components;
+        return true;
+    }
+
+    /**
+     * Checks if two nodes belong to the same subtree.
+     * @param first The first node.
+     * @param second The second node.
+     * @return true if the two nodes have the same leader.
+     */
+    boolean connected(int first, int second){
+        return find(first) == find(second);
+    }
+
+    /**
+     * @return The number of different subtrees (components) left.
+     */
+    int getComponents(){
+        return components;
+    }
+}
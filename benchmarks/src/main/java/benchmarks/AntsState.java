@@ -0,0 +1,45 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package benchmarks;
+
+import model.BlackAnt;
+import model.RedAnt;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import utils.PointDistribution;
+import utils.WorkloadGenerator;
+import java.util.ArrayList;
+
+/**
+ * The ants of a benchmark, created once for each trial by {@link WorkloadGenerator} with a fixed seed,
+ * so every run (and every version of the code) is measured with the same ants.
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+@State(Scope.Benchmark)
+public class AntsState {
+    /**The seed of the ants of all the benchmarks.  */
+    public static final long SEED = 42;
+
+    /**The number of the ants of each colour.  */
+    @Param({"500", "2000"})
+    public int population;
+
+    /**The distribution of the positions of the ants.  */
+    @Param({"UNIFORM", "GAUSSIAN_CLUSTERS", "GRID_JITTER", "DUPLICATE_HEAVY"})
+    public PointDistribution distribution;
+
+    public ArrayList<RedAnt> redAnts;
+    public ArrayList<BlackAnt> blackAnts;
+
+    @Setup
+    public void createAnts(){
+        redAnts = new ArrayList<>();
+        blackAnts = new ArrayList<>();
+        new WorkloadGenerator(SEED, distribution).generate(population, redAnts, blackAnts);
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the JMH benchmarks with the allocation profiler and the results in a JSON file, so that the
+ * results of two versions can be compared. The options given are passed to JMH and replace these defaults:
+ * <p>
+ * -prof gc -rf json -rff jmh-result.json
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if(!options.contains("-prof")){
+            options.add("-prof");
+            options.add("gc");
+        }
+        if(!options.contains("-rf")){
+            options.add("-rf");
+            options.add("json");
+        }
+        if(!options.contains("-rff")){
+            options.add("-rff");
+            options.add("jmh-result.json");
+        }
+        org.openjdk.jmh.Main.main(options.toArray(new String[0]));
+    }
+}
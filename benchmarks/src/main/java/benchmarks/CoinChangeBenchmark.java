@@ -0,0 +1,88 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package benchmarks;
+
+import algorithms.Algorithms;
+import algorithms.FindCoinChange;
+import model.BlackAnt;
+import model.RedAnt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.PointDistribution;
+import utils.WorkloadGenerator;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The coin change of one red-black pair, with {@link FindCoinChange} and with {@link Algorithms#coinChange}
+ * (cache, greedy and residue paths). Every call takes the next pair, so the seeds are not always the same.
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CoinChangeBenchmark {
+
+    /**
+     * The pairs of the benchmark. The positions don't matter here, only the capacities and the seeds.
+     */
+    @State(Scope.Thread)
+    public static class Pairs {
+        /**The number of the pairs the calls go through.  */
+        private static final int PAIRS = 1024;
+
+        /**The biggest capacity of the red ants (the smallest is half of it).  */
+        @Param({"2000", "100000"})
+        public int maxCapacity;
+
+        /**The biggest number of seeds of a black ant (the smallest is 1).  */
+        @Param({"5", "100"})
+        public int maxSeeds;
+
+        public ArrayList<RedAnt> redAnts;
+        public ArrayList<BlackAnt> blackAnts;
+        private int next;
+
+        @Setup
+        public void createPairs(){
+            WorkloadGenerator generator = new WorkloadGenerator(AntsState.SEED, PointDistribution.UNIFORM);
+            generator.setCapacityRange(maxCapacity / 2, maxCapacity);
+            generator.setSeedCountRange(1, maxSeeds);
+            redAnts = new ArrayList<>();
+            blackAnts = new ArrayList<>();
+            generator.generate(PAIRS, redAnts, blackAnts);
+        }
+
+        int nextPair(){
+            next = (next + 1) % PAIRS;
+            return next;
+        }
+    }
+
+    @Benchmark
+    public int[] calculateCoinChange(Pairs pairs){
+        int pair = pairs.nextPair();
+        FindCoinChange fcc = new FindCoinChange(pairs.redAnts.get(pair), pairs.blackAnts.get(pair));
+        return fcc.calculateCoinChange();
+    }
+
+    @Benchmark
+    public int[] coinChange(Pairs pairs){
+        int pair = pairs.nextPair();
+        return Algorithms.coinChange(pairs.redAnts.get(pair), pairs.blackAnts.get(pair));
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package benchmarks;
+
+import algorithms.Algorithms;
+import model.EdgeList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The creation of the edges between the ants and their sorting.
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EdgeBenchmark {
+
+    /**
+     * The red-black edges, created again before every sort because the sort changes them.
+     */
+    @State(Scope.Thread)
+    public static class UnsortedEdges {
+        public EdgeList redBlackEdges;
+
+        @Setup(Level.Invocation)
+        public void createEdges(AntsState ants){
+            redBlackEdges = Algorithms.findRedBlackEdges(ants.redAnts, ants.blackAnts);
+        }
+    }
+
+    @Benchmark
+    public EdgeList findAllTheEdges(AntsState ants){
+        return Algorithms.findAllTheEdges(ants.redAnts, ants.blackAnts);
+    }
+
+    @Benchmark
+    public EdgeList findRedBlackEdges(AntsState ants){
+        return Algorithms.findRedBlackEdges(ants.redAnts, ants.blackAnts);
+    }
+
+    @Benchmark
+    public EdgeList sortRedBlackEdges(UnsortedEdges edges){
+        edges.redBlackEdges.sort();
+        return edges.redBlackEdges;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package benchmarks;
+
+import algorithms.Algorithms;
+import algorithms.DynamicMST;
+import algorithms.FindMST;
+import algorithms.MSTEngine;
+import model.EdgeList;
+import model.RedAnt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The MST of the ants: Kruskal of {@link FindMST} on the sorted edges, every {@link MSTEngine}
+ * from the ants to the result, and one move of an ant in {@link DynamicMST}.
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MSTBenchmark {
+
+    /**
+     * All the edges sorted once for each trial, FindMST only reads them.
+     */
+    @State(Scope.Benchmark)
+    public static class SortedEdges {
+        public EdgeList allTheEdges;
+        public int totalAnts;
+
+        @Setup
+        public void createEdges(AntsState ants){
+            allTheEdges = Algorithms.findAllTheEdges(ants.redAnts, ants.blackAnts);
+            allTheEdges.sort();
+            totalAnts = ants.redAnts.size() + ants.blackAnts.size();
+        }
+    }
+
+    /**
+     * The engine of {@link #findMST(AntsState, Engine)}.
+     */
+    @State(Scope.Benchmark)
+    public static class Engine {
+        @Param({"KRUSKAL", "DELAUNAY", "PRIM", "BORUVKA", "FILTER_KRUSKAL"})
+        public MSTEngine engine;
+    }
+
+    /**
+     * The MST of the ants kept by {@link DynamicMST}, created once for each trial. The ants moved
+     * are chosen with a fixed seed.
+     */
+    @State(Scope.Benchmark)
+    public static class DynamicTree {
+        public DynamicMST mst;
+        public int population;
+        public SplittableRandom random;
+
+        @Setup
+        public void createTree(AntsState ants){
+            mst = new DynamicMST(ants.redAnts, ants.blackAnts);
+            population = ants.redAnts.size();
+            random = new SplittableRandom(AntsState.SEED);
+        }
+    }
+
+    @Benchmark
+    public int[][] calculateMST(SortedEdges edges){
+        FindMST mst = new FindMST(edges.allTheEdges, edges.totalAnts);
+        return mst.calculateMST();
+    }
+
+    @Benchmark
+    public int[][] findMST(AntsState ants, Engine engine){
+        return Algorithms.findMST(ants.redAnts, ants.blackAnts, engine.engine);
+    }
+
+    @Benchmark
+    public double moveAnt(DynamicTree tree){
+        RedAnt ant = new RedAnt(tree.random.nextInt(tree.population), tree.random.nextDouble(), tree.random.nextDouble(), 1);
+        tree.mst.moveAnt(ant);
+        return tree.mst.getTotalLength();
+    }
+}
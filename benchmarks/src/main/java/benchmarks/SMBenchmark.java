@@ -0,0 +1,100 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package benchmarks;
+
+import algorithms.Algorithms;
+import algorithms.DynamicSM;
+import algorithms.FindSM;
+import algorithms.SMEngine;
+import model.EdgeList;
+import model.RedAnt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The stable marriage of the ants: Gale-Shapley of {@link FindSM} on the sorted red-black edges, and every
+ * {@link SMEngine} from the ants to the result.
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SMBenchmark {
+
+    /**
+     * The red-black edges sorted once for each trial, FindSM only reads them.
+     */
+    @State(Scope.Benchmark)
+    public static class SortedEdges {
+        public EdgeList redBlackEdges;
+        public int population;
+
+        @Setup
+        public void createEdges(AntsState ants){
+            redBlackEdges = Algorithms.findRedBlackEdges(ants.redAnts, ants.blackAnts);
+            redBlackEdges.sort();
+            population = ants.redAnts.size();
+        }
+    }
+
+    /**
+     * The engine of {@link #findStableMarriage(AntsState, Engine)}.
+     */
+    @State(Scope.Benchmark)
+    public static class Engine {
+        @Param({"TABLES", "NEAREST_FIRST", "GREEDY"})
+        public SMEngine engine;
+    }
+
+    /**
+     * The stable marriage of the ants kept by {@link DynamicSM}, created once for each trial. The ants moved
+     * are chosen with a fixed seed.
+     */
+    @State(Scope.Benchmark)
+    public static class DynamicMatching {
+        public DynamicSM sm;
+        public int population;
+        public SplittableRandom random;
+
+        @Setup
+        public void createMatching(AntsState ants){
+            sm = new DynamicSM(ants.redAnts, ants.blackAnts);
+            population = ants.redAnts.size();
+            random = new SplittableRandom(AntsState.SEED);
+        }
+    }
+
+    @Benchmark
+    public int[][] calculateStableMarriage(SortedEdges edges){
+        FindSM sm = new FindSM(edges.redBlackEdges, edges.population);
+        return sm.calculateStableMarriage();
+    }
+
+    @Benchmark
+    public int[][] findStableMarriage(AntsState ants, Engine engine){
+        return Algorithms.findStableMarriage(ants.redAnts, ants.blackAnts, engine.engine);
+    }
+
+    @Benchmark
+    public int moveAnt(DynamicMatching matching){
+        int id = matching.random.nextInt(matching.population);
+        matching.sm.moveAnt(new RedAnt(id, matching.random.nextDouble(), matching.random.nextDouble(), 1));
+        return matching.sm.getBlackOf(id);
+    }
+}
@@ -0,0 +1,103 @@
+package algorithms;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import model.BlackAnt;
+import model.RedAnt;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the verdicts of CanonicalCoinSystem against the dynamic programming of FindCoinChange: a system is
+ * canonical only if the greedy choice gives the min number of seeds for every weight.
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+class CanonicalCoinSystemTest {
+
+    @Test
+    void knownSystems(){
+        assertFalse(CanonicalCoinSystem.isCanonical(new int[]{1, 3, 4}));
+        assertFalse(CanonicalCoinSystem.isCanonical(new int[]{3, 4}));
+        assertFalse(CanonicalCoinSystem.isCanonical(new int[]{1, 10, 25}));
+        assertTrue(CanonicalCoinSystem.isCanonical(new int[]{1, 5, 10, 25}));
+        assertTrue(CanonicalCoinSystem.isCanonical(new int[]{1, 2, 5, 10, 20, 50, 100, 200}));
+        assertTrue(CanonicalCoinSystem.isCanonical(new int[]{7}));
+        assertTrue(CanonicalCoinSystem.isCanonical(new int[0]));
+        assertFalse(CanonicalCoinSystem.isCanonical(new int[]{0, 2}));
+    }
+
+    @Test
+    void sameVerdictAsTheDynamicProgramming(){
+        Random random = new Random(12);
+        int canonical = 0;
+        for(int test=0; test<500; ++test){
+            int[] objects = new int[1 + random.nextInt(5)];
+            for(int i=0; i<objects.length; ++i){
+                objects[i] = 1 + random.nextInt(test < 250 ? 12 : 60);
+            }
+            objects = FindCoinChange.effectiveSeeds(objects, Integer.MAX_VALUE)[0];
+            boolean expected = greedyIsAlwaysBest(objects);
+            assertEquals(expected, CanonicalCoinSystem.pearsonTest(objects), Arrays.toString(objects));
+            assertEquals(expected, CanonicalCoinSystem.isCanonical(objects), Arrays.toString(objects));
+            if(expected){
+                ++canonical;
+            }
+        }
+        //Both verdicts are checked many times.
+        assertTrue(canonical > 50 && canonical < 450, "canonical " + canonical);
+    }
+
+    @Test
+    void greedyResultIsTheDynamicProgrammingResult(){
+        Random random = new Random(21);
+        for(int test=0; test<200; ++test){
+            int[] seeds = new int[1 + random.nextInt(4)];
+            for(int i=0; i<seeds.length; ++i){
+                seeds[i] = 1 + random.nextInt(30);
+            }
+            BlackAnt blackAnt = new BlackAnt(0, 0, 0, seeds);
+            int capacity = random.nextInt(500);
+            FindCoinChange fcc = new FindCoinChange(new RedAnt(0, 0, 0, capacity), blackAnt);
+            if(!fcc.isCanonical()){
+                continue;
+            }
+            //The counts of the tables, without the greedy choice.
+            int[][] effective = FindCoinChange.effectiveSeeds(seeds, capacity);
+            int[] fewestSeeds = new int[capacity + 1];
+            int[] bestFirstSeeds = new int[capacity + 1];
+            FindCoinChange.findCoinChange(effective[0], capacity, fewestSeeds, bestFirstSeeds);
+            int[] expected = new int[seeds.length];
+            FindCoinChange.finalCoinChangeArray(effective[0], effective[1], capacity, bestFirstSeeds, expected, 0);
+            assertArrayEquals(expected, fcc.calculateCoinChange(), Arrays.toString(seeds) + " " + capacity);
+        }
+    }
+
+    /**
+     * @return true if the greedy number of seeds (the units count as seeds) is the min one for every weight
+     * below the sum of the two heaviest seeds, where the smallest counterexample always is.
+     */
+    private static boolean greedyIsAlwaysBest(int[] objects){
+        int n = objects.length;
+        int bound = n < 2 ? 1 : objects[n-1] + objects[n-2];
+        int[] fewestSeeds = new int[bound + 1];
+        int[] bestFirstSeeds = new int[bound + 1];
+        FindCoinChange.findCoinChange(objects, bound, fewestSeeds, bestFirstSeeds);
+        for(int w=1; w<=bound; ++w){
+            int greedy = 0;
+            int rest = w;
+            for(int i=n-1; i>=0; --i){
+                greedy += rest / objects[i];
+                rest %= objects[i];
+            }
+            if(greedy + rest != fewestSeeds[w]){
+                return false;
+            }
+        }
+        return true;
+    }
+}
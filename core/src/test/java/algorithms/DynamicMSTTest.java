@@ -0,0 +1,144 @@
+package algorithms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import model.Ant;
+import model.BlackAnt;
+import model.RedAnt;
+import org.junit.jupiter.api.Test;
+import utils.PointDistribution;
+import utils.WorkloadGenerator;
+
+/**
+ * Checks that the MST kept by DynamicMST while ants are added, removed and moved has the length of the MST
+ * calculated again from the start.
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+class DynamicMSTTest {
+
+    @Test
+    void startsFromTheMstOfTheAnts(){
+        ArrayList<RedAnt> redAnts = new ArrayList<>();
+        ArrayList<BlackAnt> blackAnts = new ArrayList<>();
+        new WorkloadGenerator(3, PointDistribution.UNIFORM).generate(400, redAnts, blackAnts);
+        DynamicMST dynamic = new DynamicMST(redAnts, blackAnts);
+        assertEquals(800, dynamic.size());
+        double expected = MSTTests.weight(Algorithms.findMST(redAnts, blackAnts, MSTEngine.KRUSKAL), redAnts, blackAnts);
+        assertEquals(expected, dynamic.getTotalLength(), 1e-9);
+        MSTTests.assertSpanningTree(dynamic.getMstArray(), 400, 400);
+    }
+
+    @Test
+    void randomChanges(){
+        for(PointDistribution distribution : new PointDistribution[]{PointDistribution.UNIFORM, PointDistribution.GAUSSIAN_CLUSTERS}){
+            ArrayList<RedAnt> redAnts = new ArrayList<>();
+            ArrayList<BlackAnt> blackAnts = new ArrayList<>();
+            new WorkloadGenerator(8, distribution).generate(300, redAnts, blackAnts);
+            DynamicMST dynamic = new DynamicMST(redAnts, blackAnts);
+            Map<String, Ant> ants = new LinkedHashMap<>();
+            redAnts.forEach(r -> ants.put(key(r), r));
+            blackAnts.forEach(b -> ants.put(key(b), b));
+            int nextRed = redAnts.size();
+            int nextBlack = blackAnts.size();
+            Random random = new Random(31);
+            for(int step=1; step<=1500; ++step){
+                int operation = random.nextInt(3);
+                if(operation == 0 || ants.size() < 3){
+                    Ant ant = random.nextBoolean()
+                            ? new RedAnt(nextRed++, random.nextDouble(), random.nextDouble(), 10)
+                            : new BlackAnt(nextBlack++, random.nextDouble(), random.nextDouble(), new int[]{1});
+                    dynamic.addAnt(ant);
+                    ants.put(key(ant), ant);
+                }
+                else{
+                    Ant ant = ants.values().stream().skip(random.nextInt(ants.size())).findFirst().get();
+                    if(operation == 1){
+                        dynamic.removeAnt(ant);
+                        ants.remove(key(ant));
+                    }
+                    else{
+                        Ant moved = ant instanceof RedAnt
+                                ? new RedAnt(ant.getID(), random.nextDouble(), random.nextDouble(), 10)
+                                : new BlackAnt(ant.getID(), random.nextDouble(), random.nextDouble(), new int[]{1});
+                        dynamic.moveAnt(moved);
+                        ants.put(key(moved), moved);
+                    }
+                }
+                if(step % 50 == 0){
+                    assertSameMst(dynamic, ants, distribution + " step " + step);
+                }
+            }
+        }
+    }
+
+    @Test
+    void wrongIdsAreRejected(){
+        ArrayList<RedAnt> redAnts = new ArrayList<>();
+        ArrayList<BlackAnt> blackAnts = new ArrayList<>();
+        new WorkloadGenerator(1, PointDistribution.UNIFORM).generate(10, redAnts, blackAnts);
+        DynamicMST dynamic = new DynamicMST(redAnts, blackAnts);
+        assertThrows(IllegalArgumentException.class, () -> dynamic.addAnt(new RedAnt(3, 0.5, 0.5, 1)));
+        assertThrows(IllegalArgumentException.class, () -> dynamic.removeAnt(new BlackAnt(10, 0.5, 0.5, new int[]{1})));
+        assertThrows(IllegalArgumentException.class, () -> dynamic.moveAnt(new RedAnt(-1, 0.5, 0.5, 1)));
+    }
+
+    private static void assertSameMst(DynamicMST dynamic, Map<String, Ant> ants, String message){
+        assertEquals(ants.size(), dynamic.size(), message);
+        double expected = primLength(new ArrayList<>(ants.values()));
+        assertEquals(expected, dynamic.getTotalLength(), 1e-9, message);
+        int[][] mst = dynamic.getMstArray();
+        assertEquals(ants.size() - 1, mst.length, message);
+        UnionFind components = new UnionFind(2 * ants.size());
+        Map<String, Integer> nodes = new LinkedHashMap<>();
+        double length = 0;
+        for(int[] edge : mst){
+            Ant first = ants.get(edge[1] + ":" + edge[0]);
+            Ant second = ants.get(edge[3] + ":" + edge[2]);
+            length += first.getDistanceFrom(second);
+            int a = nodes.computeIfAbsent(key(first), k -> nodes.size());
+            int b = nodes.computeIfAbsent(key(second), k -> nodes.size());
+            assertTrue(components.union(a, b), message + ": the MST has a cycle");
+        }
+        assertEquals(expected, length, 1e-9, message);
+    }
+
+    /**
+     * @return The length of the MST of the ants, with Prim's algorithm on all the pairs.
+     */
+    private static double primLength(ArrayList<Ant> ants){
+        int n = ants.size();
+        double[] distance = new double[n];
+        boolean[] inTree = new boolean[n];
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        distance[0] = 0;
+        double total = 0;
+        for(int k=0; k<n; ++k){
+            int next = -1;
+            for(int i=0; i<n; ++i){
+                if(!inTree[i] && (next == -1 || distance[i] < distance[next])){
+                    next = i;
+                }
+            }
+            inTree[next] = true;
+            total += distance[next];
+            for(int i=0; i<n; ++i){
+                if(!inTree[i]){
+                    distance[i] = Math.min(distance[i], ants.get(next).getDistanceFrom(ants.get(i)));
+                }
+            }
+        }
+        return total;
+    }
+
+    private static String key(Ant ant){
+        return (ant instanceof RedAnt ? 0 : 1) + ":" + ant.getID();
+    }
+}
@@ -0,0 +1,146 @@
+package algorithms;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.TreeMap;
+import model.BlackAnt;
+import model.RedAnt;
+import org.junit.jupiter.api.Test;
+import utils.PointDistribution;
+import utils.WorkloadGenerator;
+
+/**
+ * Checks that the matching repaired by DynamicSM while ants are added, removed and moved is the stable marriage
+ * calculated again from the start.
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+class DynamicSMTest {
+
+    @Test
+    void startsFromTheStableMarriageOfTheAnts(){
+        ArrayList<RedAnt> redAnts = new ArrayList<>();
+        ArrayList<BlackAnt> blackAnts = new ArrayList<>();
+        new WorkloadGenerator(4, PointDistribution.UNIFORM).generate(300, redAnts, blackAnts);
+        DynamicSM dynamic = new DynamicSM(redAnts, blackAnts);
+        int[][] expected = Algorithms.findStableMarriage(redAnts, blackAnts, SMEngine.TABLES);
+        Arrays.sort(expected, Comparator.comparingInt(row -> row[0]));
+        assertArrayEquals(expected, dynamic.getMatching());
+    }
+
+    @Test
+    void randomChanges(){
+        for(PointDistribution distribution : new PointDistribution[]{PointDistribution.UNIFORM, PointDistribution.GAUSSIAN_CLUSTERS}){
+            ArrayList<RedAnt> redAnts = new ArrayList<>();
+            ArrayList<BlackAnt> blackAnts = new ArrayList<>();
+            new WorkloadGenerator(6, distribution).generate(200, redAnts, blackAnts);
+            DynamicSM dynamic = new DynamicSM(redAnts, blackAnts);
+            TreeMap<Integer, RedAnt> reds = new TreeMap<>();
+            TreeMap<Integer, BlackAnt> blacks = new TreeMap<>();
+            redAnts.forEach(r -> reds.put(r.getID(), r));
+            blackAnts.forEach(b -> blacks.put(b.getID(), b));
+            int nextRed = redAnts.size();
+            int nextBlack = blackAnts.size();
+            Random random = new Random(37);
+            for(int step=1; step<=1500; ++step){
+                boolean red = random.nextBoolean();
+                int operation = random.nextInt(3);
+                if(operation == 0 || (red ? reds.size() : blacks.size()) < 2){
+                    if(red){
+                        RedAnt ant = new RedAnt(nextRed++, random.nextDouble(), random.nextDouble(), 10);
+                        dynamic.addAnt(ant);
+                        reds.put(ant.getID(), ant);
+                    }
+                    else{
+                        BlackAnt ant = new BlackAnt(nextBlack++, random.nextDouble(), random.nextDouble(), new int[]{1});
+                        dynamic.addAnt(ant);
+                        blacks.put(ant.getID(), ant);
+                    }
+                }
+                else if(red){
+                    RedAnt ant = reds.values().stream().skip(random.nextInt(reds.size())).findFirst().get();
+                    if(operation == 1){
+                        dynamic.removeAnt(ant);
+                        reds.remove(ant.getID());
+                    }
+                    else{
+                        RedAnt moved = new RedAnt(ant.getID(), random.nextDouble(), random.nextDouble(), 10);
+                        dynamic.moveAnt(moved);
+                        reds.put(moved.getID(), moved);
+                    }
+                }
+                else{
+                    BlackAnt ant = blacks.values().stream().skip(random.nextInt(blacks.size())).findFirst().get();
+                    if(operation == 1){
+                        dynamic.removeAnt(ant);
+                        blacks.remove(ant.getID());
+                    }
+                    else{
+                        BlackAnt moved = new BlackAnt(ant.getID(), random.nextDouble(), random.nextDouble(), new int[]{1});
+                        dynamic.moveAnt(moved);
+                        blacks.put(moved.getID(), moved);
+                    }
+                }
+                if(step % 50 == 0){
+                    assertArrayEquals(closestPairs(reds, blacks), dynamic.getMatching(), distribution + " step " + step);
+                }
+            }
+        }
+    }
+
+    @Test
+    void unequalPopulationsLeaveAntsWithoutPartner(){
+        ArrayList<RedAnt> redAnts = new ArrayList<>();
+        ArrayList<BlackAnt> blackAnts = new ArrayList<>();
+        redAnts.add(new RedAnt(0, 0.1, 0.1, 1));
+        redAnts.add(new RedAnt(1, 0.9, 0.9, 1));
+        blackAnts.add(new BlackAnt(0, 0.15, 0.1, new int[]{1}));
+        blackAnts.add(new BlackAnt(1, 0.85, 0.9, new int[]{1}));
+        DynamicSM dynamic = new DynamicSM(redAnts, blackAnts);
+        dynamic.removeAnt(blackAnts.get(1));
+        assertEquals(0, dynamic.getBlackOf(0));
+        assertEquals(-1, dynamic.getBlackOf(1));
+        dynamic.addAnt(new BlackAnt(2, 0.12, 0.1, new int[]{1}));
+        assertEquals(2, dynamic.getBlackOf(0));
+        assertEquals(0, dynamic.getBlackOf(1));
+        assertThrows(IllegalArgumentException.class, () -> dynamic.getBlackOf(2));
+        assertThrows(IllegalArgumentException.class, () -> dynamic.removeAnt(blackAnts.get(1)));
+    }
+
+    /**
+     * @return The stable marriage of distance preferences, matching the closest free pair until none is left,
+     * in the format of {@link DynamicSM#getMatching()}.
+     */
+    private static int[][] closestPairs(TreeMap<Integer, RedAnt> reds, TreeMap<Integer, BlackAnt> blacks){
+        ArrayList<double[]> pairs = new ArrayList<>();
+        for(RedAnt red : reds.values()){
+            for(BlackAnt black : blacks.values()){
+                pairs.add(new double[]{red.getDistanceFrom(black), red.getID(), black.getID()});
+            }
+        }
+        pairs.sort(Comparator.<double[]>comparingDouble(pair -> pair[0]).thenComparingDouble(pair -> pair[1]).thenComparingDouble(pair -> pair[2]));
+        TreeMap<Integer, Integer> redMatch = new TreeMap<>();
+        reds.keySet().forEach(red -> redMatch.put(red, -1));
+        boolean[] blackMatched = new boolean[blacks.lastKey() + 1];
+        for(double[] pair : pairs){
+            int red = (int)pair[1];
+            int black = (int)pair[2];
+            if(redMatch.get(red) == -1 && !blackMatched[black]){
+                redMatch.put(red, black);
+                blackMatched[black] = true;
+            }
+        }
+        int[][] matching = new int[redMatch.size()][];
+        int row = 0;
+        for(var entry : redMatch.entrySet()){
+            matching[row++] = new int[]{entry.getKey(), entry.getValue()};
+        }
+        return matching;
+    }
+}
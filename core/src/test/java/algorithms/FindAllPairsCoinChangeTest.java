@@ -0,0 +1,55 @@
+package algorithms;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import model.BlackAnt;
+import model.RedAnt;
+import org.junit.jupiter.api.Test;
+import utils.PointDistribution;
+import utils.WorkloadGenerator;
+
+/**
+ * Checks the coin changes of all the pairs against the coin change of each pair, and the rejection of the
+ * populations whose pairs do not fit in one matrix.
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+class FindAllPairsCoinChangeTest {
+
+    @Test
+    void sameAsEachPair(){
+        ArrayList<RedAnt> redAnts = new ArrayList<>();
+        ArrayList<BlackAnt> blackAnts = new ArrayList<>();
+        WorkloadGenerator generator = new WorkloadGenerator(29, PointDistribution.UNIFORM);
+        generator.setSeedCountRange(1, 6);
+        generator.setSeedWeightRange(2, 60);
+        generator.generate(60, redAnts, blackAnts);
+        CoinChangeMatrix matrix = new FindAllPairsCoinChange(redAnts, blackAnts).calculateAllPairs();
+        int[] row = new int[matrix.getWidth()];
+        for(RedAnt r : redAnts){
+            for(BlackAnt b : blackAnts){
+                int[] expected = Algorithms.coinChange(r, b);
+                matrix.getRow(r.getID() * blackAnts.size() + b.getID(), row);
+                assertArrayEquals(expected, Arrays.copyOf(row, expected.length));
+            }
+        }
+    }
+
+    @Test
+    void tooManyPairsAreRejected(){
+        //46341 * 46341 pairs do not fit in an int.
+        int population = 46341;
+        ArrayList<RedAnt> redAnts = new ArrayList<>(population);
+        ArrayList<BlackAnt> blackAnts = new ArrayList<>(population);
+        int[] seeds = {1};
+        for(int i=0; i<population; ++i){
+            redAnts.add(new RedAnt(i, 0, 0, 1));
+            blackAnts.add(new BlackAnt(i, 0, 0, seeds));
+        }
+        FindAllPairsCoinChange allPairs = new FindAllPairsCoinChange(redAnts, blackAnts);
+        assertThrows(IllegalArgumentException.class, allPairs::calculateAllPairs);
+    }
+}
@@ -0,0 +1,107 @@
+package algorithms;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+import model.BlackAnt;
+import model.RedAnt;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the block dynamic programming gives the same tables and coin change as FindCoinChange, with the
+ * counts stored as short[] (also above Short.MAX_VALUE weights) and as int[], and with the blocks split between
+ * the threads.
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+class FindBlockCoinChangeTest {
+
+    @Test
+    void smallCapacities(){
+        Random random = new Random(13);
+        for(int test=0; test<100; ++test){
+            assertSameAsFindCoinChange(randomSeeds(random, 1, 40), random.nextInt(3000));
+        }
+    }
+
+    @Test
+    void shortCountsAboveShortMaxWeight(){
+        //The lightest seed is at least 100, so the counts fit in a short but the weights don't.
+        Random random = new Random(31);
+        for(int test=0; test<10; ++test){
+            assertSameAsFindCoinChange(randomSeeds(random, 100, 400), Short.MAX_VALUE + 1 + random.nextInt(200_000));
+        }
+    }
+
+    @Test
+    void intCounts(){
+        //A light seed and a big capacity need more than Short.MAX_VALUE seeds.
+        Random random = new Random(37);
+        for(int test=0; test<10; ++test){
+            int[] seeds = randomSeeds(random, 2, 300);
+            seeds[0] = 1 + random.nextInt(3);
+            assertSameAsFindCoinChange(seeds, 3 * Short.MAX_VALUE + random.nextInt(100_000));
+        }
+        assertSameAsFindCoinChange(new int[0], 70_000);
+    }
+
+    @Test
+    void parallelBlocks(){
+        //Blocks of at least 2^14 weights are split between the threads.
+        Random random = new Random(41);
+        for(int test=0; test<4; ++test){
+            assertSameAsFindCoinChange(randomSeeds(random, 20_000, 60_000), 400_000 + random.nextInt(200_000));
+        }
+    }
+
+    @Test
+    void heaviestOfTheBestSeeds(){
+        //6 = 3 + 3 and 4 + 1 + 1 (the units count as seeds), 8 = 4 + 4: the heaviest best seed is the first.
+        assertSameAsFindCoinChange(new int[]{1, 3, 4}, 1000);
+        assertSameAsFindCoinChange(new int[]{4, 3, 1, 3}, 1000);
+        assertSameAsFindCoinChange(new int[]{25, 10, 1, 21}, 5000);
+        assertSameAsFindCoinChange(new int[]{6, 9, 20}, 43);
+    }
+
+    /**
+     * @return from 1 to 5 seeds with weights in [min, max].
+     */
+    private static int[] randomSeeds(Random random, int min, int max){
+        int[] seeds = new int[1 + random.nextInt(5)];
+        for(int i=0; i<seeds.length; ++i){
+            seeds[i] = min + random.nextInt(max - min + 1);
+        }
+        return seeds;
+    }
+
+    /**
+     * Compares the min number of seeds of every weight up to the capacity and the coin change of the capacity.
+     */
+    private static void assertSameAsFindCoinChange(int[] seeds, int capacity){
+        String message = Arrays.toString(seeds) + " " + capacity;
+        int[] objects = FindCoinChange.effectiveSeeds(seeds, capacity)[0];
+        int[] fewestSeeds = new int[capacity + 1];
+        int[] bestFirstSeeds = new int[capacity + 1];
+        FindCoinChange.findCoinChange(objects, capacity, fewestSeeds, bestFirstSeeds);
+
+        FindBlockCoinChange block = new FindBlockCoinChange(seeds, capacity);
+        block.findCoinChange();
+        for(int w=0; w<=capacity; ++w){
+            if(fewestSeeds[w] != block.fewestSeeds(w)){
+                assertEquals(fewestSeeds[w], block.fewestSeeds(w), message + " weight " + w);
+            }
+        }
+        BlackAnt blackAnt = new BlackAnt(0, 0, 0, seeds);
+        RedAnt redAnt = new RedAnt(0, 0, 0, capacity);
+        int[] expected = new FindCoinChange(redAnt, blackAnt).calculateCoinChange();
+        assertArrayEquals(expected, new FindBlockCoinChange(redAnt, blackAnt).calculateCoinChange(), message);
+        for(int w=Math.max(0, capacity - 50); w<=capacity; ++w){
+            int[] counts = new int[seeds.length];
+            block.finalCoinChangeArray(w, counts, 0);
+            int[] expectedCounts = new FindCoinChange(new RedAnt(0, 0, 0, w), blackAnt).calculateCoinChange();
+            assertArrayEquals(expectedCounts, counts, message + " weight " + w);
+        }
+    }
+}
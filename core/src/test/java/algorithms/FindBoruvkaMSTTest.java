@@ -0,0 +1,48 @@
+package algorithms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import model.BlackAnt;
+import model.RedAnt;
+import org.junit.jupiter.api.Test;
+import utils.PointDistribution;
+import utils.WorkloadGenerator;
+
+/**
+ * Checks that the parallel Boruvka engine finds a spanning tree with the same weight as the other MST engines.
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+class FindBoruvkaMSTTest {
+
+    @Test
+    void sameWeightAsKruskalAndPrim(){
+        for(PointDistribution distribution : PointDistribution.values()){
+            ArrayList<RedAnt> redAnts = new ArrayList<>();
+            ArrayList<BlackAnt> blackAnts = new ArrayList<>();
+            new WorkloadGenerator(42, distribution).generate(600, redAnts, blackAnts);
+            double kruskal = MSTTests.weight(Algorithms.findMST(redAnts, blackAnts, MSTEngine.KRUSKAL), redAnts, blackAnts);
+            double prim = MSTTests.weight(Algorithms.findMST(redAnts, blackAnts, MSTEngine.PRIM), redAnts, blackAnts);
+            assertEquals(kruskal, prim, 1e-9, distribution.toString());
+            for(boolean useSpatialIndex : new boolean[]{true, false}){
+                int[][] mst = new FindBoruvkaMST(redAnts, blackAnts, useSpatialIndex).calculateMST();
+                MSTTests.assertSpanningTree(mst, redAnts.size(), blackAnts.size());
+                assertEquals(kruskal, MSTTests.weight(mst, redAnts, blackAnts), 1e-9, distribution + " " + useSpatialIndex);
+            }
+        }
+    }
+
+    @Test
+    void smallPopulations(){
+        for(int population=1; population<=5; ++population){
+            ArrayList<RedAnt> redAnts = new ArrayList<>();
+            ArrayList<BlackAnt> blackAnts = new ArrayList<>();
+            new WorkloadGenerator(population, PointDistribution.UNIFORM).generate(population, redAnts, blackAnts);
+            int[][] mst = Algorithms.findMST(redAnts, blackAnts, MSTEngine.BORUVKA);
+            MSTTests.assertSpanningTree(mst, redAnts.size(), blackAnts.size());
+            assertEquals(MSTTests.weight(Algorithms.findMST(redAnts, blackAnts, MSTEngine.KRUSKAL), redAnts, blackAnts),
+                    MSTTests.weight(mst, redAnts, blackAnts), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package algorithms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import model.BlackAnt;
+import model.RedAnt;
+import org.junit.jupiter.api.Test;
+import utils.PointDistribution;
+import utils.WorkloadGenerator;
+
+/**
+ * Checks that the MST of the Delaunay triangulation (the default engine) has the weight of the Kruskal MST of all
+ * the edges, also for the inputs that need the exact predicates: points on grids (collinear and cocircular)
+ * and points on the same positions.
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+class FindDelaunayMSTTest {
+
+    @Test
+    void sameWeightAsKruskal(){
+        for(PointDistribution distribution : PointDistribution.values()){
+            ArrayList<RedAnt> redAnts = new ArrayList<>();
+            ArrayList<BlackAnt> blackAnts = new ArrayList<>();
+            new WorkloadGenerator(19, distribution).generate(700, redAnts, blackAnts);
+            assertSameAsKruskal(redAnts, blackAnts, distribution.toString());
+        }
+    }
+
+    @Test
+    void jitteredGridsAndDuplicates(){
+        for(long seed=1; seed<=5; ++seed){
+            WorkloadGenerator grid = new WorkloadGenerator(seed, PointDistribution.GRID_JITTER);
+            grid.setGridJitter(0.001 * seed);
+            ArrayList<RedAnt> redAnts = new ArrayList<>();
+            ArrayList<BlackAnt> blackAnts = new ArrayList<>();
+            grid.generate(500, redAnts, blackAnts);
+            assertSameAsKruskal(redAnts, blackAnts, "GRID_JITTER " + seed);
+
+            WorkloadGenerator duplicates = new WorkloadGenerator(seed, PointDistribution.DUPLICATE_HEAVY);
+            duplicates.setDuplicates(0.9, (int)seed);
+            redAnts.clear();
+            blackAnts.clear();
+            duplicates.generate(500, redAnts, blackAnts);
+            assertSameAsKruskal(redAnts, blackAnts, "DUPLICATE_HEAVY " + seed);
+        }
+    }
+
+    @Test
+    void exactLattice(){
+        //Every square of the lattice has 4 cocircular points and every row and column is collinear.
+        for(int side : new int[]{2, 3, 10, 25}){
+            ArrayList<RedAnt> redAnts = new ArrayList<>();
+            ArrayList<BlackAnt> blackAnts = new ArrayList<>();
+            for(int row=0; row<side; ++row){
+                for(int column=0; column<side; ++column){
+                    if((row * side + column) % 2 == 0){
+                        redAnts.add(new RedAnt(redAnts.size(), column, row, 1));
+                    }
+                    else{
+                        blackAnts.add(new BlackAnt(blackAnts.size(), column, row, new int[]{1}));
+                    }
+                }
+            }
+            while(blackAnts.size() < redAnts.size()){
+                blackAnts.add(new BlackAnt(blackAnts.size(), side, side, new int[]{1}));
+            }
+            assertSameAsKruskal(redAnts, blackAnts, "lattice " + side);
+        }
+    }
+
+    @Test
+    void allAntsOnOnePosition(){
+        ArrayList<RedAnt> redAnts = new ArrayList<>();
+        ArrayList<BlackAnt> blackAnts = new ArrayList<>();
+        for(int i=0; i<20; ++i){
+            redAnts.add(new RedAnt(i, 0.5, 0.5, 1));
+            blackAnts.add(new BlackAnt(i, 0.5, 0.5, new int[]{1}));
+        }
+        assertSameAsKruskal(redAnts, blackAnts, "one position");
+    }
+
+    private static void assertSameAsKruskal(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts, String message){
+        int[][] delaunay = Algorithms.findMST(redAnts, blackAnts, MSTEngine.DELAUNAY);
+        MSTTests.assertSpanningTree(delaunay, redAnts.size(), blackAnts.size());
+        double kruskal = MSTTests.weight(Algorithms.findMST(redAnts, blackAnts, MSTEngine.KRUSKAL), redAnts, blackAnts);
+        assertEquals(kruskal, MSTTests.weight(delaunay, redAnts, blackAnts), 1e-9, message);
+    }
+}
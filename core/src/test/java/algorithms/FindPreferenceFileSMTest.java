@@ -0,0 +1,170 @@
+package algorithms;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import model.BlackAnt;
+import model.RedAnt;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utils.PointDistribution;
+import utils.PreferenceFile;
+import utils.WorkloadGenerator;
+
+/**
+ * Checks the stable marriage of a preference file against the engines of the distances and the definition
+ * of a stable matching, and the rejection of invalid preference lists.
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+class FindPreferenceFileSMTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void distancePreferencesGiveTheMatchingOfTheTables() throws IOException{
+        ArrayList<RedAnt> redAnts = new ArrayList<>();
+        ArrayList<BlackAnt> blackAnts = new ArrayList<>();
+        new WorkloadGenerator(7, PointDistribution.UNIFORM).generate(300, redAnts, blackAnts);
+        int n = redAnts.size();
+        int[][] redPreferences = new int[n][];
+        int[][] blackPreferences = new int[n][];
+        for(int i=0; i<n; ++i){
+            RedAnt red = redAnts.get(i);
+            BlackAnt black = blackAnts.get(i);
+            redPreferences[i] = byDistance(n, j -> red.getDistanceFrom(blackAnts.get(j)));
+            blackPreferences[i] = byDistance(n, j -> black.getDistanceFrom(redAnts.get(j)));
+        }
+        String file = directory.resolve("distances.pref").toString();
+        PreferenceFile.write(file, redPreferences, blackPreferences);
+
+        int[][] expected = sorted(Algorithms.findStableMarriage(redAnts, blackAnts, SMEngine.TABLES));
+        assertArrayEquals(expected, sorted(Algorithms.findStableMarriage(file)));
+    }
+
+    @Test
+    void randomPreferencesGiveAStableMatching() throws IOException{
+        Random random = new Random(3);
+        for(int n : new int[]{1, 2, 17, 200}){
+            int[][] redPreferences = new int[n][];
+            int[][] blackPreferences = new int[n][];
+            for(int i=0; i<n; ++i){
+                redPreferences[i] = shuffled(n, random);
+                blackPreferences[i] = shuffled(n, random);
+            }
+            String file = directory.resolve("random" + n + ".pref").toString();
+            PreferenceFile.write(file, redPreferences, blackPreferences);
+            assertStable(Algorithms.findStableMarriage(file), redPreferences, blackPreferences);
+        }
+    }
+
+    @Test
+    void duplicatesAreRejected() throws IOException{
+        int n = 4;
+        int[][] redPreferences = new int[n][];
+        int[][] blackPreferences = new int[n][];
+        for(int i=0; i<n; ++i){
+            redPreferences[i] = new int[]{0, 1, 2, 3};
+            blackPreferences[i] = new int[]{3, 2, 1, 0};
+        }
+        redPreferences[2] = new int[]{0, 3, 1, 3};
+        String file = directory.resolve("redDuplicate.pref").toString();
+        PreferenceFile.write(file, redPreferences, blackPreferences);
+        assertThrows(IOException.class, () -> Algorithms.findStableMarriage(file));
+
+        redPreferences[2] = new int[]{0, 1, 2, 3};
+        blackPreferences[1] = new int[]{1, 1, 2, 3};
+        String otherFile = directory.resolve("blackDuplicate.pref").toString();
+        PreferenceFile.write(otherFile, redPreferences, blackPreferences);
+        assertThrows(IOException.class, () -> Algorithms.findStableMarriage(otherFile));
+    }
+
+    @Test
+    void noRankFileIsLeft() throws IOException{
+        Path temporary = Path.of(System.getProperty("java.io.tmpdir"));
+        long before = rankFiles(temporary);
+        int[][] preferences = {{0, 1}, {1, 0}};
+        String file = directory.resolve("small.pref").toString();
+        PreferenceFile.write(file, preferences, preferences);
+        Algorithms.findStableMarriage(file);
+        assertEquals(before, rankFiles(temporary));
+    }
+
+    private static long rankFiles(Path temporary) throws IOException{
+        try(Stream<Path> files = Files.list(temporary)){
+            return files.filter(file -> file.getFileName().toString().startsWith("ant-ranks")).count();
+        }
+    }
+
+    private static int[] byDistance(int n, IntToDoubleFunction distance){
+        return IntStream.range(0, n).boxed()
+                .sorted(Comparator.comparingDouble(distance::applyAsDouble))
+                .mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] shuffled(int n, Random random){
+        int[] ids = IntStream.range(0, n).toArray();
+        for(int i=n-1; i>0; --i){
+            int j = random.nextInt(i + 1);
+            int swap = ids[i];
+            ids[i] = ids[j];
+            ids[j] = swap;
+        }
+        return ids;
+    }
+
+    private static int[][] sorted(int[][] matching){
+        int[][] copy = matching.clone();
+        Arrays.sort(copy, Comparator.comparingInt(row -> row[0]));
+        return copy;
+    }
+
+    /**
+     * Checks that every ant is matched once and that no red and black ant prefer each other to their partners.
+     */
+    private static void assertStable(int[][] matching, int[][] redPreferences, int[][] blackPreferences){
+        int n = redPreferences.length;
+        assertEquals(n, matching.length);
+        int[] partnerOfRed = new int[n];
+        int[] partnerOfBlack = new int[n];
+        Arrays.fill(partnerOfRed, -1);
+        Arrays.fill(partnerOfBlack, -1);
+        for(int[] couple : matching){
+            assertEquals(-1, partnerOfRed[couple[0]]);
+            assertEquals(-1, partnerOfBlack[couple[1]]);
+            partnerOfRed[couple[0]] = couple[1];
+            partnerOfBlack[couple[1]] = couple[0];
+        }
+        int[][] blackRank = new int[n][n];
+        for(int black=0; black<n; ++black){
+            for(int position=0; position<n; ++position){
+                blackRank[black][blackPreferences[black][position]] = position;
+            }
+        }
+        for(int red=0; red<n; ++red){
+            for(int position=0; position<n; ++position){
+                int black = redPreferences[red][position];
+                if(black == partnerOfRed[red]){
+                    break;
+                }
+                assertFalse(blackRank[black][red] < blackRank[black][partnerOfBlack[black]],
+                        "The red ant " + red + " and the black ant " + black + " prefer each other");
+            }
+        }
+        assertTrue(Arrays.stream(partnerOfRed).allMatch(black -> black >= 0));
+    }
+}
@@ -0,0 +1,110 @@
+package algorithms;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Random;
+import model.BlackAnt;
+import model.RedAnt;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the residue engine gives the coin change of the dynamic programming of FindCoinChange, and that
+ * its engines are reused by the cache of Algorithms.
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+class FindResidueCoinChangeTest {
+
+    @Test
+    void sameAsTheDynamicProgramming(){
+        Random random = new Random(11);
+        for(int test=0; test<40; ++test){
+            int[] seeds = new int[1 + random.nextInt(5)];
+            for(int i=0; i<seeds.length; ++i){
+                seeds[i] = 2 + random.nextInt(test < 20 ? 40 : 400);
+            }
+            BlackAnt blackAnt = new BlackAnt(0, 0, 0, seeds);
+            FindResidueCoinChange residue = new FindResidueCoinChange(blackAnt);
+            for(int k=0; k<10; ++k){
+                int capacity = random.nextInt(k < 5 ? 2000 : 200000);
+                int[] expected = new FindCoinChange(new RedAnt(0, 0, 0, capacity), blackAnt).calculateCoinChange();
+                assertArrayEquals(expected, residue.calculateCoinChange(capacity), Arrays.toString(seeds) + " " + capacity);
+            }
+        }
+    }
+
+    @Test
+    void enginesAreCachedBySeeds(){
+        ResidueCoinChangeCache cache = new ResidueCoinChangeCache();
+        FindResidueCoinChange first = cache.get(new BlackAnt(0, 0, 0, new int[]{7, 10, 13}), 5_000_001);
+        assertSame(first, cache.get(new BlackAnt(1, 0.5, 0.5, new int[]{7, 10, 13}), 5_000_001));
+        //The counts are in the order of the seeds, so another order is another engine.
+        FindResidueCoinChange reordered = cache.get(new BlackAnt(2, 0, 0, new int[]{13, 10, 7}), 5_000_001);
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.size());
+        int[] counts = first.calculateCoinChange(5_000_001);
+        int[] reorderedCounts = reordered.calculateCoinChange(5_000_001);
+        assertArrayEquals(counts, new int[]{reorderedCounts[2], reorderedCounts[1], reorderedCounts[0]});
+    }
+
+    @Test
+    void cacheKeepsItsBound(){
+        ResidueCoinChangeCache cache = new ResidueCoinChangeCache(1);
+        FindResidueCoinChange first = cache.get(new BlackAnt(0, 0, 0, new int[]{7, 10, 13}), 123_457);
+        cache.get(new BlackAnt(1, 0, 0, new int[]{3, 5, 8}), 123_457);
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getMisses());
+        //The evicted engine is calculated again.
+        FindResidueCoinChange again = cache.get(new BlackAnt(2, 0, 0, new int[]{7, 10, 13}), 123_457);
+        assertEquals(3, cache.getMisses());
+        assertArrayEquals(first.calculateCoinChange(123_457), again.calculateCoinChange(123_457));
+    }
+
+    @Test
+    void algorithmsUsesTheCacheForBigCapacities(){
+        ResidueCoinChangeCache cache = Algorithms.getResidueCoinChangeCache();
+        BlackAnt blackAnt = new BlackAnt(0, 0, 0, new int[]{6, 9, 20, 1_000_003});
+        RedAnt redAnt = new RedAnt(0, 0, 0, FindResidueCoinChange.MAX_DP_CAPACITY * 3 + 17);
+        long misses = cache.getMisses();
+        long hits = cache.getHits();
+        int[] counts = Algorithms.coinChange(redAnt, blackAnt);
+        assertArrayEquals(counts, Algorithms.coinChange(redAnt, new BlackAnt(1, 0, 0, new int[]{6, 9, 20, 1_000_003})));
+        assertEquals(misses + 1, cache.getMisses());
+        assertEquals(hits + 1, cache.getHits());
+    }
+
+    @Test
+    void seedsHeavierThanTheCapacityAreNotKept(){
+        //With all the seeds the residues would be 400_000_000.
+        BlackAnt blackAnt = new BlackAnt(0, 0, 0, new int[]{7, 11, 400_000_000});
+        int capacity = FindResidueCoinChange.MAX_DP_CAPACITY + 5;
+        FindResidueCoinChange residue = new FindResidueCoinChange(blackAnt, capacity);
+        int[] expected = new FindCoinChange(new RedAnt(0, 0, 0, capacity), blackAnt).calculateCoinChange();
+        assertArrayEquals(new int[]{4, 95323, 0}, expected);
+        assertArrayEquals(expected, residue.calculateCoinChange(capacity));
+        assertArrayEquals(expected, Algorithms.coinChange(new RedAnt(0, 0, 0, capacity), blackAnt));
+        assertThrows(IllegalArgumentException.class, () -> residue.calculateCoinChange(400_000_000));
+    }
+
+    @Test
+    void enginesAreCachedByUsableSeeds(){
+        ResidueCoinChangeCache cache = new ResidueCoinChangeCache();
+        BlackAnt blackAnt = new BlackAnt(0, 0, 0, new int[]{7, 11, 3_000_000});
+        FindResidueCoinChange first = cache.get(blackAnt, 2_000_000);
+        assertSame(first, cache.get(blackAnt, 2_999_999));
+        //The heavy seed can be used now, so it is another engine.
+        FindResidueCoinChange all = cache.get(blackAnt, 3_000_000);
+        assertEquals(2, cache.size());
+        for(int capacity : new int[]{2_000_000, 2_999_999, 3_000_000, 5_000_003}){
+            int[] expected = new FindCoinChange(new RedAnt(0, 0, 0, capacity), blackAnt).calculateCoinChange();
+            assertArrayEquals(expected, cache.get(blackAnt, capacity).calculateCoinChange(capacity));
+        }
+        assertSame(all, cache.get(blackAnt, 5_000_003));
+        assertEquals(2, cache.getMisses());
+    }
+}
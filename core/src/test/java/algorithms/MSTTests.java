@@ -0,0 +1,50 @@
+package algorithms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.ArrayList;
+import model.Ant;
+import model.BlackAnt;
+import model.RedAnt;
+
+/**
+ * Checks of the MST tables ([id, identifier, id, identifier] rows) shared by the tests of the MST engines.
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+final class MSTTests {
+
+    private MSTTests(){
+    }
+
+    /**
+     * @return The total length of the edges of the table.
+     */
+    static double weight(int[][] mst, ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts){
+        double total = 0;
+        for(int[] edge : mst){
+            total += ant(edge[0], edge[1], redAnts, blackAnts).getDistanceFrom(ant(edge[2], edge[3], redAnts, blackAnts));
+        }
+        return total;
+    }
+
+    /**
+     * Checks that the table has n-1 edges that connect all the ants.
+     */
+    static void assertSpanningTree(int[][] mst, int reds, int blacks){
+        int total = reds + blacks;
+        assertEquals(total - 1, mst.length);
+        UnionFind components = new UnionFind(total);
+        for(int[] edge : mst){
+            int a = edge[0] + edge[1] * reds;
+            int b = edge[2] + edge[3] * reds;
+            assertNotEquals(components.find(a), components.find(b), "The MST has a cycle");
+            components.union(a, b);
+        }
+    }
+
+    private static Ant ant(int id, int identifier, ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts){
+        return identifier == 0 ? redAnts.get(id) : blackAnts.get(id);
+    }
+}
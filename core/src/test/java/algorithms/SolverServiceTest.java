@@ -0,0 +1,206 @@
+package algorithms;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import model.BlackAnt;
+import model.RedAnt;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import utils.PointDistribution;
+import utils.WorkloadGenerator;
+
+/**
+ * Checks the protocol of the socket mode of SolverService: the results are the ones of Algorithms, the wrong
+ * requests get an ERROR reply and the replies of a connection are in the order of its commands.
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+class SolverServiceTest {
+
+    /**The port of the service started for all the tests.  */
+    private static int port;
+
+    @BeforeAll
+    static void startService() throws IOException{
+        try(ServerSocket free = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())){
+            port = free.getLocalPort();
+        }
+        Thread service = new Thread(() -> {
+            try{
+                SolverService.main(new String[]{Integer.toString(port)});
+            }
+            catch(IOException | InterruptedException e){
+                throw new IllegalStateException(e);
+            }
+        }, "solver service");
+        service.setDaemon(true);
+        service.start();
+    }
+
+    @Test
+    void resultsAreTheOnesOfAlgorithms() throws IOException, InterruptedException{
+        ArrayList<RedAnt> redAnts = new ArrayList<>();
+        ArrayList<BlackAnt> blackAnts = new ArrayList<>();
+        new WorkloadGenerator(21, PointDistribution.UNIFORM).generate(150, redAnts, blackAnts);
+        try(Client client = new Client()){
+            client.send("SOLVE colony ALL\n" + antLines(redAnts, blackAnts) + "END\n");
+            String[] header = client.line().split(" ");
+            assertEquals("RESULT", header[0]);
+            assertEquals("colony", header[1]);
+
+            int[][] mst = Algorithms.findMST(redAnts, blackAnts);
+            assertEquals("MST " + mst.length, client.line());
+            for(int[] edge : mst){
+                assertArrayEquals(edge, client.ints());
+            }
+            int[][] matching = Algorithms.findStableMarriage(redAnts, blackAnts);
+            assertEquals("SM " + matching.length, client.line());
+            for(int[] couple : matching){
+                assertArrayEquals(couple, client.ints());
+            }
+            assertEquals("CC " + matching.length, client.line());
+            for(int[] couple : matching){
+                int[] row = client.ints();
+                assertEquals(couple[0], row[0]);
+                assertEquals(couple[1], row[1]);
+                int[] counts = Algorithms.coinChange(redAnts.get(couple[0]), blackAnts.get(couple[1]));
+                for(int i=0; i<counts.length; ++i){
+                    assertEquals(counts[i], row[2 + i]);
+                }
+            }
+            assertEquals("END", client.line());
+        }
+    }
+
+    @Test
+    void unequalPopulationsAreAnErrorForEveryTask() throws IOException, InterruptedException{
+        String ants = "0 0.1 0.2 10\n0 0.3 0.3 10\n1 0.5 0.5 3 4\n";
+        try(Client client = new Client()){
+            for(String task : new String[]{"MST", "SM", "CC", "ALL"}){
+                client.send("SOLVE " + task + " " + task + "\n" + ants + "END\n");
+                assertEquals("ERROR " + task + " A request needs as many red ants as black ants", client.line());
+            }
+        }
+    }
+
+    @Test
+    void wrongRequestsDoNotStopTheConnection() throws IOException, InterruptedException{
+        try(Client client = new Client()){
+            client.send("SOLVE bad MST\n0 0.1 0.2 10\n1 0.5 x 3\nEND\n");
+            assertTrue(client.line().startsWith("ERROR bad Invalid ant \"1 0.5 x 3\""));
+            client.send("SOLVE task TSP\n0 0.1 0.2 10\n1 0.5 0.5 3\nEND\n");
+            assertEquals("ERROR task Unknown task TSP", client.line());
+            client.send("PING\n");
+            assertEquals("ERROR - Unknown command PING", client.line());
+            client.send("SOLVE empty MST\nEND\n");
+            assertEquals("ERROR empty There are no ants", client.line());
+            client.send("SOLVE good MST\n0 0.1 0.2 10\n1 0.5 0.5 3\nEND\n");
+            assertTrue(client.line().startsWith("RESULT good "));
+            assertEquals("MST 1", client.line());
+            assertEquals("0 0 0 1", client.line());
+            assertEquals("END", client.line());
+            client.send("STATS\n");
+            assertTrue(client.line().startsWith("STATS requests "));
+        }
+    }
+
+    @Test
+    void repliesAreInTheOrderOfTheCommands() throws IOException, InterruptedException{
+        try(Client first = new Client(); Client second = new Client()){
+            StringBuilder commands = new StringBuilder();
+            for(int i=0; i<20; ++i){
+                commands.append("SOLVE r").append(i).append(" SM\n0 ").append(i / 20.0).append(" 0.5 10\n1 0.5 0.5 3\nEND\n");
+            }
+            first.send(commands.toString());
+            second.send(commands.toString().replace("SOLVE r", "SOLVE s"));
+            for(int i=0; i<20; ++i){
+                assertTrue(first.line().startsWith("RESULT r" + i + " "));
+                assertEquals("SM 1", first.line());
+                assertEquals("0 0", first.line());
+                assertEquals("END", first.line());
+                assertTrue(second.line().startsWith("RESULT s" + i + " "));
+                assertEquals("SM 1", second.line());
+                assertEquals("0 0", second.line());
+                assertEquals("END", second.line());
+            }
+        }
+    }
+
+    private static String antLines(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts){
+        StringBuilder lines = new StringBuilder();
+        for(RedAnt r : redAnts){
+            lines.append("0 ").append(r.getX()).append(' ').append(r.getY()).append(' ').append(r.getCapacity()).append('\n');
+        }
+        for(BlackAnt b : blackAnts){
+            lines.append("1 ").append(b.getX()).append(' ').append(b.getY());
+            for(int seed : b.getObjects()){
+                lines.append(' ').append(seed);
+            }
+            lines.append('\n');
+        }
+        return lines.toString();
+    }
+
+    /**
+     * A connection to the service, it waits for the service to start listening (after its warm-up).
+     */
+    private static final class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final OutputStream out;
+
+        Client() throws IOException, InterruptedException{
+            Socket connected = null;
+            for(int attempt=0; connected == null; ++attempt){
+                try{
+                    connected = new Socket(InetAddress.getLoopbackAddress(), port);
+                }
+                catch(IOException e){
+                    if(attempt == 600){
+                        throw e;
+                    }
+                    Thread.sleep(100);
+                }
+            }
+            socket = connected;
+            socket.setSoTimeout(60000);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            out = socket.getOutputStream();
+        }
+
+        void send(String text) throws IOException{
+            out.write(text.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+
+        String line() throws IOException{
+            return in.readLine();
+        }
+
+        int[] ints() throws IOException{
+            String[] words = line().split(" ");
+            int[] values = new int[words.length];
+            for(int i=0; i<words.length; ++i){
+                values[i] = Integer.parseInt(words[i]);
+            }
+            return values;
+        }
+
+        @Override
+        public void close() throws IOException{
+            send("QUIT\n");
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import model.BlackAnt;
+import model.RedAnt;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Round trips of the binary ant file: written from lists, generated directly and converted from text files.
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+class BinaryAntFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writeAndRead() throws IOException{
+        List<RedAnt> redAnts = new ArrayList<>();
+        List<BlackAnt> blackAnts = new ArrayList<>();
+        WorkloadGenerator generator = new WorkloadGenerator(5, PointDistribution.GAUSSIAN_CLUSTERS);
+        generator.setSeedCountRange(1, 9);
+        generator.generate(1000, redAnts, blackAnts);
+        String file = directory.resolve("ants.bin").toString();
+        BinaryAntFile.write(file, redAnts, blackAnts);
+
+        assertTrue(BinaryAntFile.isBinaryAntFile(file));
+        BinaryAntFile binary = BinaryAntFile.open(file);
+        assertEquals(1000, binary.getNumOfRedAnts());
+        assertEquals(1000, binary.getNumOfBlackAnts());
+        assertEquals(blackAnts.stream().mapToLong(b -> b.getObjects().length).sum(), binary.getNumOfSeeds());
+        List<RedAnt> readReds = new ArrayList<>();
+        List<BlackAnt> readBlacks = new ArrayList<>();
+        binary.readAnts(readReds, readBlacks);
+        assertSameAnts(redAnts, blackAnts, readReds, readBlacks);
+    }
+
+    @Test
+    void emptyFile() throws IOException{
+        String file = directory.resolve("empty.bin").toString();
+        BinaryAntFile.write(file, new ArrayList<>(), new ArrayList<>());
+        BinaryAntFile binary = BinaryAntFile.open(file);
+        assertEquals(0, binary.getNumOfRedAnts());
+        assertEquals(0, binary.getNumOfBlackAnts());
+    }
+
+    @Test
+    void generatedFileHasTheAntsOfTheLists() throws IOException{
+        WorkloadGenerator generator = new WorkloadGenerator(9, PointDistribution.UNIFORM);
+        String file = directory.resolve("generated.bin").toString();
+        generator.writeBinary(file, 40000);
+        List<RedAnt> redAnts = new ArrayList<>();
+        List<BlackAnt> blackAnts = new ArrayList<>();
+        generator.generate(40000, redAnts, blackAnts);
+        List<RedAnt> readReds = new ArrayList<>();
+        List<BlackAnt> readBlacks = new ArrayList<>();
+        InputHandler.readInput(file, readReds, readBlacks);
+        assertSameAnts(redAnts, blackAnts, readReds, readBlacks);
+    }
+
+    @Test
+    void convertKeepsTheAntsOfTheTextFile() throws IOException{
+        WorkloadGenerator generator = new WorkloadGenerator(13, PointDistribution.GRID_JITTER);
+        String text = directory.resolve("ants.txt").toString();
+        String binary = directory.resolve("ants.bin").toString();
+        generator.writeText(text, 500);
+        BinaryAntFile.convert(text, binary);
+        List<RedAnt> redAnts = new ArrayList<>();
+        List<BlackAnt> blackAnts = new ArrayList<>();
+        TextAntParser.read(text, redAnts, blackAnts);
+        List<RedAnt> readReds = new ArrayList<>();
+        List<BlackAnt> readBlacks = new ArrayList<>();
+        BinaryAntFile.open(binary).readAnts(readReds, readBlacks);
+        assertSameAnts(redAnts, blackAnts, readReds, readBlacks);
+    }
+
+    @Test
+    void convertReportsTheErrorsOfTheTextFile() throws IOException{
+        Path text = directory.resolve("bad.txt");
+        Files.writeString(text, "0 0.5 0.5 10\n1 0.2 x 3 4\n");
+        Path binary = directory.resolve("bad.bin");
+        assertThrows(IOException.class, () -> BinaryAntFile.convert(text.toString(), binary.toString()));
+        assertFalse(Files.exists(binary));
+        assertThrows(IOException.class, () -> BinaryAntFile.convert(directory.resolve("missing.txt").toString(), binary.toString()));
+        assertFalse(Files.exists(binary));
+    }
+
+    @Test
+    void textFileIsNotBinary() throws IOException{
+        Path text = directory.resolve("ants.txt");
+        Files.writeString(text, "0 0.5 0.5 10\n1 0.2 0.3 3 4\n");
+        assertFalse(BinaryAntFile.isBinaryAntFile(text.toString()));
+        assertThrows(IOException.class, () -> BinaryAntFile.open(text.toString()));
+    }
+
+    static void assertSameAnts(List<RedAnt> redAnts, List<BlackAnt> blackAnts, List<RedAnt> readReds, List<BlackAnt> readBlacks){
+        assertEquals(redAnts.size(), readReds.size());
+        assertEquals(blackAnts.size(), readBlacks.size());
+        for(int i=0; i<redAnts.size(); ++i){
+            RedAnt expected = redAnts.get(i);
+            RedAnt actual = readReds.get(i);
+            assertEquals(expected.getID(), actual.getID());
+            assertEquals(expected.getX(), actual.getX());
+            assertEquals(expected.getY(), actual.getY());
+            assertEquals(expected.getCapacity(), actual.getCapacity());
+        }
+        for(int i=0; i<blackAnts.size(); ++i){
+            BlackAnt expected = blackAnts.get(i);
+            BlackAnt actual = readBlacks.get(i);
+            assertEquals(expected.getID(), actual.getID());
+            assertEquals(expected.getX(), actual.getX());
+            assertEquals(expected.getY(), actual.getY());
+            assertArrayEquals(expected.getObjects(), actual.getObjects());
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import algorithms.Algorithms;
+import algorithms.MSTEngine;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import model.BlackAnt;
+import model.RedAnt;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Round trips, keys, eviction and recovery of the files of ResultCache.
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+class ResultCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void putAndGet() throws IOException{
+        ResultCache cache = new ResultCache(directory.toString(), ResultCache.DEFAULT_MAX_BYTES);
+        int[][] big = new int[70000][3];
+        for(int row=0; row<big.length; ++row){
+            big[row] = new int[]{row, -row, row * 31 + 7};
+        }
+        int[][][] tables = {big, new int[0][], new int[5][0], {{Integer.MIN_VALUE, Integer.MAX_VALUE}}};
+        for(int i=0; i<tables.length; ++i){
+            cache.put(key(i), tables[i]);
+        }
+        for(int i=0; i<tables.length; ++i){
+            assertArrayEquals(tables[i], cache.get(key(i)));
+        }
+        assertNull(cache.get(key(99)));
+        assertEquals(tables.length, cache.getStores());
+        assertEquals(tables.length, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, temporaryFiles());
+        //Another cache of the same directory finds the results.
+        assertArrayEquals(big, new ResultCache(directory.toString(), ResultCache.DEFAULT_MAX_BYTES).get(key(0)));
+    }
+
+    @Test
+    void rowsOfDifferentLengthsAreRejected() throws IOException{
+        ResultCache cache = new ResultCache(directory.toString(), ResultCache.DEFAULT_MAX_BYTES);
+        assertThrows(IllegalArgumentException.class, () -> cache.put(key(1), new int[][]{{1, 2}, {3}}));
+        assertEquals(0, temporaryFiles());
+        assertThrows(IllegalArgumentException.class, () -> new ResultCache(directory.toString(), 0));
+    }
+
+    @Test
+    void keysDependOnTheAntsAndTheParameters(){
+        List<RedAnt> redAnts = new ArrayList<>();
+        List<BlackAnt> blackAnts = new ArrayList<>();
+        new WorkloadGenerator(2, PointDistribution.UNIFORM).generate(50, redAnts, blackAnts);
+        byte[] key = ResultCache.key(redAnts, blackAnts, "MST KRUSKAL", null);
+        assertArrayEquals(key, ResultCache.key(new ArrayList<>(redAnts), new ArrayList<>(blackAnts), "MST KRUSKAL", null));
+        assertFalse(Arrays.equals(key, ResultCache.key(redAnts, blackAnts, "MST PRIM", null)));
+        assertFalse(Arrays.equals(key, ResultCache.key(redAnts, blackAnts, "MST KRUSKAL", new int[][]{{0, 0}})));
+        List<RedAnt> moved = new ArrayList<>(redAnts);
+        RedAnt first = moved.get(0);
+        moved.set(0, new RedAnt(first.getID(), Math.nextUp(first.getX()), first.getY(), first.getCapacity()));
+        assertFalse(Arrays.equals(key, ResultCache.key(moved, blackAnts, "MST KRUSKAL", null)));
+    }
+
+    @Test
+    void leastRecentlyUsedAreEvicted() throws IOException{
+        //Room for two tables of 1000 ints.
+        ResultCache cache = new ResultCache(directory.toString(), 2 * (ResultCache.HEADER_SIZE + 4000) + 100);
+        int[][] table = new int[1000][1];
+        cache.put(key(0), table);
+        cache.put(key(1), table);
+        setTimes(0, 1000);
+        setTimes(1, 2000);
+        assertNotNull(cache.get(key(0)));
+        cache.put(key(2), table);
+        assertEquals(1, cache.getEvictions());
+        assertNotNull(cache.get(key(0)));
+        assertNull(cache.get(key(1)));
+        assertNotNull(cache.get(key(2)));
+        //A result bigger than the cache is not stored.
+        cache.put(key(3), new int[10000][1]);
+        assertNull(cache.get(key(3)));
+        assertEquals(3, cache.getStores());
+    }
+
+    @Test
+    void damagedFilesAreMissesAndDeleted() throws IOException{
+        ResultCache cache = new ResultCache(directory.toString(), ResultCache.DEFAULT_MAX_BYTES);
+        cache.put(key(0), new int[][]{{1, 2, 3}});
+        Path file = resultFile();
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 2));
+        assertNull(cache.get(key(0)));
+        assertFalse(Files.exists(file));
+        cache.put(key(0), new int[][]{{1, 2, 3}});
+        Files.write(resultFile(), new byte[]{1, 2, 3});
+        assertNull(cache.get(key(0)));
+        cache.put(key(0), new int[][]{{4, 5, 6}});
+        assertArrayEquals(new int[][]{{4, 5, 6}}, cache.get(key(0)));
+    }
+
+    @Test
+    void staleTemporaryFilesAreDeletedWhenTheCacheOpens() throws IOException{
+        Path stale = Files.write(directory.resolve("result123.tmp"), new byte[10]);
+        Files.setLastModifiedTime(stale, FileTime.fromMillis(System.currentTimeMillis() - 24 * 3600 * 1000));
+        Path recent = Files.write(directory.resolve("result456.tmp"), new byte[10]);
+        Path other = Files.write(directory.resolve("notes.tmp"), new byte[10]);
+        Files.setLastModifiedTime(other, FileTime.fromMillis(0));
+        new ResultCache(directory.toString(), ResultCache.DEFAULT_MAX_BYTES);
+        assertFalse(Files.exists(stale));
+        assertTrue(Files.exists(recent));
+        assertTrue(Files.exists(other));
+    }
+
+    @Test
+    void algorithmsLoadsTheResultsFromTheCache() throws IOException{
+        ArrayList<RedAnt> redAnts = new ArrayList<>();
+        ArrayList<BlackAnt> blackAnts = new ArrayList<>();
+        new WorkloadGenerator(12, PointDistribution.UNIFORM).generate(200, redAnts, blackAnts);
+        ResultCache cache = new ResultCache(directory.toString(), ResultCache.DEFAULT_MAX_BYTES);
+        int[][] mst = Algorithms.findMST(redAnts, blackAnts, MSTEngine.DELAUNAY, cache);
+        assertArrayEquals(mst, Algorithms.findMST(redAnts, blackAnts, MSTEngine.DELAUNAY, cache));
+        assertEquals(1, cache.getHits());
+        assertArrayEquals(mst, Algorithms.findMST(redAnts, blackAnts, MSTEngine.DELAUNAY));
+    }
+
+    private static byte[] key(int value){
+        byte[] key = new byte[16];
+        key[0] = (byte)value;
+        key[15] = 0x5A;
+        return key;
+    }
+
+    private void setTimes(int value, long millis) throws IOException{
+        try(Stream<Path> files = Files.list(directory)){
+            String name = String.format("%02x", value);
+            for(Path file : (Iterable<Path>)files::iterator){
+                if(file.getFileName().toString().startsWith(name) && file.toString().endsWith(".res")){
+                    Files.setLastModifiedTime(file, FileTime.fromMillis(millis));
+                }
+            }
+        }
+    }
+
+    private Path resultFile() throws IOException{
+        try(Stream<Path> files = Files.list(directory)){
+            return files.filter(file -> file.toString().endsWith(".res")).findFirst().get();
+        }
+    }
+
+    private long temporaryFiles() throws IOException{
+        try(Stream<Path> files = Files.list(directory)){
+            return files.filter(file -> file.toString().endsWith(".tmp")).count();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import model.BlackAnt;
+import model.RedAnt;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks the parallel parser against Double.parseDouble, Integer.parseInt and a simple line by line reading
+ * of the same files.
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+class TextAntParserTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void exactDoubleIsTheNearestDouble(){
+        Random random = new Random(17);
+        for(int test=0; test<200000; ++test){
+            long mantissa = random.nextLong() >>> (1 + random.nextInt(63));
+            if(mantissa >= 1_000_000_000_000_000_000L){
+                mantissa /= 10;
+            }
+            int exponent = random.nextInt(45) - 22;
+            double expected = Double.parseDouble(mantissa + "e" + exponent);
+            assertEquals(expected, TextAntParser.exactDouble(mantissa, exponent), mantissa + "e" + exponent);
+        }
+    }
+
+    @Test
+    void exactDoubleRoundsTiesToEven(){
+        //2^53 + 1 is halfway between two doubles, 2^53 + 3 too.
+        assertEquals(9007199254740992.0, TextAntParser.exactDouble(9007199254740993L, 0));
+        assertEquals(9007199254740996.0, TextAntParser.exactDouble(9007199254740995L, 0));
+        assertEquals(new BigDecimal("0.1").doubleValue(), TextAntParser.exactDouble(1, -1));
+    }
+
+    @Test
+    void numberForms() throws IOException{
+        String[] doubles = {"0", "-0", "0.5", "-0.5", "+0.25", ".5", "5.", "007.25", "1e3", "1E-3", "-2.5e+4",
+            "0.1234567890123456789", "123456789012345678901234", "1e-30", "1e30", "4.9e-324", "1.7976931348623157e308",
+            "NaN", "Infinity", "-Infinity", "0x1p3", "0.30000000000000004", "9007199254740993"};
+        String[] ints = {"0", "7", "+7", "-7", "2147483647", "-2147483648", "000123"};
+        StringBuilder text = new StringBuilder();
+        for(int i=0; i<doubles.length; ++i){
+            text.append("0 ").append(doubles[i]).append('\t').append(doubles[doubles.length - 1 - i]).append("  ")
+                    .append(ints[i % ints.length]).append(i % 2 == 0 ? "\n" : "\r\n");
+            text.append("  1 ").append(doubles[i]).append(' ').append(doubles[i]);
+            for(int j=0; j<=i % ints.length; ++j){
+                text.append(' ').append(ints[j]);
+            }
+            text.append("\n\n");
+        }
+        assertSameAsReference(text.toString());
+    }
+
+    @Test
+    void manyChunks() throws IOException{
+        Random random = new Random(23);
+        StringBuilder text = new StringBuilder();
+        for(int i=0; i<120000; ++i){
+            if(random.nextBoolean()){
+                text.append("0 ").append(random.nextDouble()).append(' ').append((float)random.nextDouble())
+                        .append(' ').append(random.nextInt(5000)).append('\n');
+            }
+            else{
+                text.append("1 ").append(random.nextInt(1000) / 1000.0).append(' ').append(random.nextDouble());
+                for(int j=random.nextInt(6); j>=0; --j){
+                    text.append(' ').append(1 + random.nextInt(60));
+                }
+                text.append('\n');
+            }
+        }
+        assertSameAsReference(text.toString());
+    }
+
+    @Test
+    void errorKeepsTheAntsBeforeIt() throws IOException{
+        Path file = directory.resolve("bad.txt");
+        Files.writeString(file, "0 0.5 0.5 10\n1 0.25 0.75 3 4\n0 0.1 0.2 x\n0 0.3 0.3 5\n");
+        List<RedAnt> redAnts = new ArrayList<>();
+        List<BlackAnt> blackAnts = new ArrayList<>();
+        assertThrows(IOException.class, () -> TextAntParser.read(file.toString(), redAnts, blackAnts));
+        assertEquals(1, redAnts.size());
+        assertEquals(1, blackAnts.size());
+    }
+
+    @Test
+    void intOverflowIsAnError() throws IOException{
+        Path file = directory.resolve("overflow.txt");
+        Files.writeString(file, "0 0.5 0.5 2147483648\n");
+        assertThrows(IOException.class, () -> TextAntParser.read(file.toString(), new ArrayList<>(), new ArrayList<>()));
+    }
+
+    private void assertSameAsReference(String text) throws IOException{
+        Path file = directory.resolve("ants.txt");
+        Files.writeString(file, text);
+        List<RedAnt> redAnts = new ArrayList<>();
+        List<BlackAnt> blackAnts = new ArrayList<>();
+        for(String line : text.split("\n")){
+            String[] words = line.trim().split("\\s+");
+            if(words[0].isEmpty()){
+                continue;
+            }
+            double x = Double.parseDouble(words[1]);
+            double y = Double.parseDouble(words[2]);
+            if(words[0].equals("0")){
+                redAnts.add(new RedAnt(redAnts.size(), x, y, Integer.parseInt(words[3])));
+            }
+            else{
+                int[] seeds = new int[words.length - 3];
+                for(int i=0; i<seeds.length; ++i){
+                    seeds[i] = Integer.parseInt(words[3 + i]);
+                }
+                blackAnts.add(new BlackAnt(blackAnts.size(), x, y, seeds));
+            }
+        }
+        List<RedAnt> readReds = new ArrayList<>();
+        List<BlackAnt> readBlacks = new ArrayList<>();
+        TextAntParser.read(file.toString(), readReds, readBlacks);
+        BinaryAntFileTest.assertSameAnts(redAnts, blackAnts, readReds, readBlacks);
+    }
+}
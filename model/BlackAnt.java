@@ -1,27 +1,31 @@
-/*
- * To change this template, choose Tools | Templates
- * and open the template in the editor.
- */
-package model;
-
-/**
- * @author Giorgos Christakis
- * @email giorgos_chri@hotmail.com
- */
-public class BlackAnt extends Ant{
-    private final int[] objects;
-    
-    public BlackAnt(int id, double x, double y, int[] objects){
-        super(id, x, y);
-        this.objects = objects;
-    }
-    
-    public int[] getObjects(){
-        return this.objects;
-    }
-    
-    @Override
-    public String toString(){
-        return "Black Ant: " + this.getID();
-    }
-}
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package model;
+
+/**
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class BlackAnt extends Ant{
+    /**
+     * The weights of the seeds, any number of them in any order. Seeds with the same weight and seeds that
+     * can never be used are allowed, the coin change algorithms skip them.
+     */
+    private final int[] objects;
+    
+    public BlackAnt(int id, double x, double y, int[] objects){
+        super(id, x, y);
+        this.objects = objects;
+    }
+    
+    public int[] getObjects(){
+        return this.objects;
+    }
+    
+    @Override
+    public String toString(){
+        return "Black Ant: " + this.getID();
+    }
+}
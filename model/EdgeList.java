@@ -0,0 +1,254 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package model;
+
+import java.util.Arrays;
+
+/**
+ * A list of edges stored in primitive parallel arrays (struct of arrays).
+ * <p>
+ * The edge i connects the ant from[i] with the ant to[i] and costs weight[i]. Compared to
+ * an ArrayList of {@link Edge} objects there are no object headers or references, an edge costs
+ * 16 bytes.
+ * </p>
+ * <p>
+ * The edges are ordered by a total order: first by weight, then by the from id and then by the to id.
+ * So the result of the sort is the same in every run, no matter how many edges have the same weight.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class EdgeList {
+    /**
+     * The biggest number of edges a list can hold (the max size of a java array).
+     */
+    public static final int MAX_EDGES = Integer.MAX_VALUE - 8;
+
+    /**
+     * Runs of edges with the same sort key that are smaller than this are sorted with insertion sort.
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    private int[] from;
+    private int[] to;
+    private double[] weight;
+    private int size;
+
+    /**
+     * Constructor
+     * @param capacity The number of edges the list will hold.
+     */
+    public EdgeList(long capacity){
+        if(capacity < 0 || capacity > MAX_EDGES){
+            throw new IllegalArgumentException("Too many edges for an EdgeList: " + capacity);
+        }
+        from = new int[(int)capacity];
+        to = new int[(int)capacity];
+        weight = new double[(int)capacity];
+        size = 0;
+    }
+
+    /**
+     * Adds a new edge at the end of the list.
+     * @param f The id of the first ant.
+     * @param t The id of the second ant.
+     * @param w The cost of the edge.
+     */
+    public void add(int f, int t, double w){
+        if(size == from.length){
+            int newCapacity = (int)Math.min(MAX_EDGES, Math.max(16L, 2L * size));
+            if(newCapacity == size){
+                throw new IllegalStateException("Too many edges for an EdgeList");
+            }
+            from = Arrays.copyOf(from, newCapacity);
+            to = Arrays.copyOf(to, newCapacity);
+            weight = Arrays.copyOf(weight, newCapacity);
+        }
+        from[size] = f;
+        to[size] = t;
+        weight[size] = w;
+        ++size;
+    }
+
+    public int size(){
+        return this.size;
+    }
+
+    public int getFrom(int i){
+        return this.from[i];
+    }
+
+    public int getTo(int i){
+        return this.to[i];
+    }
+
+    public double getWeight(int i){
+        return this.weight[i];
+    }
+
+    /**
+     * Compares two edges of the list with the total order (weight, from, to).
+     * @return a negative number, zero or a positive number if the edge i is before, equal or after the edge j.
+     */
+    public int compare(int i, int j){
+        int c = Double.compare(weight[i], weight[j]);
+        if(c != 0){
+            return c;
+        }
+        c = Integer.compare(from[i], from[j]);
+        if(c != 0){
+            return c;
+        }
+        return Integer.compare(to[i], to[j]);
+    }
+
+    /**
+     * Swaps the positions of two edges.
+     */
+    public void swap(int i, int j){
+        int tempFrom = from[i];
+        from[i] = from[j];
+        from[j] = tempFrom;
+        int tempTo = to[i];
+        to[i] = to[j];
+        to[j] = tempTo;
+        double tempWeight = weight[i];
+        weight[i] = weight[j];
+        weight[j] = tempWeight;
+    }
+
+    /**
+     * Sorts all the edges in ascending order.
+     * @see #sort(int, int)
+     */
+    public void sort(){
+        sort(0, size);
+    }
+
+    /**
+     * Sorts the edges in the positions [lo, hi) in ascending order of (weight, from, to).
+     * <p>
+     * For each edge we create a packed long key: the upper 32 bits hold the weight rounded to a float
+     * (rounding keeps the order of the weights) and the lower 32 bits hold the position of the edge.
+     * The keys are sorted with Arrays.parallelSort that uses all the cores. The edges that end up with
+     * the same float weight are then put in the exact order with the double weights and the ids.
+     * Finally the three arrays are rearranged in place following the cycles of the permutation, so the
+     * only extra memory is the array of the keys (8 bytes per edge).
+     * </p>
+     * @param lo The first position to sort.
+     * @param hi The position after the last one to sort.
+     */
+    public void sort(int lo, int hi){
+        int n = hi - lo;
+        if(n < 2){
+            return;
+        }
+        long[] keys = new long[n];
+        for(int i=0; i<n; ++i){
+            keys[i] = ((long)floatKey(weight[lo+i]) << 32) | i;
+        }
+        Arrays.parallelSort(keys);
+
+        //Fix the order of the edges that have the same float key.
+        long[] buffer = null;
+        int runStart = 0;
+        for(int i=1; i<=n; ++i){
+            if(i == n || (keys[i] >>> 32) != (keys[runStart] >>> 32)){
+                int runLength = i - runStart;
+                if(runLength >= INSERTION_SORT_THRESHOLD && (buffer == null || buffer.length < runLength)){
+                    buffer = new long[runLength];
+                }
+                if(runLength > 1){
+                    mergeSort(keys, runStart, i, lo, buffer);
+                }
+                runStart = i;
+            }
+        }
+
+        //Rearrange the arrays in the sorted order. The edge that must go to position i is at position
+        //lo + (int)keys[i]. Every finished position is marked with -1.
+        for(int i=0; i<n; ++i){
+            if(keys[i] == -1L){
+                continue;
+            }
+            int tempFrom = from[lo+i];
+            int tempTo = to[lo+i];
+            double tempWeight = weight[lo+i];
+            int j = i;
+            while(true){
+                int k = (int)keys[j];
+                keys[j] = -1L;
+                if(k == i){
+                    from[lo+j] = tempFrom;
+                    to[lo+j] = tempTo;
+                    weight[lo+j] = tempWeight;
+                    break;
+                }
+                from[lo+j] = from[lo+k];
+                to[lo+j] = to[lo+k];
+                weight[lo+j] = weight[lo+k];
+                j = k;
+            }
+        }
+    }
+
+    /**
+     * Maps a weight to an int that has the same order as the weight (as a signed int).
+     */
+    private static int floatKey(double w){
+        int bits = Float.floatToIntBits((float)w);
+        //Negative floats are ordered in reverse, flip all the bits except the sign.
+        return bits < 0 ? bits ^ 0x7fffffff : bits;
+    }
+
+    /**
+     * Compares the edges of two packed keys with {@link #compare(int, int)}.
+     */
+    private int compareKeys(long first, long second, int lo){
+        return compare(lo + (int)first, lo + (int)second);
+    }
+
+    /**
+     * Merge sort of the keys[start..end-1] with the exact order of the edges. It is used for the 
+     * runs of edges with the same float weight, that can be long if many ants have the same
+     * distances (i.e. ants on a grid). Short runs are sorted with insertion sort.
+     */
+    private void mergeSort(long[] keys, int start, int end, int lo, long[] buffer){
+        if(end - start < INSERTION_SORT_THRESHOLD){
+            for(int i=start+1; i<end; ++i){
+                long key = keys[i];
+                int j = i - 1;
+                while(j >= start && compareKeys(keys[j], key, lo) > 0){
+                    keys[j+1] = keys[j];
+                    --j;
+                }
+                keys[j+1] = key;
+            }
+            return;
+        }
+        int mid = (start + end) >>> 1;
+        mergeSort(keys, start, mid, lo, buffer);
+        mergeSort(keys, mid, end, lo, buffer);
+        if(compareKeys(keys[mid-1], keys[mid], lo) <= 0){
+            return;
+        }
+        int leftLength = mid - start;
+        System.arraycopy(keys, start, buffer, 0, leftLength);
+        int i = 0;
+        int j = mid;
+        int k = start;
+        while(i < leftLength && j < end){
+            if(compareKeys(buffer[i], keys[j], lo) <= 0){
+                keys[k++] = buffer[i++];
+            }
+            else{
+                keys[k++] = keys[j++];
+            }
+        }
+        while(i < leftLength){
+            keys[k++] = buffer[i++];
+        }
+    }
+}
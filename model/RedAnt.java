@@ -1,27 +1,27 @@
-/*
- * To change this template, choose Tools | Templates
- * and open the template in the editor.
- */
-package model;
-
-/**
- * @author Giorgos Christakis
- * @email giorgos_chri@hotmail.com
- */
-public class RedAnt extends Ant{
-    private final int capacity;
-    
-    public RedAnt(int id, double x, double y, int capacity){
-        super(id, x, y);
-        this.capacity = capacity;
-    }
-    
-    public int getCapacity(){
-        return this.capacity;
-    }
-    
-    @Override
-    public String toString(){
-        return "Red Ant: " + this.getID();
-    }
-}
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package model;
+
+/**
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class RedAnt extends Ant{
+    private final int capacity;
+    
+    public RedAnt(int id, double x, double y, int capacity){
+        super(id, x, y);
+        this.capacity = capacity;
+    }
+    
+    public int getCapacity(){
+        return this.capacity;
+    }
+    
+    @Override
+    public String toString(){
+        return "Red Ant: " + this.getID();
+    }
+}
@@ -0,0 +1,360 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package utils;
+
+import model.BlackAnt;
+import model.RedAnt;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary columnar file with the ants, loaded with memory mapped buffers instead of parsing text.
+ * <p>
+ * The file (little endian) has a header of HEADER_SIZE bytes:<br>
+ * int MAGIC, int VERSION, int number of red ants, int number of black ants, long total number of seeds.<br>
+ * Then follow the columns, each one contiguous:<br>
+ * double x and double y of the red ants, double x and double y of the black ants,
+ * long seed offsets of the black ants (number of black ants + 1 values, the seeds of the black ant i are
+ * the seeds offset[i] to offset[i+1]), int capacity of the red ants and int seeds.<br>
+ * The columns of 8 bytes are before the columns of 4 bytes, so every value is aligned to its size.
+ * The id of each ant is its position in its columns, as the ids {@link InputHandler#readInput} gives.
+ * </p>
+ * <p>
+ * The columns are read directly from the mapped buffers, so a warm load (the file in the page cache) is
+ * only a copy of the values into the model. The seeds column can be bigger than 2GB, so it is mapped in
+ * chunks of CHUNK_SIZE bytes like {@link MappedTable}.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class BinaryAntFile {
+    /**The first 4 bytes of the file ("ANTB").  */
+    public static final int MAGIC = 0x414E5442;
+
+    /**The version of the format.  */
+    public static final int VERSION = 1;
+
+    /**The size of the header in bytes.  */
+    public static final int HEADER_SIZE = 24;
+
+    /**The size of each mapped chunk of the seeds in bytes (1GB).  */
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_SHIFT;
+
+    /**The number of seeds in each chunk.  */
+    private static final int SEEDS_PER_CHUNK = (int)(CHUNK_SIZE / Integer.BYTES);
+
+    /**The positions of the columns in the array of {@link #columnPositions(int, int, long)}.  */
+    static final int RED_X = 0;
+    static final int RED_Y = 1;
+    static final int BLACK_X = 2;
+    static final int BLACK_Y = 3;
+    static final int SEED_OFFSETS = 4;
+    static final int CAPACITIES = 5;
+    static final int SEEDS = 6;
+    static final int FILE_SIZE = 7;
+
+    /**The number of the red and the black ants and of all their seeds.  */
+    private final int numOfRedAnts;
+    private final int numOfBlackAnts;
+    private final long numOfSeeds;
+
+    /**The mapped columns.  */
+    private final DoubleBuffer redX;
+    private final DoubleBuffer redY;
+    private final DoubleBuffer blackX;
+    private final DoubleBuffer blackY;
+    private final LongBuffer seedOffsets;
+    private final IntBuffer capacities;
+    private final IntBuffer[] seeds;
+
+    private BinaryAntFile(FileChannel channel, int numOfRedAnts, int numOfBlackAnts, long numOfSeeds) throws IOException{
+        this.numOfRedAnts = numOfRedAnts;
+        this.numOfBlackAnts = numOfBlackAnts;
+        this.numOfSeeds = numOfSeeds;
+        long[] columns = columnPositions(numOfRedAnts, numOfBlackAnts, numOfSeeds);
+        redX = map(channel, columns[RED_X], numOfRedAnts * 8L).asDoubleBuffer();
+        redY = map(channel, columns[RED_Y], numOfRedAnts * 8L).asDoubleBuffer();
+        blackX = map(channel, columns[BLACK_X], numOfBlackAnts * 8L).asDoubleBuffer();
+        blackY = map(channel, columns[BLACK_Y], numOfBlackAnts * 8L).asDoubleBuffer();
+        seedOffsets = map(channel, columns[SEED_OFFSETS], (numOfBlackAnts + 1L) * 8L).asLongBuffer();
+        capacities = map(channel, columns[CAPACITIES], numOfRedAnts * 4L).asIntBuffer();
+        seeds = new IntBuffer[(int)((numOfSeeds + SEEDS_PER_CHUNK - 1) / SEEDS_PER_CHUNK)];
+        for(int i=0; i<seeds.length; ++i){
+            long start = (long)i * SEEDS_PER_CHUNK;
+            seeds[i] = map(channel, columns[SEEDS] + start * 4L, Math.min(SEEDS_PER_CHUNK, numOfSeeds - start) * 4L).asIntBuffer();
+        }
+    }
+
+    /**
+     * @return The position in the file of each column (RED_X ... SEEDS) and the size of the file (FILE_SIZE).
+     */
+    static long[] columnPositions(int numOfRedAnts, int numOfBlackAnts, long numOfSeeds){
+        long[] columns = new long[FILE_SIZE + 1];
+        columns[RED_X] = HEADER_SIZE;
+        columns[RED_Y] = columns[RED_X] + numOfRedAnts * 8L;
+        columns[BLACK_X] = columns[RED_Y] + numOfRedAnts * 8L;
+        columns[BLACK_Y] = columns[BLACK_X] + numOfBlackAnts * 8L;
+        columns[SEED_OFFSETS] = columns[BLACK_Y] + numOfBlackAnts * 8L;
+        columns[CAPACITIES] = columns[SEED_OFFSETS] + (numOfBlackAnts + 1L) * 8L;
+        columns[SEEDS] = columns[CAPACITIES] + numOfRedAnts * 4L;
+        columns[FILE_SIZE] = columns[SEEDS] + numOfSeeds * 4L;
+        return columns;
+    }
+
+    /**
+     * @return The header of a file with these numbers of ants and seeds.
+     */
+    static ByteBuffer header(int numOfRedAnts, int numOfBlackAnts, long numOfSeeds){
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(numOfRedAnts).putInt(numOfBlackAnts).putLong(numOfSeeds);
+        header.flip();
+        return header;
+    }
+
+    private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException{
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Checks only the first 4 bytes of a file.
+     * @param filename The name of the file.
+     * @return true if the file starts with MAGIC.
+     */
+    public static boolean isBinaryAntFile(String filename){
+        try(FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)){
+            ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            while(magic.hasRemaining()){
+                if(channel.read(magic, magic.position()) < 0){
+                    return false;
+                }
+            }
+            return magic.getInt(0) == MAGIC;
+        }
+        catch(IOException e){
+            return false;
+        }
+    }
+
+    /**
+     * Opens and maps a binary ant file.
+     * @param filename The name of the file.
+     * @return The columns of the file.
+     * @throws IOException If the file can not be read or it is not a valid binary ant file.
+     */
+    public static BinaryAntFile open(String filename) throws IOException{
+        try(FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)){
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while(header.hasRemaining()){
+                if(channel.read(header, header.position()) < 0){
+                    throw new IOException(filename + " is too small to be a binary ant file");
+                }
+            }
+            header.flip();
+            if(header.getInt() != MAGIC){
+                throw new IOException(filename + " is not a binary ant file");
+            }
+            int version = header.getInt();
+            if(version != VERSION){
+                throw new IOException("Unknown binary ant file version " + version);
+            }
+            int reds = header.getInt();
+            int blacks = header.getInt();
+            long totalSeeds = header.getLong();
+            if(reds < 0 || blacks < 0 || totalSeeds < 0 || totalSeeds > (Long.MAX_VALUE - HEADER_SIZE) / 8){
+                throw new IOException("Wrong binary ant file header: " + reds + " red ants, " + blacks
+                        + " black ants, " + totalSeeds + " seeds");
+            }
+            if(channel.size() != columnPositions(reds, blacks, totalSeeds)[FILE_SIZE]){
+                throw new IOException("The size of " + filename + " does not match its header");
+            }
+            BinaryAntFile file = new BinaryAntFile(channel, reds, blacks, totalSeeds);
+            if(file.seedOffsets.get(0) != 0 || file.seedOffsets.get(blacks) != totalSeeds){
+                throw new IOException("Wrong seed offsets in " + filename);
+            }
+            return file;
+        }
+    }
+
+    /**
+     * Writes the ants in a new binary ant file. The ants are written in the order of the lists,
+     * so the ids of the ants should be their positions in the lists.
+     * @param filename The name of the file.
+     * @param redAnts The red ants.
+     * @param blackAnts The black ants.
+     * @throws IOException If the file can not be written.
+     */
+    public static void write(String filename, List<RedAnt> redAnts, List<BlackAnt> blackAnts) throws IOException{
+        long totalSeeds = 0;
+        for(BlackAnt b : blackAnts){
+            totalSeeds += b.getObjects().length;
+        }
+        try(OutputStream out = new BufferedOutputStream(new FileOutputStream(filename), 1 << 16)){
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.put(header(redAnts.size(), blackAnts.size(), totalSeeds));
+            for(RedAnt r : redAnts){
+                buffer = putDouble(out, buffer, r.getX());
+            }
+            for(RedAnt r : redAnts){
+                buffer = putDouble(out, buffer, r.getY());
+            }
+            for(BlackAnt b : blackAnts){
+                buffer = putDouble(out, buffer, b.getX());
+            }
+            for(BlackAnt b : blackAnts){
+                buffer = putDouble(out, buffer, b.getY());
+            }
+            long offset = 0;
+            buffer = putLong(out, buffer, offset);
+            for(BlackAnt b : blackAnts){
+                offset += b.getObjects().length;
+                buffer = putLong(out, buffer, offset);
+            }
+            for(RedAnt r : redAnts){
+                buffer = putInt(out, buffer, r.getCapacity());
+            }
+            for(BlackAnt b : blackAnts){
+                for(int seed : b.getObjects()){
+                    buffer = putInt(out, buffer, seed);
+                }
+            }
+            out.write(buffer.array(), 0, buffer.position());
+        }
+    }
+
+    /**
+     * Writes the buffer to the stream when it is full, so that there is always space for the next value.
+     */
+    private static ByteBuffer flushIfFull(OutputStream out, ByteBuffer buffer) throws IOException{
+        if(buffer.remaining() < 8){
+            out.write(buffer.array(), 0, buffer.position());
+            buffer.clear();
+        }
+        return buffer;
+    }
+
+    private static ByteBuffer putDouble(OutputStream out, ByteBuffer buffer, double value) throws IOException{
+        return flushIfFull(out, buffer).putDouble(value);
+    }
+
+    private static ByteBuffer putLong(OutputStream out, ByteBuffer buffer, long value) throws IOException{
+        return flushIfFull(out, buffer).putLong(value);
+    }
+
+    private static ByteBuffer putInt(OutputStream out, ByteBuffer buffer, int value) throws IOException{
+        return flushIfFull(out, buffer).putInt(value);
+    }
+
+    /**
+     * Converts an input file of the text format of {@link InputHandler#readInput} to a binary ant file.
+     * @param textFilename The name of the text file.
+     * @param binaryFilename The name of the binary file that will be created.
+     * @throws IOException If the text file can not be read or parsed (the binary file is not created then),
+     * or the binary file can not be written.
+     */
+    public static void convert(String textFilename, String binaryFilename) throws IOException{
+        ArrayList<RedAnt> redAnts = new ArrayList<>();
+        ArrayList<BlackAnt> blackAnts = new ArrayList<>();
+        TextAntParser.read(textFilename, redAnts, blackAnts);
+        write(binaryFilename, redAnts, blackAnts);
+    }
+
+    /**
+     * Creates the ants of the file and adds them to the lists, with the same ids as
+     * {@link InputHandler#readInput} gives to the ants of a text file.
+     * @param redAnts The list where the red ants are added.
+     * @param blackAnts The list where the black ants are added.
+     */
+    public void readAnts(List<RedAnt> redAnts, List<BlackAnt> blackAnts){
+        if(redAnts instanceof ArrayList){
+            ((ArrayList<RedAnt>)redAnts).ensureCapacity(redAnts.size() + numOfRedAnts);
+        }
+        if(blackAnts instanceof ArrayList){
+            ((ArrayList<BlackAnt>)blackAnts).ensureCapacity(blackAnts.size() + numOfBlackAnts);
+        }
+        for(int i=0; i<numOfRedAnts; ++i){
+            redAnts.add(new RedAnt(i, redX.get(i), redY.get(i), capacities.get(i)));
+        }
+        for(int i=0; i<numOfBlackAnts; ++i){
+            blackAnts.add(new BlackAnt(i, blackX.get(i), blackY.get(i), getSeeds(i)));
+        }
+    }
+
+    /**
+     * @return The number of the red ants.
+     */
+    public int getNumOfRedAnts(){
+        return numOfRedAnts;
+    }
+
+    /**
+     * @return The number of the black ants.
+     */
+    public int getNumOfBlackAnts(){
+        return numOfBlackAnts;
+    }
+
+    /**
+     * @return The number of the seeds of all the black ants.
+     */
+    public long getNumOfSeeds(){
+        return numOfSeeds;
+    }
+
+    public double getRedX(int redID){
+        return redX.get(redID);
+    }
+
+    public double getRedY(int redID){
+        return redY.get(redID);
+    }
+
+    public int getCapacity(int redID){
+        return capacities.get(redID);
+    }
+
+    public double getBlackX(int blackID){
+        return blackX.get(blackID);
+    }
+
+    public double getBlackY(int blackID){
+        return blackY.get(blackID);
+    }
+
+    /**
+     * @return A new array with the seeds of the black ant.
+     */
+    public int[] getSeeds(int blackID){
+        long start = seedOffsets.get(blackID);
+        long end = seedOffsets.get(blackID + 1);
+        if(start < 0 || end < start || end > numOfSeeds){
+            throw new IllegalStateException("Wrong seed offsets of the black ant " + blackID);
+        }
+        int[] objects = new int[(int)(end - start)];
+        int copied = 0;
+        while(copied < objects.length){
+            //The seeds of a black ant can be in two chunks.
+            long seed = start + copied;
+            IntBuffer chunk = seeds[(int)(seed / SEEDS_PER_CHUNK)].duplicate();
+            chunk.position((int)(seed % SEEDS_PER_CHUNK));
+            int length = Math.min(objects.length - copied, chunk.remaining());
+            chunk.get(objects, copied, length);
+            copied += length;
+        }
+        return objects;
+    }
+}
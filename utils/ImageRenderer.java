@@ -0,0 +1,395 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package utils;
+
+import algorithms.Algorithms;
+import model.BlackAnt;
+import model.RedAnt;
+import java.awt.Color;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import javax.imageio.ImageIO;
+
+/**
+ * Draws the ants, the MST and the stable marriage in a BufferedImage without a window, so that the results
+ * can be saved as PNG files on servers without a display (see {@link Visualize} for the window).
+ * <p>
+ * The image is split in tiles of TILE_SIZE pixels that are drawn in parallel. The ants and the edges are first
+ * put in the tiles their boxes touch (in primitive arrays, start and items like a CSR matrix), so each tile draws
+ * only its own ants and edges. Every worker thread draws its tiles in its own tile image, which is then copied
+ * into the final image. The lines and the single pixel ants are written directly in the pixels of the tile,
+ * Graphics2D is used only for the circles and the labels, which are drawn only when the ants are few.
+ * </p>
+ * <p>
+ * The ant ids are written next to the ants only if there are fewer than one ant in LABEL_AREA pixels, and the
+ * ants are single pixels if there are more than one ant in DOT_AREA pixels, else they are small circles as in
+ * {@link Visualize}. The ants are fitted in the image keeping the proportions of their coordinates.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class ImageRenderer {
+    /**The width and height of the tiles in pixels.  */
+    private static final int TILE_SIZE = 256;
+
+    /**The empty pixels around the ants.  */
+    private static final int MARGIN = 10;
+
+    /**The pixels per ant below which the labels are dropped and the circles become single pixels.  */
+    private static final int LABEL_AREA = 2500;
+    private static final int DOT_AREA = 64;
+
+    /**The size of the circle of an ant, as drawOval of {@link Visualize}.  */
+    private static final int CIRCLE_SIZE = 3;
+
+    /**The color of the background.  */
+    private static final int WHITE = 0xFFFFFFFF;
+
+    /**The number of the red ants, the coordinates of all the ants: the red ants by their id and then the black ants.  */
+    private final int reds;
+    private final double[] xs;
+    private final double[] ys;
+
+    /**The edges as pairs of ants (indexes of xs and ys), null if they are not drawn.  */
+    private final int[] mstEdges;
+    private final int[] matchingEdges;
+
+    /**The tile image of each worker thread.  */
+    private final ThreadLocal<BufferedImage> tiles = ThreadLocal.withInitial(() -> new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB));
+
+    /**
+     * Constructor
+     * @param redAnts The red ants population
+     * @param blackAnts The black ants population
+     * @param mst The table of {@link Algorithms#findMST(ArrayList, ArrayList)}, or null.
+     * @param matchings The table of {@link Algorithms#findStableMarriage(ArrayList, ArrayList)}, or null.
+     */
+    public ImageRenderer(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts, int[][] mst, int[][] matchings){
+        reds = redAnts.size();
+        xs = new double[reds + blackAnts.size()];
+        ys = new double[xs.length];
+        for(RedAnt r : redAnts){
+            xs[r.getID()] = r.getX();
+            ys[r.getID()] = r.getY();
+        }
+        for(BlackAnt b : blackAnts){
+            xs[reds + b.getID()] = b.getX();
+            ys[reds + b.getID()] = b.getY();
+        }
+        if(mst != null){
+            mstEdges = new int[2 * mst.length];
+            for(int i=0; i<mst.length; ++i){
+                mstEdges[2*i] = mst[i][1] == 0 ? mst[i][0] : reds + mst[i][0];
+                mstEdges[2*i+1] = mst[i][3] == 0 ? mst[i][2] : reds + mst[i][2];
+            }
+        }
+        else{
+            mstEdges = null;
+        }
+        if(matchings != null){
+            int count = 0;
+            for(int[] couple : matchings){
+                if(couple[1] != -1){
+                    ++count;
+                }
+            }
+            matchingEdges = new int[2 * count];
+            count = 0;
+            for(int[] couple : matchings){
+                if(couple[1] != -1){
+                    matchingEdges[count++] = couple[0];
+                    matchingEdges[count++] = reds + couple[1];
+                }
+            }
+        }
+        else{
+            matchingEdges = null;
+        }
+    }
+
+    /**
+     * Reads an input file, calculates the MST and the stable marriage and saves them in a PNG file.
+     * @param args The input file, the PNG file, and optionally the width and the height (2048) and what is
+     * drawn: mst, sm or all (the default).
+     */
+    public static void main(String[] args) throws IOException{
+        if(args.length < 2){
+            System.out.println("Usage: ImageRenderer input output.png [width height] [mst|sm|all]");
+            System.exit(-1);
+        }
+        int width = args.length > 3 ? Integer.parseInt(args[2]) : 2048;
+        int height = args.length > 3 ? Integer.parseInt(args[3]) : 2048;
+        String draw = args.length > 4 ? args[4] : (args.length == 3 ? args[2] : "all");
+        ArrayList<RedAnt> redAnts = new ArrayList<>();
+        ArrayList<BlackAnt> blackAnts = new ArrayList<>();
+        InputHandler.readInput(args[0], redAnts, blackAnts);
+        int[][] mst = draw.equals("sm") ? null : Algorithms.findMST(redAnts, blackAnts);
+        int[][] matchings = draw.equals("mst") ? null : Algorithms.findStableMarriage(redAnts, blackAnts);
+        new ImageRenderer(redAnts, blackAnts, mst, matchings).writePng(args[1], width, height);
+    }
+
+    /**
+     * Draws the image and saves it as a PNG file.
+     * @throws IOException If the file can not be written.
+     */
+    public void writePng(String filename, int width, int height) throws IOException{
+        BufferedImage image = render(width, height);
+        if(!ImageIO.write(image, "png", new File(filename))){
+            throw new IOException("There is no PNG writer");
+        }
+    }
+
+    /**
+     * Draws the ants and the edges.
+     * @param width The width of the image in pixels.
+     * @param height The height of the image in pixels.
+     * @return The image, TYPE_INT_RGB.
+     */
+    public BufferedImage render(int width, int height){
+        if(width <= 0 || height <= 0){
+            throw new IllegalArgumentException("Invalid size of the image: " + width + "x" + height);
+        }
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt)image.getRaster().getDataBuffer()).getData();
+        int ants = xs.length;
+        long area = (long)width * height;
+        boolean labels = (long)ants * LABEL_AREA <= area;
+        boolean circles = (long)ants * DOT_AREA <= area;
+
+        //The position of each ant in the image.
+        int[] px = new int[ants];
+        int[] py = new int[ants];
+        transform(width, height, px, py);
+
+        //The extent of the drawing of an ant around its position: circle, label above it on the right.
+        Graphics2D measure = tiles.get().createGraphics();
+        FontMetrics metrics = measure.getFontMetrics();
+        measure.dispose();
+        int right = circles ? CIRCLE_SIZE : 1;
+        int up = 0;
+        if(labels){
+            right = Math.max(right, metrics.stringWidth(Integer.toString(Math.max(reds, ants - reds))));
+            up = 3 + metrics.getAscent();
+        }
+        int tilesX = (width + TILE_SIZE - 1) / TILE_SIZE;
+        int tilesY = (height + TILE_SIZE - 1) / TILE_SIZE;
+        int extentRight = right;
+        int extentUp = up;
+        int[][] antBins = bin(ants, tilesX, tilesY, (ant, box) -> {
+            box[0] = px[ant];
+            box[1] = py[ant] - extentUp;
+            box[2] = px[ant] + extentRight;
+            box[3] = py[ant] + CIRCLE_SIZE;
+        });
+        int[][] mstBins = mstEdges == null ? null : bin(mstEdges.length / 2, tilesX, tilesY, edgeBoxes(mstEdges, px, py));
+        int[][] matchingBins = matchingEdges == null ? null : bin(matchingEdges.length / 2, tilesX, tilesY, edgeBoxes(matchingEdges, px, py));
+
+        ParallelLoop.run(0, tilesX * tilesY, 1, tile -> {
+            int x0 = (tile % tilesX) * TILE_SIZE;
+            int y0 = (tile / tilesX) * TILE_SIZE;
+            int w = Math.min(TILE_SIZE, width - x0);
+            int h = Math.min(TILE_SIZE, height - y0);
+            BufferedImage tileImage = tiles.get();
+            int[] tilePixels = ((DataBufferInt)tileImage.getRaster().getDataBuffer()).getData();
+            Arrays.fill(tilePixels, WHITE);
+            //The lines and the dots are written in the pixels, only the circles and the labels need a Graphics2D.
+            if(mstBins != null){
+                drawEdges(tilePixels, x0, y0, Color.blue.getRGB(), mstEdges, mstBins, tile, px, py);
+            }
+            if(matchingBins != null){
+                drawEdges(tilePixels, x0, y0, Color.green.getRGB(), matchingEdges, matchingBins, tile, px, py);
+            }
+            int[] start = antBins[0];
+            int[] items = antBins[1];
+            if(!circles){
+                int red = Color.red.getRGB();
+                int black = Color.black.getRGB();
+                for(int i=start[tile]; i<start[tile+1]; ++i){
+                    int ant = items[i];
+                    setPixel(tilePixels, TILE_SIZE, TILE_SIZE, px[ant] - x0, py[ant] - y0, ant < reds ? red : black);
+                }
+                if(!labels){
+                    copyTile(tilePixels, pixels, width, x0, y0, w, h);
+                    return;
+                }
+            }
+            Graphics2D g = tileImage.createGraphics();
+            g.translate(-x0, -y0);
+            for(int i=start[tile]; i<start[tile+1]; ++i){
+                int ant = items[i];
+                g.setColor(ant < reds ? Color.red : Color.black);
+                if(circles){
+                    g.drawOval(px[ant], py[ant], CIRCLE_SIZE, CIRCLE_SIZE);
+                }
+                if(labels){
+                    g.drawString(Integer.toString(ant < reds ? ant : ant - reds), px[ant], py[ant] - 3);
+                }
+            }
+            g.dispose();
+            copyTile(tilePixels, pixels, width, x0, y0, w, h);
+        });
+        return image;
+    }
+
+    /**
+     * Copies the w x h pixels of a tile to its position (x0, y0) in the pixels of the image.
+     */
+    private static void copyTile(int[] tilePixels, int[] pixels, int width, int x0, int y0, int w, int h){
+        for(int row=0; row<h; ++row){
+            System.arraycopy(tilePixels, row * TILE_SIZE, pixels, (y0 + row) * width + x0, w);
+        }
+    }
+
+    /**
+     * Calculates the position of each ant in the image: the box of all the ants is scaled to fit in the image
+     * inside the margin, with the same scale on both axes.
+     */
+    private void transform(int width, int height, int[] px, int[] py){
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for(int i=0; i<xs.length; ++i){
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        int margin = Math.min(MARGIN, Math.min(width, height) / 4);
+        double spanX = maxX - minX;
+        double spanY = maxY - minY;
+        double scale = Math.min(spanX > 0 ? (width - 1 - 2 * margin) / spanX : Double.POSITIVE_INFINITY,
+                spanY > 0 ? (height - 1 - 2 * margin) / spanY : Double.POSITIVE_INFINITY);
+        if(Double.isInfinite(scale)){
+            scale = 0;
+        }
+        double offsetX = minX;
+        double offsetY = minY;
+        double finalScale = scale;
+        ParallelLoop.run(0, (xs.length + TILE_SIZE * TILE_SIZE - 1) / (TILE_SIZE * TILE_SIZE), 1, block -> {
+            int end = Math.min(xs.length, (block + 1) * TILE_SIZE * TILE_SIZE);
+            for(int i=block * TILE_SIZE * TILE_SIZE; i<end; ++i){
+                px[i] = margin + (int)((xs[i] - offsetX) * finalScale);
+                py[i] = margin + (int)((ys[i] - offsetY) * finalScale);
+            }
+        });
+    }
+
+    /**
+     * The box of the drawing of an item in pixels: min x, min y, max x, max y.
+     */
+    private interface Box {
+        void get(int item, int[] box);
+    }
+
+    /**
+     * Puts every item in the tiles that its box touches.
+     * @param count The number of items.
+     * @return The start of the items of each tile (tiles+1 values) and the items of all the tiles.
+     */
+    private static int[][] bin(int count, int tilesX, int tilesY, Box boxes){
+        int[] start = new int[tilesX * tilesY + 1];
+        int[] items = null;
+        int[] next = null;
+        int[] box = new int[4];
+        for(int pass=0; pass<2; ++pass){
+            for(int item=0; item<count; ++item){
+                boxes.get(item, box);
+                int tx0 = Math.max(0, box[0] / TILE_SIZE);
+                int ty0 = Math.max(0, box[1] / TILE_SIZE);
+                int tx1 = Math.min(tilesX - 1, box[2] / TILE_SIZE);
+                int ty1 = Math.min(tilesY - 1, box[3] / TILE_SIZE);
+                for(int ty=ty0; ty<=ty1; ++ty){
+                    for(int tx=tx0; tx<=tx1; ++tx){
+                        if(pass == 0){
+                            ++start[ty * tilesX + tx + 1];
+                        }
+                        else{
+                            items[next[ty * tilesX + tx]++] = item;
+                        }
+                    }
+                }
+            }
+            if(pass == 0){
+                //The counts become the starts.
+                for(int t=0; t<tilesX*tilesY; ++t){
+                    start[t+1] += start[t];
+                }
+                items = new int[start[start.length-1]];
+                next = start.clone();
+            }
+        }
+        return new int[][]{start, items};
+    }
+
+    private static Box edgeBoxes(int[] edges, int[] px, int[] py){
+        return (edge, box) -> {
+            int a = edges[2*edge];
+            int b = edges[2*edge+1];
+            box[0] = Math.min(px[a], px[b]);
+            box[1] = Math.min(py[a], py[b]);
+            box[2] = Math.max(px[a], px[b]);
+            box[3] = Math.max(py[a], py[b]);
+        };
+    }
+
+    /**
+     * Draws the edges of a tile.
+     * @param x0 The X of the tile in the image.
+     * @param y0 The Y of the tile in the image.
+     */
+    private static void drawEdges(int[] tilePixels, int x0, int y0, int rgb, int[] edges, int[][] bins, int tile, int[] px, int[] py){
+        int[] start = bins[0];
+        int[] items = bins[1];
+        for(int i=start[tile]; i<start[tile+1]; ++i){
+            int a = edges[2*items[i]];
+            int b = edges[2*items[i]+1];
+            drawLine(tilePixels, TILE_SIZE, TILE_SIZE, px[a] - x0, py[a] - y0, px[b] - x0, py[b] - y0, rgb);
+        }
+    }
+
+    /**
+     * Draws a line of one pixel in an image of width x height pixels, the part of the line out of the image
+     * is skipped: one pixel for each column (or row if the line is steep), on the row (column) of the line rounded.
+     * The pixels of a line depend only on its ends, so the parts of a line drawn by different tiles meet.
+     */
+    static void drawLine(int[] pixels, int width, int height, int ax, int ay, int bx, int by, int rgb){
+        long dx = (long)bx - ax;
+        long dy = (long)by - ay;
+        if(Math.abs(dx) >= Math.abs(dy)){
+            if(dx == 0){
+                setPixel(pixels, width, height, ax, ay, rgb);
+                return;
+            }
+            int from = Math.max(Math.min(ax, bx), 0);
+            int to = Math.min(Math.max(ax, bx), width - 1);
+            for(int x=from; x<=to; ++x){
+                setPixel(pixels, width, height, x, (int)(ay + Math.floorDiv(2 * (x - (long)ax) * dy + dx, 2 * dx)), rgb);
+            }
+        }
+        else{
+            int from = Math.max(Math.min(ay, by), 0);
+            int to = Math.min(Math.max(ay, by), height - 1);
+            for(int y=from; y<=to; ++y){
+                setPixel(pixels, width, height, (int)(ax + Math.floorDiv(2 * (y - (long)ay) * dx + dy, 2 * dy)), y, rgb);
+            }
+        }
+    }
+
+    /**
+     * Sets a pixel of an image of width x height pixels, if (x, y) is in the image.
+     */
+    static void setPixel(int[] pixels, int width, int height, int x, int y, int rgb){
+        if(x >= 0 && x < width && y >= 0 && y < height){
+            pixels[y * width + x] = rgb;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package utils;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A table of rows * columns non negative ids stored in a file and read through memory mapped buffers,
+ * so it stays out of the java heap.
+ * <p>
+ * Each id takes 2 bytes (unsigned short) if all the ids are smaller than 65536, else 4 bytes (int).
+ * A MappedByteBuffer can not be bigger than 2GB, so the table is mapped in chunks of CHUNK_SIZE bytes.
+ * The ids never cross the end of a chunk because the chunks are a multiple of the id width.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class MappedTable {
+    /**The size of each mapped chunk in bytes (1GB).  */
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_SHIFT;
+
+    /**The number of the rows and the columns of the table.  */
+    private final int rows;
+    private final int columns;
+
+    /**The number of bytes of each id (2 or 4).  */
+    private final int idWidth;
+
+    /**The mapped chunks of the table.  */
+    private final MappedByteBuffer[] chunks;
+
+    /**
+     * Maps a table that starts at the given position of a file.
+     * @param channel The channel of the file. It can be closed after the table is created.
+     * @param mode READ_ONLY or READ_WRITE
+     * @param position The position of the first id in the file.
+     * @param rows The number of the rows.
+     * @param columns The number of the columns.
+     * @param idWidth The number of bytes of each id, must be 2 or 4.
+     * @throws IOException If the file can not be mapped.
+     */
+    public MappedTable(FileChannel channel, FileChannel.MapMode mode, long position, int rows, int columns, int idWidth) throws IOException{
+        if(idWidth != 2 && idWidth != 4){
+            throw new IllegalArgumentException("The id width must be 2 or 4 bytes, not " + idWidth);
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.idWidth = idWidth;
+        long bytes = (long)rows * columns * idWidth;
+        chunks = new MappedByteBuffer[(int)((bytes + CHUNK_SIZE - 1) >>> CHUNK_SHIFT)];
+        for(int i=0; i<chunks.length; ++i){
+            long start = (long)i << CHUNK_SHIFT;
+            chunks[i] = channel.map(mode, position + start, Math.min(CHUNK_SIZE, bytes - start));
+            chunks[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * @param maxId The biggest id that will be stored.
+     * @return The number of bytes needed for each id.
+     */
+    public static int idWidthFor(long maxId){
+        return maxId <= 0xFFFF ? 2 : 4;
+    }
+
+    public int getRows(){
+        return rows;
+    }
+
+    public int getColumns(){
+        return columns;
+    }
+
+    public int getIdWidth(){
+        return idWidth;
+    }
+
+    /**
+     * @return The id in the given row and column.
+     */
+    public int get(int row, int column){
+        long offset = ((long)row * columns + column) * idWidth;
+        MappedByteBuffer chunk = chunks[(int)(offset >>> CHUNK_SHIFT)];
+        int index = (int)(offset & (CHUNK_SIZE - 1));
+        if(idWidth == 2){
+            return chunk.getShort(index) & 0xFFFF;
+        }
+        return chunk.getInt(index);
+    }
+
+    /**
+     * Stores an id in the given row and column. The table must have been mapped with READ_WRITE.
+     */
+    public void set(int row, int column, int id){
+        long offset = ((long)row * columns + column) * idWidth;
+        MappedByteBuffer chunk = chunks[(int)(offset >>> CHUNK_SHIFT)];
+        int index = (int)(offset & (CHUNK_SIZE - 1));
+        if(idWidth == 2){
+            chunk.putShort(index, (short)id);
+        }
+        else{
+            chunk.putInt(index, id);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package utils;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs an action for all the positions of a range on the common fork/join pool, splitting the range in halves
+ * that run in parallel. It is the parallel loop of the engines and of the utils (parsing, generating and
+ * drawing the ants).
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public final class ParallelLoop {
+
+    private ParallelLoop(){
+    }
+
+    /**
+     * Runs the action for the positions lo to hi - 1 and returns when all of them are done.
+     * @param grain Parts of the range not bigger than this are not split further between the threads
+     * (1 when every position is a big piece of work).
+     */
+    public static void run(int lo, int hi, int grain, IntConsumer action){
+        if(grain < 1){
+            throw new IllegalArgumentException("The grain of a parallel loop must be positive, not " + grain);
+        }
+        if(hi > lo){
+            ForkJoinPool.commonPool().invoke(new Task(lo, hi, grain, action));
+        }
+    }
+
+    /**
+     * The fork/join task of a part of the range.
+     */
+    private static final class Task extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int lo;
+        private final int hi;
+        private final int grain;
+        private final IntConsumer action;
+
+        Task(int lo, int hi, int grain, IntConsumer action){
+            this.lo = lo;
+            this.hi = hi;
+            this.grain = grain;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute(){
+            if(hi - lo <= grain){
+                for(int i=lo; i<hi; ++i){
+                    action.accept(i);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new Task(lo, mid, grain, action), new Task(mid, hi, grain, action));
+        }
+    }
+}
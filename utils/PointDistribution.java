@@ -0,0 +1,36 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package utils;
+
+/**
+ * The distributions of the positions of the ants that {@link WorkloadGenerator} can create.
+ * All the positions are in the unit square.
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public enum PointDistribution {
+    /**
+     * Every coordinate is uniform in [0, 1), as {@link InputHandler#createRandomInput(String, int)} creates them.
+     */
+    UNIFORM,
+
+    /**
+     * The ants are around a few cluster centres with normal distances, so there are dense areas with
+     * many close ants and big empty areas between them.
+     */
+    GAUSSIAN_CLUSTERS,
+
+    /**
+     * The ants are on the cells of a square grid, each one moved randomly inside its cell, so many
+     * distances are almost equal.
+     */
+    GRID_JITTER,
+
+    /**
+     * A part of the ants is on a small set of positions, so there are many ants with exactly the same
+     * position (distance 0) and many equal distances.
+     */
+    DUPLICATE_HEAVY
+}
@@ -0,0 +1,163 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package utils;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary file with the preference lists of n red and n black ants, for stable marriages that are not
+ * based on the distances of the ants.
+ * <p>
+ * The file (little endian) has a header of HEADER_SIZE bytes:<br>
+ * int MAGIC, int VERSION, int n, int id width (2 or 4 bytes, see {@link MappedTable#idWidthFor(long)}).<br>
+ * Then follow n rows, one for each red ant, with the n ids of the black ants from the most to the least preferred,
+ * and n rows, one for each black ant, with the n ids of the red ants in the same way.
+ * So the file has HEADER_SIZE + 2 * n * n * idWidth bytes.
+ * </p>
+ * <p>
+ * The rows are read through memory mapped {@link MappedTable}s and are never loaded in the heap.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class PreferenceFile {
+    /**The first 4 bytes of the file ("ANTP").  */
+    public static final int MAGIC = 0x414E5450;
+
+    /**The version of the format.  */
+    public static final int VERSION = 1;
+
+    /**The size of the header in bytes.  */
+    public static final int HEADER_SIZE = 16;
+
+    /**The number of the ants of each colour.  */
+    private final int numOfAntsPerColour;
+
+    /**The preference lists of the red and the black ants.  */
+    private final MappedTable redPreferences;
+    private final MappedTable blackPreferences;
+
+    private PreferenceFile(int numOfAntsPerColour, MappedTable redPreferences, MappedTable blackPreferences){
+        this.numOfAntsPerColour = numOfAntsPerColour;
+        this.redPreferences = redPreferences;
+        this.blackPreferences = blackPreferences;
+    }
+
+    /**
+     * Opens and maps a preference file.
+     * @param filename The name of the file.
+     * @return The preference lists of the file.
+     * @throws IOException If the file can not be read or it is not a valid preference file.
+     */
+    public static PreferenceFile open(String filename) throws IOException{
+        try(FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)){
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while(header.hasRemaining()){
+                if(channel.read(header, header.position()) < 0){
+                    throw new IOException(filename + " is too small to be a preference file");
+                }
+            }
+            header.flip();
+            if(header.getInt() != MAGIC){
+                throw new IOException(filename + " is not a preference file");
+            }
+            int version = header.getInt();
+            if(version != VERSION){
+                throw new IOException("Unknown preference file version " + version);
+            }
+            int n = header.getInt();
+            int idWidth = header.getInt();
+            if(n < 0 || (idWidth != 2 && idWidth != 4) || idWidth < MappedTable.idWidthFor(n - 1L)){
+                throw new IOException("Wrong preference file header: n = " + n + ", id width = " + idWidth);
+            }
+            long rowsSize = (long)n * n * idWidth;
+            if(channel.size() != HEADER_SIZE + 2 * rowsSize){
+                throw new IOException("The size of " + filename + " does not match its header");
+            }
+            MappedTable red = new MappedTable(channel, FileChannel.MapMode.READ_ONLY, HEADER_SIZE, n, n, idWidth);
+            MappedTable black = new MappedTable(channel, FileChannel.MapMode.READ_ONLY, HEADER_SIZE + rowsSize, n, n, idWidth);
+            return new PreferenceFile(n, red, black);
+        }
+    }
+
+    /**
+     * Writes the preference lists in a new preference file.
+     * @param filename The name of the file.
+     * @param redPreferences For each red ant the ids of the black ants from the most to the least preferred.
+     * @param blackPreferences For each black ant the ids of the red ants from the most to the least preferred.
+     * @throws IOException If the file can not be written.
+     */
+    public static void write(String filename, int[][] redPreferences, int[][] blackPreferences) throws IOException{
+        int n = redPreferences.length;
+        if(blackPreferences.length != n){
+            throw new IllegalArgumentException("There must be the same number of red and black ants");
+        }
+        int idWidth = MappedTable.idWidthFor(n - 1L);
+        try(OutputStream out = new BufferedOutputStream(new FileOutputStream(filename), 1 << 16)){
+            ByteBuffer buffer = ByteBuffer.allocate(Math.max(HEADER_SIZE, n * idWidth)).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(idWidth);
+            out.write(buffer.array(), 0, HEADER_SIZE);
+            writeRows(out, buffer, redPreferences, n, idWidth);
+            writeRows(out, buffer, blackPreferences, n, idWidth);
+        }
+    }
+
+    private static void writeRows(OutputStream out, ByteBuffer buffer, int[][] preferences, int n, int idWidth) throws IOException{
+        for(int[] row : preferences){
+            if(row.length != n){
+                throw new IllegalArgumentException("Every preference list must have " + n + " ids");
+            }
+            buffer.clear();
+            for(int id : row){
+                if(id < 0 || id >= n){
+                    throw new IllegalArgumentException("Wrong ant id in preference list: " + id);
+                }
+                if(idWidth == 2){
+                    buffer.putShort((short)id);
+                }
+                else{
+                    buffer.putInt(id);
+                }
+            }
+            out.write(buffer.array(), 0, buffer.position());
+        }
+    }
+
+    /**
+     * @return The number of the ants of each colour.
+     */
+    public int getNumOfAntsPerColour(){
+        return numOfAntsPerColour;
+    }
+
+    /**
+     * @return The number of bytes of each id in the file.
+     */
+    public int getIdWidth(){
+        return redPreferences.getIdWidth();
+    }
+
+    /**
+     * @return The id of the black ant in the given position (0 is the most preferred) of the red ant's list.
+     */
+    public int getRedPreference(int redID, int position){
+        return redPreferences.get(redID, position);
+    }
+
+    /**
+     * @return The id of the red ant in the given position (0 is the most preferred) of the black ant's list.
+     */
+    public int getBlackPreference(int blackID, int position){
+        return blackPreferences.get(blackID, position);
+    }
+}
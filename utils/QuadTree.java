@@ -0,0 +1,258 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * A quadtree over items with boxes (points are boxes of zero size), for the searches of the items that can be
+ * seen in a window. The items are put in the quadrants by the centers of their boxes, and every node keeps the
+ * box of all its items, so an item with a big box (a long edge) is found even when its center is far from the window.
+ * <p>
+ * The tree never changes. The items are reordered so the items of every node are contiguous in
+ * {@link #order()}, and the nodes are kept in primitive arrays.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+final class QuadTree {
+    /**The max number of items of a leaf.  */
+    private static final int LEAF_SIZE = 16;
+
+    /**The max depth, the items with (almost) the same center stay in one leaf.  */
+    private static final int MAX_DEPTH = 32;
+
+    /**The boxes of the items by their id.  */
+    private final double[] minX;
+    private final double[] minY;
+    private final double[] maxX;
+    private final double[] maxY;
+
+    /**The ids of the items, the items of each node are in positions start to end.  */
+    private final int[] items;
+
+    /**For each node the positions of its items, its 4 children (-1 if a quadrant is empty) and the box of its items.  */
+    private int[] start = new int[16];
+    private int[] end = new int[16];
+    private int[] children = new int[64];
+    private double[] nodeMinX = new double[16];
+    private double[] nodeMinY = new double[16];
+    private double[] nodeMaxX = new double[16];
+    private double[] nodeMaxY = new double[16];
+    private int nodes;
+
+    /**
+     * Called for the nodes and the items found by {@link #visit(double, double, double, double, Visitor)}.
+     */
+    interface Visitor {
+        /**An item whose box touches the window.  */
+        void item(int item);
+
+        /**
+         * A node with more than one item whose box touches the window: its box and the positions of its items
+         * in {@link #order()}.
+         * @return true if the items are taken as a group (e.g. drawn as one box) and must not be visited.
+         */
+        boolean group(double minX, double minY, double maxX, double maxY, int from, int to);
+    }
+
+    /**
+     * Constructor
+     * @param minX The min X of the box of each item.
+     * @param minY The min Y of the box of each item.
+     * @param maxX The max X of the box of each item.
+     * @param maxY The max Y of the box of each item.
+     */
+    QuadTree(double[] minX, double[] minY, double[] maxX, double[] maxY){
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        int n = minX.length;
+        items = new int[n];
+        double[] centerX = new double[n];
+        double[] centerY = new double[n];
+        double left = Double.POSITIVE_INFINITY;
+        double top = Double.POSITIVE_INFINITY;
+        double right = Double.NEGATIVE_INFINITY;
+        double bottom = Double.NEGATIVE_INFINITY;
+        for(int i=0; i<n; ++i){
+            items[i] = i;
+            centerX[i] = (minX[i] + maxX[i]) / 2;
+            centerY[i] = (minY[i] + maxY[i]) / 2;
+            left = Math.min(left, centerX[i]);
+            right = Math.max(right, centerX[i]);
+            top = Math.min(top, centerY[i]);
+            bottom = Math.max(bottom, centerY[i]);
+        }
+        if(n > 0){
+            build(0, n, left, top, right, bottom, 0, centerX, centerY);
+        }
+    }
+
+    /**
+     * @return The ids of the items in the order of the tree, the positions given to {@link Visitor#group}.
+     */
+    int[] order(){
+        return items;
+    }
+
+    /**
+     * Creates the node of the items in positions from to to, whose centers are in the region given.
+     * @return The node.
+     */
+    private int build(int from, int to, double left, double top, double right, double bottom, int depth, double[] centerX, double[] centerY){
+        int node = newNode(from, to);
+        if(to - from > LEAF_SIZE && depth < MAX_DEPTH && (right > left || bottom > top)){
+            double midX = (left + right) / 2;
+            double midY = (top + bottom) / 2;
+            int splitX = partition(from, to, centerX, midX);
+            int splitTop = partition(from, splitX, centerY, midY);
+            int splitBottom = partition(splitX, to, centerY, midY);
+            int[] bounds = {from, splitTop, splitX, splitBottom, to};
+            for(int q=0; q<4; ++q){
+                if(bounds[q] == bounds[q+1]){
+                    continue;
+                }
+                double l = q < 2 ? left : midX;
+                double r = q < 2 ? midX : right;
+                double t = q % 2 == 0 ? top : midY;
+                double b = q % 2 == 0 ? midY : bottom;
+                int child = build(bounds[q], bounds[q+1], l, t, r, b, depth + 1, centerX, centerY);
+                children[4*node+q] = child;
+                include(node, nodeMinX[child], nodeMinY[child], nodeMaxX[child], nodeMaxY[child]);
+            }
+        }
+        else{
+            for(int i=from; i<to; ++i){
+                int item = items[i];
+                include(node, minX[item], minY[item], maxX[item], maxY[item]);
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Moves the items with a center smaller than split before the others.
+     * @return The position of the first item that is not smaller.
+     */
+    private int partition(int from, int to, double[] center, double split){
+        int i = from;
+        int j = to - 1;
+        while(i <= j){
+            if(center[items[i]] < split){
+                ++i;
+            }
+            else{
+                int swap = items[i];
+                items[i] = items[j];
+                items[j] = swap;
+                --j;
+            }
+        }
+        return i;
+    }
+
+    private int newNode(int from, int to){
+        if(nodes == start.length){
+            int capacity = 2 * nodes;
+            start = Arrays.copyOf(start, capacity);
+            end = Arrays.copyOf(end, capacity);
+            children = Arrays.copyOf(children, 4 * capacity);
+            nodeMinX = Arrays.copyOf(nodeMinX, capacity);
+            nodeMinY = Arrays.copyOf(nodeMinY, capacity);
+            nodeMaxX = Arrays.copyOf(nodeMaxX, capacity);
+            nodeMaxY = Arrays.copyOf(nodeMaxY, capacity);
+        }
+        int node = nodes++;
+        start[node] = from;
+        end[node] = to;
+        Arrays.fill(children, 4 * node, 4 * node + 4, -1);
+        nodeMinX[node] = Double.POSITIVE_INFINITY;
+        nodeMinY[node] = Double.POSITIVE_INFINITY;
+        nodeMaxX[node] = Double.NEGATIVE_INFINITY;
+        nodeMaxY[node] = Double.NEGATIVE_INFINITY;
+        return node;
+    }
+
+    private void include(int node, double left, double top, double right, double bottom){
+        nodeMinX[node] = Math.min(nodeMinX[node], left);
+        nodeMinY[node] = Math.min(nodeMinY[node], top);
+        nodeMaxX[node] = Math.max(nodeMaxX[node], right);
+        nodeMaxY[node] = Math.max(nodeMaxY[node], bottom);
+    }
+
+    /**
+     * Counts the items whose boxes touch the window, up to a limit.
+     * @return The number of the items, or a number bigger than limit if they are more than limit.
+     */
+    int count(double left, double top, double right, double bottom, int limit){
+        return nodes == 0 ? 0 : count(0, left, top, right, bottom, limit, 0);
+    }
+
+    private int count(int node, double left, double top, double right, double bottom, int limit, int found){
+        if(found > limit || !touches(nodeMinX[node], nodeMinY[node], nodeMaxX[node], nodeMaxY[node], left, top, right, bottom)){
+            return found;
+        }
+        if(nodeMinX[node] >= left && nodeMaxX[node] <= right && nodeMinY[node] >= top && nodeMaxY[node] <= bottom){
+            return found + end[node] - start[node];
+        }
+        boolean leaf = true;
+        for(int q=0; q<4; ++q){
+            int child = children[4*node+q];
+            if(child != -1){
+                leaf = false;
+                found = count(child, left, top, right, bottom, limit, found);
+            }
+        }
+        if(leaf){
+            for(int i=start[node]; i<end[node]; ++i){
+                int item = items[i];
+                if(touches(minX[item], minY[item], maxX[item], maxY[item], left, top, right, bottom)){
+                    ++found;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds the items whose boxes touch the window, the nodes that the visitor takes as groups are not searched.
+     */
+    void visit(double left, double top, double right, double bottom, Visitor visitor){
+        if(nodes > 0){
+            visit(0, left, top, right, bottom, visitor);
+        }
+    }
+
+    private void visit(int node, double left, double top, double right, double bottom, Visitor visitor){
+        if(!touches(nodeMinX[node], nodeMinY[node], nodeMaxX[node], nodeMaxY[node], left, top, right, bottom)){
+            return;
+        }
+        if(end[node] - start[node] > 1 && visitor.group(nodeMinX[node], nodeMinY[node], nodeMaxX[node], nodeMaxY[node], start[node], end[node])){
+            return;
+        }
+        boolean leaf = true;
+        for(int q=0; q<4; ++q){
+            int child = children[4*node+q];
+            if(child != -1){
+                leaf = false;
+                visit(child, left, top, right, bottom, visitor);
+            }
+        }
+        if(leaf){
+            for(int i=start[node]; i<end[node]; ++i){
+                int item = items[i];
+                if(touches(minX[item], minY[item], maxX[item], maxY[item], left, top, right, bottom)){
+                    visitor.item(item);
+                }
+            }
+        }
+    }
+
+    private static boolean touches(double minX, double minY, double maxX, double maxY, double left, double top, double right, double bottom){
+        return minX <= right && maxX >= left && minY <= bottom && maxY >= top;
+    }
+}
@@ -0,0 +1,437 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package utils;
+
+import model.BlackAnt;
+import model.RedAnt;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cache of results (the MST table, the stable marriage table, the coin changes) in a directory, so that a rerun
+ * with the same ants loads them instead of calculating them again.
+ * <p>
+ * The results are content addressed: the key of a result is a 128 bit hash of the ants (ids, coordinates, capacities
+ * and seeds) and of the parameters of the algorithm, see {@link #key(List, List, String, int[][])}, and each result
+ * is the file named by its key in hex. A file (little endian) has a header of HEADER_SIZE bytes:<br>
+ * int MAGIC, int VERSION, int rows, int columns, the 16 bytes of the key.<br>
+ * Then follow the rows of the table, each one with columns int values, read and written through the channel in
+ * blocks of BUFFER_SIZE bytes. The files are not memory mapped: a mapped file stays open until the mapping is
+ * garbage collected, and on Windows it can not be renamed over or deleted until then.
+ * </p>
+ * <p>
+ * A result is written in a temporary file and renamed, so other processes never see half a file. When the files
+ * are more than maxBytes the least recently used ones are deleted (a hit updates the time of its file). A file
+ * that can not be deleted because it is in use (e.g. read by another process on Windows) is left for a later
+ * eviction, and the temporary files left by processes that stopped while writing are deleted when a cache is opened.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class ResultCache {
+    /**The first 4 bytes of a file ("ANTC").  */
+    public static final int MAGIC = 0x414E5443;
+
+    /**The version of the format.  */
+    public static final int VERSION = 1;
+
+    /**The size of the header in bytes.  */
+    public static final int HEADER_SIZE = 32;
+
+    /**The default max total size of the files (256MB).  */
+    public static final long DEFAULT_MAX_BYTES = 1L << 28;
+
+    /**The size of the key in bytes.  */
+    private static final int KEY_SIZE = 16;
+
+    /**The extension of the files of the results.  */
+    private static final String EXTENSION = ".res";
+
+    /**The prefix and the extension of the temporary files.  */
+    private static final String TEMPORARY_PREFIX = "result";
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    /**A temporary file older than this (in milliseconds) is not written any more and is deleted.  */
+    private static final long STALE_TEMPORARY_MILLIS = 10 * 60 * 1000;
+
+    /**The size of the blocks read from and written to the files.  */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**The directory of the files.  */
+    private final Path directory;
+
+    /**The max total size of the files.  */
+    private final long maxBytes;
+
+    /**The number of the results found, not found, stored and deleted to make space.  */
+    private long hits;
+    private long misses;
+    private long stores;
+    private long evictions;
+
+    /**
+     * Constructor. Deletes the temporary files that are older than STALE_TEMPORARY_MILLIS.
+     * @param directory The directory of the files, it is created if it does not exist.
+     * @param maxBytes The max total size of the files.
+     * @throws IOException If the directory can not be created or read.
+     */
+    public ResultCache(String directory, long maxBytes) throws IOException{
+        if(maxBytes <= 0){
+            throw new IllegalArgumentException("The max size of the cache must be positive, not " + maxBytes);
+        }
+        this.directory = Paths.get(directory);
+        this.maxBytes = maxBytes;
+        Files.createDirectories(this.directory);
+        deleteStaleTemporaries();
+    }
+
+    /**
+     * Deletes the temporary files of the results that were not renamed, i.e. of processes that stopped while
+     * writing them. The recent ones can be written right now by another process, so they are kept.
+     */
+    private void deleteStaleTemporaries() throws IOException{
+        long limit = System.currentTimeMillis() - STALE_TEMPORARY_MILLIS;
+        try(DirectoryStream<Path> stream = Files.newDirectoryStream(directory, TEMPORARY_PREFIX + "*" + TEMPORARY_EXTENSION)){
+            for(Path file : stream){
+                try{
+                    if(Files.getLastModifiedTime(file).toMillis() < limit){
+                        Files.deleteIfExists(file);
+                    }
+                }
+                catch(IOException e){
+                    //In use or deleted by another process, it is tried again by the next cache.
+                }
+            }
+        }
+    }
+
+    /**
+     * Calculates the key of a result.
+     * @param redAnts The red ants the result was calculated from.
+     * @param blackAnts The black ants the result was calculated from.
+     * @param parameters The algorithm and anything else that changes the result, e.g. "MST DELAUNAY".
+     * @param table Another input of the algorithm, e.g. the couples of the coin changes, or null.
+     * @return The KEY_SIZE bytes of the hash of all of them.
+     */
+    public static byte[] key(List<RedAnt> redAnts, List<BlackAnt> blackAnts, String parameters, int[][] table){
+        Hash hash = new Hash();
+        hash.add(parameters.length());
+        for(int i=0; i<parameters.length(); ++i){
+            hash.add(parameters.charAt(i));
+        }
+        hash.add(redAnts.size(), blackAnts.size());
+        for(RedAnt r : redAnts){
+            hash.add(r.getID(), r.getCapacity());
+            hash.add(Double.doubleToLongBits(r.getX()));
+            hash.add(Double.doubleToLongBits(r.getY()));
+        }
+        for(BlackAnt b : blackAnts){
+            hash.add(b.getID(), b.getObjects().length);
+            hash.add(Double.doubleToLongBits(b.getX()));
+            hash.add(Double.doubleToLongBits(b.getY()));
+            hash.add(b.getObjects());
+        }
+        if(table != null){
+            hash.add(table.length);
+            for(int[] row : table){
+                hash.add(row);
+            }
+        }
+        return hash.toKey();
+    }
+
+    /**
+     * A 128 bit hash of a sequence of values: two lanes, each one multiplies its state and adds the value
+     * mixed with the finalizer of MurmurHash3, so it depends on the order of the values. It is not a cryptographic
+     * hash but it is fast from the first run (SHA-256 of a big input takes 100ms before the JIT compiles it),
+     * and a collision of 128 bits between the inputs of one cache is not a practical concern.
+     */
+    private static final class Hash {
+        private long first = 0x9E3779B97F4A7C15L;
+        private long second = 0xC2B2AE3D27D4EB4FL;
+        private long count;
+
+        void add(long value){
+            first = first * 0xFF51AFD7ED558CCDL + mix(value);
+            second = (second ^ mix(value + 0x165667B19E3779F9L)) * 0xC4CEB9FE1A85EC53L;
+            ++count;
+        }
+
+        void add(int high, int low){
+            add(((long)high << 32) | (low & 0xFFFFFFFFL));
+        }
+
+        void add(int[] array){
+            add(array.length);
+            for(int value : array){
+                add(value);
+            }
+        }
+
+        byte[] toKey(){
+            ByteBuffer key = ByteBuffer.allocate(KEY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            key.putLong(mix(first ^ count)).putLong(mix(second + first));
+            return key.array();
+        }
+
+        private static long mix(long value){
+            value ^= value >>> 33;
+            value *= 0xFF51AFD7ED558CCDL;
+            value ^= value >>> 33;
+            value *= 0xC4CEB9FE1A85EC53L;
+            value ^= value >>> 33;
+            return value;
+        }
+    }
+
+    /**
+     * Loads a result.
+     * @param key The key of the result, see {@link #key(List, List, String, int[][])}.
+     * @return The table of the result, or null if it is not in the cache (or its file is not valid).
+     */
+    public synchronized int[][] get(byte[] key){
+        Path file = fileOf(key);
+        if(!Files.exists(file)){
+            ++misses;
+            return null;
+        }
+        int[][] table;
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            table = read(channel, key);
+        }
+        catch(IOException e){
+            //Deleted or in use by another process, it is a miss but the file is not damaged.
+            ++misses;
+            return null;
+        }
+        if(table == null){
+            //A damaged file is a miss, the result will be stored again. It is deleted after it is closed, and if
+            //it can not be deleted (it is in use) it stays a miss until it is replaced or evicted.
+            deleteQuietly(file);
+            ++misses;
+            return null;
+        }
+        ++hits;
+        try{
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        }
+        catch(IOException e){
+            //The result is valid, it is only evicted earlier.
+        }
+        return table;
+    }
+
+    /**
+     * Reads the table of a file.
+     * @return The table, or null if the file is not a result file of the key.
+     * @throws IOException If the file can not be read.
+     */
+    private static int[][] read(FileChannel channel, byte[] key) throws IOException{
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        if(readFully(channel, header, 0) < HEADER_SIZE){
+            return null;
+        }
+        header.flip();
+        if(header.getInt() != MAGIC || header.getInt() != VERSION){
+            return null;
+        }
+        int rows = header.getInt();
+        int columns = header.getInt();
+        byte[] storedKey = new byte[KEY_SIZE];
+        header.get(storedKey);
+        if(rows < 0 || columns < 0 || (long)rows * columns > Integer.MAX_VALUE - 8 || !Arrays.equals(key, storedKey)
+                || channel.size() != HEADER_SIZE + (long)rows * columns * Integer.BYTES){
+            return null;
+        }
+        int[][] table = new int[rows][columns];
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.limit(0);
+        long position = HEADER_SIZE;
+        for(int row=0; row<rows; ++row){
+            for(int column=0; column<columns; ++column){
+                if(!buffer.hasRemaining()){
+                    buffer.clear();
+                    position += readFully(channel, buffer, position);
+                    buffer.flip();
+                    if(buffer.remaining() < Integer.BYTES){
+                        return null;
+                    }
+                }
+                table[row][column] = buffer.getInt();
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Stores a result and deletes the least recently used results if the files are too big.
+     * A result bigger than the cache is not stored.
+     * @param key The key of the result, see {@link #key(List, List, String, int[][])}.
+     * @param table The table of the result, all its rows must have the same length.
+     * @throws IOException If the file can not be written.
+     */
+    public synchronized void put(byte[] key, int[][] table) throws IOException{
+        int rows = table.length;
+        int columns = rows == 0 ? 0 : table[0].length;
+        long size = HEADER_SIZE + (long)rows * columns * Integer.BYTES;
+        if(size > maxBytes || (long)rows * columns > Integer.MAX_VALUE - 8){
+            return;
+        }
+        for(int[] row : table){
+            if(row.length != columns){
+                throw new IllegalArgumentException("The rows of a result must have the same length");
+            }
+        }
+        Path file = fileOf(key);
+        Path temporary = Files.createTempFile(directory, TEMPORARY_PREFIX, TEMPORARY_EXTENSION);
+        try{
+            try(FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)){
+                ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                buffer.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(columns).put(key);
+                for(int[] row : table){
+                    for(int value : row){
+                        if(!buffer.hasRemaining()){
+                            writeFully(channel, buffer);
+                        }
+                        buffer.putInt(value);
+                    }
+                }
+                writeFully(channel, buffer);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally{
+            deleteQuietly(temporary);
+        }
+        ++stores;
+        evict(file);
+    }
+
+    /**
+     * Deletes the least recently used files until the files are not bigger than maxBytes.
+     * @param keep The file that was just stored, it is not deleted.
+     */
+    private void evict(Path keep) throws IOException{
+        List<Path> files = new ArrayList<>();
+        List<Long> times = new ArrayList<>();
+        long total = 0;
+        try(DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION)){
+            for(Path file : stream){
+                try{
+                    long time = Files.getLastModifiedTime(file).toMillis();
+                    total += Files.size(file);
+                    files.add(file);
+                    times.add(time);
+                }
+                catch(IOException e){
+                    //Deleted by another process.
+                }
+            }
+        }
+        if(total <= maxBytes){
+            return;
+        }
+        Integer[] order = new Integer[files.size()];
+        for(int i=0; i<order.length; ++i){
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(times.get(a), times.get(b)));
+        for(int i=0; i<order.length && total > maxBytes; ++i){
+            Path file = files.get(order[i]);
+            if(file.equals(keep)){
+                continue;
+            }
+            try{
+                long size = Files.size(file);
+                if(Files.deleteIfExists(file)){
+                    total -= size;
+                    ++evictions;
+                }
+            }
+            catch(IOException e){
+                //In use (or deleted) by another process, the next files are deleted instead.
+            }
+        }
+    }
+
+    /**
+     * Reads from the position until the buffer is full or the file ends.
+     * @return The number of bytes read.
+     */
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException{
+        int total = 0;
+        while(buffer.hasRemaining()){
+            int read = channel.read(buffer, position + total);
+            if(read < 0){
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    /**
+     * Writes the bytes of the buffer from its start to its position and clears it.
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException{
+        buffer.flip();
+        while(buffer.hasRemaining()){
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private Path fileOf(byte[] key){
+        if(key.length != KEY_SIZE){
+            throw new IllegalArgumentException("The key must have " + KEY_SIZE + " bytes");
+        }
+        StringBuilder name = new StringBuilder(2 * KEY_SIZE + EXTENSION.length());
+        for(byte b : key){
+            name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return directory.resolve(name.append(EXTENSION).toString());
+    }
+
+    private static void deleteQuietly(Path file){
+        try{
+            Files.deleteIfExists(file);
+        }
+        catch(IOException e){
+            //Nothing to do, the file is overwritten or evicted later.
+        }
+    }
+
+    /**@return The number of results loaded from the cache.  */
+    public synchronized long getHits(){
+        return hits;
+    }
+
+    /**@return The number of results not found in the cache.  */
+    public synchronized long getMisses(){
+        return misses;
+    }
+
+    /**@return The number of results stored.  */
+    public synchronized long getStores(){
+        return stores;
+    }
+
+    /**@return The number of results deleted to keep the cache smaller than its max size.  */
+    public synchronized long getEvictions(){
+        return evictions;
+    }
+}
@@ -0,0 +1,162 @@
+package utils;
+
+import algorithms.Algorithms;
+import model.BlackAnt;
+import model.RedAnt;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A small client of {@link algorithms.SolverService} for tests on localhost.
+ * <p>
+ * Every connection sends requests with the ants of a {@link WorkloadGenerator} (the seed of a request is its number)
+ * and waits for each result. At the end it prints the percentiles of the round trips and the STATS of the service.
+ * With the check option the MST and the stable marriage of every result are compared with the ones calculated locally.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class SolverClient {
+
+    /**
+     * @param args host, port, population of each colour, number of requests, and optionally the number of
+     * connections (1) and "check".
+     */
+    public static void main(String[] args) throws Exception {
+        if(args.length < 4){
+            System.out.println("Usage: SolverClient host port population requests [connections] [check]");
+            System.exit(-1);
+        }
+        String host = args[0];
+        int port = Integer.parseInt(args[1]);
+        int population = Integer.parseInt(args[2]);
+        int requests = Integer.parseInt(args[3]);
+        int connections = args.length > 4 ? Integer.parseInt(args[4]) : 1;
+        boolean check = args.length > 5 && args[5].equals("check");
+
+        long[] roundTrips = new long[requests];
+        AtomicInteger nextRequest = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        Thread[] threads = new Thread[connections];
+        for(int c=0; c<connections; ++c){
+            threads[c] = new Thread(() -> {
+                try(Socket socket = new Socket(host, port)){
+                    socket.setTcpNoDelay(true);
+                    Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII), 1 << 16);
+                    BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII), 1 << 16);
+                    int request;
+                    while((request = nextRequest.getAndIncrement()) < requests){
+                        ArrayList<RedAnt> redAnts = new ArrayList<>();
+                        ArrayList<BlackAnt> blackAnts = new ArrayList<>();
+                        new WorkloadGenerator(request, PointDistribution.UNIFORM).generate(population, redAnts, blackAnts);
+                        long start = System.nanoTime();
+                        send(out, "r" + request, redAnts, blackAnts);
+                        ArrayList<String> result = receive(in);
+                        roundTrips[request] = System.nanoTime() - start;
+                        if(!result.get(0).startsWith("RESULT") || (check && !matches(result, redAnts, blackAnts))){
+                            failures.incrementAndGet();
+                            System.err.println("Wrong result of request " + request + ": " + result.get(0));
+                        }
+                    }
+                    out.write("QUIT\n");
+                    out.flush();
+                }
+                catch(IOException e){
+                    failures.incrementAndGet();
+                    System.err.println("Error: " + e.getMessage());
+                }
+            });
+            threads[c].start();
+        }
+        for(Thread t : threads){
+            t.join();
+        }
+
+        Arrays.sort(roundTrips);
+        System.out.println("requests " + requests + " failures " + failures.get() + " round trip p50 " + percentile(roundTrips, 0.5)
+                + " p90 " + percentile(roundTrips, 0.9) + " p99 " + percentile(roundTrips, 0.99) + " max " + percentile(roundTrips, 1) + " us");
+        try(Socket socket = new Socket(host, port)){
+            Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            out.write("STATS\nQUIT\n");
+            out.flush();
+            System.out.println(in.readLine());
+        }
+    }
+
+    /**
+     * Writes a request with all the tasks, the ants in the format of the input files.
+     */
+    private static void send(Writer out, String name, ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts) throws IOException{
+        StringBuilder text = new StringBuilder();
+        text.append("SOLVE ").append(name).append(" ALL\n");
+        for(RedAnt r : redAnts){
+            text.append("0 ").append(r.getX()).append(' ').append(r.getY()).append(' ').append(r.getCapacity()).append('\n');
+        }
+        for(BlackAnt b : blackAnts){
+            text.append("1 ").append(b.getX()).append(' ').append(b.getY());
+            for(int seed : b.getObjects()){
+                text.append(' ').append(seed);
+            }
+            text.append('\n');
+        }
+        text.append("END\n");
+        out.write(text.toString());
+        out.flush();
+    }
+
+    /**
+     * @return The lines of a result up to "END", or the line of an error.
+     */
+    private static ArrayList<String> receive(BufferedReader in) throws IOException{
+        ArrayList<String> lines = new ArrayList<>();
+        String line;
+        while((line = in.readLine()) != null){
+            lines.add(line);
+            if(line.equals("END") || line.startsWith("ERROR")){
+                return lines;
+            }
+        }
+        throw new IOException("The connection was closed");
+    }
+
+    /**
+     * @return true if the MST and the stable marriage of the result are the same as the local ones.
+     */
+    private static boolean matches(ArrayList<String> result, ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts){
+        int[][] mst = Algorithms.findMST(redAnts, blackAnts);
+        int[][] sm = Algorithms.findStableMarriage(redAnts, blackAnts);
+        int line = 1;
+        if(!result.get(line++).equals("MST " + mst.length)){
+            return false;
+        }
+        for(int[] edge : mst){
+            if(!result.get(line++).equals(edge[0] + " " + edge[1] + " " + edge[2] + " " + edge[3])){
+                return false;
+            }
+        }
+        if(!result.get(line++).equals("SM " + sm.length)){
+            return false;
+        }
+        for(int[] couple : sm){
+            if(!result.get(line++).equals(couple[0] + " " + couple[1])){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long percentile(long[] sorted, double fraction){
+        int index = (int)Math.ceil(fraction * sorted.length) - 1;
+        return sorted.length == 0 ? 0 : sorted[Math.max(index, 0)] / 1000;
+    }
+}
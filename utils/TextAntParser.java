@@ -0,0 +1,495 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package utils;
+
+import model.BlackAnt;
+import model.RedAnt;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parser of the text input files of {@link InputHandler#readInput} that reads the file in parallel.
+ * <p>
+ * The file is memory mapped and split in chunks of about the same size. Each chunk starts after the first
+ * newline of its range (or at the start of the file) and parses every line that starts in its range, so
+ * every line is parsed by exactly one chunk. The numbers are parsed directly from the bytes, without
+ * Strings, into the primitive arrays of the chunk, so the only objects created are the ants themselves.
+ * </p>
+ * <p>
+ * The ids of the ants are given in the order of the lines, as readInput gives them: after all the chunks
+ * are parsed they are merged in order, and the first id of the red and the black ants of each chunk is the
+ * number of the red and black ants of the chunks before it. When a line can not be parsed the ants of the
+ * lines before it are kept and the error is reported, as readInput does.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class TextAntParser {
+    /**The smallest size of a chunk in bytes.  */
+    private static final long MIN_CHUNK_SIZE = 1 << 20;
+
+    /**The biggest size of a chunk in bytes, so that a chunk and its last line fit in one mapped buffer.  */
+    private static final long MAX_CHUNK_SIZE = 1 << 30;
+
+    /**The number of chunks for each thread, so that the threads are kept busy when the chunks are not equal.  */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**The powers of 5 that fit in a long with 52 bits, for the exact conversion of the doubles.  */
+    private static final int MAX_FAST_EXPONENT = 22;
+    private static final long[] POWERS_OF_FIVE = new long[MAX_FAST_EXPONENT + 1];
+
+    static{
+        POWERS_OF_FIVE[0] = 1;
+        for(int i=1; i<POWERS_OF_FIVE.length; ++i){
+            POWERS_OF_FIVE[i] = POWERS_OF_FIVE[i-1] * 5;
+        }
+    }
+
+    private TextAntParser(){
+    }
+
+    /**
+     * Reads the ants of a text input file and adds them to the lists.
+     * @param filename The name of the file.
+     * @param redAnts The list where the red ants are added.
+     * @param blackAnts The list where the black ants are added.
+     * @throws IOException If the file can not be read or a line can not be parsed. The ants of the lines
+     * before that line are added to the lists.
+     */
+    public static void read(String filename, List<RedAnt> redAnts, List<BlackAnt> blackAnts) throws IOException{
+        Chunk[] chunks;
+        try(FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)){
+            long size = channel.size();
+            int threads = ForkJoinPool.commonPool().getParallelism();
+            long chunkCount = Math.max(1, Math.min((long)threads * CHUNKS_PER_THREAD, size / MIN_CHUNK_SIZE));
+            int count = (int)Math.max(chunkCount, (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+            chunks = new Chunk[count];
+            for(int i=0; i<count; ++i){
+                chunks[i] = new Chunk(size * i / count, size * (i + 1) / count);
+            }
+            ParallelLoop.run(0, count, 1, i -> chunks[i].parse(channel, size));
+        }
+        merge(chunks, redAnts, blackAnts);
+    }
+
+    /**
+     * Adds the ants of the chunks to the lists in the order of the file, up to the first error.
+     */
+    private static void merge(Chunk[] chunks, List<RedAnt> redAnts, List<BlackAnt> blackAnts) throws IOException{
+        int reds = 0;
+        int blacks = 0;
+        for(Chunk c : chunks){
+            reds += c.reds;
+            blacks += c.blacks;
+            if(c.error != null){
+                break;
+            }
+        }
+        if(redAnts instanceof ArrayList){
+            ((ArrayList<RedAnt>)redAnts).ensureCapacity(redAnts.size() + reds);
+        }
+        if(blackAnts instanceof ArrayList){
+            ((ArrayList<BlackAnt>)blackAnts).ensureCapacity(blackAnts.size() + blacks);
+        }
+        int idRed = 0;
+        int idBlack = 0;
+        for(Chunk c : chunks){
+            for(int i=0; i<c.reds; ++i){
+                redAnts.add(new RedAnt(idRed++, c.redX[i], c.redY[i], c.capacities[i]));
+            }
+            for(int i=0; i<c.blacks; ++i){
+                int start = i == 0 ? 0 : c.seedEnds[i-1];
+                int[] objects = new int[c.seedEnds[i] - start];
+                System.arraycopy(c.seeds, start, objects, 0, objects.length);
+                blackAnts.add(new BlackAnt(idBlack++, c.blackX[i], c.blackY[i], objects));
+            }
+            for(int i=0; i<c.wrongIds; ++i){
+                System.err.println("Wrong ant id value, must be 0 or 1.");
+            }
+            if(c.error != null){
+                throw new IOException(c.error);
+            }
+        }
+    }
+
+    /**
+     * The lines of one range of the file and the values parsed from them.
+     */
+    private static final class Chunk {
+        /**The range of the file, the chunk parses the lines that start in it.  */
+        private final long start;
+        private final long end;
+
+        /**The red ants of the chunk.  */
+        private int reds;
+        private double[] redX = new double[16];
+        private double[] redY = new double[16];
+        private int[] capacities = new int[16];
+
+        /**The black ants of the chunk, the seeds of the black ant i end at seedEnds[i] in seeds[].  */
+        private int blacks;
+        private double[] blackX = new double[16];
+        private double[] blackY = new double[16];
+        private int[] seedEnds = new int[16];
+        private int numOfSeeds;
+        private int[] seeds = new int[64];
+
+        /**The number of the lines with a wrong ant id value.  */
+        private int wrongIds;
+
+        /**The message of the first line that could not be parsed, or null.  */
+        private String error;
+
+        /**The mapped bytes of the chunk and the position of the parser in them.  */
+        private MappedByteBuffer bytes;
+        private int position;
+
+        Chunk(long start, long end){
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Parses all the lines that start in the range of the chunk.
+         */
+        void parse(FileChannel channel, long fileSize){
+            //The byte before the range is mapped too, to see if the range starts at the start of a line.
+            long mapStart = Math.max(start - 1, 0);
+            try{
+                bytes = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, Math.min(fileSize - mapStart, Integer.MAX_VALUE));
+            }
+            catch(IOException e){
+                error = e.getMessage();
+                return;
+            }
+            int limit = bytes.limit();
+            boolean truncated = mapStart + limit < fileSize;
+            int rangeEnd = (int)Math.min(end - mapStart, limit);
+            position = 0;
+            if(start > 0){
+                //The line that started before the range belongs to the previous chunk.
+                while(position < limit && bytes.get(position) != '\n'){
+                    ++position;
+                }
+                ++position;
+            }
+            while(position < rangeEnd && error == null){
+                int lineStart = position;
+                try{
+                    parseLine(limit);
+                }
+                catch(NumberFormatException e){
+                    error = "Wrong value in line \"" + line(lineStart, limit) + "\": " + e.getMessage();
+                }
+                if(position >= limit && truncated){
+                    error = "A line is too long to be mapped";
+                }
+            }
+            bytes = null;
+        }
+
+        /**
+         * Parses the line at the position and moves the position to the start of the next line.
+         */
+        private void parseLine(int limit){
+            skipSpaces(limit);
+            if(position >= limit || bytes.get(position) == '\n'){
+                //Empty line.
+                ++position;
+                return;
+            }
+            int value = parseInt(limit);
+            if(value == 0){
+                double x = parseDouble(limit);
+                double y = parseDouble(limit);
+                int capacity = parseInt(limit);
+                addRed(x, y, capacity);
+            }
+            else if(value == 1){
+                double x = parseDouble(limit);
+                double y = parseDouble(limit);
+                //All the values after the position are the seeds.
+                while(hasValue(limit)){
+                    addSeed(parseInt(limit));
+                }
+                addBlack(x, y);
+            }
+            else{
+                ++wrongIds;
+            }
+            while(position < limit && bytes.get(position) != '\n'){
+                ++position;
+            }
+            ++position;
+        }
+
+        private void addRed(double x, double y, int capacity){
+            if(reds == redX.length){
+                redX = Arrays.copyOf(redX, reds * 2);
+                redY = Arrays.copyOf(redY, reds * 2);
+                capacities = Arrays.copyOf(capacities, reds * 2);
+            }
+            redX[reds] = x;
+            redY[reds] = y;
+            capacities[reds] = capacity;
+            ++reds;
+        }
+
+        private void addSeed(int seed){
+            if(numOfSeeds == seeds.length){
+                seeds = Arrays.copyOf(seeds, numOfSeeds * 2);
+            }
+            seeds[numOfSeeds++] = seed;
+        }
+
+        private void addBlack(double x, double y){
+            if(blacks == blackX.length){
+                blackX = Arrays.copyOf(blackX, blacks * 2);
+                blackY = Arrays.copyOf(blackY, blacks * 2);
+                seedEnds = Arrays.copyOf(seedEnds, blacks * 2);
+            }
+            blackX[blacks] = x;
+            blackY[blacks] = y;
+            seedEnds[blacks] = numOfSeeds;
+            ++blacks;
+        }
+
+        private static boolean isSpace(byte b){
+            return b == ' ' || b == '\t' || b == '\r';
+        }
+
+        private void skipSpaces(int limit){
+            while(position < limit && isSpace(bytes.get(position))){
+                ++position;
+            }
+        }
+
+        /**
+         * @return true if there is one more value in the line.
+         */
+        private boolean hasValue(int limit){
+            skipSpaces(limit);
+            return position < limit && bytes.get(position) != '\n';
+        }
+
+        /**
+         * @return The end of the value at the position.
+         */
+        private int valueEnd(int limit){
+            int i = position;
+            while(i < limit && bytes.get(i) != '\n' && !isSpace(bytes.get(i))){
+                ++i;
+            }
+            return i;
+        }
+
+        /**
+         * Parses the next value of the line as an int, like Integer.parseInt.
+         */
+        private int parseInt(int limit){
+            if(!hasValue(limit)){
+                throw new NumberFormatException("missing value");
+            }
+            int end = valueEnd(limit);
+            int i = position;
+            boolean negative = bytes.get(i) == '-';
+            if(negative || bytes.get(i) == '+'){
+                ++i;
+            }
+            if(i == end){
+                throw new NumberFormatException("For input string: \"" + text(position, end) + "\"");
+            }
+            //Negative, so that Integer.MIN_VALUE can be parsed.
+            long result = 0;
+            for(; i<end; ++i){
+                int digit = bytes.get(i) - '0';
+                if(digit < 0 || digit > 9 || result < -(1L << 31)){
+                    throw new NumberFormatException("For input string: \"" + text(position, end) + "\"");
+                }
+                result = result * 10 - digit;
+            }
+            if(!negative){
+                result = -result;
+            }
+            if(result < Integer.MIN_VALUE || result > Integer.MAX_VALUE){
+                throw new NumberFormatException("For input string: \"" + text(position, end) + "\"");
+            }
+            position = end;
+            return (int)result;
+        }
+
+        /**
+         * Parses the next value of the line as a double with the same result as Double.parseDouble.
+         * <p>
+         * The decimal value m * 10<sup>e</sup> is converted exactly when m has at most 18 digits and
+         * |e| &le; 22: 10<sup>e</sup> = 5<sup>e</sup> * 2<sup>e</sup> and 5<sup>e</sup> fits in 52 bits, so
+         * m * 5<sup>e</sup> or m / 5<sup>e</sup> is found with integer arithmetic and rounded once to the
+         * nearest double. The other values (and special forms like NaN) are given to Double.parseDouble.
+         * </p>
+         */
+        private double parseDouble(int limit){
+            if(!hasValue(limit)){
+                throw new NumberFormatException("missing value");
+            }
+            int end = valueEnd(limit);
+            int i = position;
+            boolean negative = bytes.get(i) == '-';
+            if(negative || bytes.get(i) == '+'){
+                ++i;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int exponent = 0;
+            boolean anyDigit = false;
+            for(; i<end && isDigit(bytes.get(i)); ++i){
+                anyDigit = true;
+                if(digits > 0 || bytes.get(i) != '0'){
+                    mantissa = mantissa * 10 + (bytes.get(i) - '0');
+                    ++digits;
+                }
+            }
+            if(i < end && bytes.get(i) == '.'){
+                for(++i; i<end && isDigit(bytes.get(i)); ++i){
+                    anyDigit = true;
+                    if(digits > 0 || bytes.get(i) != '0'){
+                        mantissa = mantissa * 10 + (bytes.get(i) - '0');
+                        ++digits;
+                    }
+                    --exponent;
+                }
+            }
+            boolean fast = anyDigit && digits <= 18;
+            if(fast && i < end && (bytes.get(i) == 'e' || bytes.get(i) == 'E')){
+                ++i;
+                boolean negativeExponent = i < end && bytes.get(i) == '-';
+                if(i < end && (bytes.get(i) == '-' || bytes.get(i) == '+')){
+                    ++i;
+                }
+                int value = 0;
+                int start = i;
+                for(; i<end && isDigit(bytes.get(i)) && value < 10000; ++i){
+                    value = value * 10 + (bytes.get(i) - '0');
+                }
+                fast = i > start;
+                exponent += negativeExponent ? -value : value;
+            }
+            fast = fast && i == end && Math.abs(exponent) <= MAX_FAST_EXPONENT;
+            double result;
+            if(fast){
+                result = exactDouble(mantissa, exponent);
+            }
+            else{
+                //Rare forms, only they create a String.
+                result = Double.parseDouble(text(position, end));
+                negative = false;
+            }
+            position = end;
+            return negative ? -result : result;
+        }
+
+        private static boolean isDigit(byte b){
+            return b >= '0' && b <= '9';
+        }
+
+        private String text(int from, int to){
+            byte[] value = new byte[to - from];
+            for(int i=from; i<to; ++i){
+                value[i - from] = bytes.get(i);
+            }
+            return new String(value, StandardCharsets.US_ASCII);
+        }
+
+        private String line(int from, int limit){
+            int to = from;
+            while(to < limit && bytes.get(to) != '\n' && bytes.get(to) != '\r'){
+                ++to;
+            }
+            return text(from, to);
+        }
+    }
+
+    /**
+     * @param mantissa The digits of the value, less than 10<sup>18</sup>.
+     * @param exponent The decimal exponent, |exponent| &le; MAX_FAST_EXPONENT.
+     * @return The double nearest to mantissa * 10<sup>exponent</sup> (ties to even).
+     */
+    static double exactDouble(long mantissa, int exponent){
+        if(mantissa == 0){
+            return 0.0;
+        }
+        long quotient;
+        int binaryExponent;
+        boolean sticky;
+        if(exponent >= 0){
+            //mantissa * 5^e * 2^e, the product must fit in 63 bits.
+            long five = POWERS_OF_FIVE[exponent];
+            if(Math.multiplyHigh(mantissa, five) != 0 || mantissa * five < 0){
+                return Double.parseDouble(mantissa + "E" + exponent);
+            }
+            quotient = mantissa * five;
+            binaryExponent = exponent;
+            sticky = false;
+        }
+        else{
+            //(mantissa * 2^shift / 5^-e) * 2^(e - shift), with the mantissa moved to the bits 61..62 and
+            //shift chosen so that the quotient is between 2^61 and 2^63.
+            long five = POWERS_OF_FIVE[-exponent];
+            int normalize = Long.numberOfLeadingZeros(mantissa) - 1;
+            long numerator = mantissa << normalize;
+            int shift = 64 - Long.numberOfLeadingZeros(five) - 1;
+            //The numerator (numerator << shift) has up to 114 bits: high:low.
+            long high = shift == 0 ? 0 : numerator >>> (64 - shift);
+            long low = numerator << shift;
+            //Long division in steps of 11 bits, the remainder stays below 5^22 < 2^52.
+            long q = 0;
+            long remainder = 0;
+            for(int bit=127; bit>=0; bit-=11){
+                int bits = Math.min(11, bit + 1);
+                int from = bit - bits + 1;
+                long part = bits128(high, low, from, bits);
+                remainder = (remainder << bits) | part;
+                q = (q << bits) | (remainder / five);
+                remainder %= five;
+            }
+            quotient = q;
+            binaryExponent = exponent - shift - normalize;
+            sticky = remainder != 0;
+        }
+        int length = 64 - Long.numberOfLeadingZeros(quotient);
+        if(length <= 53 && !sticky){
+            return Math.scalb((double)quotient, binaryExponent);
+        }
+        int extra = length - 53;
+        long rounded = quotient >>> extra;
+        long rest = quotient & ((1L << extra) - 1);
+        long half = 1L << (extra - 1);
+        if(rest > half || (rest == half && (sticky || (rounded & 1) == 1))){
+            ++rounded;
+        }
+        return Math.scalb((double)rounded, binaryExponent + extra);
+    }
+
+    /**
+     * @return The bits [from, from + count) of the 128 bit number high:low.
+     */
+    private static long bits128(long high, long low, int from, int count){
+        long mask = (1L << count) - 1;
+        if(from >= 64){
+            return (high >>> (from - 64)) & mask;
+        }
+        if(from + count <= 64){
+            return (low >>> from) & mask;
+        }
+        return ((low >>> from) | (high << (64 - from))) & mask;
+    }
+}
@@ -1,118 +1,423 @@
-/*
- * To change this template, choose Tools | Templates
- * and open the template in the editor.
- */
-package utils;
-
-import java.awt.Color;
-import java.awt.Dimension;
-import java.awt.Graphics;
-import java.awt.Graphics2D;
-import java.awt.Insets;
-import java.awt.Toolkit;
-import java.util.ArrayList;
-import javax.swing.JFrame;
-import javax.swing.JPanel;
-import model.BlackAnt;
-import model.RedAnt;
-
-/**
- *
- * @author Giorgos Christakis
- * @email giorgos_chri@hotmail.com
- */
-public class Visualize extends JPanel{
-    ArrayList<RedAnt> redAntsCopy = new ArrayList();
-    ArrayList<BlackAnt> blackAntsCopy = new ArrayList();
-    int[][] mstCopy = null;
-    int[][] matchingsCopy = null;
-    private String title = "";
-    private int windowSize = 600;
-    
-    public Visualize(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts, int[][] mst, int[][] matchings, String title){
-        this.redAntsCopy = redAnts;
-        this.blackAntsCopy = blackAnts;
-        this.mstCopy = new int[2 * redAnts.size() - 1][4];
-        this.mstCopy = mst;
-        this.matchingsCopy = new int[redAnts.size()][2];
-        this.matchingsCopy = matchings;
-        this.title = title;
-    }
-    
-    
-    private void doDrawing(Graphics g) {
-        int i;
-        Graphics2D g2d = (Graphics2D)g;
-        g2d.setColor(Color.red);
-        Dimension size = this.getSize();
-        Insets insets = this.getInsets();
-        int w = size.width - insets.left - insets.right;
-        int h = size.height - insets.top - insets.bottom;
-        int x = 0;
-        int y = 0;
-        int x1 = 0;
-        int y1 = 0;
-        g2d.setColor(Color.red);
-        for(i = 0; i < this.redAntsCopy.size(); ++i){
-            x = (int)(this.redAntsCopy.get(i).getX() * (double)this.windowSize % (double)w);
-            y = (int)(this.redAntsCopy.get(i).getY() * (double)this.windowSize % (double)h);
-            g2d.drawOval(x, y, 3, 3);
-            g2d.drawString(Integer.toString(this.redAntsCopy.get(i).getID()), x, y-3);
-        }
-        g2d.setColor(Color.black);
-        for(i = 0; i < this.blackAntsCopy.size(); ++i){
-            x = (int)(this.blackAntsCopy.get(i).getX() * (double)this.windowSize % (double)w);
-            y = (int)(this.blackAntsCopy.get(i).getY() * (double)this.windowSize % (double)h);
-            g2d.drawOval(x, y, 3, 3);
-            g2d.drawString(Integer.toString(this.redAntsCopy.get(i).getID()), x, y-3);
-        }
-        if (this.mstCopy != null) {
-            g2d.setColor(Color.blue);
-            int mstSize = 2 * this.redAntsCopy.size() - 1;
-            for (int i2 = 0; i2 < mstSize; ++i2) {
-                if (this.mstCopy[i2][1] == 0) {
-                    x = (int)(this.redAntsCopy.get(this.mstCopy[i2][0]).getX() * (double)this.windowSize % (double)w);
-                    y = (int)(this.redAntsCopy.get(this.mstCopy[i2][0]).getY() * (double)this.windowSize % (double)w);
-                } else {
-                    x = (int)(this.blackAntsCopy.get(this.mstCopy[i2][0]).getX() * (double)this.windowSize % (double)w);
-                    y = (int)(this.blackAntsCopy.get(this.mstCopy[i2][0]).getY() * (double)this.windowSize % (double)w);
-                }
-                if (this.mstCopy[i2][3] == 0) {
-                    x1 = (int)(this.redAntsCopy.get(this.mstCopy[i2][2]).getX() * (double)this.windowSize % (double)w);
-                    y1 = (int)(this.redAntsCopy.get(this.mstCopy[i2][2]).getY() * (double)this.windowSize % (double)w);
-                } else {
-                    x1 = (int)(this.blackAntsCopy.get(this.mstCopy[i2][2]).getX() * (double)this.windowSize % (double)w);
-                    y1 = (int)(this.blackAntsCopy.get(this.mstCopy[i2][2]).getY() * (double)this.windowSize % (double)w);
-                }
-                g2d.drawLine(x, y, x1, y1);
-            }
-        }
-        if (this.matchingsCopy != null) {
-            g2d.setColor(Color.green);
-            for (i = 0; i < this.redAntsCopy.size(); ++i) {
-                x = (int)(this.redAntsCopy.get(this.matchingsCopy[i][0]).getX() * (double)this.windowSize % (double)w);
-                y = (int)(this.redAntsCopy.get(this.matchingsCopy[i][0]).getY() * (double)this.windowSize % (double)w);
-                x1 = (int)(this.blackAntsCopy.get(this.matchingsCopy[i][1]).getX() * (double)this.windowSize % (double)w);
-                y1 = (int)(this.blackAntsCopy.get(this.matchingsCopy[i][1]).getY() * (double)this.windowSize % (double)w);
-                g2d.drawLine(x, y, x1, y1);
-            }
-        }
-    }    
-    
-    
-    @Override
-    public void paintComponent(Graphics g){
-        super.paintComponent(g);
-        this.doDrawing(g);
-    }
-    
-    public void drawInitialPoints() {
-        JFrame frame = new JFrame(this.title);
-        frame.setDefaultCloseOperation(3);
-        frame.add(new Visualize(this.redAntsCopy, this.blackAntsCopy, this.mstCopy, this.matchingsCopy, this.title));
-        frame.setSize(this.windowSize + 50, this.windowSize + 50);
-        Dimension dim = Toolkit.getDefaultToolkit().getScreenSize();
-        frame.setLocation(dim.width / 2 - frame.getSize().width / 2, dim.height / 2 - frame.getSize().height / 2);
-        frame.setVisible(true);
-    }
-}
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package utils;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Insets;
+import java.awt.Toolkit;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.geom.Line2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import model.BlackAnt;
+import model.RedAnt;
+
+/**
+ * A window with the ants and the MST or the stable marriage, that can be moved by dragging with the mouse and
+ * zoomed with the wheel (a double click shows all the ants again).
+ * <p>
+ * The coordinates of the ants and the ends of the edges are kept in primitive arrays, and the ants and the edges
+ * (by their midpoints) are put in {@link QuadTree}s, so a repaint only visits what can be seen. When more than
+ * DETAIL_LIMIT ants can be seen they are drawn as the density of the ants in cells of DENSITY_CELL pixels, and the
+ * groups of edges that fit in EDGE_CELL pixels or that would cover their box anyway are drawn as their box filled,
+ * so the work of a repaint depends on the size of the window more than on the number of the ants.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class Visualize extends JPanel{
+    private static final long serialVersionUID = 1L;
+
+    /**The max number of ants that are drawn one by one with their ids.  */
+    private static final int DETAIL_LIMIT = 2000;
+
+    /**The size in pixels of the cells of the density of the ants.  */
+    private static final int DENSITY_CELL = 3;
+
+    /**The size in pixels below which a group of edges is drawn as a square.  */
+    private static final int EDGE_CELL = 2;
+
+    /**
+     * The edges per pixel above which a group of edges not bigger than SATURATION_SIZE pixels is drawn as its box
+     * filled, they would cover it anyway.
+     */
+    private static final int EDGE_SATURATION = 4;
+    private static final int SATURATION_SIZE = 16;
+
+    /**The empty pixels around the ants when all of them are shown.  */
+    private static final int MARGIN = 10;
+
+    /**The change of the scale for each step of the wheel.  */
+    private static final double ZOOM_STEP = 1.25;
+
+    private String title = "";
+    private int windowSize = 600;
+
+    /**The number of the red ants, the coordinates of all the ants: the red ants by their id and then the black ants.  */
+    private final int reds;
+    private final double[] xs;
+    private final double[] ys;
+
+    /**The ants, and for each position of its order the number of red ants before it (for the density of the groups).  */
+    private final QuadTree antTree;
+    private final int[] redsBefore;
+
+    /**The edges as pairs of ants (indexes of xs and ys) and their trees, null if they are not drawn.  */
+    private final int[] mstEdges;
+    private final int[] matchingEdges;
+    private final QuadTree mstTree;
+    private final QuadTree matchingTree;
+
+    /**The view: the pixels per unit of the coordinates (0 until the first paint) and the coordinates at the top left corner.  */
+    private double scale;
+    private double viewX;
+    private double viewY;
+
+    /**The layer of the edges, kept between the repaints while the size of the panel does not change.  */
+    private BufferedImage edgeLayer;
+
+    public Visualize(ArrayList<RedAnt> redAnts, ArrayList<BlackAnt> blackAnts, int[][] mst, int[][] matchings, String title){
+        this.title = title;
+        reds = redAnts.size();
+        xs = new double[reds + blackAnts.size()];
+        ys = new double[xs.length];
+        for(RedAnt r : redAnts){
+            xs[r.getID()] = r.getX();
+            ys[r.getID()] = r.getY();
+        }
+        for(BlackAnt b : blackAnts){
+            xs[reds + b.getID()] = b.getX();
+            ys[reds + b.getID()] = b.getY();
+        }
+        antTree = new QuadTree(xs, ys, xs, ys);
+        int[] order = antTree.order();
+        redsBefore = new int[order.length + 1];
+        for(int i=0; i<order.length; ++i){
+            redsBefore[i+1] = redsBefore[i] + (order[i] < reds ? 1 : 0);
+        }
+
+        if(mst != null){
+            mstEdges = new int[2 * mst.length];
+            for(int i=0; i<mst.length; ++i){
+                mstEdges[2*i] = mst[i][1] == 0 ? mst[i][0] : reds + mst[i][0];
+                mstEdges[2*i+1] = mst[i][3] == 0 ? mst[i][2] : reds + mst[i][2];
+            }
+            mstTree = edgeTree(mstEdges);
+        }
+        else{
+            mstEdges = null;
+            mstTree = null;
+        }
+        if(matchings != null){
+            int count = 0;
+            for(int[] couple : matchings){
+                if(couple[1] != -1){
+                    ++count;
+                }
+            }
+            matchingEdges = new int[2 * count];
+            count = 0;
+            for(int[] couple : matchings){
+                if(couple[1] != -1){
+                    matchingEdges[count++] = couple[0];
+                    matchingEdges[count++] = reds + couple[1];
+                }
+            }
+            matchingTree = edgeTree(matchingEdges);
+        }
+        else{
+            matchingEdges = null;
+            matchingTree = null;
+        }
+
+        MouseAdapter mouse = new MouseAdapter(){
+            private int lastX;
+            private int lastY;
+
+            @Override
+            public void mousePressed(MouseEvent e){
+                lastX = e.getX();
+                lastY = e.getY();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e){
+                if(scale > 0){
+                    viewX -= (e.getX() - lastX) / scale;
+                    viewY -= (e.getY() - lastY) / scale;
+                    lastX = e.getX();
+                    lastY = e.getY();
+                    repaint();
+                }
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e){
+                if(scale > 0){
+                    //The point under the mouse stays in its place.
+                    double x = viewX + e.getX() / scale;
+                    double y = viewY + e.getY() / scale;
+                    scale *= Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation());
+                    viewX = x - e.getX() / scale;
+                    viewY = y - e.getY() / scale;
+                    repaint();
+                }
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e){
+                if(e.getClickCount() == 2){
+                    scale = 0;
+                    repaint();
+                }
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        addMouseWheelListener(mouse);
+    }
+
+    /**
+     * @return The tree of the edges, the box of an edge is the box of its ends.
+     */
+    private QuadTree edgeTree(int[] edges){
+        int n = edges.length / 2;
+        double[] minX = new double[n];
+        double[] minY = new double[n];
+        double[] maxX = new double[n];
+        double[] maxY = new double[n];
+        for(int i=0; i<n; ++i){
+            int a = edges[2*i];
+            int b = edges[2*i+1];
+            minX[i] = Math.min(xs[a], xs[b]);
+            maxX[i] = Math.max(xs[a], xs[b]);
+            minY[i] = Math.min(ys[a], ys[b]);
+            maxY[i] = Math.max(ys[a], ys[b]);
+        }
+        return new QuadTree(minX, minY, maxX, maxY);
+    }
+
+    /**
+     * Shows all the ants: their box is scaled to fit in the panel inside the margin, with the same scale on both axes.
+     */
+    private void fit(int w, int h){
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for(int i=0; i<xs.length; ++i){
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        if(xs.length == 0){
+            minX = minY = 0;
+            maxX = maxY = 1;
+        }
+        int margin = Math.min(MARGIN, Math.min(w, h) / 4);
+        double spanX = Math.max(maxX - minX, 1e-9);
+        double spanY = Math.max(maxY - minY, 1e-9);
+        scale = Math.max(Math.min((w - 1 - 2 * margin) / spanX, (h - 1 - 2 * margin) / spanY), 1e-9);
+        viewX = minX - margin / scale;
+        viewY = minY - margin / scale;
+    }
+
+    private void doDrawing(Graphics g) {
+        Graphics2D g2d = (Graphics2D)g;
+        Dimension size = this.getSize();
+        Insets insets = this.getInsets();
+        int w = size.width - insets.left - insets.right;
+        int h = size.height - insets.top - insets.bottom;
+        if(w <= 0 || h <= 0){
+            return;
+        }
+        if(scale == 0){
+            fit(w, h);
+        }
+        g2d.translate(insets.left, insets.top);
+        double left = viewX;
+        double top = viewY;
+        double right = viewX + w / scale;
+        double bottom = viewY + h / scale;
+
+        //The edges are written in the pixels of a transparent layer, much faster than a drawLine for each one.
+        if(edgeLayer == null || edgeLayer.getWidth() != w || edgeLayer.getHeight() != h){
+            edgeLayer = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        }
+        int[] pixels = ((DataBufferInt)edgeLayer.getRaster().getDataBuffer()).getData();
+        Arrays.fill(pixels, 0);
+        ArrayList<Line2D> farMstEdges = new ArrayList<>();
+        ArrayList<Line2D> farMatchingEdges = new ArrayList<>();
+        if(mstTree != null){
+            drawEdges(pixels, w, h, mstEdges, mstTree, Color.blue.getRGB(), left, top, right, bottom, farMstEdges);
+        }
+        if(matchingTree != null){
+            drawEdges(pixels, w, h, matchingEdges, matchingTree, Color.green.getRGB(), left, top, right, bottom, farMatchingEdges);
+        }
+        g2d.drawImage(edgeLayer, 0, 0, null);
+        //The edges with an end far outside the window are drawn over the layer, in the same order.
+        g2d.setColor(Color.blue);
+        for(Line2D edge : farMstEdges){
+            g2d.draw(edge);
+        }
+        g2d.setColor(Color.green);
+        for(Line2D edge : farMatchingEdges){
+            g2d.draw(edge);
+        }
+
+        //The labels and the circles reach a few pixels above and to the right of an ant.
+        double pad = 30 / scale;
+        if(antTree.count(left - pad, top, right, bottom + pad, DETAIL_LIMIT) <= DETAIL_LIMIT){
+            antTree.visit(left - pad, top, right, bottom + pad, new QuadTree.Visitor(){
+                @Override
+                public void item(int ant){
+                    int x = (int)((xs[ant] - viewX) * scale);
+                    int y = (int)((ys[ant] - viewY) * scale);
+                    g2d.setColor(ant < reds ? Color.red : Color.black);
+                    g2d.drawOval(x, y, 3, 3);
+                    g2d.drawString(Integer.toString(ant < reds ? ant : ant - reds), x, y-3);
+                }
+
+                @Override
+                public boolean group(double minX, double minY, double maxX, double maxY, int from, int to){
+                    return false;
+                }
+            });
+        }
+        else{
+            BufferedImage cells = density(w, h, left, top, right, bottom);
+            g2d.drawImage(cells, 0, 0, cells.getWidth() * DENSITY_CELL, cells.getHeight() * DENSITY_CELL, null);
+        }
+    }
+
+    /**
+     * Draws the edges that can be seen in the layer of the edges, the groups of edges smaller than EDGE_CELL
+     * pixels or with more than EDGE_SATURATION edges per pixel as their box filled.
+     * @param pixels The pixels of the layer of the edges, w x h.
+     * @param rgb The color of the edges.
+     * @param farEdges The list where the edges with an end too far outside the window for the integer
+     * coordinates of the layer are added, in window coordinates, to be drawn after the layer.
+     */
+    private void drawEdges(int[] pixels, int w, int h, int[] edges, QuadTree tree, int rgb, double left, double top, double right, double bottom, List<Line2D> farEdges){
+        tree.visit(left, top, right, bottom, new QuadTree.Visitor(){
+            @Override
+            public void item(int edge){
+                int a = edges[2*edge];
+                int b = edges[2*edge+1];
+                double x = (xs[a] - viewX) * scale;
+                double y = (ys[a] - viewY) * scale;
+                double x1 = (xs[b] - viewX) * scale;
+                double y1 = (ys[b] - viewY) * scale;
+                if(Math.max(Math.max(Math.abs(x), Math.abs(y)), Math.max(Math.abs(x1), Math.abs(y1))) < (1 << 20)){
+                    ImageRenderer.drawLine(pixels, w, h, (int)x, (int)y, (int)x1, (int)y1, rgb);
+                }
+                else{
+                    //An end far outside the window, the integer coordinates would overflow.
+                    farEdges.add(new Line2D.Double(x, y, x1, y1));
+                }
+            }
+
+            @Override
+            public boolean group(double minX, double minY, double maxX, double maxY, int from, int to){
+                double width = (maxX - minX) * scale;
+                double height = (maxY - minY) * scale;
+                if((width > EDGE_CELL || height > EDGE_CELL)
+                        && (width > SATURATION_SIZE || height > SATURATION_SIZE || to - from <= EDGE_SATURATION * width * height)){
+                    return false;
+                }
+                int x = (int)((minX - viewX) * scale);
+                int y = (int)((minY - viewY) * scale);
+                int x1 = Math.min(Math.max((int)((maxX - viewX) * scale), x + EDGE_CELL - 1), w - 1);
+                int y1 = Math.min(Math.max((int)((maxY - viewY) * scale), y + EDGE_CELL - 1), h - 1);
+                int first = Math.min(Math.max(x, 0), w);
+                int last = Math.max(x1 + 1, first);
+                for(int py=Math.max(y, 0); py<=y1; ++py){
+                    Arrays.fill(pixels, py * w + first, py * w + last, rgb);
+                }
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Draws the density of the ants that can be seen: the more ants in a cell the darker it is, from red when
+     * they are all red ants to black when they are all black ants. The empty cells are transparent.
+     * @return An image with one pixel for each cell.
+     */
+    private BufferedImage density(int w, int h, double left, double top, double right, double bottom){
+        int cellsX = (w + DENSITY_CELL - 1) / DENSITY_CELL;
+        int cellsY = (h + DENSITY_CELL - 1) / DENSITY_CELL;
+        int[] redCount = new int[cellsX * cellsY];
+        int[] count = new int[cellsX * cellsY];
+        double cellScale = scale / DENSITY_CELL;
+        antTree.visit(left, top, right, bottom, new QuadTree.Visitor(){
+            @Override
+            public void item(int ant){
+                add(xs[ant], ys[ant], 1, ant < reds ? 1 : 0);
+            }
+
+            @Override
+            public boolean group(double minX, double minY, double maxX, double maxY, int from, int to){
+                //The ants of a node smaller than a cell are counted in the cell of its center.
+                if((maxX - minX) * cellScale > 1 || (maxY - minY) * cellScale > 1){
+                    return false;
+                }
+                add((minX + maxX) / 2, (minY + maxY) / 2, to - from, redsBefore[to] - redsBefore[from]);
+                return true;
+            }
+
+            private void add(double x, double y, int ants, int redAnts){
+                int cx = (int)((x - viewX) * cellScale);
+                int cy = (int)((y - viewY) * cellScale);
+                if(cx >= 0 && cx < cellsX && cy >= 0 && cy < cellsY){
+                    count[cy * cellsX + cx] += ants;
+                    redCount[cy * cellsX + cx] += redAnts;
+                }
+            }
+        });
+        int max = 1;
+        for(int c : count){
+            max = Math.max(max, c);
+        }
+        double logMax = Math.log1p(max);
+        BufferedImage cells = new BufferedImage(cellsX, cellsY, BufferedImage.TYPE_INT_ARGB);
+        int[] pixels = ((DataBufferInt)cells.getRaster().getDataBuffer()).getData();
+        for(int i=0; i<count.length; ++i){
+            if(count[i] > 0){
+                int alpha = 96 + (int)(159 * Math.log1p(count[i]) / logMax);
+                int red = 255 * redCount[i] / count[i];
+                pixels[i] = (alpha << 24) | (red << 16);
+            }
+        }
+        return cells;
+    }
+
+    @Override
+    public void paintComponent(Graphics g){
+        super.paintComponent(g);
+        this.doDrawing(g);
+    }
+
+    public void drawInitialPoints() {
+        JFrame frame = new JFrame(this.title);
+        frame.setDefaultCloseOperation(3);
+        frame.add(this);
+        frame.setSize(this.windowSize + 50, this.windowSize + 50);
+        Dimension dim = Toolkit.getDefaultToolkit().getScreenSize();
+        frame.setLocation(dim.width / 2 - frame.getSize().width / 2, dim.height / 2 - frame.getSize().height / 2);
+        frame.setVisible(true);
+    }
+}
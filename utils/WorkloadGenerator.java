@@ -0,0 +1,482 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package utils;
+
+import model.BlackAnt;
+import model.RedAnt;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Creates random ants that are the same every time for the same seed, for benchmarks that can be repeated.
+ * <p>
+ * The ants are created in chunks of CHUNK_PAIRS red-black pairs (the pair i is the red ant i and the black
+ * ant i) and each chunk has its own SplittableRandom, split in order from one SplittableRandom of the seed.
+ * So the chunks are created in parallel and the ants don't depend on the number of threads. The number of
+ * seeds of each black ant comes from a second SplittableRandom of the chunk, so the size of every chunk is
+ * known before its values are created. The text file, the binary file and the lists have the same ants.
+ * </p>
+ * <p>
+ * The default ranges are the ones of {@link InputHandler#createRandomInput(String, int)}: capacities from
+ * 1000 to 1999 and five seeds from 10 to 39.
+ * </p>
+ * @author Giorgos Christakis
+ * @email giorgos_chri@hotmail.com
+ */
+public class WorkloadGenerator {
+    /**The number of red-black pairs of each chunk.  */
+    private static final int CHUNK_PAIRS = 1 << 14;
+
+    /**The number of chunks created in parallel before they are written in the text file.  */
+    private static final int CHUNKS_PER_THREAD = 2;
+
+    /**The seed of all the random numbers.  */
+    private final long seed;
+
+    /**The distribution of the positions of the ants.  */
+    private final PointDistribution distribution;
+
+    /**The ranges (inclusive) of the capacities, the number of seeds and the weights of the seeds.  */
+    private int minCapacity = 1000;
+    private int maxCapacity = 1999;
+    private int minSeeds = 5;
+    private int maxSeeds = 5;
+    private int minSeedWeight = 10;
+    private int maxSeedWeight = 39;
+
+    /**The number of clusters and their standard deviation for GAUSSIAN_CLUSTERS.  */
+    private int clusters = 16;
+    private double clusterDeviation = 0.02;
+
+    /**The part of a grid cell an ant can move for GRID_JITTER.  */
+    private double gridJitter = 0.3;
+
+    /**The part of the ants on duplicate positions and the number of these positions for DUPLICATE_HEAVY.  */
+    private double duplicateFraction = 0.5;
+    private int duplicatePositions = 64;
+
+    /**
+     * Constructor
+     * @param seed The seed of the random numbers.
+     * @param distribution The distribution of the positions of the ants.
+     */
+    public WorkloadGenerator(long seed, PointDistribution distribution){
+        this.seed = seed;
+        this.distribution = distribution;
+    }
+
+    /**
+     * Sets the range of the capacities of the red ants.
+     */
+    public void setCapacityRange(int min, int max){
+        checkRange(min, max, 0);
+        minCapacity = min;
+        maxCapacity = max;
+    }
+
+    /**
+     * Sets the range of the number of seeds of the black ants.
+     */
+    public void setSeedCountRange(int min, int max){
+        checkRange(min, max, 0);
+        minSeeds = min;
+        maxSeeds = max;
+    }
+
+    /**
+     * Sets the range of the weights of the seeds.
+     */
+    public void setSeedWeightRange(int min, int max){
+        checkRange(min, max, 1);
+        minSeedWeight = min;
+        maxSeedWeight = max;
+    }
+
+    /**
+     * Sets the clusters of GAUSSIAN_CLUSTERS.
+     * @param count The number of clusters.
+     * @param deviation The standard deviation of the distance of the ants from the centre of their cluster.
+     */
+    public void setClusters(int count, double deviation){
+        if(count < 1 || !(deviation > 0)){
+            throw new IllegalArgumentException("Wrong clusters: " + count + " with deviation " + deviation);
+        }
+        clusters = count;
+        clusterDeviation = deviation;
+    }
+
+    /**
+     * Sets the part of a grid cell (0 to 1) an ant can move from the centre of its cell for GRID_JITTER.
+     */
+    public void setGridJitter(double jitter){
+        if(!(jitter >= 0 && jitter <= 1)){
+            throw new IllegalArgumentException("The jitter must be from 0 to 1: " + jitter);
+        }
+        gridJitter = jitter;
+    }
+
+    /**
+     * Sets the duplicate positions of DUPLICATE_HEAVY.
+     * @param fraction The part of the ants (0 to 1) that are on one of the duplicate positions.
+     * @param positions The number of the duplicate positions.
+     */
+    public void setDuplicates(double fraction, int positions){
+        if(!(fraction >= 0 && fraction <= 1) || positions < 1){
+            throw new IllegalArgumentException("Wrong duplicates: " + fraction + " of the ants on " + positions + " positions");
+        }
+        duplicateFraction = fraction;
+        duplicatePositions = positions;
+    }
+
+    private static void checkRange(int min, int max, int smallest){
+        if(min < smallest || max < min){
+            throw new IllegalArgumentException("Wrong range: " + min + " to " + max);
+        }
+    }
+
+    /**
+     * Creates the ants and adds them to the lists.
+     * @param population The number of the ants of each colour.
+     * @param redAnts The list where the red ants are added, with ids from 0.
+     * @param blackAnts The list where the black ants are added, with ids from 0.
+     */
+    public void generate(int population, List<RedAnt> redAnts, List<BlackAnt> blackAnts){
+        Chunk[] chunks = createChunks(population);
+        ParallelLoop.run(0, chunks.length, 1, i -> chunks[i].fill());
+        if(redAnts instanceof ArrayList){
+            ((ArrayList<RedAnt>)redAnts).ensureCapacity(redAnts.size() + population);
+        }
+        if(blackAnts instanceof ArrayList){
+            ((ArrayList<BlackAnt>)blackAnts).ensureCapacity(blackAnts.size() + population);
+        }
+        for(Chunk c : chunks){
+            for(int i=0; i<c.pairs; ++i){
+                redAnts.add(new RedAnt(c.firstPair + i, c.redX[i], c.redY[i], c.capacities[i]));
+            }
+            int start = 0;
+            for(int i=0; i<c.pairs; ++i){
+                int[] objects = new int[c.seedCounts[i]];
+                System.arraycopy(c.seeds, start, objects, 0, objects.length);
+                start += objects.length;
+                blackAnts.add(new BlackAnt(c.firstPair + i, c.blackX[i], c.blackY[i], objects));
+            }
+            c.clear();
+        }
+    }
+
+    /**
+     * Writes the ants in a text file of the format of {@link InputHandler#readInput}, a red ant line and
+     * a black ant line for each pair. The chunks are created in parallel and written in order.
+     * @param filename The name of the file.
+     * @param population The number of the ants of each colour.
+     * @throws IOException If the file can not be written.
+     */
+    public void writeText(String filename, int population) throws IOException{
+        Chunk[] chunks = createChunks(population);
+        int window = Math.max(1, ForkJoinPool.commonPool().getParallelism() * CHUNKS_PER_THREAD);
+        byte[][] text = new byte[window][];
+        try(OutputStream out = new BufferedOutputStream(new FileOutputStream(filename), 1 << 16)){
+            for(int first=0; first<chunks.length; first+=window){
+                int start = first;
+                int count = Math.min(window, chunks.length - first);
+                ParallelLoop.run(0, count, 1, i -> {
+                    chunks[start + i].fill();
+                    text[i] = chunks[start + i].toText();
+                    chunks[start + i].clear();
+                });
+                for(int i=0; i<count; ++i){
+                    out.write(text[i]);
+                    text[i] = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the ants in a {@link BinaryAntFile}. Every chunk writes its part of each column in parallel.
+     * @param filename The name of the file.
+     * @param population The number of the ants of each colour.
+     * @throws IOException If the file can not be written.
+     */
+    public void writeBinary(String filename, int population) throws IOException{
+        Chunk[] chunks = createChunks(population);
+        long totalSeeds = 0;
+        for(Chunk c : chunks){
+            c.firstSeed = totalSeeds;
+            totalSeeds += c.seedTotal;
+        }
+        long[] columns = BinaryAntFile.columnPositions(population, population, totalSeeds);
+        try(FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)){
+            writeFully(channel, BinaryAntFile.header(population, population, totalSeeds), 0);
+            //The last seed offset, the others are written by the chunks.
+            writeFully(channel, ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(0, totalSeeds),
+                    columns[BinaryAntFile.SEED_OFFSETS] + population * 8L);
+            IOException[] error = new IOException[1];
+            ParallelLoop.run(0, chunks.length, 1, i -> {
+                try{
+                    chunks[i].fill();
+                    chunks[i].writeColumns(channel, columns);
+                    chunks[i].clear();
+                }
+                catch(IOException e){
+                    synchronized(error){
+                        error[0] = e;
+                    }
+                }
+            });
+            if(error[0] != null){
+                throw error[0];
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException{
+        while(buffer.hasRemaining()){
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Creates the chunks with their random numbers and the number of seeds of their black ants.
+     * The random numbers of the positions (cluster centres, duplicate positions) are created first.
+     */
+    private Chunk[] createChunks(int population){
+        if(population < 0){
+            throw new IllegalArgumentException("The population can not be negative: " + population);
+        }
+        SplittableRandom root = new SplittableRandom(seed);
+        double[] special = createSpecialPositions(root);
+        int gridSide = (int)Math.ceil(Math.sqrt(2.0 * population));
+        Chunk[] chunks = new Chunk[(population + CHUNK_PAIRS - 1) / CHUNK_PAIRS];
+        for(int i=0; i<chunks.length; ++i){
+            int first = i * CHUNK_PAIRS;
+            chunks[i] = new Chunk(first, Math.min(CHUNK_PAIRS, population - first), root.split(), root.split(), special, gridSide);
+        }
+        return chunks;
+    }
+
+    /**
+     * @return The x and y of the cluster centres or of the duplicate positions, or null.
+     */
+    private double[] createSpecialPositions(SplittableRandom random){
+        int count;
+        if(distribution == PointDistribution.GAUSSIAN_CLUSTERS){
+            count = clusters;
+        }
+        else if(distribution == PointDistribution.DUPLICATE_HEAVY){
+            count = duplicatePositions;
+        }
+        else{
+            return null;
+        }
+        double[] positions = new double[2 * count];
+        for(int i=0; i<positions.length; ++i){
+            positions[i] = random.nextDouble();
+        }
+        return positions;
+    }
+
+    /**
+     * The ants of CHUNK_PAIRS pairs and their random numbers.
+     */
+    private final class Chunk {
+        /**The first pair and the number of the pairs.  */
+        private final int firstPair;
+        private final int pairs;
+
+        /**The random numbers of the values and of the number of seeds.  */
+        private final SplittableRandom random;
+
+        /**The cluster centres or the duplicate positions (x, y), or null.  */
+        private final double[] special;
+
+        /**The number of cells of each side of the grid of GRID_JITTER.  */
+        private final int gridSide;
+
+        /**The number of seeds of each black ant, their sum and the position of the first seed in the binary file.  */
+        private final int[] seedCounts;
+        private int seedTotal;
+        private long firstSeed;
+
+        /**The values of the ants, created by fill().  */
+        private double[] redX;
+        private double[] redY;
+        private int[] capacities;
+        private double[] blackX;
+        private double[] blackY;
+        private int[] seeds;
+
+        Chunk(int firstPair, int pairs, SplittableRandom random, SplittableRandom countRandom, double[] special, int gridSide){
+            this.firstPair = firstPair;
+            this.pairs = pairs;
+            this.random = random;
+            this.special = special;
+            this.gridSide = gridSide;
+            seedCounts = new int[pairs];
+            for(int i=0; i<pairs; ++i){
+                seedCounts[i] = nextInt(countRandom, minSeeds, maxSeeds);
+                seedTotal += seedCounts[i];
+            }
+        }
+
+        /**
+         * Creates the values of the ants. It is called only once for each chunk.
+         */
+        void fill(){
+            SplittableRandom r = random;
+            redX = new double[pairs];
+            redY = new double[pairs];
+            capacities = new int[pairs];
+            blackX = new double[pairs];
+            blackY = new double[pairs];
+            seeds = new int[seedTotal];
+            double[] point = new double[2];
+            int seed = 0;
+            for(int i=0; i<pairs; ++i){
+                nextPoint(r, 2L * (firstPair + i), point);
+                redX[i] = point[0];
+                redY[i] = point[1];
+                capacities[i] = nextInt(r, minCapacity, maxCapacity);
+                nextPoint(r, 2L * (firstPair + i) + 1, point);
+                blackX[i] = point[0];
+                blackY[i] = point[1];
+                for(int j=0; j<seedCounts[i]; ++j){
+                    seeds[seed++] = nextInt(r, minSeedWeight, maxSeedWeight);
+                }
+            }
+        }
+
+        /**
+         * Frees the values of the ants after they are written.
+         */
+        void clear(){
+            redX = null;
+            redY = null;
+            capacities = null;
+            blackX = null;
+            blackY = null;
+            seeds = null;
+        }
+
+        /**
+         * Creates the position of the ant with the given index (2 * pair for red, 2 * pair + 1 for black).
+         */
+        private void nextPoint(SplittableRandom r, long index, double[] point){
+            switch(distribution){
+                case GAUSSIAN_CLUSTERS:{
+                    int cluster = r.nextInt(special.length / 2);
+                    //Polar method, the points outside the unit square are created again.
+                    do{
+                        double u;
+                        double v;
+                        double s;
+                        do{
+                            u = 2 * r.nextDouble() - 1;
+                            v = 2 * r.nextDouble() - 1;
+                            s = u * u + v * v;
+                        }while(s >= 1 || s == 0);
+                        double factor = clusterDeviation * Math.sqrt(-2 * Math.log(s) / s);
+                        point[0] = special[2 * cluster] + u * factor;
+                        point[1] = special[2 * cluster + 1] + v * factor;
+                    }while(point[0] < 0 || point[0] >= 1 || point[1] < 0 || point[1] >= 1);
+                    break;
+                }
+                case GRID_JITTER:{
+                    double cell = 1.0 / gridSide;
+                    long column = index % gridSide;
+                    long row = index / gridSide;
+                    point[0] = (column + 0.5 + gridJitter * (r.nextDouble() - 0.5)) * cell;
+                    point[1] = (row + 0.5 + gridJitter * (r.nextDouble() - 0.5)) * cell;
+                    break;
+                }
+                case DUPLICATE_HEAVY:{
+                    if(r.nextDouble() < duplicateFraction){
+                        int position = r.nextInt(special.length / 2);
+                        point[0] = special[2 * position];
+                        point[1] = special[2 * position + 1];
+                    }
+                    else{
+                        point[0] = r.nextDouble();
+                        point[1] = r.nextDouble();
+                    }
+                    break;
+                }
+                default:{
+                    point[0] = r.nextDouble();
+                    point[1] = r.nextDouble();
+                }
+            }
+        }
+
+        /**
+         * @return The lines of the ants of the chunk.
+         */
+        byte[] toText(){
+            StringBuilder text = new StringBuilder((int)Math.min(Integer.MAX_VALUE - 8, pairs * (64 + 4L * maxSeeds)));
+            int seed = 0;
+            for(int i=0; i<pairs; ++i){
+                text.append("0 ").append(redX[i]).append(' ').append(redY[i]).append(' ').append(capacities[i]).append('\n');
+                text.append("1 ").append(blackX[i]).append(' ').append(blackY[i]);
+                for(int j=0; j<seedCounts[i]; ++j){
+                    text.append(' ').append(seeds[seed++]);
+                }
+                text.append('\n');
+            }
+            return text.toString().getBytes(StandardCharsets.US_ASCII);
+        }
+
+        /**
+         * Writes the part of each column of the chunk in the binary file.
+         */
+        void writeColumns(FileChannel channel, long[] columns) throws IOException{
+            writeDoubles(channel, redX, columns[BinaryAntFile.RED_X] + firstPair * 8L);
+            writeDoubles(channel, redY, columns[BinaryAntFile.RED_Y] + firstPair * 8L);
+            writeDoubles(channel, blackX, columns[BinaryAntFile.BLACK_X] + firstPair * 8L);
+            writeDoubles(channel, blackY, columns[BinaryAntFile.BLACK_Y] + firstPair * 8L);
+            ByteBuffer offsets = ByteBuffer.allocate(pairs * 8).order(ByteOrder.LITTLE_ENDIAN);
+            long offset = firstSeed;
+            for(int i=0; i<pairs; ++i){
+                offsets.putLong(offset);
+                offset += seedCounts[i];
+            }
+            offsets.flip();
+            writeFully(channel, offsets, columns[BinaryAntFile.SEED_OFFSETS] + firstPair * 8L);
+            writeInts(channel, capacities, columns[BinaryAntFile.CAPACITIES] + firstPair * 4L);
+            writeInts(channel, seeds, columns[BinaryAntFile.SEEDS] + firstSeed * 4L);
+        }
+
+        private void writeDoubles(FileChannel channel, double[] values, long position) throws IOException{
+            ByteBuffer buffer = ByteBuffer.allocate(values.length * 8).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.asDoubleBuffer().put(values);
+            writeFully(channel, buffer, position);
+        }
+
+        private void writeInts(FileChannel channel, int[] values, long position) throws IOException{
+            ByteBuffer buffer = ByteBuffer.allocate(values.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.asIntBuffer().put(values);
+            writeFully(channel, buffer, position);
+        }
+    }
+
+    /**
+     * @return A random int from min to max (inclusive).
+     */
+    private static int nextInt(SplittableRandom random, int min, int max){
+        return max == min ? min : min + random.nextInt(max - min + 1);
+    }
+}